@@ -0,0 +1,464 @@
+/**
+ * Copyright 2019 - 2021 J&#246;rgen Lundgren
+ * 
+ * This file is part of org.macroing.esg4j.
+ * 
+ * org.macroing.esg4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * org.macroing.esg4j is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with org.macroing.esg4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.macroing.esg4j.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import org.macroing.cel4j.php.generator.Model;
+import org.macroing.cel4j.php.model.PDocument;
+import org.macroing.esg4j.fortnox.Fortnox;
+import org.macroing.esg4j.fortnox.FortnoxArtifact;
+import org.macroing.esg4j.generator.Artifact;
+import org.macroing.esg4j.magento.database.Column;
+import org.macroing.esg4j.magento.database.Database;
+import org.macroing.esg4j.magento.database.Table;
+import org.macroing.esg4j.magento.file.Composer;
+import org.macroing.esg4j.magento.file.Registration;
+import org.macroing.esg4j.magento.file.api.ModelInterface;
+import org.macroing.esg4j.magento.file.api.ModelRepositoryInterface;
+import org.macroing.esg4j.magento.file.block.Block;
+import org.macroing.esg4j.magento.file.cron.CronJob;
+import org.macroing.esg4j.magento.file.etc.Module;
+import org.macroing.esg4j.magento.file.helper.Helper;
+import org.macroing.esg4j.magento.file.model.ModelRepository;
+import org.macroing.esg4j.magento.file.model.config.source.CustomerGroupSourceModel;
+import org.macroing.esg4j.magento.file.model.config.source.ProductSourceModel;
+import org.macroing.esg4j.magento.file.model.config.source.StoreViewSourceModel;
+import org.macroing.esg4j.magento.file.model.resourcemodel.model.Collection;
+import org.macroing.esg4j.magento.file.setup.InstallSchema;
+
+public final class Benchmark {
+	private static final String MODULE_NAME = "BenchmarkModule";
+	private static final String VENDOR_NAME = "Benchmark";
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private static volatile int sink;
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private Benchmark() {
+		
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public static void main(final String[] args) {
+		int[] columnCounts = {5, 50, 200};
+		int[] tableCounts = {1, 100, 5000};
+		
+		Pattern pattern = Pattern.compile(".*");
+		
+		int iterations = 5;
+		int iterationTime = 1000;
+		int warmupIterations = 3;
+		
+		for(int i = 0; i + 1 < args.length; i += 2) {
+			switch(args[i]) {
+				case "-b":
+					pattern = Pattern.compile(args[i + 1]);
+					
+					break;
+				case "-c":
+					columnCounts = doParseIntArray(args[i + 1]);
+					
+					break;
+				case "-i":
+					iterations = Integer.parseInt(args[i + 1]);
+					
+					break;
+				case "-r":
+					iterationTime = Integer.parseInt(args[i + 1]);
+					
+					break;
+				case "-t":
+					tableCounts = doParseIntArray(args[i + 1]);
+					
+					break;
+				case "-wi":
+					warmupIterations = Integer.parseInt(args[i + 1]);
+					
+					break;
+				default:
+					throw new IllegalArgumentException(String.format("Unknown option: %s", args[i]));
+			}
+		}
+		
+		final File directory = doCreateTemporaryDirectory();
+		
+		try {
+			System.out.println(Result.toHeader());
+			
+			for(final Case currentCase : doCreateFortnoxCases()) {
+				if(pattern.matcher(currentCase.getName()).find()) {
+					doRun(currentCase, new Fixture(new Database()), directory, 0, 0, warmupIterations, iterations, iterationTime);
+				}
+			}
+			
+			for(final int tableCount : tableCounts) {
+				for(final int columnCount : columnCounts) {
+					final Fixture fixture = new Fixture(doCreateDatabase(tableCount, columnCount).snapshot());
+					
+					for(final Case currentCase : doCreateMagentoCases()) {
+						if(pattern.matcher(currentCase.getName()).find()) {
+							doRun(currentCase, fixture, directory, tableCount, columnCount, warmupIterations, iterations, iterationTime);
+						}
+					}
+				}
+			}
+		} finally {
+			doDelete(directory);
+		}
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private static <T extends Artifact> Case doCreateCase(final String name, final Function<Fixture, List<T>> function, final Consumer<T> consumer) {
+		return new Case(name, (fixture, directory) -> {
+			final List<T> artifacts = function.apply(fixture);
+			
+			final Runnable runnableToDocument = () -> {
+				for(final T artifact : artifacts) {
+					consumer.accept(artifact);
+				}
+			};
+			
+			final Runnable runnableGenerateTo = () -> {
+				for(final T artifact : artifacts) {
+					artifact.generateTo(directory);
+				}
+			};
+			
+			return Arrays.asList(runnableToDocument, runnableGenerateTo);
+		});
+	}
+	
+	private static Case doCreateFortnoxCase(final String name, final Supplier<Model> supplier, final String... namespace) {
+		final String namespaceString = PDocument.toNamespace(namespace);
+		
+		final Runnable runnableToDocument = () -> sink += System.identityHashCode(supplier.get().toDocument(namespaceString));
+		
+		return new Case(name, (fixture, directory) -> Arrays.asList(runnableToDocument, () -> new FortnoxArtifact(supplier.get(), namespaceString).generateTo(directory)));
+	}
+	
+	private static Database doCreateDatabase(final int tableCount, final int columnCount) {
+		final Database database = new Database();
+		
+		for(int i = 0; i < tableCount; i++) {
+			final
+			Table table = new Table(String.format("table_%d", Integer.valueOf(i)), String.format("Table %d", Integer.valueOf(i)));
+			table.addColumn(Column.newIntColumn(null, "ID", "id", true, false, false, true, false, false, true, 11));
+			
+			for(int j = 1; j < columnCount; j++) {
+				switch(j % 4) {
+					case 0:
+						table.addColumn(Column.newIntColumn(null, String.format("ID Reference %d", Integer.valueOf(j)), String.format("id_reference_%d", Integer.valueOf(j)), false, false, true, false, false, false, true, 11));
+						
+						break;
+					case 1:
+						table.addColumn(Column.newTextColumn(null, String.format("Name %d", Integer.valueOf(j)), String.format("name_%d", Integer.valueOf(j)), false, false, false, false, 255));
+						
+						break;
+					case 2:
+						table.addColumn(Column.newIntColumn(Integer.valueOf(0), String.format("Quantity %d", Integer.valueOf(j)), String.format("quantity_%d", Integer.valueOf(j)), false, true, false, false, false, true, true, 11));
+						
+						break;
+					default:
+						table.addColumn(Column.newTextColumn(null, String.format("Code %d", Integer.valueOf(j)), String.format("code_%d", Integer.valueOf(j)), false, false, true, false, 64));
+						
+						break;
+				}
+			}
+			
+			database.addTable(table);
+		}
+		
+		return database;
+	}
+	
+	private static File doCreateTemporaryDirectory() {
+		try {
+			return Files.createTempDirectory("esg4j-benchmark").toFile();
+		} catch(final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	private static List<Case> doCreateFortnoxCases() {
+		final List<Case> cases = new ArrayList<>();
+		
+		cases.add(doCreateFortnoxCase("fortnox.Fortnox.createArticleModel", () -> Fortnox.createArticleModel(), "org", "macroing", "fortnox", "article"));
+		cases.add(doCreateFortnoxCase("fortnox.Fortnox.createCustomerModel", () -> Fortnox.createCustomerModel(), "org", "macroing", "fortnox", "customer"));
+		cases.add(doCreateFortnoxCase("fortnox.Fortnox.createDefaultDeliveryTypesModel", () -> Fortnox.createDefaultDeliveryTypesModel(), "org", "macroing", "fortnox", "customer"));
+		cases.add(doCreateFortnoxCase("fortnox.Fortnox.createDefaultTemplatesModel", () -> Fortnox.createDefaultTemplatesModel(), "org", "macroing", "fortnox", "customer"));
+		
+		return cases;
+	}
+	
+	private static List<Case> doCreateMagentoCases() {
+		final List<Case> cases = new ArrayList<>();
+		
+		cases.add(doCreateCase("magento.file.Composer", fixture -> Collections.singletonList(new Composer("Benchmark.", MODULE_NAME, "1.0.0", VENDOR_NAME)), artifact -> sink += System.identityHashCode(artifact.toDocument())));
+		cases.add(doCreateCase("magento.file.Registration", fixture -> Collections.singletonList(new Registration(MODULE_NAME, VENDOR_NAME)), artifact -> sink += System.identityHashCode(artifact.toDocument())));
+		cases.add(doCreateCase("magento.file.api.ModelInterface", fixture -> fixture.map(table -> new ModelInterface(MODULE_NAME, VENDOR_NAME, table)), artifact -> sink += System.identityHashCode(artifact.toDocument())));
+		cases.add(doCreateCase("magento.file.api.ModelRepositoryInterface", fixture -> fixture.map(table -> new ModelRepositoryInterface(MODULE_NAME, VENDOR_NAME, table)), artifact -> sink += System.identityHashCode(artifact.toDocument())));
+		cases.add(doCreateCase("magento.file.block.Block", fixture -> Collections.singletonList(new Block("Block", MODULE_NAME, VENDOR_NAME)), artifact -> sink += System.identityHashCode(artifact.toDocument())));
+		cases.add(doCreateCase("magento.file.controller.Controller", fixture -> Collections.singletonList(new org.macroing.esg4j.magento.file.controller.Controller("Index", "Index", MODULE_NAME, VENDOR_NAME, org.macroing.esg4j.magento.file.controller.Controller.Type.PAGE)), artifact -> sink += System.identityHashCode(artifact.toDocument())));
+		cases.add(doCreateCase("magento.file.controller.adminhtml.Controller", fixture -> Collections.singletonList(new org.macroing.esg4j.magento.file.controller.adminhtml.Controller("Index", "Ajax", MODULE_NAME, VENDOR_NAME, org.macroing.esg4j.magento.file.controller.adminhtml.Controller.Type.JSON)), artifact -> sink += System.identityHashCode(artifact.toDocument())));
+		cases.add(doCreateCase("magento.file.cron.CronJob", fixture -> Collections.singletonList(new CronJob("CronJob", MODULE_NAME, VENDOR_NAME)), artifact -> sink += System.identityHashCode(artifact.toDocument())));
+		cases.add(doCreateCase("magento.file.etc.Module", fixture -> Collections.singletonList(new Module(MODULE_NAME, "1.0.0", VENDOR_NAME)), artifact -> sink += System.identityHashCode(artifact.toDocument())));
+		cases.add(doCreateCase("magento.file.etc.adminhtml.Routes", fixture -> Collections.singletonList(new org.macroing.esg4j.magento.file.etc.adminhtml.Routes(MODULE_NAME, VENDOR_NAME)), artifact -> sink += System.identityHashCode(artifact.toDocument())));
+		cases.add(doCreateCase("magento.file.etc.frontend.Routes", fixture -> Collections.singletonList(new org.macroing.esg4j.magento.file.etc.frontend.Routes(MODULE_NAME, VENDOR_NAME)), artifact -> sink += System.identityHashCode(artifact.toDocument())));
+		cases.add(doCreateCase("magento.file.helper.Helper", fixture -> Collections.singletonList(new Helper("Helper", MODULE_NAME, VENDOR_NAME)), artifact -> sink += System.identityHashCode(artifact.toDocument())));
+		cases.add(doCreateCase("magento.file.model.Model", fixture -> fixture.map(table -> new org.macroing.esg4j.magento.file.model.Model(MODULE_NAME, VENDOR_NAME, table)), artifact -> sink += System.identityHashCode(artifact.toDocument())));
+		cases.add(doCreateCase("magento.file.model.ModelRepository", fixture -> fixture.map(table -> new ModelRepository(MODULE_NAME, VENDOR_NAME, table)), artifact -> sink += System.identityHashCode(artifact.toDocument())));
+		cases.add(doCreateCase("magento.file.model.config.source.CustomerGroupSourceModel", fixture -> Collections.singletonList(new CustomerGroupSourceModel(MODULE_NAME, VENDOR_NAME)), artifact -> sink += System.identityHashCode(artifact.toDocument())));
+		cases.add(doCreateCase("magento.file.model.config.source.ProductSourceModel", fixture -> Collections.singletonList(new ProductSourceModel(MODULE_NAME, VENDOR_NAME)), artifact -> sink += System.identityHashCode(artifact.toDocument())));
+		cases.add(doCreateCase("magento.file.model.config.source.StoreViewSourceModel", fixture -> Collections.singletonList(new StoreViewSourceModel(MODULE_NAME, VENDOR_NAME)), artifact -> sink += System.identityHashCode(artifact.toDocument())));
+		cases.add(doCreateCase("magento.file.model.resourcemodel.Model", fixture -> fixture.map(table -> new org.macroing.esg4j.magento.file.model.resourcemodel.Model(MODULE_NAME, VENDOR_NAME, table)), artifact -> sink += System.identityHashCode(artifact.toDocument())));
+		cases.add(doCreateCase("magento.file.model.resourcemodel.model.Collection", fixture -> fixture.map(table -> new Collection(MODULE_NAME, VENDOR_NAME, table)), artifact -> sink += System.identityHashCode(artifact.toDocument())));
+		cases.add(doCreateCase("magento.file.setup.InstallSchema", fixture -> Collections.singletonList(new InstallSchema(fixture.getDatabase(), MODULE_NAME, VENDOR_NAME)), artifact -> sink += System.identityHashCode(artifact.toDocument())));
+		
+		return cases;
+	}
+	
+	private static Result doMeasure(final Runnable runnable, final int iterations, final int iterationTime) {
+		final com.sun.management.ThreadMXBean threadMXBean = doGetThreadMXBean();
+		
+		final long threadId = Thread.currentThread().getId();
+		
+		final long gcCountStart = doGetGCCount();
+		final long gcTimeStart = doGetGCTime();
+		
+		long allocatedBytes = 0L;
+		long operations = 0L;
+		long time = 0L;
+		
+		for(int i = 0; i < iterations; i++) {
+			final long allocatedBytesStart = threadMXBean.getThreadAllocatedBytes(threadId);
+			final long timeStart = System.nanoTime();
+			final long timeEnd = timeStart + iterationTime * 1000000L;
+			
+			long currentTime = timeStart;
+			
+			do {
+				runnable.run();
+				
+				operations++;
+				
+				currentTime = System.nanoTime();
+			} while(currentTime < timeEnd);
+			
+			allocatedBytes += threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBytesStart;
+			
+			time += currentTime - timeStart;
+		}
+		
+		return new Result(allocatedBytes, operations, time, doGetGCCount() - gcCountStart, doGetGCTime() - gcTimeStart);
+	}
+	
+	private static com.sun.management.ThreadMXBean doGetThreadMXBean() {
+		final
+		com.sun.management.ThreadMXBean threadMXBean = com.sun.management.ThreadMXBean.class.cast(ManagementFactory.getThreadMXBean());
+		threadMXBean.setThreadAllocatedMemoryEnabled(true);
+		
+		return threadMXBean;
+	}
+	
+	private static int[] doParseIntArray(final String string) {
+		return Arrays.stream(string.split(",")).mapToInt(Integer::parseInt).toArray();
+	}
+	
+	private static long doGetGCCount() {
+		long count = 0L;
+		
+		for(final GarbageCollectorMXBean garbageCollectorMXBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+			count += Math.max(garbageCollectorMXBean.getCollectionCount(), 0L);
+		}
+		
+		return count;
+	}
+	
+	private static long doGetGCTime() {
+		long time = 0L;
+		
+		for(final GarbageCollectorMXBean garbageCollectorMXBean : ManagementFactory.getGarbageCollectorMXBeans()) {
+			time += Math.max(garbageCollectorMXBean.getCollectionTime(), 0L);
+		}
+		
+		return time;
+	}
+	
+	private static void doDelete(final File directory) {
+		try {
+			Files.walkFileTree(directory.toPath(), new SimpleFileVisitor<Path>() {
+				@Override
+				public FileVisitResult visitFile(final Path file, final BasicFileAttributes basicFileAttributes) throws IOException {
+					Files.delete(file);
+					
+					return FileVisitResult.CONTINUE;
+				}
+				
+				@Override
+				public FileVisitResult postVisitDirectory(final Path directory, final IOException e) throws IOException {
+					Files.delete(directory);
+					
+					return FileVisitResult.CONTINUE;
+				}
+			});
+		} catch(final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	private static void doRun(final Case currentCase, final Fixture fixture, final File directory, final int tableCount, final int columnCount, final int warmupIterations, final int iterations, final int iterationTime) {
+		final List<Runnable> runnables = currentCase.getFunction().apply(fixture, directory);
+		
+		final String[] modes = {"toDocument", "generateTo"};
+		
+		for(int i = 0; i < modes.length; i++) {
+			final Runnable runnable = runnables.get(i);
+			
+			if(runnable != null) {
+				doMeasure(runnable, warmupIterations, iterationTime);
+				
+				final Result result = doMeasure(runnable, iterations, iterationTime);
+				
+				System.out.println(result.toRow(currentCase.getName(), modes[i], tableCount, columnCount));
+			}
+		}
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private static final class Case {
+		private final CaseFunction function;
+		private final String name;
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public Case(final String name, final CaseFunction function) {
+			this.name = Objects.requireNonNull(name, "name == null");
+			this.function = Objects.requireNonNull(function, "function == null");
+		}
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public CaseFunction getFunction() {
+			return this.function;
+		}
+		
+		public String getName() {
+			return this.name;
+		}
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private static interface CaseFunction {
+		List<Runnable> apply(final Fixture fixture, final File directory);
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private static final class Fixture {
+		private final Database database;
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public Fixture(final Database database) {
+			this.database = Objects.requireNonNull(database, "database == null");
+		}
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public Database getDatabase() {
+			return this.database;
+		}
+		
+		public <T> List<T> map(final Function<Table, T> function) {
+			final List<Table> tables = this.database.getTables();
+			
+			final List<T> list = new ArrayList<>(tables.size());
+			
+			for(final Table table : tables) {
+				list.add(function.apply(table));
+			}
+			
+			return list;
+		}
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private static final class Result {
+		private final long allocatedBytes;
+		private final long gcCount;
+		private final long gcTime;
+		private final long operations;
+		private final long time;
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public Result(final long allocatedBytes, final long operations, final long time, final long gcCount, final long gcTime) {
+			this.allocatedBytes = allocatedBytes;
+			this.operations = operations;
+			this.time = time;
+			this.gcCount = gcCount;
+			this.gcTime = gcTime;
+		}
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public String toRow(final String name, final String mode, final int tableCount, final int columnCount) {
+			final double seconds = this.time / 1.0e9D;
+			
+			final double operationsPerSecond = this.operations / seconds;
+			final double millisecondsPerOperation = this.time / 1.0e6D / this.operations;
+			final double allocationRate = this.allocatedBytes / seconds / (1024.0D * 1024.0D);
+			final double allocationRateNormalized = (double)(this.allocatedBytes) / this.operations;
+			
+			return String.format("%-60s %-10s %6d %7d %14.3f %14.3f %14.3f %18.1f %8d %8d", name, mode, Integer.valueOf(tableCount), Integer.valueOf(columnCount), Double.valueOf(operationsPerSecond), Double.valueOf(millisecondsPerOperation), Double.valueOf(allocationRate), Double.valueOf(allocationRateNormalized), Long.valueOf(this.gcCount), Long.valueOf(this.gcTime));
+		}
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public static String toHeader() {
+			return String.format("%-60s %-10s %6s %7s %14s %14s %14s %18s %8s %8s", "Benchmark", "Mode", "Tables", "Columns", "ops/s", "ms/op", "alloc.rate MB/s", "alloc.rate.norm B/op", "gc.count", "gc.time");
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,236 @@
+/**
+ * Copyright 2019 - 2021 J&#246;rgen Lundgren
+ * 
+ * This file is part of org.macroing.esg4j.
+ * 
+ * org.macroing.esg4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * org.macroing.esg4j is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with org.macroing.esg4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.macroing.esg4j.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.macroing.esg4j.generator.Diff;
+
+public final class DiffTest {
+	private static final String[] LINES = {"", "a", "b", "c", "<?php", "}", "    return $this;"};
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private DiffTest() {
+		
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public static void main(final String[] args) {
+		int cases = 10000;
+		
+		long seed = 0L;
+		
+		for(int i = 0; i + 1 < args.length; i += 2) {
+			switch(args[i]) {
+				case "-n":
+					cases = Integer.parseInt(args[i + 1]);
+					
+					break;
+				case "-s":
+					seed = Long.parseLong(args[i + 1]);
+					
+					break;
+				default:
+					throw new IllegalArgumentException(String.format("Unknown option: %s", args[i]));
+			}
+		}
+		
+		final Random random = new Random(seed);
+		
+		int failures = 0;
+		
+		for(int i = 0; i < cases; i++) {
+			final String textOld = doCreateText(random);
+			final String textNew = random.nextInt(4) == 0 ? doMutateNewline(textOld) : random.nextInt(2) == 0 ? doMutate(random, textOld) : doCreateText(random);
+			
+			final StringBuilder stringBuilder = new StringBuilder();
+			
+			Diff.of(textOld, textNew).writeUnified(stringBuilder, "a/file", "b/file", random.nextInt(4));
+			
+			try {
+				final String textApplied = doApply(textOld, stringBuilder.toString());
+				
+				if(!textApplied.equals(textNew)) {
+					throw new IllegalStateException("The patched text differs from the new text.");
+				}
+			} catch(final IllegalStateException e) {
+				failures++;
+				
+				System.out.printf("Case %d failed: %s%n--- old%n%s%n--- new%n%s%n--- patch%n%s%n", Integer.valueOf(i), e.getMessage(), textOld, textNew, stringBuilder);
+			}
+		}
+		
+		System.out.printf("%d of %d case(s) applied cleanly.%n", Integer.valueOf(cases - failures), Integer.valueOf(cases));
+		
+		if(failures > 0) {
+			System.exit(1);
+		}
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private static List<String> doSplit(final String text) {
+		final List<String> lines = new ArrayList<>();
+		
+		int start = 0;
+		
+		for(int i = text.indexOf('\n'); i >= 0; i = text.indexOf('\n', start)) {
+			lines.add(text.substring(start, i + 1));
+			
+			start = i + 1;
+		}
+		
+		if(start < text.length()) {
+			lines.add(text.substring(start));
+		}
+		
+		return lines;
+	}
+	
+	private static String doApply(final String textOld, final String patch) {
+		final List<String> linesOld = doSplit(textOld);
+		final List<String> linesPatch = doSplit(patch);
+		
+		final StringBuilder stringBuilder = new StringBuilder();
+		
+		if(linesPatch.isEmpty()) {
+			return textOld;
+		}
+		
+		if(linesPatch.size() < 3 || !linesPatch.get(0).startsWith("--- ") || !linesPatch.get(1).startsWith("+++ ")) {
+			throw new IllegalStateException("The patch has no header.");
+		}
+		
+		int indexOld = 0;
+		
+		for(int i = 2; i < linesPatch.size();) {
+			final String header = linesPatch.get(i++);
+			
+			if(!header.startsWith("@@ -")) {
+				throw new IllegalStateException(String.format("Expected a hunk header but was \"%s\".", header.trim()));
+			}
+			
+			final String[] ranges = header.substring(4, header.indexOf(" @@")).split(" \\+");
+			
+			final int[] rangeOld = doParseRange(ranges[0]);
+			final int[] rangeNew = doParseRange(ranges[1]);
+			
+			final int start = rangeOld[1] == 0 ? rangeOld[0] : rangeOld[0] - 1;
+			
+			if(start < indexOld || start > linesOld.size()) {
+				throw new IllegalStateException(String.format("The hunk \"%s\" starts outside the old text.", header.trim()));
+			}
+			
+			while(indexOld < start) {
+				stringBuilder.append(linesOld.get(indexOld++));
+			}
+			
+			int countOld = 0;
+			int countNew = 0;
+			
+			while(i < linesPatch.size() && !linesPatch.get(i).startsWith("@@ ")) {
+				final String line = linesPatch.get(i++);
+				
+				final boolean isMissingNewline = i < linesPatch.size() && linesPatch.get(i).startsWith("\\ ");
+				
+				if(isMissingNewline) {
+					i++;
+				}
+				
+				final String text = isMissingNewline ? line.substring(1, line.length() - 1) : line.substring(1);
+				
+				if(line.charAt(0) == ' ' || line.charAt(0) == '-') {
+					if(indexOld >= linesOld.size() || !linesOld.get(indexOld).equals(text)) {
+						throw new IllegalStateException(String.format("The line \"%s\" does not match the old text.", line.trim()));
+					}
+					
+					indexOld++;
+					countOld++;
+				}
+				
+				if(line.charAt(0) == ' ' || line.charAt(0) == '+') {
+					stringBuilder.append(text);
+					
+					countNew++;
+				}
+			}
+			
+			if(countOld != rangeOld[1] || countNew != rangeNew[1]) {
+				throw new IllegalStateException(String.format("The hunk \"%s\" has %d old and %d new line(s).", header.trim(), Integer.valueOf(countOld), Integer.valueOf(countNew)));
+			}
+		}
+		
+		while(indexOld < linesOld.size()) {
+			stringBuilder.append(linesOld.get(indexOld++));
+		}
+		
+		return stringBuilder.toString();
+	}
+	
+	private static String doCreateText(final Random random) {
+		final StringBuilder stringBuilder = new StringBuilder();
+		
+		final int lineCount = random.nextInt(12);
+		
+		for(int i = 0; i < lineCount; i++) {
+			stringBuilder.append(LINES[random.nextInt(LINES.length)]);
+			stringBuilder.append(i + 1 < lineCount || random.nextBoolean() ? "\n" : "");
+		}
+		
+		return stringBuilder.toString();
+	}
+	
+	private static String doMutate(final Random random, final String text) {
+		final List<String> lines = doSplit(text);
+		
+		final int mutations = 1 + random.nextInt(3);
+		
+		for(int i = 0; i < mutations; i++) {
+			final int index = lines.isEmpty() ? 0 : random.nextInt(lines.size());
+			
+			if(lines.isEmpty() || random.nextBoolean()) {
+				lines.add(index, LINES[random.nextInt(LINES.length)] + "\n");
+			} else {
+				lines.remove(index);
+			}
+		}
+		
+		final String textMutated = String.join("", lines);
+		
+		return random.nextBoolean() ? textMutated : doMutateNewline(textMutated);
+	}
+	
+	private static String doMutateNewline(final String text) {
+		if(text.isEmpty()) {
+			return "\n";
+		}
+		
+		return text.endsWith("\n") ? text.substring(0, text.length() - 1) : text + "\n";
+	}
+	
+	private static int[] doParseRange(final String range) {
+		final int index = range.indexOf(',');
+		
+		return index >= 0 ? new int[] {Integer.parseInt(range.substring(0, index)), Integer.parseInt(range.substring(index + 1))} : new int[] {Integer.parseInt(range), 1};
+	}
+}
\ No newline at end of file
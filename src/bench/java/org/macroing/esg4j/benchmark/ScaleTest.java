@@ -0,0 +1,344 @@
+/**
+ * Copyright 2019 - 2021 J&#246;rgen Lundgren
+ * 
+ * This file is part of org.macroing.esg4j.
+ * 
+ * org.macroing.esg4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * org.macroing.esg4j is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with org.macroing.esg4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.macroing.esg4j.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.macroing.esg4j.generator.Generator;
+import org.macroing.esg4j.generator.GeneratorReport;
+import org.macroing.esg4j.generator.OutputWriter;
+import org.macroing.esg4j.magento.database.Database;
+import org.macroing.esg4j.magento.database.Table;
+import org.macroing.esg4j.magento.definition.ModuleDefinition;
+import org.macroing.esg4j.magento.definition.ModuleGraph;
+import org.macroing.esg4j.magento.file.Composer.Author;
+import org.macroing.esg4j.magento.file.Composer.Dependency;
+import org.macroing.esg4j.magento.file.Composer.License;
+
+public final class ScaleTest {
+	private static final String MODULE_NAME = "ScaleModule";
+	private static final String VENDOR_NAME = "Scale";
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private ScaleTest() {
+		
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public static void main(final String[] args) {
+		int[] tableCounts = {10, 100, 1000, 10000};
+		
+		String json = null;
+		
+		int columnCountMaximum = 60;
+		int columnCountMinimum = 2;
+		int parallelism = Runtime.getRuntime().availableProcessors();
+		int repetitions = 1;
+		
+		long seed = 0L;
+		
+		for(int i = 0; i + 1 < args.length; i += 2) {
+			switch(args[i]) {
+				case "-cmax":
+					columnCountMaximum = Integer.parseInt(args[i + 1]);
+					
+					break;
+				case "-cmin":
+					columnCountMinimum = Integer.parseInt(args[i + 1]);
+					
+					break;
+				case "-j":
+					json = args[i + 1];
+					
+					break;
+				case "-p":
+					parallelism = Integer.parseInt(args[i + 1]);
+					
+					break;
+				case "-r":
+					repetitions = Integer.parseInt(args[i + 1]);
+					
+					break;
+				case "-s":
+					seed = Long.parseLong(args[i + 1]);
+					
+					break;
+				case "-t":
+					tableCounts = Arrays.stream(args[i + 1].split(",")).mapToInt(Integer::parseInt).toArray();
+					
+					break;
+				default:
+					throw new IllegalArgumentException(String.format("Unknown option: %s", args[i]));
+			}
+		}
+		
+		final List<Result> results = new ArrayList<>();
+		
+		System.out.println(Result.toHeader());
+		
+		for(final int tableCount : tableCounts) {
+			for(int i = 0; i < repetitions; i++) {
+				final Result result = doRun(new SyntheticDatabaseBuilder(seed, tableCount, columnCountMinimum, columnCountMaximum), parallelism);
+				
+				results.add(result);
+				
+				System.out.println(result.toRow());
+			}
+		}
+		
+		if(json != null) {
+			final StringBuilder stringBuilder = new StringBuilder();
+			
+			stringBuilder.append("{\"seed\":").append(seed).append(",\"parallelism\":").append(parallelism).append(",\"results\":[");
+			
+			for(int i = 0; i < results.size(); i++) {
+				stringBuilder.append(i > 0 ? "," : "").append(results.get(i).toJSON());
+			}
+			
+			stringBuilder.append("]}");
+			
+			OutputWriter.write(new File(json), stringBuilder.toString());
+		}
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private static File doCreateTemporaryDirectory() {
+		try {
+			return Files.createTempDirectory("esg4j-scale-test").toFile();
+		} catch(final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	private static ModuleDefinition doCreateModuleDefinition(final Database database) {
+		final
+		ModuleDefinition moduleDefinition = new ModuleDefinition("Synthetic module used for scale testing.", MODULE_NAME, "1.0.0", VENDOR_NAME);
+		moduleDefinition.setDatabase(database);
+		moduleDefinition.addAuthor(new Author("john.doe@example.com", "John Doe"));
+		moduleDefinition.addBlockName("MyBlock");
+		moduleDefinition.addController(new ModuleDefinition.Controller(ModuleDefinition.Area.FRONTEND, "Index", "Index", "PAGE"));
+		moduleDefinition.addController(new ModuleDefinition.Controller(ModuleDefinition.Area.ADMINHTML, "Index", "Ajax", "JSON"));
+		moduleDefinition.addCronJobName("CronJob");
+		moduleDefinition.addDependency(new Dependency("Php", "", "~7.0.13|~7.1.0|~7.2.0"));
+		moduleDefinition.addDependency(new Dependency("Framework", "Magento", "^100.1||^101.0||^102.0"));
+		moduleDefinition.addHelperName("MyHelper");
+		moduleDefinition.addLicense(new License("proprietary"));
+		
+		return moduleDefinition;
+	}
+	
+	private static Result doRun(final SyntheticDatabaseBuilder syntheticDatabaseBuilder, final int parallelism) {
+		final File directory = doCreateTemporaryDirectory();
+		
+		try {
+			System.gc();
+			
+			doResetPeaks();
+			
+			final long timeStart = System.nanoTime();
+			
+			final Database database = syntheticDatabaseBuilder.build().snapshot();
+			
+			final
+			Generator generator = new Generator(parallelism);
+			generator.addArtifacts(new ModuleGraph(doCreateModuleDefinition(database)).getArtifacts(), directory);
+			
+			final long timeBuilt = System.nanoTime();
+			
+			final GeneratorReport generatorReport = generator.generate();
+			
+			final long timeEnd = System.nanoTime();
+			
+			final long heapPeak = doGetHeapPeak();
+			final long residentSetSizePeak = doGetResidentSetSizePeak();
+			
+			int columnCount = 0;
+			
+			for(final Table table : database.getTables()) {
+				columnCount += table.getColumns().size();
+			}
+			
+			return new Result(syntheticDatabaseBuilder, columnCount, generatorReport.getArtifactCount(), generatorReport.getFailures().size(), timeBuilt - timeStart, timeEnd - timeBuilt, doGetSize(directory), residentSetSizePeak, heapPeak, Runtime.getRuntime().maxMemory());
+		} finally {
+			doDelete(directory);
+		}
+	}
+	
+	private static long doGetHeapPeak() {
+		long heapPeak = 0L;
+		
+		for(final MemoryPoolMXBean memoryPoolMXBean : ManagementFactory.getMemoryPoolMXBeans()) {
+			if(memoryPoolMXBean.getType() == MemoryType.HEAP && memoryPoolMXBean.getPeakUsage() != null) {
+				heapPeak += memoryPoolMXBean.getPeakUsage().getUsed();
+			}
+		}
+		
+		return heapPeak;
+	}
+	
+	private static long doGetResidentSetSizePeak() {
+//		VmHWM is only available on Linux. Elsewhere the peak RSS is reported as -1.
+		try {
+			for(final String line : Files.readAllLines(Paths.get("/proc/self/status"), StandardCharsets.US_ASCII)) {
+				if(line.startsWith("VmHWM:")) {
+					return Long.parseLong(line.substring(6).replace("kB", "").trim()) * 1024L;
+				}
+			}
+		} catch(final IOException | NumberFormatException e) {
+			return -1L;
+		}
+		
+		return -1L;
+	}
+	
+	private static long doGetSize(final File directory) {
+		final long[] size = {0L};
+		
+		try {
+			Files.walkFileTree(directory.toPath(), new SimpleFileVisitor<Path>() {
+				@Override
+				public FileVisitResult visitFile(final Path file, final BasicFileAttributes basicFileAttributes) {
+					size[0] += basicFileAttributes.size();
+					
+					return FileVisitResult.CONTINUE;
+				}
+			});
+		} catch(final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		
+		return size[0];
+	}
+	
+	private static void doDelete(final File directory) {
+		try {
+			Files.walkFileTree(directory.toPath(), new SimpleFileVisitor<Path>() {
+				@Override
+				public FileVisitResult visitFile(final Path file, final BasicFileAttributes basicFileAttributes) throws IOException {
+					Files.delete(file);
+					
+					return FileVisitResult.CONTINUE;
+				}
+				
+				@Override
+				public FileVisitResult postVisitDirectory(final Path directory, final IOException e) throws IOException {
+					Files.delete(directory);
+					
+					return FileVisitResult.CONTINUE;
+				}
+			});
+		} catch(final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	private static void doResetPeaks() {
+		for(final MemoryPoolMXBean memoryPoolMXBean : ManagementFactory.getMemoryPoolMXBeans()) {
+			memoryPoolMXBean.resetPeakUsage();
+		}
+		
+//		Writing 5 to clear_refs resets VmHWM on Linux, so every run reports its own peak RSS rather than that of the largest run so far.
+		try {
+			Files.write(Paths.get("/proc/self/clear_refs"), "5".getBytes(StandardCharsets.US_ASCII));
+		} catch(final IOException | UnsupportedOperationException e) {
+			return;
+		}
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private static final class Result {
+		private final SyntheticDatabaseBuilder syntheticDatabaseBuilder;
+		private final int artifactCount;
+		private final int columnCount;
+		private final int failureCount;
+		private final long buildTime;
+		private final long generateTime;
+		private final long heapMaximum;
+		private final long heapPeak;
+		private final long outputBytes;
+		private final long residentSetSizePeak;
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public Result(final SyntheticDatabaseBuilder syntheticDatabaseBuilder, final int columnCount, final int artifactCount, final int failureCount, final long buildTime, final long generateTime, final long outputBytes, final long residentSetSizePeak, final long heapPeak, final long heapMaximum) {
+			this.syntheticDatabaseBuilder = syntheticDatabaseBuilder;
+			this.columnCount = columnCount;
+			this.artifactCount = artifactCount;
+			this.failureCount = failureCount;
+			this.buildTime = buildTime;
+			this.generateTime = generateTime;
+			this.outputBytes = outputBytes;
+			this.residentSetSizePeak = residentSetSizePeak;
+			this.heapPeak = heapPeak;
+			this.heapMaximum = heapMaximum;
+		}
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public String toJSON() {
+			final StringBuilder stringBuilder = new StringBuilder();
+			
+			stringBuilder.append("{");
+			stringBuilder.append("\"tables\":").append(this.syntheticDatabaseBuilder.getTableCount()).append(",");
+			stringBuilder.append("\"columns\":").append(this.columnCount).append(",");
+			stringBuilder.append("\"artifacts\":").append(this.artifactCount).append(",");
+			stringBuilder.append("\"failures\":").append(this.failureCount).append(",");
+			stringBuilder.append("\"buildTimeNanos\":").append(this.buildTime).append(",");
+			stringBuilder.append("\"generateTimeNanos\":").append(this.generateTime).append(",");
+			stringBuilder.append("\"outputBytes\":").append(this.outputBytes).append(",");
+			stringBuilder.append("\"peakRSSBytes\":").append(this.residentSetSizePeak).append(",");
+			stringBuilder.append("\"peakHeapBytes\":").append(this.heapPeak).append(",");
+			stringBuilder.append("\"maximumHeapBytes\":").append(this.heapMaximum);
+			stringBuilder.append("}");
+			
+			return stringBuilder.toString();
+		}
+		
+		public String toRow() {
+			final double megabyte = 1024.0D * 1024.0D;
+			
+			return String.format("%7d %8d %9d %8d %10.3f %10.3f %12.2f %12.2f %12.2f %12.2f", Integer.valueOf(this.syntheticDatabaseBuilder.getTableCount()), Integer.valueOf(this.columnCount), Integer.valueOf(this.artifactCount), Integer.valueOf(this.failureCount), Double.valueOf(this.buildTime / 1.0e9D), Double.valueOf(this.generateTime / 1.0e9D), Double.valueOf(this.outputBytes / megabyte), Double.valueOf(this.residentSetSizePeak / megabyte), Double.valueOf(this.heapPeak / megabyte), Double.valueOf(this.heapMaximum / megabyte));
+		}
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public static String toHeader() {
+			return String.format("%7s %8s %9s %8s %10s %10s %12s %12s %12s %12s", "Tables", "Columns", "Artifacts", "Failures", "build s", "generate s", "output MB", "peak RSS MB", "peak heap MB", "max heap MB");
+		}
+	}
+}
\ No newline at end of file
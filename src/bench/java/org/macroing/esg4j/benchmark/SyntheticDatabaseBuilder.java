@@ -0,0 +1,225 @@
+/**
+ * Copyright 2019 - 2021 J&#246;rgen Lundgren
+ * 
+ * This file is part of org.macroing.esg4j.
+ * 
+ * org.macroing.esg4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * org.macroing.esg4j is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with org.macroing.esg4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.macroing.esg4j.benchmark;
+
+import java.util.Locale;
+import java.util.Random;
+
+import org.macroing.esg4j.magento.database.Column;
+import org.macroing.esg4j.magento.database.DataType;
+import org.macroing.esg4j.magento.database.Database;
+import org.macroing.esg4j.magento.database.Table;
+
+public final class SyntheticDatabaseBuilder {
+	private static final DataType[] DATA_TYPES = {DataType.BIGINT, DataType.DATE, DataType.DATETIME, DataType.DECIMAL, DataType.FLOAT, DataType.INT, DataType.NUMERIC, DataType.SMALLINT, DataType.TEXT, DataType.TIMESTAMP, DataType.TINYINT, DataType.VARBINARY};
+	private static final String[] WORDS = {"account", "address", "amount", "attribute", "category", "code", "customer", "date", "entity", "group", "invoice", "item", "label", "name", "option", "order", "payment", "price", "product", "quote", "rule", "shipment", "sku", "status", "store", "type", "value", "website"};
+	private static final int[] DATA_TYPE_WEIGHTS = {5, 3, 5, 10, 2, 20, 1, 5, 30, 7, 10, 2};
+	private static final int[] TEXT_LENGTHS = {32, 64, 128, 255, 255, 255, 255, 1024, 65536};
+	private static final int[] VARBINARY_LENGTHS = {16, 255};
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private int columnCountMaximum;
+	private int columnCountMinimum;
+	private int tableCount;
+	private long seed;
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public SyntheticDatabaseBuilder() {
+		this(0L, 100);
+	}
+	
+	public SyntheticDatabaseBuilder(final long seed, final int tableCount) {
+		this(seed, tableCount, 2, 60);
+	}
+	
+	public SyntheticDatabaseBuilder(final long seed, final int tableCount, final int columnCountMinimum, final int columnCountMaximum) {
+		setSeed(seed);
+		setTableCount(tableCount);
+		setColumnCounts(columnCountMinimum, columnCountMaximum);
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public Database build() {
+		final Random random = new Random(this.seed);
+		
+		final Database database = new Database(String.format("synthetic_%d", Long.valueOf(this.seed)));
+		
+		for(int i = 0; i < this.tableCount; i++) {
+			database.addTable(doBuildTable(random, i, this.columnCountMinimum, this.columnCountMaximum));
+		}
+		
+		return database;
+	}
+	
+	@Override
+	public String toString() {
+		return String.format("new SyntheticDatabaseBuilder(%dL, %d, %d, %d)", Long.valueOf(this.seed), Integer.valueOf(this.tableCount), Integer.valueOf(this.columnCountMinimum), Integer.valueOf(this.columnCountMaximum));
+	}
+	
+	public int getColumnCountMaximum() {
+		return this.columnCountMaximum;
+	}
+	
+	public int getColumnCountMinimum() {
+		return this.columnCountMinimum;
+	}
+	
+	public int getTableCount() {
+		return this.tableCount;
+	}
+	
+	public long getSeed() {
+		return this.seed;
+	}
+	
+	public void setColumnCounts(final int columnCountMinimum, final int columnCountMaximum) {
+		if(columnCountMinimum < 1) {
+			throw new IllegalArgumentException(String.format("columnCountMinimum < 1: %d", Integer.valueOf(columnCountMinimum)));
+		}
+		
+		if(columnCountMaximum < columnCountMinimum) {
+			throw new IllegalArgumentException(String.format("columnCountMaximum < columnCountMinimum: %d < %d", Integer.valueOf(columnCountMaximum), Integer.valueOf(columnCountMinimum)));
+		}
+		
+		this.columnCountMinimum = columnCountMinimum;
+		this.columnCountMaximum = columnCountMaximum;
+	}
+	
+	public void setSeed(final long seed) {
+		this.seed = seed;
+	}
+	
+	public void setTableCount(final int tableCount) {
+		if(tableCount < 0) {
+			throw new IllegalArgumentException(String.format("tableCount < 0: %d", Integer.valueOf(tableCount)));
+		}
+		
+		this.tableCount = tableCount;
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private static Column doBuildColumn(final Random random, final int index) {
+		final DataType dataType = doNextDataType(random);
+		
+		final String name = String.format("%s_%d", WORDS[random.nextInt(WORDS.length)], Integer.valueOf(index));
+		
+		final boolean isInteger = dataType == DataType.BIGINT || dataType == DataType.INT || dataType == DataType.SMALLINT || dataType == DataType.TINYINT;
+		final boolean isNumeric = isInteger || dataType == DataType.DECIMAL || dataType == DataType.FLOAT || dataType == DataType.NUMERIC;
+		
+		final
+		Column column = new Column();
+		column.setAutoIncrement(false);
+		column.setComment(doToComment(name));
+		column.setDataType(dataType);
+		column.setForeignKey(isInteger && dataType != DataType.TINYINT && random.nextInt(100) < 40);
+		column.setLength(doNextLength(random, dataType));
+		column.setName(name);
+		column.setNullable(random.nextInt(100) < 30);
+		column.setPrimaryKey(false);
+		column.setUniqueKey((isInteger || dataType == DataType.TEXT) && !column.hasForeignKey() && random.nextInt(100) < 5);
+		column.setUnsigned(isNumeric && random.nextInt(100) < 50);
+		
+		if(random.nextInt(100) < 20) {
+			if(isInteger) {
+				column.setDefault(true);
+				column.setDefaultValue(Integer.valueOf(random.nextInt(10)));
+			} else if(dataType == DataType.TEXT) {
+				column.setDefault(true);
+				column.setDefaultValue("none");
+			}
+		}
+		
+		return column;
+	}
+	
+	private static DataType doNextDataType(final Random random) {
+		int weight = random.nextInt(100);
+		
+		for(int i = 0; i < DATA_TYPES.length; i++) {
+			if(weight < DATA_TYPE_WEIGHTS[i]) {
+				return DATA_TYPES[i];
+			}
+			
+			weight -= DATA_TYPE_WEIGHTS[i];
+		}
+		
+		return DataType.TEXT;
+	}
+	
+	private static String doToComment(final String name) {
+		final StringBuilder stringBuilder = new StringBuilder(name.length());
+		
+		for(final String word : name.split("_")) {
+			if(stringBuilder.length() > 0) {
+				stringBuilder.append(' ');
+			}
+			
+			stringBuilder.append(word.substring(0, 1).toUpperCase(Locale.ENGLISH));
+			stringBuilder.append(word.substring(1));
+		}
+		
+		return stringBuilder.toString();
+	}
+	
+	private static Table doBuildTable(final Random random, final int index, final int columnCountMinimum, final int columnCountMaximum) {
+//		Most tables are narrow and a few are wide, so the column count is skewed towards the minimum.
+		final double skew = random.nextDouble();
+		
+		final int columnCount = columnCountMinimum + (int)((columnCountMaximum - columnCountMinimum + 1) * skew * skew * skew);
+		
+		final String name = String.format("%s_%s_%d", WORDS[random.nextInt(WORDS.length)], WORDS[random.nextInt(WORDS.length)], Integer.valueOf(index));
+		
+		final
+		Table table = new Table(name, doToComment(name));
+		table.addColumn(Column.newIntColumn(null, "ID", "id", true, false, false, true, false, false, true, 11));
+		
+		for(int i = 1; i < columnCount; i++) {
+			table.addColumn(doBuildColumn(random, i));
+		}
+		
+		return table;
+	}
+	
+	private static int doNextLength(final Random random, final DataType dataType) {
+		switch(dataType) {
+			case BIGINT:
+				return 20;
+			case DECIMAL:
+				return 12;
+			case INT:
+				return 11;
+			case NUMERIC:
+				return 10;
+			case SMALLINT:
+				return 6;
+			case TEXT:
+				return TEXT_LENGTHS[random.nextInt(TEXT_LENGTHS.length)];
+			case TINYINT:
+				return 1;
+			case VARBINARY:
+				return VARBINARY_LENGTHS[random.nextInt(VARBINARY_LENGTHS.length)];
+			default:
+				return 0;
+		}
+	}
+}
\ No newline at end of file
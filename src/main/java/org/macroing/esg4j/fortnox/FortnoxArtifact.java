@@ -0,0 +1,98 @@
+/**
+ * Copyright 2019 - 2021 J&#246;rgen Lundgren
+ * 
+ * This file is part of org.macroing.esg4j.
+ * 
+ * org.macroing.esg4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * org.macroing.esg4j is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with org.macroing.esg4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.macroing.esg4j.fortnox;
+
+import java.io.File;
+import java.util.Objects;
+
+import org.macroing.cel4j.php.generator.Model;
+import org.macroing.cel4j.php.model.PDocument;
+import org.macroing.cel4j.util.Document;
+import org.macroing.esg4j.generator.Artifact;
+import org.macroing.esg4j.generator.OutputWriter;
+
+public final class FortnoxArtifact implements Artifact {
+	private final Model model;
+	private final String namespace;
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public FortnoxArtifact(final Model model, final String namespace) {
+		this.model = Objects.requireNonNull(model, "model == null");
+		this.namespace = Objects.requireNonNull(namespace, "namespace == null");
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	@Override
+	public Document write() {
+		return toDocument().write(new Document(), true);
+	}
+	
+	@Override
+	public File getRelativeFile() {
+		return new File(String.format("%s/%s.php", this.namespace.replace('\\', '/'), this.model.getName()));
+	}
+	
+	public Model getModel() {
+		return this.model;
+	}
+	
+	public PDocument toDocument() {
+		final
+		PDocument pDocument = this.model.toDocument(this.namespace);
+		pDocument.setGeneratingComment(true);
+		
+		return pDocument;
+	}
+	
+	public String getNamespace() {
+		return this.namespace;
+	}
+	
+	@Override
+	public String toString() {
+		return String.format("new FortnoxArtifact(%s, \"%s\")", this.model.getName(), this.namespace);
+	}
+	
+	@Override
+	public boolean equals(final Object object) {
+		if(object == this) {
+			return true;
+		} else if(!(object instanceof FortnoxArtifact)) {
+			return false;
+		} else if(!Objects.equals(this.model, FortnoxArtifact.class.cast(object).model)) {
+			return false;
+		} else if(!Objects.equals(this.namespace, FortnoxArtifact.class.cast(object).namespace)) {
+			return false;
+		} else {
+			return true;
+		}
+	}
+	
+	@Override
+	public int hashCode() {
+		return Objects.hash(this.model, this.namespace);
+	}
+	
+	@Override
+	public void generateTo(final File directory) {
+		OutputWriter.write(new File(Objects.requireNonNull(directory, "directory == null"), getRelativeFile().getPath()), write());
+	}
+}
\ No newline at end of file
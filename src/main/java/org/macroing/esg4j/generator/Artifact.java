@@ -0,0 +1,54 @@
+/**
+ * Copyright 2019 - 2021 J&#246;rgen Lundgren
+ * 
+ * This file is part of org.macroing.esg4j.
+ * 
+ * org.macroing.esg4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * org.macroing.esg4j is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with org.macroing.esg4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.macroing.esg4j.generator;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import org.macroing.cel4j.util.Document;
+
+public interface Artifact {
+	Document write();
+	
+	File getRelativeFile();
+	
+	default String getTableName() {
+		return "";
+	}
+	
+	default String render() {
+		return write().toString();
+	}
+	
+//	A streaming artifact is written by the Generator through writeTo(Appendable), without rendering it to a String first:
+	default boolean isStreaming() {
+		return false;
+	}
+	
+	void generateTo(final File directory);
+	
+	default void writeTo(final Appendable appendable) {
+		try {
+			appendable.append(render());
+		} catch(final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
\ No newline at end of file
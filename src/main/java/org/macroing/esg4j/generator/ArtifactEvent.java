@@ -0,0 +1,84 @@
+/**
+ * Copyright 2019 - 2021 J&#246;rgen Lundgren
+ * 
+ * This file is part of org.macroing.esg4j.
+ * 
+ * org.macroing.esg4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * org.macroing.esg4j is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with org.macroing.esg4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.macroing.esg4j.generator;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+@Category({"ESG4J", "Generator"})
+@Description("The generation of a single artifact.")
+@Label("Artifact Generation")
+@Name("org.macroing.esg4j.ArtifactGeneration")
+final class ArtifactEvent extends Event {
+	@Label("Type")
+	String type;
+	
+	@Label("Table")
+	String table;
+	
+	@Label("Path")
+	String path;
+	
+	@Label("Document Time")
+	@Timespan(Timespan.NANOSECONDS)
+	long documentTime;
+	
+	@Label("Write Time")
+	@Timespan(Timespan.NANOSECONDS)
+	long writeTime;
+	
+	@DataAmount(DataAmount.BYTES)
+	@Label("Bytes")
+	long bytes;
+	
+	@Label("Written")
+	boolean isWritten;
+	
+	@Label("Failed")
+	boolean isFailed;
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public ArtifactEvent() {
+		
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public static void emit(final String type, final String table, final String path, final long documentTime, final long writeTime, final long bytes, final boolean isWritten, final boolean isFailed) {
+		final ArtifactEvent artifactEvent = new ArtifactEvent();
+		
+		if(artifactEvent.isEnabled()) {
+			artifactEvent.type = type;
+			artifactEvent.table = table;
+			artifactEvent.path = path;
+			artifactEvent.documentTime = documentTime;
+			artifactEvent.writeTime = writeTime;
+			artifactEvent.bytes = bytes;
+			artifactEvent.isWritten = isWritten;
+			artifactEvent.isFailed = isFailed;
+			artifactEvent.commit();
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,346 @@
+/**
+ * Copyright 2019 - 2021 J&#246;rgen Lundgren
+ * 
+ * This file is part of org.macroing.esg4j.
+ * 
+ * org.macroing.esg4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * org.macroing.esg4j is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with org.macroing.esg4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.macroing.esg4j.generator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+public final class Diff {
+	private final List<String> linesNew;
+	private final List<String> linesOld;
+	private final boolean[] isInserted;
+	private final boolean[] isRemoved;
+	private final boolean isNewlineAtEndNew;
+	private final boolean isNewlineAtEndOld;
+	private final int linesAdded;
+	private final int linesRemoved;
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public Diff(final List<String> linesOld, final List<String> linesNew) {
+		this(linesOld, linesNew, true, true);
+	}
+	
+	public Diff(final List<String> linesOld, final List<String> linesNew, final boolean isNewlineAtEndOld, final boolean isNewlineAtEndNew) {
+		this.linesOld = new ArrayList<>(Objects.requireNonNull(linesOld, "linesOld == null"));
+		this.linesNew = new ArrayList<>(Objects.requireNonNull(linesNew, "linesNew == null"));
+		this.isRemoved = new boolean[this.linesOld.size()];
+		this.isInserted = new boolean[this.linesNew.size()];
+		this.isNewlineAtEndOld = isNewlineAtEndOld;
+		this.isNewlineAtEndNew = isNewlineAtEndNew;
+		
+		final Map<String, Integer> identifiers = new HashMap<>();
+		
+		final int[] a = doIdentify(this.linesOld, isNewlineAtEndOld, identifiers);
+		final int[] b = doIdentify(this.linesNew, isNewlineAtEndNew, identifiers);
+		
+		final int[] vForward = new int[a.length + b.length + 4];
+		final int[] vBackward = new int[a.length + b.length + 4];
+		
+		doCompare(a, 0, a.length, b, 0, b.length, this.isRemoved, this.isInserted, vForward, vBackward);
+		
+		this.linesAdded = doCount(this.isInserted);
+		this.linesRemoved = doCount(this.isRemoved);
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public List<String> getLinesNew() {
+		return new ArrayList<>(this.linesNew);
+	}
+	
+	public List<String> getLinesOld() {
+		return new ArrayList<>(this.linesOld);
+	}
+	
+	@Override
+	public String toString() {
+		return String.format("new Diff(%s, %s, %s, %s)", this.linesOld, this.linesNew, Boolean.toString(this.isNewlineAtEndOld), Boolean.toString(this.isNewlineAtEndNew));
+	}
+	
+	public boolean isEmpty() {
+		return this.linesAdded == 0 && this.linesRemoved == 0;
+	}
+	
+	public boolean isNewlineAtEndNew() {
+		return this.isNewlineAtEndNew;
+	}
+	
+	public boolean isNewlineAtEndOld() {
+		return this.isNewlineAtEndOld;
+	}
+	
+	public int getLinesAdded() {
+		return this.linesAdded;
+	}
+	
+	public int getLinesRemoved() {
+		return this.linesRemoved;
+	}
+	
+	public void writeUnified(final Appendable appendable, final String labelOld, final String labelNew, final int context) {
+		Objects.requireNonNull(appendable, "appendable == null");
+		Objects.requireNonNull(labelOld, "labelOld == null");
+		Objects.requireNonNull(labelNew, "labelNew == null");
+		
+		if(context < 0) {
+			throw new IllegalArgumentException(String.format("context < 0: context = %d", Integer.valueOf(context)));
+		}
+		
+		if(isEmpty()) {
+			return;
+		}
+		
+		final List<int[]> blocks = doGetBlocks();
+		
+		try {
+			appendable.append("--- ").append(labelOld).append('\n');
+			appendable.append("+++ ").append(labelNew).append('\n');
+			
+			for(int blockStart = 0; blockStart < blocks.size();) {
+				int blockEnd = blockStart + 1;
+				
+				while(blockEnd < blocks.size() && blocks.get(blockEnd)[0] - blocks.get(blockEnd - 1)[1] <= context * 2) {
+					blockEnd++;
+				}
+				
+				final int[] blockFirst = blocks.get(blockStart);
+				final int[] blockLast = blocks.get(blockEnd - 1);
+				
+				final int oldStart = Math.max(0, blockFirst[0] - context);
+				final int oldEnd = Math.min(this.linesOld.size(), blockLast[1] + context);
+				final int newStart = blockFirst[2] - (blockFirst[0] - oldStart);
+				final int newEnd = blockLast[3] + (oldEnd - blockLast[1]);
+				
+				appendable.append("@@ -").append(doFormatRange(oldStart, oldEnd)).append(" +").append(doFormatRange(newStart, newEnd)).append(" @@\n");
+				
+				for(int i = oldStart, j = newStart; i < oldEnd || j < newEnd;) {
+					if(i < oldEnd && this.isRemoved[i]) {
+						doWriteLine(appendable, '-', this.linesOld.get(i), i == this.linesOld.size() - 1 && !this.isNewlineAtEndOld);
+						
+						i++;
+					} else if(j < newEnd && this.isInserted[j]) {
+						doWriteLine(appendable, '+', this.linesNew.get(j), j == this.linesNew.size() - 1 && !this.isNewlineAtEndNew);
+						
+						j++;
+					} else {
+						doWriteLine(appendable, ' ', this.linesOld.get(i), i == this.linesOld.size() - 1 && !this.isNewlineAtEndOld);
+						
+						i++;
+						j++;
+					}
+				}
+				
+				blockStart = blockEnd;
+			}
+		} catch(final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public static Diff of(final String textOld, final String textNew) {
+		return new Diff(toLines(textOld), toLines(textNew), isNewlineAtEnd(textOld), isNewlineAtEnd(textNew));
+	}
+	
+	public static boolean isNewlineAtEnd(final String text) {
+		return Objects.requireNonNull(text, "text == null").isEmpty() || text.charAt(text.length() - 1) == '\n';
+	}
+	
+	public static List<String> toLines(final String text) {
+		final List<String> lines = new ArrayList<>();
+		
+		int start = 0;
+		
+		for(int i = Objects.requireNonNull(text, "text == null").indexOf('\n'); i >= 0; i = text.indexOf('\n', start)) {
+			lines.add(text.substring(start, i));
+			
+			start = i + 1;
+		}
+		
+		if(start < text.length()) {
+			lines.add(text.substring(start));
+		}
+		
+		return lines;
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private List<int[]> doGetBlocks() {
+		final List<int[]> blocks = new ArrayList<>();
+		
+		for(int i = 0, j = 0; i < this.isRemoved.length || j < this.isInserted.length;) {
+			if(i < this.isRemoved.length && this.isRemoved[i] || j < this.isInserted.length && this.isInserted[j]) {
+				final int iStart = i;
+				final int jStart = j;
+				
+				while(i < this.isRemoved.length && this.isRemoved[i]) {
+					i++;
+				}
+				
+				while(j < this.isInserted.length && this.isInserted[j]) {
+					j++;
+				}
+				
+				blocks.add(new int[] {iStart, i, jStart, j});
+			} else {
+				i++;
+				j++;
+			}
+		}
+		
+		return blocks;
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private static String doFormatRange(final int start, final int end) {
+		final int count = end - start;
+		
+		if(count == 0) {
+			return start + ",0";
+		} else if(count == 1) {
+			return Integer.toString(start + 1);
+		} else {
+			return (start + 1) + "," + count;
+		}
+	}
+	
+	private static int doCount(final boolean[] values) {
+		int count = 0;
+		
+		for(final boolean value : values) {
+			if(value) {
+				count++;
+			}
+		}
+		
+		return count;
+	}
+	
+	private static int[] doIdentify(final List<String> lines, final boolean isNewlineAtEnd, final Map<String, Integer> identifiers) {
+		final int[] array = new int[lines.size()];
+		
+		for(int i = 0; i < array.length; i++) {
+//			A last line without a newline differs from the same text with one. A line never contains a newline, so prefixing one gives it a key of its own:
+			final String key = i == array.length - 1 && !isNewlineAtEnd ? "\n" + lines.get(i) : lines.get(i);
+			
+			array[i] = identifiers.computeIfAbsent(key, line -> Integer.valueOf(identifiers.size())).intValue();
+		}
+		
+		return array;
+	}
+	
+	private static void doCompare(final int[] a, final int aStart, final int aEnd, final int[] b, final int bStart, final int bEnd, final boolean[] isRemoved, final boolean[] isInserted, final int[] vForward, final int[] vBackward) {
+		int aLow = aStart;
+		int aHigh = aEnd;
+		int bLow = bStart;
+		int bHigh = bEnd;
+		
+		while(aLow < aHigh && bLow < bHigh && a[aLow] == b[bLow]) {
+			aLow++;
+			bLow++;
+		}
+		
+		while(aLow < aHigh && bLow < bHigh && a[aHigh - 1] == b[bHigh - 1]) {
+			aHigh--;
+			bHigh--;
+		}
+		
+		if(aLow == aHigh) {
+			Arrays.fill(isInserted, bLow, bHigh, true);
+		} else if(bLow == bHigh) {
+			Arrays.fill(isRemoved, aLow, aHigh, true);
+		} else {
+			final int[] middle = doFindMiddle(a, aLow, aHigh, b, bLow, bHigh, vForward, vBackward);
+			
+			doCompare(a, aLow, middle[0], b, bLow, middle[1], isRemoved, isInserted, vForward, vBackward);
+			doCompare(a, middle[0], aHigh, b, middle[1], bHigh, isRemoved, isInserted, vForward, vBackward);
+		}
+	}
+	
+	private static int[] doFindMiddle(final int[] a, final int aStart, final int aEnd, final int[] b, final int bStart, final int bEnd, final int[] vForward, final int[] vBackward) {
+		final int n = aEnd - aStart;
+		final int m = bEnd - bStart;
+		final int delta = n - m;
+		final int dMaximum = (n + m + 1) / 2;
+		final int offset = dMaximum + 1;
+		
+		final boolean isOdd = (delta & 1) != 0;
+		
+		vForward[offset + 1] = 0;
+		vBackward[offset + 1] = 0;
+		
+		for(int d = 0; d <= dMaximum; d++) {
+			for(int k = -d; k <= d; k += 2) {
+				int x = k == -d || k != d && vForward[offset + k - 1] < vForward[offset + k + 1] ? vForward[offset + k + 1] : vForward[offset + k - 1] + 1;
+				int y = x - k;
+				
+				while(x < n && y < m && a[aStart + x] == b[bStart + y]) {
+					x++;
+					y++;
+				}
+				
+				vForward[offset + k] = x;
+				
+				final int c = delta - k;
+				
+				if(isOdd && c >= -(d - 1) && c <= d - 1 && x + vBackward[offset + c] >= n) {
+					return new int[] {aStart + x, bStart + y};
+				}
+			}
+			
+			for(int k = -d; k <= d; k += 2) {
+				int x = k == -d || k != d && vBackward[offset + k - 1] < vBackward[offset + k + 1] ? vBackward[offset + k + 1] : vBackward[offset + k - 1] + 1;
+				int y = x - k;
+				
+				while(x < n && y < m && a[aEnd - 1 - x] == b[bEnd - 1 - y]) {
+					x++;
+					y++;
+				}
+				
+				vBackward[offset + k] = x;
+				
+				final int c = delta - k;
+				
+				if(!isOdd && c >= -d && c <= d && x + vForward[offset + c] >= n) {
+					return new int[] {aEnd - x, bEnd - y};
+				}
+			}
+		}
+		
+		throw new IllegalStateException();
+	}
+	
+	private static void doWriteLine(final Appendable appendable, final char prefix, final String line, final boolean isMissingNewline) throws IOException {
+		appendable.append(prefix).append(line).append('\n');
+		
+		if(isMissingNewline) {
+			appendable.append("\\ No newline at end of file\n");
+		}
+	}
+}
\ No newline at end of file
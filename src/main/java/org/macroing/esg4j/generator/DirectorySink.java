@@ -0,0 +1,57 @@
+/**
+ * Copyright 2019 - 2021 J&#246;rgen Lundgren
+ * 
+ * This file is part of org.macroing.esg4j.
+ * 
+ * org.macroing.esg4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * org.macroing.esg4j is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with org.macroing.esg4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.macroing.esg4j.generator;
+
+import java.io.File;
+import java.util.Objects;
+
+public final class DirectorySink implements OutputSink {
+	private final File directory;
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public DirectorySink(final File directory) {
+		this.directory = Objects.requireNonNull(directory, "directory == null");
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public File getDirectory() {
+		return this.directory;
+	}
+	
+	@Override
+	public String toString() {
+		return String.format("new DirectorySink(new File(\"%s\"))", this.directory.getPath());
+	}
+	
+	@Override
+	public void close() {
+		
+	}
+	
+	@Override
+	public long write(final String path, final CharSequence charSequence) {
+		final File file = new File(this.directory, Objects.requireNonNull(path, "path == null"));
+		
+		OutputWriter.write(file, Objects.requireNonNull(charSequence, "charSequence == null"));
+		
+		return file.length();
+	}
+}
\ No newline at end of file
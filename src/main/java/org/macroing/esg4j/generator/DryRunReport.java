@@ -0,0 +1,106 @@
+/**
+ * Copyright 2019 - 2021 J&#246;rgen Lundgren
+ * 
+ * This file is part of org.macroing.esg4j.
+ * 
+ * org.macroing.esg4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * org.macroing.esg4j is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with org.macroing.esg4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.macroing.esg4j.generator;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.macroing.cel4j.util.Document;
+
+public final class DryRunReport {
+	private final List<FileChange> fileChanges;
+	private final List<GeneratorReport.Failure> failures;
+	private final int artifactCount;
+	private final long elapsedTime;
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public DryRunReport(final List<FileChange> fileChanges, final List<GeneratorReport.Failure> failures, final int artifactCount, final long elapsedTime) {
+		this.fileChanges = new ArrayList<>(Objects.requireNonNull(fileChanges, "fileChanges == null"));
+		this.failures = new ArrayList<>(Objects.requireNonNull(failures, "failures == null"));
+		this.artifactCount = artifactCount;
+		this.elapsedTime = elapsedTime;
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public Document toDocument() {
+		final
+		Document document = new Document();
+		document.linef("Dry run of %d artifact(s) in %d ms.", Integer.valueOf(this.artifactCount), Long.valueOf(TimeUnit.NANOSECONDS.toMillis(this.elapsedTime)));
+		document.linef("Files added: %d, modified: %d, deleted: %d, unchanged: %d.", Integer.valueOf(getCount(FileChange.Type.ADDED)), Integer.valueOf(getCount(FileChange.Type.MODIFIED)), Integer.valueOf(getCount(FileChange.Type.DELETED)), Integer.valueOf(getCount(FileChange.Type.UNCHANGED)));
+		
+		if(this.failures.size() > 0) {
+			document.linef("%d failure(s):", Integer.valueOf(this.failures.size()));
+			document.indent();
+			
+			for(final GeneratorReport.Failure failure : this.failures) {
+				document.linef("#%d %s: %s", Integer.valueOf(failure.getIndex()), new File(failure.getDirectory(), failure.getArtifact().getRelativeFile().getPath()).getPath(), failure.getThrowable());
+			}
+			
+			document.outdent();
+		}
+		
+		return document;
+	}
+	
+	public List<FileChange> getFileChanges() {
+		return new ArrayList<>(this.fileChanges);
+	}
+	
+	public List<GeneratorReport.Failure> getFailures() {
+		return new ArrayList<>(this.failures);
+	}
+	
+	@Override
+	public String toString() {
+		return toDocument().toString();
+	}
+	
+	public boolean hasChanges() {
+		return getCount(FileChange.Type.UNCHANGED) < this.fileChanges.size();
+	}
+	
+	public boolean isSuccessful() {
+		return this.failures.isEmpty();
+	}
+	
+	public int getArtifactCount() {
+		return this.artifactCount;
+	}
+	
+	public int getCount(final FileChange.Type type) {
+		int count = 0;
+		
+		for(final FileChange fileChange : this.fileChanges) {
+			if(fileChange.getType() == type) {
+				count++;
+			}
+		}
+		
+		return count;
+	}
+	
+	public long getElapsedTime() {
+		return this.elapsedTime;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,122 @@
+/**
+ * Copyright 2019 - 2021 J&#246;rgen Lundgren
+ * 
+ * This file is part of org.macroing.esg4j.
+ * 
+ * org.macroing.esg4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * org.macroing.esg4j is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with org.macroing.esg4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.macroing.esg4j.generator;
+
+import java.io.File;
+import java.util.Objects;
+
+public final class FileChange {
+	private final File directory;
+	private final String path;
+	private final Type type;
+	private final int linesAdded;
+	private final int linesRemoved;
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public FileChange(final Type type, final File directory, final String path, final int linesAdded, final int linesRemoved) {
+		this.type = Objects.requireNonNull(type, "type == null");
+		this.directory = Objects.requireNonNull(directory, "directory == null");
+		this.path = Objects.requireNonNull(path, "path == null");
+		this.linesAdded = linesAdded;
+		this.linesRemoved = linesRemoved;
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public File getDirectory() {
+		return this.directory;
+	}
+	
+	public File getFile() {
+		return new File(this.directory, this.path);
+	}
+	
+	public String getPath() {
+		return this.path;
+	}
+	
+	@Override
+	public String toString() {
+		return String.format("new FileChange(Type.%s, new File(\"%s\"), \"%s\", %d, %d)", this.type, this.directory.getPath(), this.path, Integer.valueOf(this.linesAdded), Integer.valueOf(this.linesRemoved));
+	}
+	
+	public Type getType() {
+		return this.type;
+	}
+	
+	@Override
+	public boolean equals(final Object object) {
+		if(object == this) {
+			return true;
+		} else if(!(object instanceof FileChange)) {
+			return false;
+		} else if(!Objects.equals(this.directory, FileChange.class.cast(object).directory)) {
+			return false;
+		} else if(!Objects.equals(this.path, FileChange.class.cast(object).path)) {
+			return false;
+		} else if(!Objects.equals(this.type, FileChange.class.cast(object).type)) {
+			return false;
+		} else if(this.linesAdded != FileChange.class.cast(object).linesAdded) {
+			return false;
+		} else if(this.linesRemoved != FileChange.class.cast(object).linesRemoved) {
+			return false;
+		} else {
+			return true;
+		}
+	}
+	
+	public int getLinesAdded() {
+		return this.linesAdded;
+	}
+	
+	public int getLinesRemoved() {
+		return this.linesRemoved;
+	}
+	
+	@Override
+	public int hashCode() {
+		return Objects.hash(this.directory, this.path, this.type, Integer.valueOf(this.linesAdded), Integer.valueOf(this.linesRemoved));
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public static enum Type {
+		ADDED("A"),
+		DELETED("D"),
+		MODIFIED("M"),
+		UNCHANGED("U");
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		private final String symbol;
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		private Type(final String symbol) {
+			this.symbol = symbol;
+		}
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public String getSymbol() {
+			return this.symbol;
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,911 @@
+/**
+ * Copyright 2019 - 2021 J&#246;rgen Lundgren
+ * 
+ * This file is part of org.macroing.esg4j.
+ * 
+ * org.macroing.esg4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * org.macroing.esg4j is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with org.macroing.esg4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.macroing.esg4j.generator;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
+
+public final class Generator {
+	private static final String TEMPORARY_DIRECTORY_NAME = ".esg4j-temporary";
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private final List<Job> jobs;
+	private final Map<File, Set<String>> pathsObsolete;
+	private RenderCache renderCache;
+	private String manifestFileName;
+	private boolean isDeletingObsoleteFiles;
+	private final int parallelism;
+	private int scopeDepth;
+	private int stagingDepth;
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public Generator() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+	
+	public Generator(final int parallelism) {
+		if(parallelism < 1) {
+			throw new IllegalArgumentException(String.format("parallelism < 1: parallelism = %d", Integer.valueOf(parallelism)));
+		}
+		
+		this.jobs = new ArrayList<>();
+		this.pathsObsolete = new LinkedHashMap<>();
+		this.renderCache = null;
+		this.manifestFileName = Manifest.FILE_NAME;
+		this.isDeletingObsoleteFiles = true;
+		this.parallelism = parallelism;
+		this.scopeDepth = 2;
+		this.stagingDepth = 0;
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public DryRunReport dryRun(final Appendable appendable, final DryRunFormat dryRunFormat) {
+		Objects.requireNonNull(appendable, "appendable == null");
+		Objects.requireNonNull(dryRunFormat, "dryRunFormat == null");
+		
+		final List<Job> jobs = new ArrayList<>(this.jobs);
+		
+		final Map<File, Manifest> manifestsOld = new LinkedHashMap<>();
+		final Map<File, Set<String>> paths = new LinkedHashMap<>();
+		final Map<File, Set<String>> scopes = doGetScopes(jobs);
+		
+		for(final File directory : doGetDirectories(jobs)) {
+			manifestsOld.put(directory, Manifest.readFrom(directory, this.manifestFileName));
+			paths.put(directory, new HashSet<>());
+		}
+		
+		final List<FileChange> fileChanges = new ArrayList<>();
+		final List<GeneratorReport.Failure> failures = new ArrayList<>();
+		
+		final long timeStart = System.nanoTime();
+		
+		final ForkJoinPool forkJoinPool = new ForkJoinPool(this.parallelism);
+		
+		try {
+			doRunOrdered(forkJoinPool, jobs, job -> doDryRun(job, manifestsOld.get(job.getDirectory()), this.renderCache), (dryRunResult, i) -> {
+				final Job job = jobs.get(i);
+				
+				paths.get(job.getDirectory()).add(dryRunResult.getPath());
+				
+				if(dryRunResult.getThrowable() != null) {
+					failures.add(new GeneratorReport.Failure(job.getArtifact(), job.getDirectory(), dryRunResult.getThrowable(), i));
+				} else {
+					fileChanges.add(dryRunResult.getFileChange());
+					
+					doWriteDryRun(appendable, dryRunFormat, dryRunResult.getFileChange(), dryRunResult.getDiff());
+				}
+			});
+		} finally {
+			forkJoinPool.shutdown();
+		}
+		
+		for(final Map.Entry<File, Manifest> entry : manifestsOld.entrySet()) {
+			final File directory = entry.getKey();
+			
+			for(final Manifest.Entry manifestEntryOld : entry.getValue().getEntries()) {
+				final File file = new File(directory, manifestEntryOld.getPath());
+				
+				if(!paths.get(directory).contains(manifestEntryOld.getPath()) && doIsObsolete(directory, manifestEntryOld.getPath(), scopes) && file.isFile()) {
+					final Diff diff = Diff.of(doRead(file), "");
+					
+					final FileChange fileChange = new FileChange(FileChange.Type.DELETED, directory, manifestEntryOld.getPath(), diff.getLinesAdded(), diff.getLinesRemoved());
+					
+					fileChanges.add(fileChange);
+					
+					doWriteDryRun(appendable, dryRunFormat, fileChange, diff);
+				}
+			}
+		}
+		
+		final long timeEnd = System.nanoTime();
+		
+		return new DryRunReport(fileChanges, failures, jobs.size(), timeEnd - timeStart);
+	}
+	
+	public GeneratorReport generate() {
+		final List<Job> jobs = new ArrayList<>(this.jobs);
+		
+		final Map<File, Manifest> manifestsOld = new LinkedHashMap<>();
+		final Map<File, Manifest> manifestsNew = new LinkedHashMap<>();
+		final Map<File, Set<String>> scopes = doGetScopes(jobs);
+		
+		for(final File directory : doGetDirectories(jobs)) {
+//			Temporary files left behind by a run that was killed are removed before anything is written:
+			doDeleteTemporaryDirectory(directory);
+			
+			manifestsOld.put(directory, Manifest.readFrom(directory, this.manifestFileName));
+			manifestsNew.put(directory, new Manifest());
+		}
+		
+		final Map<String, Stage> stagesByKey = new LinkedHashMap<>();
+		
+		final Stage[] stages = new Stage[jobs.size()];
+		
+		for(int i = 0; i < jobs.size(); i++) {
+			stages[i] = doGetStage(stagesByKey, jobs.get(i).getDirectory(), doGetPath(jobs.get(i).getArtifact()), true);
+		}
+		
+		for(final Stage stage : stagesByKey.values()) {
+			stage.prepare();
+		}
+		
+		final Metrics metrics = new Metrics();
+		
+		final Result[] results = new Result[jobs.size()];
+		
+		final long timeStart = System.nanoTime();
+		
+		final List<GeneratorReport.Failure> failures = new ArrayList<>();
+		
+		int deletedCount = 0;
+		int skippedCount = 0;
+		int writtenCount = 0;
+		
+		final ForkJoinPool forkJoinPool = new ForkJoinPool(this.parallelism);
+		
+		try {
+			forkJoinPool.invoke(new GenerateAction(jobs, manifestsOld, manifestsNew, metrics, this.renderCache, results, stages, 0, jobs.size()));
+			
+			for(int i = 0; i < jobs.size(); i++) {
+				if(results[i].getThrowable() != null) {
+					failures.add(new GeneratorReport.Failure(jobs.get(i).getArtifact(), jobs.get(i).getDirectory(), results[i].getThrowable(), i));
+				}
+			}
+			
+			for(int i = 0; i < jobs.size(); i++) {
+				if(results[i].getThrowable() != null) {
+					continue;
+				} else if(results[i].isWritten() && (stages[i] == null || !stages[i].isFailed())) {
+					writtenCount++;
+				} else {
+					skippedCount++;
+				}
+			}
+			
+			for(final Stage stage : stagesByKey.values()) {
+				if(stage.isFailed()) {
+					final Manifest manifestOld = manifestsOld.get(stage.getRoot());
+					final Manifest manifestNew = manifestsNew.get(stage.getRoot());
+					
+					for(final Manifest.Entry manifestEntryNew : manifestNew.getEntries()) {
+						if(stage.matches(manifestEntryNew.getPath())) {
+							final Optional<Manifest.Entry> optionalManifestEntryOld = manifestOld.getEntry(manifestEntryNew.getPath());
+							
+							if(optionalManifestEntryOld.isPresent()) {
+								manifestNew.addEntry(optionalManifestEntryOld.get());
+							} else {
+								manifestNew.removeEntry(manifestEntryNew.getPath());
+							}
+						}
+					}
+				}
+			}
+			
+			for(final Map.Entry<File, Manifest> entry : manifestsOld.entrySet()) {
+				final File directory = entry.getKey();
+				
+				final Manifest manifestOld = entry.getValue();
+				final Manifest manifestNew = manifestsNew.get(directory);
+				
+				for(final Manifest.Entry manifestEntryOld : manifestOld.getEntries()) {
+					if(!manifestNew.getEntry(manifestEntryOld.getPath()).isPresent()) {
+						final File file = new File(directory, manifestEntryOld.getPath());
+						
+						final Stage stage = doGetStage(stagesByKey, directory, manifestEntryOld.getPath(), false);
+						
+//						A file is only deleted if it is obsolete within the scope of this run, and never by a stage that failed and is left as it was:
+						if(!doIsObsolete(directory, manifestEntryOld.getPath(), scopes) || stage != null && stage.isFailed()) {
+							if(stage != null && !stage.isFailed() && file.isFile()) {
+								stage.link(file, stage.toFileStaged(manifestEntryOld.getPath()));
+							}
+							
+							manifestNew.addEntry(manifestEntryOld);
+						} else if(stage != null) {
+							stage.addDropped();
+							
+							deletedCount++;
+						} else if(file.delete()) {
+							doDeleteEmptyDirectories(file.getParentFile(), directory);
+							
+							deletedCount++;
+						}
+					}
+				}
+			}
+			
+			final List<Stage> stagesCommitted = new ArrayList<>();
+			
+			for(final Stage stage : stagesByKey.values()) {
+				if(!stage.isFailed() && stage.hasChanges()) {
+					for(final String path : stage.getPathsUnknown(manifestsOld.get(stage.getRoot()), manifestsNew.get(stage.getRoot()))) {
+						stage.link(new File(stage.getRoot(), path), stage.toFileStaged(path));
+					}
+					
+					stagesCommitted.add(stage);
+				} else {
+					stage.discard();
+				}
+			}
+			
+			forkJoinPool.submit(() -> stagesCommitted.forEach(Stage::force)).join();
+			
+			for(final Stage stage : stagesCommitted) {
+				stage.commit();
+			}
+			
+			if(stagesByKey.size() > 0) {
+				OutputWriter.forgetDirectories();
+			}
+		} finally {
+			forkJoinPool.shutdown();
+		}
+		
+		for(final Map.Entry<File, Manifest> entry : manifestsOld.entrySet()) {
+			final File directory = entry.getKey();
+			
+			final Manifest manifestOld = entry.getValue();
+			final Manifest manifestNew = manifestsNew.get(directory);
+			
+			if(!manifestNew.equals(manifestOld)) {
+				manifestNew.writeTo(directory, this.manifestFileName);
+			}
+			
+			doDeleteTemporaryDirectory(directory);
+		}
+		
+		final long timeEnd = System.nanoTime();
+		
+		return new GeneratorReport(failures, metrics, jobs.size(), writtenCount, skippedCount, deletedCount, timeEnd - timeStart);
+	}
+	
+	public GeneratorReport generate(final OutputSink outputSink) {
+		Objects.requireNonNull(outputSink, "outputSink == null");
+		
+		final List<Job> jobs = new ArrayList<>(this.jobs);
+		
+		final List<GeneratorReport.Failure> failures = new ArrayList<>();
+		
+		final Metrics metrics = new Metrics();
+		
+		final long timeStart = System.nanoTime();
+		
+		final ForkJoinPool forkJoinPool = new ForkJoinPool(this.parallelism);
+		
+		try {
+			doRunOrdered(forkJoinPool, jobs, job -> doRender(job, this.renderCache), (renderResult, i) -> {
+				final Job job = jobs.get(i);
+				
+				if(renderResult.getThrowable() != null) {
+					failures.add(new GeneratorReport.Failure(job.getArtifact(), job.getDirectory(), renderResult.getThrowable(), i));
+					
+					metrics.record(job.getArtifact(), "", renderResult.getPath(), renderResult.getDocumentTime(), 0L, 0L, false, true);
+				} else {
+					final long timeWriteStart = System.nanoTime();
+					
+					final long bytes = outputSink.write(renderResult.getPath(), renderResult.getString());
+					
+					metrics.record(job.getArtifact(), "", renderResult.getPath(), renderResult.getDocumentTime(), System.nanoTime() - timeWriteStart, bytes, true, false);
+				}
+			});
+		} finally {
+			forkJoinPool.shutdown();
+		}
+		
+		final long timeEnd = System.nanoTime();
+		
+		return new GeneratorReport(failures, metrics, jobs.size(), jobs.size() - failures.size(), 0, 0, timeEnd - timeStart);
+	}
+	
+	public Optional<RenderCache> getRenderCache() {
+		return Optional.ofNullable(this.renderCache);
+	}
+	
+	public String getManifestFileName() {
+		return this.manifestFileName;
+	}
+	
+	public boolean isDeletingObsoleteFiles() {
+		return this.isDeletingObsoleteFiles;
+	}
+	
+	public int getParallelism() {
+		return this.parallelism;
+	}
+	
+	public int getScopeDepth() {
+		return this.scopeDepth;
+	}
+	
+	public int getStagingDepth() {
+		return this.stagingDepth;
+	}
+	
+	public int size() {
+		return this.jobs.size();
+	}
+	
+	public void addArtifact(final Artifact artifact, final File directory) {
+		this.jobs.add(new Job(Objects.requireNonNull(artifact, "artifact == null"), Objects.requireNonNull(directory, "directory == null")));
+	}
+	
+	public void addArtifacts(final List<? extends Artifact> artifacts, final File directory) {
+		for(final Artifact artifact : Objects.requireNonNull(artifacts, "artifacts == null")) {
+			addArtifact(artifact, directory);
+		}
+	}
+	
+	public void addObsoleteFile(final File relativeFile, final File directory) {
+		Objects.requireNonNull(relativeFile, "relativeFile == null");
+		Objects.requireNonNull(directory, "directory == null");
+		
+		this.pathsObsolete.computeIfAbsent(directory, key -> new HashSet<>()).add(relativeFile.getPath().replace(File.separatorChar, '/'));
+	}
+	
+	public void clear() {
+		this.jobs.clear();
+		this.pathsObsolete.clear();
+	}
+	
+	public void setDeletingObsoleteFiles(final boolean isDeletingObsoleteFiles) {
+		this.isDeletingObsoleteFiles = isDeletingObsoleteFiles;
+	}
+	
+	public void setManifestFileName(final String manifestFileName) {
+		this.manifestFileName = Objects.requireNonNull(manifestFileName, "manifestFileName == null");
+	}
+	
+	public void setRenderCache(final RenderCache renderCache) {
+		this.renderCache = renderCache;
+	}
+	
+	public void setScopeDepth(final int scopeDepth) {
+		if(scopeDepth < 0) {
+			throw new IllegalArgumentException(String.format("scopeDepth < 0: scopeDepth = %d", Integer.valueOf(scopeDepth)));
+		}
+		
+		this.scopeDepth = scopeDepth;
+	}
+	
+	public void setStagingDepth(final int stagingDepth) {
+		if(stagingDepth < 0) {
+			throw new IllegalArgumentException(String.format("stagingDepth < 0: stagingDepth = %d", Integer.valueOf(stagingDepth)));
+		}
+		
+		this.stagingDepth = stagingDepth;
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private static DryRunResult doDryRun(final Job job, final Manifest manifestOld, final RenderCache renderCache) {
+		final Artifact artifact = job.getArtifact();
+		
+		final File directory = job.getDirectory();
+		
+		final String path = doGetPath(artifact);
+		
+		try {
+			final String string = doRender(artifact, renderCache);
+			
+			final Optional<Manifest.Entry> optionalManifestEntryOld = manifestOld.getEntry(path);
+			
+			if(optionalManifestEntryOld.isPresent() && optionalManifestEntryOld.get().isUpToDate(directory, OutputWriter.hash(string))) {
+				return new DryRunResult(path, new FileChange(FileChange.Type.UNCHANGED, directory, path, 0, 0), null, null);
+			}
+			
+			final File file = new File(directory, path);
+			
+			if(!file.isFile()) {
+				final Diff diff = Diff.of("", string);
+				
+				return new DryRunResult(path, new FileChange(FileChange.Type.ADDED, directory, path, diff.getLinesAdded(), diff.getLinesRemoved()), diff, null);
+			}
+			
+			final String stringOld = doRead(file);
+			
+			if(stringOld.equals(string)) {
+				return new DryRunResult(path, new FileChange(FileChange.Type.UNCHANGED, directory, path, 0, 0), null, null);
+			}
+			
+			final Diff diff = Diff.of(stringOld, string);
+			
+			return new DryRunResult(path, new FileChange(FileChange.Type.MODIFIED, directory, path, diff.getLinesAdded(), diff.getLinesRemoved()), diff, null);
+		} catch(final RuntimeException | Error e) {
+			return new DryRunResult(path, null, null, e);
+		}
+	}
+	
+	private List<File> doGetDirectories(final List<Job> jobs) {
+		final Set<File> directories = new LinkedHashSet<>();
+		
+		for(final Job job : jobs) {
+			directories.add(job.getDirectory());
+		}
+		
+		directories.addAll(this.pathsObsolete.keySet());
+		
+		return new ArrayList<>(directories);
+	}
+	
+	private Map<File, Set<String>> doGetScopes(final List<Job> jobs) {
+		final Map<File, Set<String>> scopes = new LinkedHashMap<>();
+		
+		for(final Job job : jobs) {
+			scopes.computeIfAbsent(job.getDirectory(), directory -> new HashSet<>()).add(doGetScope(doGetPath(job.getArtifact())));
+		}
+		
+		return scopes;
+	}
+	
+	private static RenderResult doRender(final Job job, final RenderCache renderCache) {
+		final String path = doGetPath(job.getArtifact());
+		
+		final long timeStart = System.nanoTime();
+		
+		try {
+			final String string = doRender(job.getArtifact(), renderCache);
+			
+			return new RenderResult(path, string, System.nanoTime() - timeStart, null);
+		} catch(final RuntimeException | Error e) {
+			return new RenderResult(path, null, System.nanoTime() - timeStart, e);
+		}
+	}
+	
+	private Stage doGetStage(final Map<String, Stage> stagesByKey, final File directory, final String path, final boolean isCreating) {
+		if(this.stagingDepth == 0) {
+			return null;
+		}
+		
+		int index = -1;
+		
+		for(int i = 0; i < this.stagingDepth; i++) {
+			index = path.indexOf('/', index + 1);
+			
+			if(index < 0) {
+				return null;
+			}
+		}
+		
+		final String prefix = path.substring(0, index + 1);
+		
+		final String key = directory.getPath() + File.pathSeparator + prefix;
+		
+		return isCreating ? stagesByKey.computeIfAbsent(key, k -> new Stage(directory, prefix)) : stagesByKey.get(key);
+	}
+	
+	private String doGetScope(final String path) {
+		int index = -1;
+		
+		for(int i = 0; i < this.scopeDepth; i++) {
+			final int indexNext = path.indexOf('/', index + 1);
+			
+			if(indexNext < 0) {
+				break;
+			}
+			
+			index = indexNext;
+		}
+		
+		return path.substring(0, index + 1);
+	}
+	
+	private boolean doIsObsolete(final File directory, final String path, final Map<File, Set<String>> scopes) {
+		if(this.pathsObsolete.getOrDefault(directory, Collections.emptySet()).contains(path)) {
+			return true;
+		}
+		
+//		Only files in a scope written by this run are obsolete, so generating one module never deletes the files of another module in the same directory:
+		return this.isDeletingObsoleteFiles && scopes.getOrDefault(directory, Collections.emptySet()).contains(doGetScope(path));
+	}
+	
+	private <T> void doRunOrdered(final ForkJoinPool forkJoinPool, final List<Job> jobs, final Function<Job, T> function, final ObjIntConsumer<T> objIntConsumer) {
+		final Deque<ForkJoinTask<T>> forkJoinTasks = new ArrayDeque<>();
+		
+		final int window = this.parallelism * 4;
+		
+		int indexSubmitted = 0;
+		
+		for(int i = 0; i < jobs.size(); i++) {
+			for(; indexSubmitted < jobs.size() && indexSubmitted < i + window; indexSubmitted++) {
+				final Job job = jobs.get(indexSubmitted);
+				
+				forkJoinTasks.addLast(forkJoinPool.submit(() -> function.apply(job)));
+			}
+			
+			objIntConsumer.accept(forkJoinTasks.removeFirst().join(), i);
+		}
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private static Result doGenerate(final Job job, final Manifest manifestOld, final Manifest manifestNew, final Metrics metrics, final RenderCache renderCache, final Stage stage) {
+		final Artifact artifact = job.getArtifact();
+		
+		final File directory = job.getDirectory();
+		
+		final String path = doGetPath(artifact);
+		
+		final String group = stage != null ? stage.getPrefix() : "";
+		
+		final long timeStart = System.nanoTime();
+		
+		long timeDocument = timeStart;
+		
+		final File file = stage != null ? stage.toFileStaged(path) : new File(directory, path);
+		
+		File fileTemporary = null;
+		
+		try {
+			final ByteBuffer byteBuffer;
+			
+			final String hash;
+			
+			if(artifact.isStreaming()) {
+//				A streaming artifact is written to a temporary file while it is hashed. That file either replaces the target or is deleted if the target is up to date.
+//				It is kept in a directory of its own, outside every module and stage, so that a file left behind by a killed run is never mistaken for a hand-written file:
+				fileTemporary = OutputWriter.createTemporaryFile(new File(directory, TEMPORARY_DIRECTORY_NAME), file.getName());
+				
+				byteBuffer = null;
+				
+				hash = OutputWriter.stream(fileTemporary, appendable -> artifact.writeTo(appendable));
+			} else {
+				byteBuffer = OutputWriter.encode(doRender(artifact, renderCache));
+				
+				hash = OutputWriter.hash(byteBuffer);
+			}
+			
+			timeDocument = System.nanoTime();
+			
+			final Optional<Manifest.Entry> optionalManifestEntryOld = manifestOld.getEntry(path);
+			
+			if(optionalManifestEntryOld.isPresent() && optionalManifestEntryOld.get().isUpToDate(directory, hash)) {
+				if(fileTemporary != null) {
+					fileTemporary.delete();
+				}
+				
+				manifestNew.addEntry(optionalManifestEntryOld.get());
+				
+				if(stage != null) {
+					stage.link(new File(directory, path), stage.toFileStaged(path));
+				}
+				
+				metrics.record(artifact, group, path, timeDocument - timeStart, System.nanoTime() - timeDocument, optionalManifestEntryOld.get().getSize(), false, false);
+				
+				return new Result(null, false);
+			}
+			
+			if(fileTemporary != null) {
+				OutputWriter.move(fileTemporary, file);
+			} else {
+				OutputWriter.write(file, byteBuffer);
+			}
+			
+			if(stage != null) {
+				stage.addWritten(file);
+			}
+			
+			final Manifest.Entry manifestEntryNew = new Manifest.Entry(path, hash, file.length(), file.lastModified());
+			
+			manifestNew.addEntry(manifestEntryNew);
+			
+			metrics.record(artifact, group, path, timeDocument - timeStart, System.nanoTime() - timeDocument, manifestEntryNew.getSize(), true, false);
+			
+			return new Result(null, true);
+		} catch(final RuntimeException | Error e) {
+			if(fileTemporary != null) {
+				fileTemporary.delete();
+			}
+			
+			manifestOld.getEntry(path).ifPresent(manifestEntryOld -> manifestNew.addEntry(manifestEntryOld));
+			
+			if(stage != null) {
+				stage.fail();
+			}
+			
+			metrics.record(artifact, group, path, timeDocument - timeStart, System.nanoTime() - timeDocument, 0L, false, true);
+			
+			return new Result(e, false);
+		}
+	}
+	
+	private static String doRender(final Artifact artifact, final RenderCache renderCache) {
+		return renderCache != null ? renderCache.render(artifact) : artifact.render();
+	}
+	
+	private static String doGetLabel(final FileChange fileChange) {
+		final String label = fileChange.getFile().getPath().replace(File.separatorChar, '/');
+		
+		return label.startsWith("./") ? label.substring(2) : label;
+	}
+	
+	private static String doGetPath(final Artifact artifact) {
+		return artifact.getRelativeFile().getPath().replace(File.separatorChar, '/');
+	}
+	
+	private static String doRead(final File file) {
+		try {
+			return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+		} catch(final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	private static void doDeleteEmptyDirectories(final File directory, final File root) {
+		final File rootAbsolute = root.getAbsoluteFile();
+		
+		boolean isDeleted = false;
+		
+		for(File current = directory.getAbsoluteFile(); current != null && !current.equals(rootAbsolute) && current.getPath().startsWith(rootAbsolute.getPath()) && current.delete(); current = current.getParentFile()) {
+			isDeleted = true;
+		}
+		
+		if(isDeleted) {
+			OutputWriter.forgetDirectories();
+		}
+	}
+	
+	private static void doDeleteTemporaryDirectory(final File directory) {
+		final File directoryTemporary = new File(directory, TEMPORARY_DIRECTORY_NAME);
+		
+		final File[] files = directoryTemporary.listFiles();
+		
+		if(files == null) {
+			return;
+		}
+		
+		for(final File file : files) {
+			file.delete();
+		}
+		
+		if(directoryTemporary.delete()) {
+			OutputWriter.forgetDirectories();
+		}
+	}
+	
+	private static void doWriteDryRun(final Appendable appendable, final DryRunFormat dryRunFormat, final FileChange fileChange, final Diff diff) {
+		if(fileChange.getType() == FileChange.Type.UNCHANGED) {
+			return;
+		}
+		
+		final String label = doGetLabel(fileChange);
+		
+		switch(dryRunFormat) {
+			case STATUS:
+				try {
+					appendable.append(String.format("%s\t+%d\t-%d\t%s\n", fileChange.getType().getSymbol(), Integer.valueOf(fileChange.getLinesAdded()), Integer.valueOf(fileChange.getLinesRemoved()), label));
+				} catch(final IOException e) {
+					throw new UncheckedIOException(e);
+				}
+				
+				break;
+			case UNIFIED:
+				diff.writeUnified(appendable, fileChange.getType() == FileChange.Type.ADDED ? "/dev/null" : "a/" + label, fileChange.getType() == FileChange.Type.DELETED ? "/dev/null" : "b/" + label, 3);
+				
+				break;
+			default:
+				break;
+		}
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private static final class DryRunResult {
+		private final Diff diff;
+		private final FileChange fileChange;
+		private final String path;
+		private final Throwable throwable;
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public DryRunResult(final String path, final FileChange fileChange, final Diff diff, final Throwable throwable) {
+			this.path = path;
+			this.fileChange = fileChange;
+			this.diff = diff;
+			this.throwable = throwable;
+		}
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public Diff getDiff() {
+			return this.diff;
+		}
+		
+		public FileChange getFileChange() {
+			return this.fileChange;
+		}
+		
+		public String getPath() {
+			return this.path;
+		}
+		
+		public Throwable getThrowable() {
+			return this.throwable;
+		}
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private static final class GenerateAction extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		private final List<Job> jobs;
+		private final Map<File, Manifest> manifestsNew;
+		private final Map<File, Manifest> manifestsOld;
+		private final Metrics metrics;
+		private final RenderCache renderCache;
+		private final Result[] results;
+		private final Stage[] stages;
+		private final int indexEnd;
+		private final int indexStart;
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public GenerateAction(final List<Job> jobs, final Map<File, Manifest> manifestsOld, final Map<File, Manifest> manifestsNew, final Metrics metrics, final RenderCache renderCache, final Result[] results, final Stage[] stages, final int indexStart, final int indexEnd) {
+			this.jobs = jobs;
+			this.manifestsOld = manifestsOld;
+			this.manifestsNew = manifestsNew;
+			this.metrics = metrics;
+			this.renderCache = renderCache;
+			this.results = results;
+			this.stages = stages;
+			this.indexStart = indexStart;
+			this.indexEnd = indexEnd;
+		}
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		@Override
+		protected void compute() {
+			final int length = this.indexEnd - this.indexStart;
+			
+			if(length == 1) {
+				final Job job = this.jobs.get(this.indexStart);
+				
+				this.results[this.indexStart] = doGenerate(job, this.manifestsOld.get(job.getDirectory()), this.manifestsNew.get(job.getDirectory()), this.metrics, this.renderCache, this.stages[this.indexStart]);
+			} else if(length > 1) {
+				final int indexMiddle = this.indexStart + length / 2;
+				
+				invokeAll(new GenerateAction(this.jobs, this.manifestsOld, this.manifestsNew, this.metrics, this.renderCache, this.results, this.stages, this.indexStart, indexMiddle), new GenerateAction(this.jobs, this.manifestsOld, this.manifestsNew, this.metrics, this.renderCache, this.results, this.stages, indexMiddle, this.indexEnd));
+			}
+		}
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private static final class Job {
+		private final Artifact artifact;
+		private final File directory;
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public Job(final Artifact artifact, final File directory) {
+			this.artifact = artifact;
+			this.directory = directory;
+		}
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public Artifact getArtifact() {
+			return this.artifact;
+		}
+		
+		public File getDirectory() {
+			return this.directory;
+		}
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private static final class RenderResult {
+		private final String path;
+		private final String string;
+		private final Throwable throwable;
+		private final long documentTime;
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public RenderResult(final String path, final String string, final long documentTime, final Throwable throwable) {
+			this.path = path;
+			this.string = string;
+			this.documentTime = documentTime;
+			this.throwable = throwable;
+		}
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public String getPath() {
+			return this.path;
+		}
+		
+		public String getString() {
+			return this.string;
+		}
+		
+		public Throwable getThrowable() {
+			return this.throwable;
+		}
+		
+		public long getDocumentTime() {
+			return this.documentTime;
+		}
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private static final class Result {
+		private final Throwable throwable;
+		private final boolean isWritten;
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public Result(final Throwable throwable, final boolean isWritten) {
+			this.throwable = throwable;
+			this.isWritten = isWritten;
+		}
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public Throwable getThrowable() {
+			return this.throwable;
+		}
+		
+		public boolean isWritten() {
+			return this.isWritten;
+		}
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public static enum DryRunFormat {
+		NONE,
+		STATUS,
+		UNIFIED;
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		private DryRunFormat() {
+			
+		}
+	}
+}
\ No newline at end of file
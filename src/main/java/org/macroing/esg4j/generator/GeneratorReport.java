@@ -0,0 +1,149 @@
+/**
+ * Copyright 2019 - 2021 J&#246;rgen Lundgren
+ * 
+ * This file is part of org.macroing.esg4j.
+ * 
+ * org.macroing.esg4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * org.macroing.esg4j is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with org.macroing.esg4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.macroing.esg4j.generator;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.macroing.cel4j.util.Document;
+
+public final class GeneratorReport {
+	private final List<Failure> failures;
+	private final Metrics metrics;
+	private final int artifactCount;
+	private final int deletedCount;
+	private final int skippedCount;
+	private final int writtenCount;
+	private final long elapsedTime;
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public GeneratorReport(final List<Failure> failures, final Metrics metrics, final int artifactCount, final int writtenCount, final int skippedCount, final int deletedCount, final long elapsedTime) {
+		this.failures = new ArrayList<>(Objects.requireNonNull(failures, "failures == null"));
+		this.metrics = Objects.requireNonNull(metrics, "metrics == null");
+		this.artifactCount = artifactCount;
+		this.writtenCount = writtenCount;
+		this.skippedCount = skippedCount;
+		this.deletedCount = deletedCount;
+		this.elapsedTime = elapsedTime;
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public Document toDocument() {
+		final
+		Document document = new Document();
+		document.linef("Generated %d of %d artifact(s) in %d ms.", Integer.valueOf(this.artifactCount - this.failures.size()), Integer.valueOf(this.artifactCount), Long.valueOf(TimeUnit.NANOSECONDS.toMillis(this.elapsedTime)));
+		document.linef("Files written: %d, skipped: %d, deleted: %d.", Integer.valueOf(this.writtenCount), Integer.valueOf(this.skippedCount), Integer.valueOf(this.deletedCount));
+		
+		if(this.failures.size() > 0) {
+			document.linef("%d failure(s):", Integer.valueOf(this.failures.size()));
+			document.indent();
+			
+			for(final Failure failure : this.failures) {
+				document.linef("#%d %s: %s", Integer.valueOf(failure.getIndex()), new File(failure.getDirectory(), failure.getArtifact().getRelativeFile().getPath()).getPath(), failure.getThrowable());
+			}
+			
+			document.outdent();
+		}
+		
+		return document;
+	}
+	
+	public List<Failure> getFailures() {
+		return new ArrayList<>(this.failures);
+	}
+	
+	public Metrics getMetrics() {
+		return this.metrics;
+	}
+	
+	@Override
+	public String toString() {
+		return toDocument().toString();
+	}
+	
+	public boolean isSuccessful() {
+		return this.failures.isEmpty();
+	}
+	
+	public int getArtifactCount() {
+		return this.artifactCount;
+	}
+	
+	public int getDeletedCount() {
+		return this.deletedCount;
+	}
+	
+	public int getSkippedCount() {
+		return this.skippedCount;
+	}
+	
+	public int getWrittenCount() {
+		return this.writtenCount;
+	}
+	
+	public long getElapsedTime() {
+		return this.elapsedTime;
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public static final class Failure {
+		private final Artifact artifact;
+		private final File directory;
+		private final Throwable throwable;
+		private final int index;
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public Failure(final Artifact artifact, final File directory, final Throwable throwable, final int index) {
+			this.artifact = Objects.requireNonNull(artifact, "artifact == null");
+			this.directory = Objects.requireNonNull(directory, "directory == null");
+			this.throwable = Objects.requireNonNull(throwable, "throwable == null");
+			this.index = index;
+		}
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public Artifact getArtifact() {
+			return this.artifact;
+		}
+		
+		public File getDirectory() {
+			return this.directory;
+		}
+		
+		@Override
+		public String toString() {
+			return String.format("new Failure(%s, new File(\"%s\"), %s, %d)", this.artifact, this.directory.getPath(), this.throwable, Integer.valueOf(this.index));
+		}
+		
+		public Throwable getThrowable() {
+			return this.throwable;
+		}
+		
+		public int getIndex() {
+			return this.index;
+		}
+	}
+}
\ No newline at end of file
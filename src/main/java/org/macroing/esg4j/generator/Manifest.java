@@ -0,0 +1,228 @@
+/**
+ * Copyright 2019 - 2021 J&#246;rgen Lundgren
+ * 
+ * This file is part of org.macroing.esg4j.
+ * 
+ * org.macroing.esg4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * org.macroing.esg4j is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with org.macroing.esg4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.macroing.esg4j.generator;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class Manifest {
+	public static final String FILE_NAME = ".esg4j-manifest";
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private final Map<String, Entry> entries;
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public Manifest() {
+		this.entries = new ConcurrentHashMap<>();
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public List<Entry> getEntries() {
+		final List<Entry> entries = new ArrayList<>(this.entries.values());
+		
+		entries.sort((a, b) -> a.getPath().compareTo(b.getPath()));
+		
+		return entries;
+	}
+	
+	public Optional<Entry> getEntry(final String path) {
+		return Optional.ofNullable(this.entries.get(Objects.requireNonNull(path, "path == null")));
+	}
+	
+	@Override
+	public String toString() {
+		return "new Manifest()";
+	}
+	
+	@Override
+	public boolean equals(final Object object) {
+		if(object == this) {
+			return true;
+		} else if(!(object instanceof Manifest)) {
+			return false;
+		} else if(!Objects.equals(this.entries, Manifest.class.cast(object).entries)) {
+			return false;
+		} else {
+			return true;
+		}
+	}
+	
+	public boolean isEmpty() {
+		return this.entries.isEmpty();
+	}
+	
+	@Override
+	public int hashCode() {
+		return Objects.hash(this.entries);
+	}
+	
+	public int size() {
+		return this.entries.size();
+	}
+	
+	public void addEntry(final Entry entry) {
+		this.entries.put(entry.getPath(), entry);
+	}
+	
+	public void removeEntry(final String path) {
+		this.entries.remove(Objects.requireNonNull(path, "path == null"));
+	}
+	
+	public void writeTo(final File directory) {
+		writeTo(directory, FILE_NAME);
+	}
+	
+	public void writeTo(final File directory, final String fileName) {
+		final File file = new File(Objects.requireNonNull(directory, "directory == null"), Objects.requireNonNull(fileName, "fileName == null"));
+		
+		file.getParentFile().mkdirs();
+		
+		try(final BufferedWriter bufferedWriter = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+			for(final Entry entry : getEntries()) {
+				bufferedWriter.write(String.format("%s\t%d\t%d\t%s", entry.getHash(), Long.valueOf(entry.getSize()), Long.valueOf(entry.getLastModified()), entry.getPath()));
+				bufferedWriter.newLine();
+			}
+		} catch(final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public static Manifest readFrom(final File directory) {
+		return readFrom(directory, FILE_NAME);
+	}
+	
+	public static Manifest readFrom(final File directory, final String fileName) {
+		final File file = new File(Objects.requireNonNull(directory, "directory == null"), Objects.requireNonNull(fileName, "fileName == null"));
+		
+		final Manifest manifest = new Manifest();
+		
+		if(!file.isFile()) {
+			return manifest;
+		}
+		
+		try(final BufferedReader bufferedReader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+			for(String line = bufferedReader.readLine(); line != null; line = bufferedReader.readLine()) {
+				final String[] columns = line.split("\t", 4);
+				
+				if(columns.length == 4) {
+					try {
+						manifest.addEntry(new Entry(columns[3], columns[0], Long.parseLong(columns[1]), Long.parseLong(columns[2])));
+					} catch(final NumberFormatException e) {
+//						A malformed line only means that the file it describes will be rewritten.
+					}
+				}
+			}
+		} catch(final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		
+		return manifest;
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public static final class Entry {
+		private final String hash;
+		private final String path;
+		private final long lastModified;
+		private final long size;
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public Entry(final String path, final String hash, final long size, final long lastModified) {
+			this.path = Objects.requireNonNull(path, "path == null");
+			this.hash = Objects.requireNonNull(hash, "hash == null");
+			this.size = size;
+			this.lastModified = lastModified;
+		}
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public String getHash() {
+			return this.hash;
+		}
+		
+		public String getPath() {
+			return this.path;
+		}
+		
+		@Override
+		public String toString() {
+			return String.format("new Entry(\"%s\", \"%s\", %d, %d)", this.path, this.hash, Long.valueOf(this.size), Long.valueOf(this.lastModified));
+		}
+		
+		@Override
+		public boolean equals(final Object object) {
+			if(object == this) {
+				return true;
+			} else if(!(object instanceof Entry)) {
+				return false;
+			} else if(!Objects.equals(this.hash, Entry.class.cast(object).hash)) {
+				return false;
+			} else if(!Objects.equals(this.path, Entry.class.cast(object).path)) {
+				return false;
+			} else if(this.lastModified != Entry.class.cast(object).lastModified) {
+				return false;
+			} else if(this.size != Entry.class.cast(object).size) {
+				return false;
+			} else {
+				return true;
+			}
+		}
+		
+		public boolean isUpToDate(final File directory, final String hash) {
+			if(!this.hash.equals(hash)) {
+				return false;
+			}
+			
+			final File file = new File(directory, this.path);
+			
+			return file.length() == this.size && file.lastModified() == this.lastModified;
+		}
+		
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.hash, this.path, Long.valueOf(this.lastModified), Long.valueOf(this.size));
+		}
+		
+		public long getLastModified() {
+			return this.lastModified;
+		}
+		
+		public long getSize() {
+			return this.size;
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,97 @@
+/**
+ * Copyright 2019 - 2021 J&#246;rgen Lundgren
+ * 
+ * This file is part of org.macroing.esg4j.
+ * 
+ * org.macroing.esg4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * org.macroing.esg4j is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with org.macroing.esg4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.macroing.esg4j.generator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+public final class MemorySink implements OutputSink {
+	private final Map<String, String> files;
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public MemorySink() {
+		this.files = new ConcurrentSkipListMap<>();
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public List<String> getPaths() {
+		return new ArrayList<>(this.files.keySet());
+	}
+	
+	public Optional<String> getContent(final String path) {
+		return Optional.ofNullable(this.files.get(Objects.requireNonNull(path, "path == null")));
+	}
+	
+	@Override
+	public String toString() {
+		return "new MemorySink()";
+	}
+	
+	public int size() {
+		return this.files.size();
+	}
+	
+	@Override
+	public long write(final String path, final CharSequence charSequence) {
+		final String string = Objects.requireNonNull(charSequence, "charSequence == null").toString();
+		
+		this.files.put(Objects.requireNonNull(path, "path == null"), string);
+		
+		return doGetByteCount(string);
+	}
+	
+	public void clear() {
+		this.files.clear();
+	}
+	
+	@Override
+	public void close() {
+		
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private static long doGetByteCount(final String string) {
+		long byteCount = 0L;
+		
+		for(int i = 0; i < string.length(); i++) {
+			final char character = string.charAt(i);
+			
+			if(character < 0x80) {
+				byteCount += 1L;
+			} else if(character < 0x800) {
+				byteCount += 2L;
+			} else if(Character.isHighSurrogate(character) && i + 1 < string.length() && Character.isLowSurrogate(string.charAt(i + 1))) {
+				byteCount += 4L;
+				
+				i++;
+			} else {
+				byteCount += 3L;
+			}
+		}
+		
+		return byteCount;
+	}
+}
\ No newline at end of file
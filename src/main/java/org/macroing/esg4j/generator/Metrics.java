@@ -0,0 +1,394 @@
+/**
+ * Copyright 2019 - 2021 J&#246;rgen Lundgren
+ * 
+ * This file is part of org.macroing.esg4j.
+ * 
+ * org.macroing.esg4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * org.macroing.esg4j is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with org.macroing.esg4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.macroing.esg4j.generator;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.macroing.cel4j.util.Document;
+import org.macroing.esg4j.json.JSONStrings;
+
+public final class Metrics {
+	private static final MethodHandle ARTIFACT_EVENT_EMIT = doFindArtifactEventEmit();
+	private static final String TOTAL = "total";
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private final Map<String, Entry> entries;
+	private final Map<String, Entry> groups;
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public Metrics() {
+		this.entries = new ConcurrentHashMap<>();
+		this.groups = new ConcurrentHashMap<>();
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public Document toDocument() {
+		final
+		Document document = new Document();
+		document.linef("%-60s %8s %8s %8s %8s %12s %12s %12s %12s %12s", "Type", "Count", "Written", "Skipped", "Failed", "Bytes", "Doc p50 us", "Doc p99 us", "Write p50 us", "Write p99 us");
+		
+		for(final Entry entry : getEntries()) {
+			document.linef("%-60s %8d %8d %8d %8d %12d %12d %12d %12d %12d", entry.getType(), Long.valueOf(entry.getCount()), Long.valueOf(entry.getWrittenCount()), Long.valueOf(entry.getSkippedCount()), Long.valueOf(entry.getFailedCount()), Long.valueOf(entry.getBytes().getSum()), Long.valueOf(doToMicroseconds(entry.getDocumentTime().getPercentile(0.5D))), Long.valueOf(doToMicroseconds(entry.getDocumentTime().getPercentile(0.99D))), Long.valueOf(doToMicroseconds(entry.getWriteTime().getPercentile(0.5D))), Long.valueOf(doToMicroseconds(entry.getWriteTime().getPercentile(0.99D))));
+		}
+		
+		final List<Entry> groups = getGroups();
+		
+		if(groups.size() > 0) {
+			document.line();
+			document.linef("%-60s %8s %8s %8s %8s %12s %12s %12s", "Group", "Count", "Written", "Skipped", "Failed", "Bytes", "CPU ms", "Artifacts/s");
+			
+			for(final Entry group : groups) {
+				document.linef("%-60s %8d %8d %8d %8d %12d %12d %12.1f", group.getType(), Long.valueOf(group.getCount()), Long.valueOf(group.getWrittenCount()), Long.valueOf(group.getSkippedCount()), Long.valueOf(group.getFailedCount()), Long.valueOf(group.getBytes().getSum()), Long.valueOf(TimeUnit.NANOSECONDS.toMillis(group.getTime())), Double.valueOf(group.getThroughput()));
+			}
+		}
+		
+		return document;
+	}
+	
+	public List<Entry> getEntries() {
+		final List<Entry> entries = new ArrayList<>(this.entries.values());
+		
+		entries.sort((a, b) -> TOTAL.equals(a.getType()) ? 1 : TOTAL.equals(b.getType()) ? -1 : a.getType().compareTo(b.getType()));
+		
+		return entries;
+	}
+	
+	public List<Entry> getGroups() {
+		final List<Entry> groups = new ArrayList<>(this.groups.values());
+		
+		groups.sort((a, b) -> a.getType().compareTo(b.getType()));
+		
+		return groups;
+	}
+	
+	public String toJSON() {
+		final StringBuilder stringBuilder = new StringBuilder();
+		
+		stringBuilder.append("{\"entries\":[");
+		
+		doAppendEntries(stringBuilder, getEntries(), "type");
+		
+		stringBuilder.append("],\"groups\":[");
+		
+		doAppendEntries(stringBuilder, getGroups(), "group");
+		
+		stringBuilder.append("]}");
+		
+		return stringBuilder.toString();
+	}
+	
+	@Override
+	public String toString() {
+		return toDocument().toString();
+	}
+	
+	public void record(final Artifact artifact, final String group, final String path, final long documentTime, final long writeTime, final long bytes, final boolean isWritten, final boolean isFailed) {
+		final String type = toType(artifact);
+		
+		doGetEntry(type).record(documentTime, writeTime, bytes, isWritten, isFailed);
+		doGetEntry(TOTAL).record(documentTime, writeTime, bytes, isWritten, isFailed);
+		
+		if(!group.isEmpty()) {
+			this.groups.computeIfAbsent(group, key -> new Entry(key)).record(documentTime, writeTime, bytes, isWritten, isFailed);
+		}
+		
+		if(ARTIFACT_EVENT_EMIT != null) {
+			try {
+				ARTIFACT_EVENT_EMIT.invokeExact(type, artifact.getTableName(), path, documentTime, writeTime, bytes, isWritten, isFailed);
+			} catch(final RuntimeException | Error e) {
+				throw e;
+			} catch(final Throwable e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public static String toType(final Artifact artifact) {
+		if(artifact instanceof Stamp.StampedArtifact) {
+			return toType(Stamp.StampedArtifact.class.cast(artifact).getArtifact());
+		}
+		
+		final String name = Objects.requireNonNull(artifact, "artifact == null").getClass().getName();
+		
+		return name.startsWith("org.macroing.esg4j.") ? name.substring("org.macroing.esg4j.".length()) : name;
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private Entry doGetEntry(final String type) {
+		return this.entries.computeIfAbsent(type, key -> new Entry(key));
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+//	ArtifactEvent is only loaded by name when JFR is present, so Metrics itself runs on a Java 8 runtime without JFR:
+	private static MethodHandle doFindArtifactEventEmit() {
+		try {
+			Class.forName("jdk.jfr.Event");
+			
+			return MethodHandles.lookup().findStatic(Class.forName("org.macroing.esg4j.generator.ArtifactEvent"), "emit", MethodType.methodType(void.class, String.class, String.class, String.class, long.class, long.class, long.class, boolean.class, boolean.class));
+		} catch(final ReflectiveOperationException | LinkageError e) {
+			return null;
+		}
+	}
+	
+	private static long doToMicroseconds(final long nanoseconds) {
+		return TimeUnit.NANOSECONDS.toMicros(nanoseconds);
+	}
+	
+	private static void doAppendEntries(final StringBuilder stringBuilder, final List<Entry> entries, final String name) {
+		for(int i = 0; i < entries.size(); i++) {
+			final Entry entry = entries.get(i);
+			
+			stringBuilder.append(i > 0 ? "," : "");
+			stringBuilder.append("{");
+			stringBuilder.append("\"").append(name).append("\":").append(JSONStrings.quote(entry.getType())).append(",");
+			stringBuilder.append("\"count\":").append(entry.getCount()).append(",");
+			stringBuilder.append("\"written\":").append(entry.getWrittenCount()).append(",");
+			stringBuilder.append("\"skipped\":").append(entry.getSkippedCount()).append(",");
+			stringBuilder.append("\"failed\":").append(entry.getFailedCount()).append(",");
+			stringBuilder.append("\"bytes\":").append(entry.getBytes().toJSON()).append(",");
+			stringBuilder.append("\"documentTimeNanos\":").append(entry.getDocumentTime().toJSON()).append(",");
+			stringBuilder.append("\"writeTimeNanos\":").append(entry.getWriteTime().toJSON());
+			stringBuilder.append("}");
+		}
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public static final class Entry {
+		private final Histogram bytes;
+		private final Histogram documentTime;
+		private final Histogram writeTime;
+		private final LongAdder failedCount;
+		private final LongAdder skippedCount;
+		private final LongAdder writtenCount;
+		private final String type;
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		Entry(final String type) {
+			this.type = Objects.requireNonNull(type, "type == null");
+			this.bytes = new Histogram();
+			this.documentTime = new Histogram();
+			this.writeTime = new Histogram();
+			this.failedCount = new LongAdder();
+			this.skippedCount = new LongAdder();
+			this.writtenCount = new LongAdder();
+		}
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public Histogram getBytes() {
+			return this.bytes;
+		}
+		
+		public Histogram getDocumentTime() {
+			return this.documentTime;
+		}
+		
+		public Histogram getWriteTime() {
+			return this.writeTime;
+		}
+		
+		public String getType() {
+			return this.type;
+		}
+		
+		public double getThroughput() {
+			final long time = getTime();
+			
+			return time > 0L ? getCount() * 1.0e9D / time : 0.0D;
+		}
+		
+		public long getCount() {
+			return getFailedCount() + getSkippedCount() + getWrittenCount();
+		}
+		
+		public long getFailedCount() {
+			return this.failedCount.sum();
+		}
+		
+		public long getSkippedCount() {
+			return this.skippedCount.sum();
+		}
+		
+		public long getTime() {
+			return this.documentTime.getSum() + this.writeTime.getSum();
+		}
+		
+		public long getWrittenCount() {
+			return this.writtenCount.sum();
+		}
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		void record(final long documentTime, final long writeTime, final long bytes, final boolean isWritten, final boolean isFailed) {
+			if(isFailed) {
+				this.failedCount.increment();
+				
+				return;
+			}
+			
+			this.documentTime.record(documentTime);
+			this.writeTime.record(writeTime);
+			this.bytes.record(bytes);
+			
+			if(isWritten) {
+				this.writtenCount.increment();
+			} else {
+				this.skippedCount.increment();
+			}
+		}
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public static final class Histogram {
+//		Each power of two is split into 16 linear buckets, so a percentile is reported at most 1/16 (6.25%) above the recorded value. Values below 16 are exact:
+		private static final int SUB_BUCKET_BITS = 4;
+		private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+		private static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (63 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		private final AtomicLong maximum;
+		private final AtomicLong minimum;
+		private final AtomicLongArray buckets;
+		private final LongAdder count;
+		private final LongAdder sum;
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public Histogram() {
+			this.maximum = new AtomicLong(Long.MIN_VALUE);
+			this.minimum = new AtomicLong(Long.MAX_VALUE);
+			this.buckets = new AtomicLongArray(BUCKET_COUNT);
+			this.count = new LongAdder();
+			this.sum = new LongAdder();
+		}
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public List<Long> getBuckets() {
+			final List<Long> buckets = new ArrayList<>(this.buckets.length());
+			
+			for(int i = 0; i < this.buckets.length(); i++) {
+				buckets.add(Long.valueOf(this.buckets.get(i)));
+			}
+			
+			return Collections.unmodifiableList(buckets);
+		}
+		
+		public String toJSON() {
+			return String.format("{\"count\":%d,\"sum\":%d,\"min\":%d,\"max\":%d,\"p50\":%d,\"p90\":%d,\"p99\":%d}", Long.valueOf(getCount()), Long.valueOf(getSum()), Long.valueOf(getMinimum()), Long.valueOf(getMaximum()), Long.valueOf(getPercentile(0.5D)), Long.valueOf(getPercentile(0.9D)), Long.valueOf(getPercentile(0.99D)));
+		}
+		
+		public long getCount() {
+			return this.count.sum();
+		}
+		
+		public long getMaximum() {
+			return getCount() > 0L ? this.maximum.get() : 0L;
+		}
+		
+		public long getMinimum() {
+			return getCount() > 0L ? this.minimum.get() : 0L;
+		}
+		
+		public long getPercentile(final double percentile) {
+			final long count = getCount();
+			
+			if(count == 0L) {
+				return 0L;
+			}
+			
+			final long rank = Math.max(1L, (long)(Math.ceil(percentile * count)));
+			
+			long cumulativeCount = 0L;
+			
+			for(int i = 0; i < this.buckets.length(); i++) {
+				cumulativeCount += this.buckets.get(i);
+				
+				if(cumulativeCount >= rank) {
+					return Math.min(doGetBucketMaximum(i), getMaximum());
+				}
+			}
+			
+			return getMaximum();
+		}
+		
+		public long getSum() {
+			return this.sum.sum();
+		}
+		
+		public void record(final long value) {
+			final long valueClamped = Math.max(value, 0L);
+			
+			this.buckets.incrementAndGet(doGetBucket(valueClamped));
+			this.count.increment();
+			this.sum.add(valueClamped);
+			this.maximum.accumulateAndGet(valueClamped, Math::max);
+			this.minimum.accumulateAndGet(valueClamped, Math::min);
+		}
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		private static int doGetBucket(final long value) {
+			if(value < SUB_BUCKET_COUNT) {
+				return (int)(value);
+			}
+			
+			final int exponent = 63 - Long.numberOfLeadingZeros(value);
+			
+			final int subBucket = (int)((value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1));
+			
+			return SUB_BUCKET_COUNT + (exponent - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT + subBucket;
+		}
+		
+		private static long doGetBucketMaximum(final int bucket) {
+			if(bucket < SUB_BUCKET_COUNT) {
+				return bucket;
+			}
+			
+			final int shift = (bucket - SUB_BUCKET_COUNT) / SUB_BUCKET_COUNT;
+			
+			final long subBucket = SUB_BUCKET_COUNT + (bucket - SUB_BUCKET_COUNT) % SUB_BUCKET_COUNT;
+			
+			return (subBucket << shift) + (1L << shift) - 1L;
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,47 @@
+/**
+ * Copyright 2019 - 2021 J&#246;rgen Lundgren
+ * 
+ * This file is part of org.macroing.esg4j.
+ * 
+ * org.macroing.esg4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * org.macroing.esg4j is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with org.macroing.esg4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.macroing.esg4j.generator;
+
+import java.io.Closeable;
+import java.util.Objects;
+
+public interface OutputSink extends Closeable {
+	default OutputSink withPrefixRemoved(final String prefix) {
+		Objects.requireNonNull(prefix, "prefix == null");
+		
+		final OutputSink outputSink = this;
+		
+		return new OutputSink() {
+			@Override
+			public long write(final String path, final CharSequence charSequence) {
+				return outputSink.write(path.startsWith(prefix) ? path.substring(prefix.length()) : path, charSequence);
+			}
+			
+			@Override
+			public void close() {
+				outputSink.close();
+			}
+		};
+	}
+	
+	long write(final String path, final CharSequence charSequence);
+	
+	@Override
+	void close();
+}
\ No newline at end of file
@@ -0,0 +1,311 @@
+/**
+ * Copyright 2019 - 2021 J&#246;rgen Lundgren
+ * 
+ * This file is part of org.macroing.esg4j.
+ * 
+ * org.macroing.esg4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * org.macroing.esg4j is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with org.macroing.esg4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.macroing.esg4j.generator;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.macroing.cel4j.util.Document;
+
+public final class OutputWriter {
+	private static final Set<String> DIRECTORIES = ConcurrentHashMap.newKeySet();
+	private static final ThreadLocal<State> STATE = ThreadLocal.withInitial(() -> new State());
+	private static final int BUFFER_SIZE = 64 * 1024;
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private OutputWriter() {
+		
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+//	The returned buffer belongs to the calling thread and is reused by the next string it encodes:
+	public static ByteBuffer encode(final CharSequence charSequence) {
+		final State state = STATE.get();
+		
+		final CharBuffer charBuffer = CharBuffer.wrap(Objects.requireNonNull(charSequence, "charSequence == null"));
+		
+		final CharsetEncoder charsetEncoder = state.getCharsetEncoder();
+		
+		ByteBuffer byteBuffer = state.getByteBuffer(charSequence.length());
+		
+		charsetEncoder.reset();
+		
+		while(true) {
+			final CoderResult coderResult = charsetEncoder.encode(charBuffer, byteBuffer, true);
+			
+			if(coderResult.isOverflow()) {
+				byteBuffer = state.grow();
+			} else if(coderResult.isUnderflow()) {
+				break;
+			} else {
+				doThrow(coderResult);
+			}
+		}
+		
+		while(charsetEncoder.flush(byteBuffer).isOverflow()) {
+			byteBuffer = state.grow();
+		}
+		
+		byteBuffer.flip();
+		
+		return byteBuffer;
+	}
+	
+//	The temporary file is created next to file, so it can replace file by an atomic move:
+	public static File createTemporaryFile(final File directory, final String prefix) {
+		Objects.requireNonNull(directory, "directory == null");
+		Objects.requireNonNull(prefix, "prefix == null");
+		
+		createDirectory(directory);
+		
+		try {
+			return File.createTempFile(prefix, ".tmp", directory);
+		} catch(final IOException e) {
+			if(directory.isDirectory()) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		
+//		The directory may have been removed after it was cached, so it is created again before retrying once:
+		DIRECTORIES.remove(directory.getPath());
+		
+		createDirectory(directory);
+		
+		try {
+			return File.createTempFile(prefix, ".tmp", directory);
+		} catch(final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	public static String hash(final ByteBuffer byteBuffer) {
+		final
+		MessageDigest messageDigest = STATE.get().getMessageDigest();
+		messageDigest.reset();
+		messageDigest.update(Objects.requireNonNull(byteBuffer, "byteBuffer == null").duplicate());
+		
+		return toHexadecimal(messageDigest.digest());
+	}
+	
+	public static String hash(final CharSequence charSequence) {
+		return hash(encode(charSequence));
+	}
+	
+//	Everything consumer appends is encoded and written to file in chunks, so the content is never held in memory as a whole. The hash of the written bytes is returned:
+	public static String stream(final File file, final Consumer<Appendable> consumer) {
+		Objects.requireNonNull(file, "file == null");
+		Objects.requireNonNull(consumer, "consumer == null");
+		
+		createDirectory(file.getAbsoluteFile().getParentFile());
+		
+		final MessageDigest messageDigest = State.doCreateMessageDigest();
+		
+		try(final Writer writer = new OutputStreamWriter(new DigestOutputStream(new BufferedOutputStream(Files.newOutputStream(file.toPath()), BUFFER_SIZE), messageDigest), StandardCharsets.UTF_8)) {
+			consumer.accept(writer);
+		} catch(final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		
+		return toHexadecimal(messageDigest.digest());
+	}
+	
+	public static String toHexadecimal(final byte[] bytes) {
+		final StringBuilder stringBuilder = new StringBuilder(bytes.length * 2);
+		
+		for(final byte b : bytes) {
+			stringBuilder.append(Character.forDigit((b >> 4) & 0xF, 16));
+			stringBuilder.append(Character.forDigit(b & 0xF, 16));
+		}
+		
+		return stringBuilder.toString();
+	}
+	
+	public static void createDirectory(final File directory) {
+		final File directoryAbsolute = Objects.requireNonNull(directory, "directory == null").getAbsoluteFile();
+		
+		if(DIRECTORIES.add(directoryAbsolute.getPath())) {
+			directoryAbsolute.mkdirs();
+		}
+	}
+	
+	public static void forgetDirectories() {
+		DIRECTORIES.clear();
+	}
+	
+	public static void move(final File source, final File target) {
+		Objects.requireNonNull(source, "source == null");
+		Objects.requireNonNull(target, "target == null");
+		
+		final File directory = target.getAbsoluteFile().getParentFile();
+		
+		createDirectory(directory);
+		
+		try {
+			Files.move(source.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch(final NoSuchFileException e) {
+//			The directory may have been removed after it was cached, so it is created again before retrying once:
+			DIRECTORIES.remove(directory.getPath());
+			
+			createDirectory(directory);
+			
+			try {
+				Files.move(source.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch(final IOException f) {
+				throw new UncheckedIOException(f);
+			}
+		} catch(final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	public static void write(final File file, final ByteBuffer byteBuffer) {
+		Objects.requireNonNull(file, "file == null");
+		Objects.requireNonNull(byteBuffer, "byteBuffer == null");
+		
+		final File directory = file.getAbsoluteFile().getParentFile();
+		
+		createDirectory(directory);
+		
+		try {
+			doWrite(file, byteBuffer.duplicate());
+		} catch(final NoSuchFileException e) {
+//			The directory may have been removed after it was cached, so it is created again before retrying once:
+			DIRECTORIES.remove(directory.getPath());
+			
+			createDirectory(directory);
+			
+			try {
+				doWrite(file, byteBuffer.duplicate());
+			} catch(final IOException f) {
+				throw new UncheckedIOException(f);
+			}
+		} catch(final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	public static void write(final File file, final CharSequence charSequence) {
+		write(Objects.requireNonNull(file, "file == null"), encode(charSequence));
+	}
+	
+	public static void write(final File file, final Document document) {
+		write(file, Objects.requireNonNull(document, "document == null").toString());
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private static void doThrow(final CoderResult coderResult) {
+		try {
+			coderResult.throwException();
+		} catch(final CharacterCodingException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	private static void doWrite(final File file, final ByteBuffer byteBuffer) throws IOException {
+		try(final FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			while(byteBuffer.hasRemaining()) {
+				fileChannel.write(byteBuffer);
+			}
+		}
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private static final class State {
+		private ByteBuffer byteBuffer;
+		private final CharsetEncoder charsetEncoder;
+		private final MessageDigest messageDigest;
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public State() {
+			this.byteBuffer = ByteBuffer.allocate(BUFFER_SIZE);
+			this.charsetEncoder = StandardCharsets.UTF_8.newEncoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+			this.messageDigest = doCreateMessageDigest();
+		}
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public ByteBuffer getByteBuffer(final int capacityMinimum) {
+			if(this.byteBuffer.capacity() < capacityMinimum) {
+				this.byteBuffer = ByteBuffer.allocate(Math.max(capacityMinimum, this.byteBuffer.capacity() * 2));
+			}
+			
+			this.byteBuffer.clear();
+			
+			return this.byteBuffer;
+		}
+		
+		public ByteBuffer grow() {
+			final ByteBuffer byteBuffer = ByteBuffer.allocate(this.byteBuffer.capacity() * 2);
+			
+			this.byteBuffer.flip();
+			
+			byteBuffer.put(this.byteBuffer);
+			
+			this.byteBuffer = byteBuffer;
+			
+			return this.byteBuffer;
+		}
+		
+		public CharsetEncoder getCharsetEncoder() {
+			return this.charsetEncoder;
+		}
+		
+		public MessageDigest getMessageDigest() {
+			return this.messageDigest;
+		}
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		private static MessageDigest doCreateMessageDigest() {
+			try {
+				return MessageDigest.getInstance("SHA-256");
+			} catch(final NoSuchAlgorithmException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,467 @@
+/**
+ * Copyright 2019 - 2021 J&#246;rgen Lundgren
+ * 
+ * This file is part of org.macroing.esg4j.
+ * 
+ * org.macroing.esg4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * org.macroing.esg4j is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with org.macroing.esg4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.macroing.esg4j.generator;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.macroing.cel4j.util.Strings;
+import org.macroing.esg4j.util.Derived;
+
+public final class RenderCache {
+	private static final Optional<String> FINGERPRINT = doCreateFingerprint();
+	private static final String VERSION = "esg4j-render-cache-2";
+	private static final long TEMPORARY_FILE_AGE_MAXIMUM = 60L * 60L * 1000L;
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private final File directory;
+	private final LongAdder evictedCount;
+	private final LongAdder hitCount;
+	private final LongAdder missCount;
+	private final Map<Class<?>, Optional<List<Field>>> fields;
+	private final long maximumSize;
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public RenderCache(final File directory, final long maximumSize) {
+		if(maximumSize < 0L) {
+			throw new IllegalArgumentException(String.format("maximumSize < 0: maximumSize = %d", Long.valueOf(maximumSize)));
+		}
+		
+		this.directory = Objects.requireNonNull(directory, "directory == null");
+		this.evictedCount = new LongAdder();
+		this.hitCount = new LongAdder();
+		this.missCount = new LongAdder();
+		this.fields = new ConcurrentHashMap<>();
+		this.maximumSize = maximumSize;
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public File getDirectory() {
+		return this.directory;
+	}
+	
+	public Optional<String> getKey(final Artifact artifact) {
+		Objects.requireNonNull(artifact, "artifact == null");
+		
+		if(artifact instanceof Stamp.StampedArtifact || !FINGERPRINT.isPresent()) {
+			return Optional.empty();
+		}
+		
+		final MessageDigest messageDigest = doCreateMessageDigest();
+		
+		doUpdate(messageDigest, VERSION);
+		doUpdate(messageDigest, FINGERPRINT.get());
+		
+		if(!doUpdate(messageDigest, artifact, Collections.newSetFromMap(new IdentityHashMap<>()))) {
+			return Optional.empty();
+		}
+		
+		return Optional.of(OutputWriter.toHexadecimal(messageDigest.digest()));
+	}
+	
+	public String render(final Artifact artifact) {
+		final Optional<String> optionalKey = getKey(artifact);
+		
+		if(!optionalKey.isPresent()) {
+			return artifact.render();
+		}
+		
+		final String key = optionalKey.get();
+		
+		final File file = doGetFile(key);
+		
+		final Optional<String> optionalString = doRead(file, key);
+		
+		if(optionalString.isPresent()) {
+			file.setLastModified(System.currentTimeMillis());
+			
+			this.hitCount.increment();
+			
+			return optionalString.get();
+		}
+		
+		this.missCount.increment();
+		
+		final String string = artifact.render();
+		
+		doStore(file, key, string);
+		
+		return string;
+	}
+	
+	@Override
+	public String toString() {
+		return String.format("new RenderCache(new File(\"%s\"), %d)", this.directory.getPath(), Long.valueOf(this.maximumSize));
+	}
+	
+	public long getEvictedCount() {
+		return this.evictedCount.sum();
+	}
+	
+	public long getHitCount() {
+		return this.hitCount.sum();
+	}
+	
+	public long getMaximumSize() {
+		return this.maximumSize;
+	}
+	
+	public long getMissCount() {
+		return this.missCount.sum();
+	}
+	
+	public void evict() {
+		if(!this.directory.isDirectory()) {
+			return;
+		}
+		
+		final List<File> files;
+		
+		try(final Stream<Path> stream = Files.walk(this.directory.toPath(), 2)) {
+			files = stream.map(path -> path.toFile()).filter(file -> file.isFile()).collect(Collectors.toList());
+		} catch(final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		
+		final long currentTimeMillis = System.currentTimeMillis();
+		
+//		A temporary file that is still there long after it was written belongs to a run that was killed before it could move or delete it:
+		for(final File file : files) {
+			if(file.getName().endsWith(".tmp") && currentTimeMillis - file.lastModified() > TEMPORARY_FILE_AGE_MAXIMUM) {
+				file.delete();
+			}
+		}
+		
+		files.removeIf(file -> file.getName().endsWith(".tmp"));
+		
+		final long[] lastModified = new long[files.size()];
+		final long[] lengths = new long[files.size()];
+		
+		long size = 0L;
+		
+		for(int i = 0; i < files.size(); i++) {
+			lastModified[i] = files.get(i).lastModified();
+			lengths[i] = files.get(i).length();
+			
+			size += lengths[i];
+		}
+		
+		if(size <= this.maximumSize) {
+			return;
+		}
+		
+		final Integer[] indices = new Integer[files.size()];
+		
+		for(int i = 0; i < indices.length; i++) {
+			indices[i] = Integer.valueOf(i);
+		}
+		
+		Arrays.sort(indices, Comparator.comparingLong(index -> lastModified[index.intValue()]));
+		
+		for(int i = 0; i < indices.length && size > this.maximumSize; i++) {
+			final int index = indices[i].intValue();
+			
+			if(files.get(index).delete()) {
+				this.evictedCount.increment();
+				
+				size -= lengths[index];
+			}
+		}
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private File doGetFile(final String key) {
+		return new File(new File(this.directory, key.substring(0, 2)), key.substring(2));
+	}
+	
+	private Optional<List<Field>> doGetFields(final Class<?> clazz) {
+		return this.fields.computeIfAbsent(clazz, key -> {
+			if(!key.getName().startsWith("org.macroing.esg4j.")) {
+				return Optional.empty();
+			}
+			
+			final List<Field> fields = new ArrayList<>();
+			
+			for(Class<?> currentClass = key; currentClass != null && currentClass != Object.class; currentClass = currentClass.getSuperclass()) {
+				for(final Field field : currentClass.getDeclaredFields()) {
+					if(!Modifier.isStatic(field.getModifiers()) && !field.isAnnotationPresent(Derived.class) && !field.isSynthetic()) {
+						field.setAccessible(true);
+						
+						fields.add(field);
+					}
+				}
+			}
+			
+			fields.sort(Comparator.comparing((final Field field) -> field.getDeclaringClass().getName()).thenComparing(Field::getName));
+			
+			return Optional.of(fields);
+		});
+	}
+	
+	private boolean doUpdate(final MessageDigest messageDigest, final Object object, final Set<Object> objects) {
+		if(object == null) {
+			messageDigest.update((byte)('N'));
+			
+			return true;
+		} else if(object instanceof String) {
+			messageDigest.update((byte)('S'));
+			
+			doUpdate(messageDigest, String.class.cast(object));
+			
+			return true;
+		} else if(object instanceof Boolean || object instanceof Character || object instanceof Number) {
+			messageDigest.update((byte)('P'));
+			
+			doUpdate(messageDigest, object.getClass().getName());
+			doUpdate(messageDigest, object.toString());
+			
+			return true;
+		} else if(object instanceof Enum) {
+			messageDigest.update((byte)('E'));
+			
+			doUpdate(messageDigest, Enum.class.cast(object).getDeclaringClass().getName());
+			doUpdate(messageDigest, Enum.class.cast(object).name());
+			
+			return true;
+		} else if(!objects.add(object)) {
+			return false;
+		}
+		
+		try {
+			if(object instanceof List) {
+				final List<?> list = List.class.cast(object);
+				
+				messageDigest.update((byte)('L'));
+				messageDigest.update(ByteBuffer.allocate(4).putInt(list.size()).array());
+				
+				for(final Object element : list) {
+					if(!doUpdate(messageDigest, element, objects)) {
+						return false;
+					}
+				}
+				
+				return true;
+			}
+			
+			final Optional<List<Field>> optionalFields = doGetFields(object.getClass());
+			
+			if(!optionalFields.isPresent()) {
+				return false;
+			}
+			
+			messageDigest.update((byte)('O'));
+			
+			doUpdate(messageDigest, object.getClass().getName());
+			
+			for(final Field field : optionalFields.get()) {
+				doUpdate(messageDigest, field.getName());
+				
+				if(!doUpdate(messageDigest, field.get(object), objects)) {
+					return false;
+				}
+			}
+			
+			return true;
+		} catch(final IllegalAccessException e) {
+			return false;
+		} finally {
+			objects.remove(object);
+		}
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private static MessageDigest doCreateMessageDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch(final NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	private static Optional<String> doCreateFingerprint() {
+		final Set<Path> paths = new LinkedHashSet<>();
+		
+		for(final Class<?> clazz : Arrays.asList(RenderCache.class, Strings.class)) {
+			final Optional<Path> optionalPath = doGetCodeSource(clazz);
+			
+			if(!optionalPath.isPresent()) {
+				return Optional.empty();
+			}
+			
+			paths.add(optionalPath.get());
+		}
+		
+		final MessageDigest messageDigest = doCreateMessageDigest();
+		
+		try {
+			for(final Path path : paths) {
+				if(Files.isDirectory(path)) {
+					final List<Path> files;
+					
+					try(final Stream<Path> stream = Files.walk(path)) {
+						files = stream.filter(file -> Files.isRegularFile(file)).sorted().collect(Collectors.toList());
+					}
+					
+					for(final Path file : files) {
+						doUpdate(messageDigest, path.relativize(file).toString().replace(File.separatorChar, '/'));
+						doUpdate(messageDigest, file);
+					}
+				} else {
+					doUpdate(messageDigest, path);
+				}
+			}
+		} catch(final IOException e) {
+//			Entries cannot be told apart from those of other builds without a fingerprint, so nothing is cached:
+			return Optional.empty();
+		}
+		
+		return Optional.of(OutputWriter.toHexadecimal(messageDigest.digest()));
+	}
+	
+	private static Optional<Path> doGetCodeSource(final Class<?> clazz) {
+		final CodeSource codeSource = clazz.getProtectionDomain().getCodeSource();
+		
+		if(codeSource == null || codeSource.getLocation() == null) {
+			return Optional.empty();
+		}
+		
+		try {
+			return Optional.of(Paths.get(codeSource.getLocation().toURI()));
+		} catch(final FileSystemNotFoundException | IllegalArgumentException | URISyntaxException e) {
+			return Optional.empty();
+		}
+	}
+	
+	private static Optional<String> doRead(final File file, final String key) {
+		final byte[] bytes;
+		
+		try {
+			bytes = Files.readAllBytes(file.toPath());
+		} catch(final NoSuchFileException e) {
+			return Optional.empty();
+		} catch(final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		
+		int length = 0;
+		
+		while(length < bytes.length && bytes[length] != '\n') {
+			length++;
+		}
+		
+		if(length < bytes.length) {
+			final ByteBuffer byteBuffer = ByteBuffer.wrap(bytes, length + 1, bytes.length - length - 1);
+			
+			if(new String(bytes, 0, length, StandardCharsets.UTF_8).equals(doCreateHeader(key, OutputWriter.hash(byteBuffer)))) {
+				return Optional.of(StandardCharsets.UTF_8.decode(byteBuffer).toString());
+			}
+		}
+		
+//		A truncated, corrupted or misplaced entry is removed and rendered again:
+		file.delete();
+		
+		return Optional.empty();
+	}
+	
+	private static String doCreateHeader(final String key, final String hash) {
+		return VERSION + " " + key + " " + hash;
+	}
+	
+	private static void doStore(final File file, final String key, final String string) {
+		final File directory = file.getParentFile();
+		
+		OutputWriter.createDirectory(directory);
+		
+		final ByteBuffer byteBuffer = OutputWriter.encode(string);
+		
+		final byte[] header = (doCreateHeader(key, OutputWriter.hash(byteBuffer)) + "\n").getBytes(StandardCharsets.UTF_8);
+		
+		File fileTemporary = null;
+		
+		try {
+			fileTemporary = File.createTempFile(file.getName(), ".tmp", directory);
+			
+			try(final OutputStream outputStream = Files.newOutputStream(fileTemporary.toPath())) {
+				outputStream.write(header);
+				outputStream.write(byteBuffer.array(), byteBuffer.arrayOffset() + byteBuffer.position(), byteBuffer.remaining());
+			}
+			
+			Files.move(fileTemporary.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch(final IOException e) {
+//			The cache is an optimization, so an entry that cannot be stored is simply rendered again next time:
+			if(fileTemporary != null) {
+				fileTemporary.delete();
+			}
+		}
+	}
+	
+	private static void doUpdate(final MessageDigest messageDigest, final Path path) throws IOException {
+		try(final InputStream inputStream = Files.newInputStream(path)) {
+			final byte[] bytes = new byte[8192];
+			
+			for(int count = inputStream.read(bytes); count >= 0; count = inputStream.read(bytes)) {
+				messageDigest.update(bytes, 0, count);
+			}
+		}
+	}
+	
+	private static void doUpdate(final MessageDigest messageDigest, final String string) {
+		final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+		
+		messageDigest.update(ByteBuffer.allocate(4).putInt(bytes.length).array());
+		messageDigest.update(bytes);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,122 @@
+/**
+ * Copyright 2019 - 2021 J&#246;rgen Lundgren
+ * 
+ * This file is part of org.macroing.esg4j.
+ * 
+ * org.macroing.esg4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * org.macroing.esg4j is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with org.macroing.esg4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.macroing.esg4j.generator;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+public final class Shard {
+	private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+	private static final long FNV_PRIME = 0x100000001B3L;
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private final int count;
+	private final int index;
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public Shard(final int index, final int count) {
+		if(count < 1) {
+			throw new IllegalArgumentException(String.format("count < 1: count = %d", Integer.valueOf(count)));
+		}
+		
+		if(index < 0 || index >= count) {
+			throw new IllegalArgumentException(String.format("index < 0 || index >= count: index = %d, count = %d", Integer.valueOf(index), Integer.valueOf(count)));
+		}
+		
+		this.index = index;
+		this.count = count;
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public String getManifestFileName() {
+		return String.format("%s.shard-%d-of-%d", Manifest.FILE_NAME, Integer.valueOf(this.index), Integer.valueOf(this.count));
+	}
+	
+	@Override
+	public String toString() {
+		return String.format("new Shard(%d, %d)", Integer.valueOf(this.index), Integer.valueOf(this.count));
+	}
+	
+	public boolean contains(final String key) {
+		return indexOf(key, this.count) == this.index;
+	}
+	
+	@Override
+	public boolean equals(final Object object) {
+		if(object == this) {
+			return true;
+		} else if(!(object instanceof Shard)) {
+			return false;
+		} else if(this.count != Shard.class.cast(object).count) {
+			return false;
+		} else if(this.index != Shard.class.cast(object).index) {
+			return false;
+		} else {
+			return true;
+		}
+	}
+	
+	public int getCount() {
+		return this.count;
+	}
+	
+	public int getIndex() {
+		return this.index;
+	}
+	
+	@Override
+	public int hashCode() {
+		return Objects.hash(Integer.valueOf(this.count), Integer.valueOf(this.index));
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public static Shard parse(final String string) {
+		final String[] strings = Objects.requireNonNull(string, "string == null").split("/");
+		
+		if(strings.length != 2) {
+			throw new IllegalArgumentException(String.format("A shard must be given as index/count but was \"%s\".", string));
+		}
+		
+		try {
+			return new Shard(Integer.parseInt(strings[0].trim()), Integer.parseInt(strings[1].trim()));
+		} catch(final NumberFormatException e) {
+			throw new IllegalArgumentException(String.format("A shard must be given as index/count but was \"%s\".", string), e);
+		}
+	}
+	
+	public static int indexOf(final String key, final int count) {
+		if(count < 1) {
+			throw new IllegalArgumentException(String.format("count < 1: count = %d", Integer.valueOf(count)));
+		}
+		
+//		FNV-1a over the UTF-8 bytes is used rather than String.hashCode(), so the partition is the same on every machine and spreads similar keys:
+		long hash = FNV_OFFSET_BASIS;
+		
+		for(final byte b : Objects.requireNonNull(key, "key == null").getBytes(StandardCharsets.UTF_8)) {
+			hash ^= b & 0xFF;
+			hash *= FNV_PRIME;
+		}
+		
+		return (int)(Long.remainderUnsigned(hash, count));
+	}
+}
\ No newline at end of file
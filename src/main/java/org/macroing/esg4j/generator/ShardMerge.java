@@ -0,0 +1,150 @@
+/**
+ * Copyright 2019 - 2021 J&#246;rgen Lundgren
+ * 
+ * This file is part of org.macroing.esg4j.
+ * 
+ * org.macroing.esg4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * org.macroing.esg4j is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with org.macroing.esg4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.macroing.esg4j.generator;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.macroing.cel4j.util.Document;
+
+public final class ShardMerge {
+	private final List<String> errors;
+	private final Manifest manifest;
+	private final int deletedCount;
+	private final int shardCount;
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private ShardMerge(final List<String> errors, final Manifest manifest, final int shardCount, final int deletedCount) {
+		this.errors = errors;
+		this.manifest = manifest;
+		this.shardCount = shardCount;
+		this.deletedCount = deletedCount;
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public Document toDocument() {
+		final
+		Document document = new Document();
+		
+		if(isSuccessful()) {
+			document.linef("Merged %d shard(s) into %d file(s), deleted %d.", Integer.valueOf(this.shardCount), Integer.valueOf(this.manifest.size()), Integer.valueOf(this.deletedCount));
+		} else {
+			document.linef("Unable to merge %d shard(s), %d error(s):", Integer.valueOf(this.shardCount), Integer.valueOf(this.errors.size()));
+			document.indent();
+			
+			for(final String error : this.errors) {
+				document.line(error);
+			}
+			
+			document.outdent();
+		}
+		
+		return document;
+	}
+	
+	public List<String> getErrors() {
+		return new ArrayList<>(this.errors);
+	}
+	
+	public Manifest getManifest() {
+		return this.manifest;
+	}
+	
+	@Override
+	public String toString() {
+		return toDocument().toString();
+	}
+	
+	public boolean isSuccessful() {
+		return this.errors.isEmpty();
+	}
+	
+	public int getDeletedCount() {
+		return this.deletedCount;
+	}
+	
+	public int getShardCount() {
+		return this.shardCount;
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public static ShardMerge merge(final File directory, final int shardCount) {
+		Objects.requireNonNull(directory, "directory == null");
+		
+		if(shardCount < 1) {
+			throw new IllegalArgumentException(String.format("shardCount < 1: shardCount = %d", Integer.valueOf(shardCount)));
+		}
+		
+		final List<String> errors = new ArrayList<>();
+		
+		final Manifest manifest = new Manifest();
+		
+		final Map<String, Shard> shardsByPath = new HashMap<>();
+		
+		for(int i = 0; i < shardCount; i++) {
+			final Shard shard = new Shard(i, shardCount);
+			
+			final String manifestFileName = shard.getManifestFileName();
+			
+			if(!new File(directory, manifestFileName).isFile()) {
+				errors.add(String.format("%s: Shard %d/%d has not been generated.", new File(directory, manifestFileName).getPath(), Integer.valueOf(i), Integer.valueOf(shardCount)));
+				
+				continue;
+			}
+			
+			for(final Manifest.Entry entry : Manifest.readFrom(directory, manifestFileName).getEntries()) {
+				final Shard shardOther = shardsByPath.putIfAbsent(entry.getPath(), shard);
+				
+				final File file = new File(directory, entry.getPath());
+				
+				if(shardOther != null) {
+					errors.add(String.format("%s: Generated by both shard %d/%d and shard %d/%d.", file.getPath(), Integer.valueOf(shardOther.getIndex()), Integer.valueOf(shardCount), Integer.valueOf(i), Integer.valueOf(shardCount)));
+				} else if(!file.isFile() || file.length() != entry.getSize()) {
+					errors.add(String.format("%s: Missing or changed since shard %d/%d generated it.", file.getPath(), Integer.valueOf(i), Integer.valueOf(shardCount)));
+				} else {
+					manifest.addEntry(entry);
+				}
+			}
+		}
+		
+		if(errors.size() > 0) {
+			return new ShardMerge(errors, manifest, shardCount, 0);
+		}
+		
+//		The shard manifests are kept, so the next run of each shard can skip unchanged files. Files that no shard generated any longer are deleted:
+		int deletedCount = 0;
+		
+		for(final Manifest.Entry entry : Manifest.readFrom(directory).getEntries()) {
+			if(!manifest.getEntry(entry.getPath()).isPresent() && new File(directory, entry.getPath()).delete()) {
+				deletedCount++;
+			}
+		}
+		
+		manifest.writeTo(directory);
+		
+		return new ShardMerge(errors, manifest, shardCount, deletedCount);
+	}
+}
\ No newline at end of file
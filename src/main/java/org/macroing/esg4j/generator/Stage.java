@@ -0,0 +1,232 @@
+/**
+ * Copyright 2019 - 2021 J&#246;rgen Lundgren
+ * 
+ * This file is part of org.macroing.esg4j.
+ * 
+ * org.macroing.esg4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * org.macroing.esg4j is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with org.macroing.esg4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.macroing.esg4j.generator;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+final class Stage {
+	private final AtomicBoolean isFailed;
+	private final File directory;
+	private final File directoryBackup;
+	private final File root;
+	private final File directoryStaging;
+	private final List<File> filesWritten;
+	private final String prefix;
+	private int droppedCount;
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public Stage(final File root, final String prefix) {
+		this.root = Objects.requireNonNull(root, "root == null");
+		this.prefix = Objects.requireNonNull(prefix, "prefix == null");
+		this.directory = new File(root, prefix);
+		this.directoryBackup = new File(this.directory.getParentFile(), "." + this.directory.getName() + ".esg4j-backup");
+		this.directoryStaging = new File(this.directory.getParentFile(), "." + this.directory.getName() + ".esg4j-staging");
+		this.filesWritten = Collections.synchronizedList(new ArrayList<>());
+		this.isFailed = new AtomicBoolean();
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public File getDirectory() {
+		return this.directory;
+	}
+	
+	public File getRoot() {
+		return this.root;
+	}
+	
+	public File toFileStaged(final String path) {
+		return new File(this.directoryStaging, path.substring(this.prefix.length()));
+	}
+	
+	public List<File> getFilesWritten() {
+		return new ArrayList<>(this.filesWritten);
+	}
+	
+	public List<String> getPathsUnknown(final Manifest manifestOld, final Manifest manifestNew) {
+		if(!this.directory.isDirectory()) {
+			return Collections.emptyList();
+		}
+		
+		final Path path = this.directory.toPath();
+		
+		try(final Stream<Path> stream = Files.walk(path)) {
+			return stream.filter(Files::isRegularFile).map(pathFile -> this.prefix + path.relativize(pathFile).toString().replace(File.separatorChar, '/')).filter(pathFile -> !manifestOld.getEntry(pathFile).isPresent() && !manifestNew.getEntry(pathFile).isPresent()).collect(Collectors.toList());
+		} catch(final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	public String getPrefix() {
+		return this.prefix;
+	}
+	
+	public boolean hasChanges() {
+		return this.filesWritten.size() > 0 || this.droppedCount > 0;
+	}
+	
+	public boolean isFailed() {
+		return this.isFailed.get();
+	}
+	
+	public boolean matches(final String path) {
+		return path.startsWith(this.prefix);
+	}
+	
+	public int getDroppedCount() {
+		return this.droppedCount;
+	}
+	
+	public void addDropped() {
+		this.droppedCount++;
+	}
+	
+	public void addWritten(final File fileStaged) {
+		this.filesWritten.add(fileStaged);
+	}
+	
+	public void commit() {
+		try {
+			if(this.directory.exists()) {
+				Files.move(this.directory.toPath(), this.directoryBackup.toPath(), StandardCopyOption.ATOMIC_MOVE);
+				Files.move(this.directoryStaging.toPath(), this.directory.toPath(), StandardCopyOption.ATOMIC_MOVE);
+				
+				doForceDirectory(this.directory.getParentFile());
+				doDelete(this.directoryBackup);
+			} else {
+				OutputWriter.createDirectory(this.directory.getParentFile());
+				
+				Files.move(this.directoryStaging.toPath(), this.directory.toPath(), StandardCopyOption.ATOMIC_MOVE);
+				
+				doForceDirectory(this.directory.getParentFile());
+			}
+		} catch(final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	public void discard() {
+		doDelete(this.directoryStaging);
+	}
+	
+	public void fail() {
+		this.isFailed.set(true);
+	}
+	
+	public void force() {
+		final List<File> filesWritten = getFilesWritten();
+		
+		filesWritten.parallelStream().forEach(fileWritten -> doForce(fileWritten.toPath(), StandardOpenOption.WRITE));
+		
+		final Set<File> directories = new LinkedHashSet<>();
+		
+		for(final File fileWritten : filesWritten) {
+			File directory = fileWritten.getParentFile();
+			
+			while(directory != null && directory.getPath().startsWith(this.directoryStaging.getPath()) && directories.add(directory)) {
+				directory = directory.getParentFile();
+			}
+		}
+		
+		for(final File directory : directories) {
+			doForceDirectory(directory);
+		}
+	}
+	
+	public void link(final File fileLive, final File fileStaged) {
+		try {
+			OutputWriter.createDirectory(fileStaged.getParentFile());
+			
+			try {
+				Files.createLink(fileStaged.toPath(), fileLive.toPath());
+			} catch(final UnsupportedOperationException | FileSystemException e) {
+				Files.copy(fileLive.toPath(), fileStaged.toPath(), StandardCopyOption.COPY_ATTRIBUTES, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} catch(final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	public void prepare() {
+		try {
+			if(this.directoryBackup.exists() && !this.directory.exists()) {
+				Files.move(this.directoryBackup.toPath(), this.directory.toPath(), StandardCopyOption.ATOMIC_MOVE);
+			}
+		} catch(final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		
+		doDelete(this.directoryBackup);
+		doDelete(this.directoryStaging);
+		
+		OutputWriter.forgetDirectories();
+		OutputWriter.createDirectory(this.directoryStaging);
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private static void doDelete(final File directory) {
+		if(!directory.exists()) {
+			return;
+		}
+		
+		try(final Stream<Path> stream = Files.walk(directory.toPath())) {
+			for(final Path path : stream.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+				Files.delete(path);
+			}
+		} catch(final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	private static void doForce(final Path path, final StandardOpenOption standardOpenOption) {
+		try(final FileChannel fileChannel = FileChannel.open(path, standardOpenOption)) {
+			fileChannel.force(true);
+		} catch(final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	private static void doForceDirectory(final File directory) {
+		try {
+			doForce(directory.toPath(), StandardOpenOption.READ);
+		} catch(final UncheckedIOException e) {
+//			Not every platform allows a directory to be forced.
+		}
+	}
+}
\ No newline at end of file
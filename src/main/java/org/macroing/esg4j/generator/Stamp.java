@@ -0,0 +1,251 @@
+/**
+ * Copyright 2019 - 2021 J&#246;rgen Lundgren
+ * 
+ * This file is part of org.macroing.esg4j.
+ * 
+ * org.macroing.esg4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * org.macroing.esg4j is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with org.macroing.esg4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.macroing.esg4j.generator;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.macroing.cel4j.util.Document;
+
+public final class Stamp {
+	private final List<String> tokens;
+	private final List<Template> templates;
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public Stamp(final List<? extends Artifact> artifacts, final List<String> tokens) {
+		this.tokens = new ArrayList<>(Objects.requireNonNull(tokens, "tokens == null"));
+		
+		if(this.tokens.isEmpty()) {
+			throw new IllegalArgumentException("tokens.isEmpty()");
+		}
+		
+		final Pattern pattern = Pattern.compile(this.tokens.stream().sorted((a, b) -> b.length() - a.length()).map(token -> Pattern.quote(Objects.requireNonNull(token, "token == null"))).collect(Collectors.joining("|")));
+		
+		this.templates = Objects.requireNonNull(artifacts, "artifacts == null").parallelStream().map(artifact -> new Template(artifact, new Segments(artifact.getRelativeFile().getPath().replace(File.separatorChar, '/'), pattern, this.tokens), new Segments(artifact.render(), pattern, this.tokens))).collect(Collectors.toList());
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public List<Artifact> stamp(final Map<String, String> replacements) {
+		Objects.requireNonNull(replacements, "replacements == null");
+		
+		final String[] values = new String[this.tokens.size()];
+		
+		for(int i = 0; i < values.length; i++) {
+			values[i] = replacements.get(this.tokens.get(i));
+			
+			if(values[i] == null) {
+				throw new IllegalArgumentException(String.format("No replacement for token \"%s\".", this.tokens.get(i)));
+			}
+		}
+		
+		final List<Artifact> artifacts = new ArrayList<>(this.templates.size());
+		
+		for(final Template template : this.templates) {
+			artifacts.add(new StampedArtifact(template.getArtifact(), template.getPath().apply(values), template.getContent().apply(values)));
+		}
+		
+		return artifacts;
+	}
+	
+	@Override
+	public String toString() {
+		return String.format("new Stamp(%d artifact(s), %s)", Integer.valueOf(this.templates.size()), this.tokens);
+	}
+	
+	public boolean contains(final String string) {
+		final String stringLowerCase = Objects.requireNonNull(string, "string == null").toLowerCase(Locale.ENGLISH);
+		
+		for(final Template template : this.templates) {
+			if(template.getPath().contains(stringLowerCase) || template.getContent().contains(stringLowerCase)) {
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	public int size() {
+		return this.templates.size();
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	static final class StampedArtifact implements Artifact {
+		private final Artifact artifact;
+		private final String content;
+		private final String path;
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public StampedArtifact(final Artifact artifact, final String path, final String content) {
+			this.artifact = artifact;
+			this.path = path;
+			this.content = content;
+		}
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public Artifact getArtifact() {
+			return this.artifact;
+		}
+		
+		@Override
+		public Document write() {
+			final Document document = new Document();
+			
+			final String content = this.content.endsWith("\n") ? this.content.substring(0, this.content.length() - 1) : this.content;
+			
+			for(final String line : content.split("\r?\n", -1)) {
+				document.line(line);
+			}
+			
+			return document;
+		}
+		
+		@Override
+		public File getRelativeFile() {
+			return new File(this.path);
+		}
+		
+		@Override
+		public String getTableName() {
+			return this.artifact.getTableName();
+		}
+		
+		@Override
+		public String render() {
+			return this.content;
+		}
+		
+		@Override
+		public String toString() {
+			return String.format("new StampedArtifact(%s, \"%s\")", this.artifact, this.path);
+		}
+		
+		@Override
+		public void generateTo(final File directory) {
+			OutputWriter.write(new File(Objects.requireNonNull(directory, "directory == null"), this.path), this.content);
+		}
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private static final class Segments {
+		private final String[] literals;
+		private final int[] indices;
+		private final int length;
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public Segments(final String string, final Pattern pattern, final List<String> tokens) {
+			final List<String> literals = new ArrayList<>();
+			final List<Integer> indices = new ArrayList<>();
+			
+			final Matcher matcher = pattern.matcher(string);
+			
+			int index = 0;
+			int length = 0;
+			
+			while(matcher.find()) {
+				literals.add(string.substring(index, matcher.start()));
+				indices.add(Integer.valueOf(tokens.indexOf(matcher.group())));
+				
+				length += matcher.start() - index;
+				
+				index = matcher.end();
+			}
+			
+			literals.add(string.substring(index));
+			
+			this.literals = literals.toArray(new String[literals.size()]);
+			this.indices = indices.stream().mapToInt(Integer::intValue).toArray();
+			this.length = length + string.length() - index;
+		}
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public String apply(final String[] values) {
+			int length = this.length;
+			
+			for(final int index : this.indices) {
+				length += values[index].length();
+			}
+			
+			final StringBuilder stringBuilder = new StringBuilder(length);
+			
+			for(int i = 0; i < this.indices.length; i++) {
+				stringBuilder.append(this.literals[i]);
+				stringBuilder.append(values[this.indices[i]]);
+			}
+			
+			stringBuilder.append(this.literals[this.literals.length - 1]);
+			
+			return stringBuilder.toString();
+		}
+		
+		public boolean contains(final String stringLowerCase) {
+			for(final String literal : this.literals) {
+				if(literal.toLowerCase(Locale.ENGLISH).contains(stringLowerCase)) {
+					return true;
+				}
+			}
+			
+			return false;
+		}
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private static final class Template {
+		private final Artifact artifact;
+		private final Segments content;
+		private final Segments path;
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public Template(final Artifact artifact, final Segments path, final Segments content) {
+			this.artifact = artifact;
+			this.path = path;
+			this.content = content;
+		}
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public Artifact getArtifact() {
+			return this.artifact;
+		}
+		
+		public Segments getContent() {
+			return this.content;
+		}
+		
+		public Segments getPath() {
+			return this.path;
+		}
+	}
+}
\ No newline at end of file
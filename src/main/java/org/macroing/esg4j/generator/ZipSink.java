@@ -0,0 +1,106 @@
+/**
+ * Copyright 2019 - 2021 J&#246;rgen Lundgren
+ * 
+ * This file is part of org.macroing.esg4j.
+ * 
+ * org.macroing.esg4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * org.macroing.esg4j is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with org.macroing.esg4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.macroing.esg4j.generator;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Objects;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+public final class ZipSink implements OutputSink {
+	private static final long TIME = 315532800000L;
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private final ZipOutputStream zipOutputStream;
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public ZipSink(final File file) {
+		this(doNewOutputStream(file), Deflater.DEFAULT_COMPRESSION);
+	}
+	
+	public ZipSink(final OutputStream outputStream, final int level) {
+		this.zipOutputStream = new ZipOutputStream(Objects.requireNonNull(outputStream, "outputStream == null"), StandardCharsets.UTF_8);
+		this.zipOutputStream.setLevel(level);
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	@Override
+	public String toString() {
+		return "new ZipSink()";
+	}
+	
+	@Override
+	public long write(final String path, final CharSequence charSequence) {
+		final ByteBuffer byteBuffer = OutputWriter.encode(Objects.requireNonNull(charSequence, "charSequence == null"));
+		
+		final
+		ZipEntry zipEntry = new ZipEntry(Objects.requireNonNull(path, "path == null"));
+		zipEntry.setTime(TIME);
+		
+		synchronized(this.zipOutputStream) {
+			try {
+				this.zipOutputStream.putNextEntry(zipEntry);
+				this.zipOutputStream.write(byteBuffer.array(), byteBuffer.arrayOffset() + byteBuffer.position(), byteBuffer.remaining());
+				this.zipOutputStream.closeEntry();
+			} catch(final IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		
+		return byteBuffer.remaining();
+	}
+	
+	@Override
+	public void close() {
+		synchronized(this.zipOutputStream) {
+			try {
+				this.zipOutputStream.close();
+			} catch(final IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private static OutputStream doNewOutputStream(final File file) {
+		try {
+			final File directory = Objects.requireNonNull(file, "file == null").getAbsoluteFile().getParentFile();
+			
+			if(directory != null) {
+				OutputWriter.createDirectory(directory);
+			}
+			
+			return new BufferedOutputStream(Files.newOutputStream(file.toPath()), 1 << 16);
+		} catch(final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,53 @@
+/**
+ * Copyright 2019 - 2021 J&#246;rgen Lundgren
+ * 
+ * This file is part of org.macroing.esg4j.
+ * 
+ * org.macroing.esg4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * org.macroing.esg4j is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with org.macroing.esg4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.macroing.esg4j.json;
+
+public final class JSONException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private final String description;
+	private final int column;
+	private final int line;
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public JSONException(final String description, final int line, final int column) {
+		super(String.format("%s (line %d, column %d)", description, Integer.valueOf(line), Integer.valueOf(column)));
+		
+		this.description = description;
+		this.line = line;
+		this.column = column;
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public String getDescription() {
+		return this.description;
+	}
+	
+	public int getColumn() {
+		return this.column;
+	}
+	
+	public int getLine() {
+		return this.line;
+	}
+}
\ No newline at end of file
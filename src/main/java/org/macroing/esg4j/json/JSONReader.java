@@ -0,0 +1,522 @@
+/**
+ * Copyright 2019 - 2021 J&#246;rgen Lundgren
+ * 
+ * This file is part of org.macroing.esg4j.
+ * 
+ * org.macroing.esg4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * org.macroing.esg4j is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with org.macroing.esg4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.macroing.esg4j.json;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+public final class JSONReader implements Closeable {
+	private static final int CONTEXT_DANGLING_NAME = 1;
+	private static final int CONTEXT_EMPTY_ARRAY = 2;
+	private static final int CONTEXT_EMPTY_DOCUMENT = 3;
+	private static final int CONTEXT_EMPTY_OBJECT = 4;
+	private static final int CONTEXT_NONEMPTY_ARRAY = 5;
+	private static final int CONTEXT_NONEMPTY_DOCUMENT = 6;
+	private static final int CONTEXT_NONEMPTY_OBJECT = 7;
+	private static final Pattern NUMBER = Pattern.compile("-?(0|[1-9][0-9]*)(\\.[0-9]+)?([eE][+-]?[0-9]+)?");
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private JSONToken token;
+	private final Reader reader;
+	private String tokenValue;
+	private final StringBuilder stringBuilder;
+	private final char[] buffer;
+	private int bufferLength;
+	private int bufferPosition;
+	private int column;
+	private int line;
+	private int[] stack;
+	private int stackSize;
+	private int tokenColumn;
+	private int tokenLine;
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public JSONReader(final Reader reader) {
+		this.reader = Objects.requireNonNull(reader, "reader == null");
+		this.stringBuilder = new StringBuilder();
+		this.buffer = new char[8192];
+		this.column = 1;
+		this.line = 1;
+		this.stack = new int[32];
+		this.stack[0] = CONTEXT_EMPTY_DOCUMENT;
+		this.stackSize = 1;
+		this.tokenColumn = 1;
+		this.tokenLine = 1;
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public JSONException newException(final String description) {
+		return new JSONException(description, this.tokenLine, this.tokenColumn);
+	}
+	
+	public JSONToken peek() {
+		if(this.token != null) {
+			return this.token;
+		}
+		
+		switch(this.stack[this.stackSize - 1]) {
+			case CONTEXT_EMPTY_ARRAY:
+				this.stack[this.stackSize - 1] = CONTEXT_NONEMPTY_ARRAY;
+				
+				if(doPeekCharNonWhitespace() == ']') {
+					return doSetToken(JSONToken.END_ARRAY, null, true);
+				}
+				
+				break;
+			case CONTEXT_NONEMPTY_ARRAY:
+				switch(doPeekCharNonWhitespace()) {
+					case ']':
+						return doSetToken(JSONToken.END_ARRAY, null, true);
+					case ',':
+						doReadChar();
+						
+						break;
+					default:
+						throw newException("Expected ',' or ']'.");
+				}
+				
+				break;
+			case CONTEXT_EMPTY_OBJECT:
+			case CONTEXT_NONEMPTY_OBJECT:
+				if(this.stack[this.stackSize - 1] == CONTEXT_NONEMPTY_OBJECT) {
+					switch(doPeekCharNonWhitespace()) {
+						case '}':
+							return doSetToken(JSONToken.END_OBJECT, null, true);
+						case ',':
+							doReadChar();
+							
+							break;
+						default:
+							throw newException("Expected ',' or '}'.");
+					}
+				} else if(doPeekCharNonWhitespace() == '}') {
+					return doSetToken(JSONToken.END_OBJECT, null, true);
+				}
+				
+				this.stack[this.stackSize - 1] = CONTEXT_DANGLING_NAME;
+				
+				if(doPeekCharNonWhitespace() != '"') {
+					throw newException("Expected a name.");
+				}
+				
+				doReadChar();
+				
+				return doSetToken(JSONToken.NAME, doReadString(), false);
+			case CONTEXT_DANGLING_NAME:
+				this.stack[this.stackSize - 1] = CONTEXT_NONEMPTY_OBJECT;
+				
+				if(doPeekCharNonWhitespace() != ':') {
+					throw newException("Expected ':'.");
+				}
+				
+				doReadChar();
+				
+				break;
+			case CONTEXT_EMPTY_DOCUMENT:
+				this.stack[this.stackSize - 1] = CONTEXT_NONEMPTY_DOCUMENT;
+				
+				break;
+			case CONTEXT_NONEMPTY_DOCUMENT:
+				if(doPeekCharNonWhitespace() == -1) {
+					return doSetToken(JSONToken.END_DOCUMENT, null, false);
+				}
+				
+				throw newException("Expected the end of the document.");
+			default:
+				throw new IllegalStateException();
+		}
+		
+		final int character = doPeekCharNonWhitespace();
+		
+		switch(character) {
+			case '{':
+				return doSetToken(JSONToken.BEGIN_OBJECT, null, true);
+			case '[':
+				return doSetToken(JSONToken.BEGIN_ARRAY, null, true);
+			case '"':
+				doReadChar();
+				
+				return doSetToken(JSONToken.STRING, doReadString(), false);
+			case 't':
+			case 'f':
+			case 'n':
+				return doReadLiteral();
+			case '-':
+			case '0':
+			case '1':
+			case '2':
+			case '3':
+			case '4':
+			case '5':
+			case '6':
+			case '7':
+			case '8':
+			case '9':
+				return doReadNumber();
+			case -1:
+				throw newException("Unexpected end of document.");
+			default:
+				throw newException(String.format("Unexpected character '%s'.", Character.valueOf((char)(character))));
+		}
+	}
+	
+	public String nextName() {
+		doExpect(JSONToken.NAME);
+		
+		return doConsume();
+	}
+	
+	public String nextString() {
+		final JSONToken token = peek();
+		
+		if(token != JSONToken.STRING && token != JSONToken.NUMBER) {
+			throw newException(String.format("Expected %s but was %s.", JSONToken.STRING, token));
+		}
+		
+		return doConsume();
+	}
+	
+	public boolean hasNext() {
+		final JSONToken token = peek();
+		
+		return token != JSONToken.END_ARRAY && token != JSONToken.END_DOCUMENT && token != JSONToken.END_OBJECT;
+	}
+	
+	public boolean nextBoolean() {
+		doExpect(JSONToken.BOOLEAN);
+		
+		return Boolean.parseBoolean(doConsume());
+	}
+	
+	public int getColumn() {
+		return this.tokenColumn;
+	}
+	
+	public int getLine() {
+		return this.tokenLine;
+	}
+	
+	public int nextInt() {
+		doExpect(JSONToken.NUMBER);
+		
+		try {
+			final int value = Integer.parseInt(this.tokenValue);
+			
+			doConsume();
+			
+			return value;
+		} catch(final NumberFormatException e) {
+			throw newException(String.format("Expected an int but was %s.", this.tokenValue));
+		}
+	}
+	
+	public void beginArray() {
+		doExpect(JSONToken.BEGIN_ARRAY);
+		doConsume();
+		doPush(CONTEXT_EMPTY_ARRAY);
+	}
+	
+	public void beginObject() {
+		doExpect(JSONToken.BEGIN_OBJECT);
+		doConsume();
+		doPush(CONTEXT_EMPTY_OBJECT);
+	}
+	
+	@Override
+	public void close() {
+		try {
+			this.reader.close();
+		} catch(final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	public void endArray() {
+		doExpect(JSONToken.END_ARRAY);
+		doConsume();
+		
+		this.stackSize--;
+	}
+	
+	public void endObject() {
+		doExpect(JSONToken.END_OBJECT);
+		doConsume();
+		
+		this.stackSize--;
+	}
+	
+	public void nextNull() {
+		doExpect(JSONToken.NULL);
+		doConsume();
+	}
+	
+	public void skipValue() {
+		int depth = 0;
+		
+		do {
+			switch(peek()) {
+				case BEGIN_ARRAY:
+					beginArray();
+					
+					depth++;
+					
+					break;
+				case BEGIN_OBJECT:
+					beginObject();
+					
+					depth++;
+					
+					break;
+				case END_ARRAY:
+					endArray();
+					
+					depth--;
+					
+					break;
+				case END_OBJECT:
+					endObject();
+					
+					depth--;
+					
+					break;
+				case END_DOCUMENT:
+					throw newException("Unexpected end of document.");
+				default:
+					doConsume();
+					
+					break;
+			}
+		} while(depth > 0);
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private JSONToken doReadLiteral() {
+		this.stringBuilder.setLength(0);
+		
+		while(Character.isLetter(doPeekChar())) {
+			this.stringBuilder.append((char)(doReadChar()));
+		}
+		
+		final String literal = this.stringBuilder.toString();
+		
+		switch(literal) {
+			case "true":
+			case "false":
+				return doSetToken(JSONToken.BOOLEAN, literal, false);
+			case "null":
+				return doSetToken(JSONToken.NULL, literal, false);
+			default:
+				throw newException(String.format("Unexpected literal '%s'.", literal));
+		}
+	}
+	
+	private JSONToken doReadNumber() {
+		this.stringBuilder.setLength(0);
+		
+		for(int character = doPeekChar(); character == '-' || character == '+' || character == '.' || character == 'e' || character == 'E' || character >= '0' && character <= '9'; character = doPeekChar()) {
+			this.stringBuilder.append((char)(doReadChar()));
+		}
+		
+		final String number = this.stringBuilder.toString();
+		
+		if(!NUMBER.matcher(number).matches()) {
+			throw newException(String.format("Malformed number '%s'.", number));
+		}
+		
+		return doSetToken(JSONToken.NUMBER, number, false);
+	}
+	
+	private JSONToken doSetToken(final JSONToken token, final String tokenValue, final boolean isConsumingChar) {
+		if(isConsumingChar) {
+			doReadChar();
+		}
+		
+		this.token = token;
+		this.tokenValue = tokenValue;
+		
+		return token;
+	}
+	
+	private String doConsume() {
+		final String tokenValue = this.tokenValue;
+		
+		this.token = null;
+		this.tokenValue = null;
+		
+		return tokenValue;
+	}
+	
+	private String doReadString() {
+		this.stringBuilder.setLength(0);
+		
+		while(true) {
+			final int character = doReadChar();
+			
+			switch(character) {
+				case -1:
+					throw newException("Unterminated string.");
+				case '"':
+					return this.stringBuilder.toString();
+				case '\\':
+					doReadStringEscape();
+					
+					break;
+				default:
+					if(character < 0x20) {
+						throw newException("Unescaped control character in string.");
+					}
+					
+					this.stringBuilder.append((char)(character));
+					
+					break;
+			}
+		}
+	}
+	
+	private int doPeekChar() {
+		if(this.bufferPosition == this.bufferLength && !doFill()) {
+			return -1;
+		}
+		
+		return this.buffer[this.bufferPosition];
+	}
+	
+	private int doPeekCharNonWhitespace() {
+		for(int character = doPeekChar(); ; character = doPeekChar()) {
+			if(character == ' ' || character == '\t' || character == '\r' || character == '\n') {
+				doReadChar();
+			} else {
+				this.tokenLine = this.line;
+				this.tokenColumn = this.column;
+				
+				return character;
+			}
+		}
+	}
+	
+	private int doReadChar() {
+		final int character = doPeekChar();
+		
+		if(character != -1) {
+			this.bufferPosition++;
+			
+			if(character == '\n') {
+				this.line++;
+				this.column = 1;
+			} else {
+				this.column++;
+			}
+		}
+		
+		return character;
+	}
+	
+	private boolean doFill() {
+		try {
+			this.bufferLength = this.reader.read(this.buffer, 0, this.buffer.length);
+			this.bufferPosition = 0;
+			
+			if(this.bufferLength < 0) {
+				this.bufferLength = 0;
+				
+				return false;
+			}
+			
+			return true;
+		} catch(final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	private void doExpect(final JSONToken token) {
+		final JSONToken tokenPeeked = peek();
+		
+		if(tokenPeeked != token) {
+			throw newException(String.format("Expected %s but was %s.", token, tokenPeeked));
+		}
+	}
+	
+	private void doPush(final int context) {
+		if(this.stackSize == this.stack.length) {
+			this.stack = Arrays.copyOf(this.stack, this.stack.length * 2);
+		}
+		
+		this.stack[this.stackSize++] = context;
+	}
+	
+	private void doReadStringEscape() {
+		final int character = doReadChar();
+		
+		switch(character) {
+			case '"':
+			case '\\':
+			case '/':
+				this.stringBuilder.append((char)(character));
+				
+				break;
+			case 'b':
+				this.stringBuilder.append('\b');
+				
+				break;
+			case 'f':
+				this.stringBuilder.append('\f');
+				
+				break;
+			case 'n':
+				this.stringBuilder.append('\n');
+				
+				break;
+			case 'r':
+				this.stringBuilder.append('\r');
+				
+				break;
+			case 't':
+				this.stringBuilder.append('\t');
+				
+				break;
+			case 'u':
+				int value = 0;
+				
+				for(int i = 0; i < 4; i++) {
+					final int digit = Character.digit(doReadChar(), 16);
+					
+					if(digit < 0) {
+						throw newException("Malformed unicode escape sequence.");
+					}
+					
+					value = value * 16 + digit;
+				}
+				
+				this.stringBuilder.append((char)(value));
+				
+				break;
+			default:
+				throw newException("Malformed escape sequence.");
+		}
+	}
+}
\ No newline at end of file
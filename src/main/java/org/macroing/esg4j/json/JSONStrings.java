@@ -0,0 +1,78 @@
+/**
+ * Copyright 2019 - 2021 J&#246;rgen Lundgren
+ * 
+ * This file is part of org.macroing.esg4j.
+ * 
+ * org.macroing.esg4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * org.macroing.esg4j is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with org.macroing.esg4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.macroing.esg4j.json;
+
+import java.util.List;
+import java.util.Objects;
+
+public final class JSONStrings {
+	private JSONStrings() {
+		
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public static String quote(final String string) {
+		final StringBuilder stringBuilder = new StringBuilder(Objects.requireNonNull(string, "string == null").length() + 2);
+		
+		stringBuilder.append('"');
+		
+		for(int i = 0; i < string.length(); i++) {
+			final char character = string.charAt(i);
+			
+			switch(character) {
+				case '"':
+					stringBuilder.append("\\\"");
+					
+					break;
+				case '\\':
+					stringBuilder.append("\\\\");
+					
+					break;
+				default:
+					if(character < 0x20) {
+						stringBuilder.append(String.format("\\u%04x", Integer.valueOf(character)));
+					} else {
+						stringBuilder.append(character);
+					}
+					
+					break;
+			}
+		}
+		
+		stringBuilder.append('"');
+		
+		return stringBuilder.toString();
+	}
+	
+	public static String quote(final List<String> strings) {
+		final StringBuilder stringBuilder = new StringBuilder();
+		
+		stringBuilder.append('[');
+		
+		for(int i = 0; i < Objects.requireNonNull(strings, "strings == null").size(); i++) {
+			stringBuilder.append(i > 0 ? "," : "");
+			stringBuilder.append(quote(strings.get(i)));
+		}
+		
+		stringBuilder.append(']');
+		
+		return stringBuilder.toString();
+	}
+}
\ No newline at end of file
@@ -20,6 +20,8 @@ package org.macroing.esg4j.magento.database;
 
 import java.util.Objects;
 
+import org.macroing.esg4j.util.Derived;
+
 public final class Column {
 	private DataType dataType;
 	private Object defaultValue;
@@ -28,11 +30,16 @@ public final class Column {
 	private boolean hasAutoIncrement;
 	private boolean hasDefault;
 	private boolean hasForeignKey;
+	private boolean hasIndex;
 	private boolean hasPrimaryKey;
 	private boolean hasUniqueKey;
 	private boolean isNullable;
 	private boolean isUnsigned;
 	private int length;
+	@Derived
+	private final boolean isSnapshot;
+	@Derived
+	private final int hashCode;
 	
 	////////////////////////////////////////////////////////////////////////////////////////////////////
 	
@@ -44,15 +51,40 @@ public final class Column {
 		this.hasAutoIncrement = true;
 		this.hasDefault = false;
 		this.hasForeignKey = false;
+		this.hasIndex = false;
 		this.hasPrimaryKey = true;
 		this.hasUniqueKey = false;
 		this.isNullable = false;
 		this.isUnsigned = true;
 		this.length = 11;
+		this.isSnapshot = false;
+		this.hashCode = 0;
+	}
+	
+	private Column(final Column column) {
+		this.dataType = column.dataType;
+		this.defaultValue = column.defaultValue;
+		this.comment = column.comment;
+		this.name = column.name;
+		this.hasAutoIncrement = column.hasAutoIncrement;
+		this.hasDefault = column.hasDefault;
+		this.hasForeignKey = column.hasForeignKey;
+		this.hasIndex = column.hasIndex;
+		this.hasPrimaryKey = column.hasPrimaryKey;
+		this.hasUniqueKey = column.hasUniqueKey;
+		this.isNullable = column.isNullable;
+		this.isUnsigned = column.isUnsigned;
+		this.length = column.length;
+		this.isSnapshot = true;
+		this.hashCode = column.hashCode();
 	}
 	
 	////////////////////////////////////////////////////////////////////////////////////////////////////
 	
+	public Column snapshot() {
+		return this.isSnapshot ? this : new Column(this);
+	}
+	
 	public DataType getDataType() {
 		return this.dataType;
 	}
@@ -75,6 +107,8 @@ public final class Column {
 			return true;
 		} else if(!(object instanceof Column)) {
 			return false;
+		} else if(this.isSnapshot && Column.class.cast(object).isSnapshot && this.hashCode != Column.class.cast(object).hashCode) {
+			return false;
 		} else if(!Objects.equals(this.dataType, Column.class.cast(object).dataType)) {
 			return false;
 		} else if(!Objects.equals(this.defaultValue, Column.class.cast(object).defaultValue)) {
@@ -89,6 +123,8 @@ public final class Column {
 			return false;
 		} else if(this.hasForeignKey != Column.class.cast(object).hasForeignKey) {
 			return false;
+		} else if(this.hasIndex != Column.class.cast(object).hasIndex) {
+			return false;
 		} else if(this.hasPrimaryKey != Column.class.cast(object).hasPrimaryKey) {
 			return false;
 		} else if(this.hasUniqueKey != Column.class.cast(object).hasUniqueKey) {
@@ -116,6 +152,10 @@ public final class Column {
 		return this.hasForeignKey;
 	}
 	
+	public boolean hasIndex() {
+		return this.hasIndex;
+	}
+	
 	public boolean hasPrimaryKey() {
 		return this.hasPrimaryKey;
 	}
@@ -124,6 +164,10 @@ public final class Column {
 		return this.hasUniqueKey;
 	}
 	
+	public boolean isSnapshot() {
+		return this.isSnapshot;
+	}
+	
 	public boolean isNullable() {
 		return this.isNullable;
 	}
@@ -138,54 +182,88 @@ public final class Column {
 	
 	@Override
 	public int hashCode() {
-		return Objects.hash(this.dataType, this.defaultValue, this.comment, this.name, Boolean.valueOf(this.hasAutoIncrement), Boolean.valueOf(this.hasDefault), Boolean.valueOf(this.hasForeignKey), Boolean.valueOf(this.hasPrimaryKey), Boolean.valueOf(this.hasUniqueKey), Boolean.valueOf(this.isNullable), Boolean.valueOf(this.isUnsigned), Integer.valueOf(this.length));
+		if(this.isSnapshot) {
+			return this.hashCode;
+		}
+		
+		return Objects.hash(this.dataType, this.defaultValue, this.comment, this.name, Boolean.valueOf(this.hasAutoIncrement), Boolean.valueOf(this.hasDefault), Boolean.valueOf(this.hasForeignKey), Boolean.valueOf(this.hasIndex), Boolean.valueOf(this.hasPrimaryKey), Boolean.valueOf(this.hasUniqueKey), Boolean.valueOf(this.isNullable), Boolean.valueOf(this.isUnsigned), Integer.valueOf(this.length));
 	}
 	
 	public void setAutoIncrement(final boolean hasAutoIncrement) {
+		doCheckNotSnapshot();
+		
 		this.hasAutoIncrement = hasAutoIncrement;
 	}
 	
 	public void setComment(final String comment) {
+		doCheckNotSnapshot();
+		
 		this.comment = Objects.requireNonNull(comment, "comment == null");
 	}
 	
 	public void setDataType(final DataType dataType) {
+		doCheckNotSnapshot();
+		
 		this.dataType = Objects.requireNonNull(dataType, "dataType == null");
 	}
 	
 	public void setDefault(final boolean hasDefault) {
+		doCheckNotSnapshot();
+		
 		this.hasDefault = hasDefault;
 	}
 	
 	public void setDefaultValue(final Object defaultValue) {
+		doCheckNotSnapshot();
+		
 		this.defaultValue = defaultValue;
 	}
 	
 	public void setForeignKey(final boolean hasForeignKey) {
+		doCheckNotSnapshot();
+		
 		this.hasForeignKey = hasForeignKey;
 	}
 	
+	public void setIndex(final boolean hasIndex) {
+		doCheckNotSnapshot();
+		
+		this.hasIndex = hasIndex;
+	}
+	
 	public void setLength(final int length) {
+		doCheckNotSnapshot();
+		
 		this.length = length;
 	}
 	
 	public void setName(final String name) {
+		doCheckNotSnapshot();
+		
 		this.name = Objects.requireNonNull(name, "name == null");
 	}
 	
 	public void setNullable(final boolean isNullable) {
+		doCheckNotSnapshot();
+		
 		this.isNullable = isNullable;
 	}
 	
 	public void setPrimaryKey(final boolean hasPrimaryKey) {
+		doCheckNotSnapshot();
+		
 		this.hasPrimaryKey = hasPrimaryKey;
 	}
 	
 	public void setUniqueKey(final boolean hasUniqueKey) {
+		doCheckNotSnapshot();
+		
 		this.hasUniqueKey = hasUniqueKey;
 	}
 	
 	public void setUnsigned(final boolean isUnsigned) {
+		doCheckNotSnapshot();
+		
 		this.isUnsigned = isUnsigned;
 	}
 	
@@ -227,4 +305,12 @@ public final class Column {
 		
 		return column;
 	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private void doCheckNotSnapshot() {
+		if(this.isSnapshot) {
+			throw new UnsupportedOperationException(String.format("Column \"%s\" is a snapshot and cannot be modified.", this.name));
+		}
+	}
 }
\ No newline at end of file
@@ -19,12 +19,24 @@
 package org.macroing.esg4j.magento.database;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+
+import org.macroing.esg4j.util.Derived;
 
 public final class Database {
 	private final List<Table> tables;
+	@Derived
+	private final Map<String, Table> tablesByName;
 	private String name;
+	@Derived
+	private final boolean isSnapshot;
+	@Derived
+	private final int hashCode;
 	
 	////////////////////////////////////////////////////////////////////////////////////////////////////
 	
@@ -34,13 +46,55 @@ public final class Database {
 	
 	public Database(final String name) {
 		this.tables = new ArrayList<>();
+		this.tablesByName = null;
 		this.name = Objects.requireNonNull(name, "name == null");
+		this.isSnapshot = false;
+		this.hashCode = 0;
+	}
+	
+	private Database(final Database database) {
+		final List<Table> tables = new ArrayList<>(database.tables.size());
+		
+		final Map<String, Table> tablesByName = new LinkedHashMap<>();
+		
+		for(final Table table : database.tables) {
+			final Table tableSnapshot = table.snapshot();
+			
+			tables.add(tableSnapshot);
+			tablesByName.putIfAbsent(tableSnapshot.getName(), tableSnapshot);
+		}
+		
+		this.tables = Collections.unmodifiableList(tables);
+		this.tablesByName = Collections.unmodifiableMap(tablesByName);
+		this.name = database.name;
+		this.isSnapshot = true;
+		this.hashCode = Objects.hash(this.tables, this.name);
 	}
 	
 	////////////////////////////////////////////////////////////////////////////////////////////////////
 	
+	public Database snapshot() {
+		return this.isSnapshot ? this : new Database(this);
+	}
+	
 	public List<Table> getTables() {
-		return new ArrayList<>(this.tables);
+		return this.isSnapshot ? this.tables : new ArrayList<>(this.tables);
+	}
+	
+	public Optional<Table> getTable(final String name) {
+		Objects.requireNonNull(name, "name == null");
+		
+		if(this.isSnapshot) {
+			return Optional.ofNullable(this.tablesByName.get(name));
+		}
+		
+		for(final Table table : this.tables) {
+			if(table.getName().equals(name)) {
+				return Optional.of(table);
+			}
+		}
+		
+		return Optional.empty();
 	}
 	
 	public String getName() {
@@ -58,6 +112,8 @@ public final class Database {
 			return true;
 		} else if(!(object instanceof Database)) {
 			return false;
+		} else if(this.isSnapshot && Database.class.cast(object).isSnapshot && this.hashCode != Database.class.cast(object).hashCode) {
+			return false;
 		} else if(!Objects.equals(this.tables, Database.class.cast(object).tables)) {
 			return false;
 		} else if(!Objects.equals(this.name, Database.class.cast(object).name)) {
@@ -67,20 +123,42 @@ public final class Database {
 		}
 	}
 	
+	public boolean isSnapshot() {
+		return this.isSnapshot;
+	}
+	
 	@Override
 	public int hashCode() {
+		if(this.isSnapshot) {
+			return this.hashCode;
+		}
+		
 		return Objects.hash(this.tables, this.name);
 	}
 	
 	public void addTable(final Table table) {
+		doCheckNotSnapshot();
+		
 		this.tables.add(Objects.requireNonNull(table, "table == null"));
 	}
 	
 	public void removeTable(final Table table) {
+		doCheckNotSnapshot();
+		
 		this.tables.remove(Objects.requireNonNull(table, "table == null"));
 	}
 	
 	public void setName(final String name) {
+		doCheckNotSnapshot();
+		
 		this.name = Objects.requireNonNull(name, "name == null");
 	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private void doCheckNotSnapshot() {
+		if(this.isSnapshot) {
+			throw new UnsupportedOperationException(String.format("Database \"%s\" is a snapshot and cannot be modified.", this.name));
+		}
+	}
 }
\ No newline at end of file
@@ -0,0 +1,279 @@
+/**
+ * Copyright 2019 - 2021 J&#246;rgen Lundgren
+ * 
+ * This file is part of org.macroing.esg4j.
+ * 
+ * org.macroing.esg4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * org.macroing.esg4j is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with org.macroing.esg4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.macroing.esg4j.magento.database;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import org.macroing.esg4j.util.Names;
+
+public final class DatabaseLinter {
+	private static final int[] DECIMAL_LEFTOVER_SIZES = {0, 1, 1, 2, 2, 3, 3, 4, 4};
+	private static final int ROW_SIZE_MAXIMUM = 65535;
+	private static final int ROW_SIZE_MAXIMUM_INLINE = 8126;
+	private static final int TEXT_LENGTH_BOUNDED = 255;
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private DatabaseLinter() {
+		
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public static List<Finding> fix(final Database database) {
+		final List<Finding> findingsFixed = new ArrayList<>();
+		
+		for(final Finding finding : lint(database)) {
+			if(finding.isFixable()) {
+				finding.fix(database);
+				
+				findingsFixed.add(finding);
+			}
+		}
+		
+		return findingsFixed;
+	}
+	
+	public static List<Finding> lint(final Database database) {
+		final List<Finding> findings = new ArrayList<>();
+		
+		for(final Table table : Objects.requireNonNull(database, "database == null").getTables()) {
+			doLintTable(findings, table);
+		}
+		
+		return findings;
+	}
+	
+	public static int getRowSize(final Table table) {
+		final List<Column> columns = Objects.requireNonNull(table, "table == null").getColumns();
+		
+		int nullableCount = 0;
+		int rowSize = 0;
+		
+		for(final Column column : columns) {
+			rowSize += getSize(column);
+			
+			if(column.isNullable()) {
+				nullableCount++;
+			}
+		}
+		
+		return rowSize + (nullableCount + 7) / 8;
+	}
+	
+	public static int getSize(final Column column) {
+		final int length = Objects.requireNonNull(column, "column == null").getLength();
+		
+		switch(column.getDataType()) {
+			case BIGINT:
+				return 8;
+			case DATE:
+				return 3;
+			case DATETIME:
+				return 5;
+			case DECIMAL:
+			case NUMERIC:
+				final int precision = length > 0 ? length : 10;
+				
+				return precision / 9 * 4 + DECIMAL_LEFTOVER_SIZES[precision % 9];
+			case FLOAT:
+				return 4;
+			case INT:
+				return 4;
+			case SMALLINT:
+				return 2;
+			case TEXT:
+//				Magento creates a VARCHAR for TEXT up to 255 characters and a TEXT otherwise, whose value is stored off the row behind a 12 byte pointer:
+				return length > 0 && length <= TEXT_LENGTH_BOUNDED ? length * 4 + (length * 4 > 255 ? 2 : 1) : 12;
+			case TIMESTAMP:
+				return 4;
+			case TINYINT:
+				return 1;
+			case VARBINARY:
+				final int lengthVarbinary = length > 0 ? length : 255;
+				
+				return lengthVarbinary + (lengthVarbinary > 255 ? 2 : 1);
+			default:
+				return 0;
+		}
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private static boolean doIsIndexed(final Column column) {
+		return column.hasIndex() || column.hasPrimaryKey() || column.hasUniqueKey();
+	}
+	
+	private static void doAddPrimaryKey(final Table table) {
+		final List<Column> columns = table.getColumns();
+		
+		for(final Column column : columns) {
+			table.removeColumn(column);
+		}
+		
+		table.addColumn(Column.newIntColumn(null, "ID", "id", true, false, false, true, false, false, true, 11));
+		
+		for(final Column column : columns) {
+			table.addColumn(column);
+		}
+	}
+	
+	private static void doLintTable(final List<Finding> findings, final Table table) {
+		final String tableName = table.getName();
+		
+		if(table.getColumnsPrimaryKey().isEmpty()) {
+			findings.add(new Finding(Rule.MISSING_PRIMARY_KEY, Severity.ERROR, tableName, "", String.format("Table \"%s\" has no primary key, so the generated repository cannot load or save by ID.", tableName), table.getColumn("id").isPresent() ? null : tableFix -> doAddPrimaryKey(tableFix)));
+		}
+		
+		for(final Column column : table.getColumns()) {
+			final String columnName = column.getName();
+			
+			final boolean isIndexed = doIsIndexed(column);
+			
+			if(column.hasForeignKey() && !isIndexed) {
+				findings.add(new Finding(Rule.UNINDEXED_FOREIGN_KEY, Severity.WARNING, tableName, columnName, String.format("Foreign key column \"%s\" in table \"%s\" has no index, so joins and getBy%s scan the whole table.", columnName, tableName, Names.formatCamelCase(columnName)), tableFix -> tableFix.getColumn(columnName).ifPresent(columnFix -> columnFix.setIndex(true))));
+			} else if(!isIndexed) {
+				findings.add(new Finding(Rule.UNINDEXED_LOOKUP, Severity.INFO, tableName, columnName, String.format("Column \"%s\" in table \"%s\" has no index, so getBy%s scans the whole table.", columnName, tableName, Names.formatCamelCase(columnName)), null));
+			}
+			
+//			Whether the values of a TEXT column fit in a bounded string is only known to the author of the schema, so these findings are never fixed automatically:
+			if(column.getDataType() == DataType.TEXT && (isIndexed || column.hasForeignKey())) {
+				if(column.getLength() == 0) {
+					findings.add(new Finding(Rule.TEXT_FOR_BOUNDED_STRING, Severity.WARNING, tableName, columnName, String.format("Column \"%s\" in table \"%s\" is a key but an unbounded TEXT, which can only be indexed by prefix. Declare a length of at most %d characters if the values fit, so that it becomes an indexable VARCHAR.", columnName, tableName, Integer.valueOf(TEXT_LENGTH_BOUNDED)), null));
+				} else if(column.getLength() > TEXT_LENGTH_BOUNDED) {
+					findings.add(new Finding(Rule.TEXT_FOR_BOUNDED_STRING, Severity.WARNING, tableName, columnName, String.format("Column \"%s\" in table \"%s\" is a key but its length of %d characters makes it a TEXT, which can only be indexed by prefix. A length of at most %d characters makes it an indexable VARCHAR, if the values fit.", columnName, tableName, Integer.valueOf(column.getLength()), Integer.valueOf(TEXT_LENGTH_BOUNDED)), null));
+				}
+			} else if(column.getDataType() == DataType.TEXT && column.getLength() == 0) {
+				findings.add(new Finding(Rule.TEXT_FOR_BOUNDED_STRING, Severity.INFO, tableName, columnName, String.format("Column \"%s\" in table \"%s\" is an unbounded TEXT, which is stored off the row. Declare a length of at most %d characters if the values fit, so that it becomes a VARCHAR stored in the row.", columnName, tableName, Integer.valueOf(TEXT_LENGTH_BOUNDED)), null));
+			}
+		}
+		
+		final int rowSize = getRowSize(table);
+		
+		if(rowSize > ROW_SIZE_MAXIMUM) {
+			findings.add(new Finding(Rule.OVER_WIDE_ROW, Severity.ERROR, tableName, "", String.format("Table \"%s\" has a maximum row size of %d bytes, which exceeds the MySQL limit of %d bytes.", tableName, Integer.valueOf(rowSize), Integer.valueOf(ROW_SIZE_MAXIMUM)), null));
+		} else if(rowSize > ROW_SIZE_MAXIMUM_INLINE) {
+			findings.add(new Finding(Rule.OVER_WIDE_ROW, Severity.WARNING, tableName, "", String.format("Table \"%s\" has a maximum row size of %d bytes, which exceeds the InnoDB limit of %d bytes for a row stored in the page.", tableName, Integer.valueOf(rowSize), Integer.valueOf(ROW_SIZE_MAXIMUM_INLINE)), null));
+		}
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public static final class Finding {
+		private final Fix fix;
+		private final Rule rule;
+		private final Severity severity;
+		private final String columnName;
+		private final String message;
+		private final String tableName;
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		Finding(final Rule rule, final Severity severity, final String tableName, final String columnName, final String message, final Fix fix) {
+			this.rule = Objects.requireNonNull(rule, "rule == null");
+			this.severity = Objects.requireNonNull(severity, "severity == null");
+			this.tableName = Objects.requireNonNull(tableName, "tableName == null");
+			this.columnName = Objects.requireNonNull(columnName, "columnName == null");
+			this.message = Objects.requireNonNull(message, "message == null");
+			this.fix = fix;
+		}
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public Rule getRule() {
+			return this.rule;
+		}
+		
+		public Severity getSeverity() {
+			return this.severity;
+		}
+		
+		public String getColumnName() {
+			return this.columnName;
+		}
+		
+		public String getMessage() {
+			return this.message;
+		}
+		
+		public String getTableName() {
+			return this.tableName;
+		}
+		
+		@Override
+		public String toString() {
+			return String.format("%s %s: %s%s", this.severity, this.rule, this.message, isFixable() ? " (fixable)" : "");
+		}
+		
+		public boolean isFixable() {
+			return this.fix != null;
+		}
+		
+		public void fix(final Database database) {
+			if(!isFixable()) {
+				throw new IllegalStateException(String.format("%s cannot be fixed automatically.", this.rule));
+			}
+			
+			final Optional<Table> optionalTable = Objects.requireNonNull(database, "database == null").getTable(this.tableName);
+			
+			if(optionalTable.isPresent()) {
+				this.fix.apply(optionalTable.get());
+			}
+		}
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public static enum Rule {
+		MISSING_PRIMARY_KEY,
+		OVER_WIDE_ROW,
+		TEXT_FOR_BOUNDED_STRING,
+		UNINDEXED_FOREIGN_KEY,
+		UNINDEXED_LOOKUP;
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		private Rule() {
+			
+		}
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public static enum Severity {
+		INFO,
+		WARNING,
+		ERROR;
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		private Severity() {
+			
+		}
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private static interface Fix {
+		void apply(final Table table);
+	}
+}
\ No newline at end of file
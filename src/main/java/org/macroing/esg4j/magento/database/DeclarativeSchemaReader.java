@@ -0,0 +1,484 @@
+/**
+ * Copyright 2019 - 2021 J&#246;rgen Lundgren
+ * 
+ * This file is part of org.macroing.esg4j.
+ * 
+ * org.macroing.esg4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * org.macroing.esg4j is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with org.macroing.esg4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.macroing.esg4j.magento.database;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+public final class DeclarativeSchemaReader {
+	private static final String FILE_NAME = "db_schema.xml";
+	private static final String NAMESPACE_XSI = "http://www.w3.org/2001/XMLSchema-instance";
+	private static final ThreadLocal<XMLInputFactory> XML_INPUT_FACTORY = ThreadLocal.withInitial(() -> doCreateXMLInputFactory());
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private DeclarativeSchemaReader() {
+		
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public static Database read(final File file, final List<String> warnings) {
+		return read(Objects.requireNonNull(file, "file == null").isDirectory() ? find(file) : Arrays.asList(file), warnings);
+	}
+	
+	public static Database read(final List<File> files, final List<String> warnings) {
+		Objects.requireNonNull(files, "files == null");
+		Objects.requireNonNull(warnings, "warnings == null");
+		
+//		The files are parsed in parallel, but merged in the order they were given, just as Magento merges the db_schema.xml files of its modules:
+		final List<Schema> schemas = files.parallelStream().map(file -> doReadSchema(file)).collect(Collectors.toList());
+		
+		final Map<String, TableDeclaration> tableDeclarations = new LinkedHashMap<>();
+		
+		for(final Schema schema : schemas) {
+			warnings.addAll(schema.getWarnings());
+			
+			for(final TableDeclaration tableDeclaration : schema.getTableDeclarations()) {
+				if(tableDeclaration.isDisabled()) {
+					tableDeclarations.remove(tableDeclaration.getName());
+				} else {
+					tableDeclarations.computeIfAbsent(tableDeclaration.getName(), name -> new TableDeclaration(name, "", false)).merge(tableDeclaration);
+				}
+			}
+		}
+		
+		final Database database = new Database();
+		
+		for(final TableDeclaration tableDeclaration : tableDeclarations.values()) {
+			database.addTable(tableDeclaration.toTable(warnings));
+		}
+		
+		return database;
+	}
+	
+	public static List<File> find(final File directory) {
+		try(final Stream<Path> paths = Files.walk(Objects.requireNonNull(directory, "directory == null").toPath())) {
+			return paths.filter(path -> path.getFileName().toString().equals(FILE_NAME) && Files.isRegularFile(path)).sorted().map(path -> path.toFile()).collect(Collectors.toList());
+		} catch(final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private static Column doReadColumn(final XMLStreamReader xMLStreamReader, final String location, final List<String> warnings) {
+		final String name = doGetAttribute(xMLStreamReader, "name", "");
+		final String typeName = doGetAttribute(xMLStreamReader, NAMESPACE_XSI, "type", "").toUpperCase(Locale.ENGLISH);
+		final String defaultValue = xMLStreamReader.getAttributeValue(null, "default");
+		final String length = xMLStreamReader.getAttributeValue(null, "length");
+		final String padding = xMLStreamReader.getAttributeValue(null, "padding");
+		final String precision = xMLStreamReader.getAttributeValue(null, "precision");
+		
+		final
+		Column column = new Column();
+		column.setAutoIncrement(doGetAttribute(xMLStreamReader, "identity", "false").equals("true"));
+		column.setComment(doGetAttribute(xMLStreamReader, "comment", ""));
+		column.setName(name);
+		column.setNullable(!doGetAttribute(xMLStreamReader, "nullable", "true").equals("false"));
+		column.setPrimaryKey(false);
+		column.setUnsigned(doGetAttribute(xMLStreamReader, "unsigned", "false").equals("true"));
+		
+		final List<String> parameters = new ArrayList<>();
+		final List<String> warningsColumn = new ArrayList<>();
+		
+		if(length != null || precision != null || padding != null) {
+			parameters.add(length != null ? length : precision != null ? precision : padding);
+		}
+		
+		final boolean isSupported = MySQLDataTypes.setDataType(column, typeName, parameters, warningsColumn);
+		
+		if(isSupported && defaultValue != null && defaultValue.equalsIgnoreCase("null")) {
+			column.setDefault(true);
+			column.setDefaultValue(null);
+		} else if(isSupported && defaultValue != null && !defaultValue.equalsIgnoreCase("CURRENT_TIMESTAMP")) {
+			column.setDefault(true);
+			
+			MySQLDataTypes.setDefaultValue(column, typeName.equals("BOOLEAN") ? defaultValue.replace("false", "0").replace("true", "1") : defaultValue, warningsColumn);
+		}
+		
+		for(final String warning : warningsColumn) {
+			warnings.add(String.format("%s: %s", location, warning));
+		}
+		
+		return isSupported ? column : null;
+	}
+	
+	private static Schema doReadSchema(final File file) {
+		final Schema schema = new Schema();
+		
+		try(final InputStream inputStream = Files.newInputStream(file.toPath())) {
+			final XMLStreamReader xMLStreamReader = XML_INPUT_FACTORY.get().createXMLStreamReader(inputStream);
+			
+			try {
+				KeyDeclaration keyDeclaration = null;
+				
+				TableDeclaration tableDeclaration = null;
+				
+				while(xMLStreamReader.hasNext()) {
+					final int event = xMLStreamReader.next();
+					
+					if(event == XMLStreamConstants.START_ELEMENT) {
+						final String location = doGetLocation(file, xMLStreamReader.getLocation());
+						
+						final boolean isDisabled = doGetAttribute(xMLStreamReader, "disabled", "false").equals("true");
+						
+						switch(xMLStreamReader.getLocalName()) {
+							case "column":
+								if(keyDeclaration != null) {
+									keyDeclaration.addColumnName(doGetAttribute(xMLStreamReader, "name", ""));
+								} else if(tableDeclaration != null && isDisabled) {
+									tableDeclaration.addColumnDisabled(doGetAttribute(xMLStreamReader, "name", ""));
+								} else if(tableDeclaration != null) {
+									tableDeclaration.addColumn(doReadColumn(xMLStreamReader, location, schema.getWarnings()));
+								}
+								
+								break;
+							case "constraint":
+								if(tableDeclaration != null) {
+									keyDeclaration = new KeyDeclaration(doGetAttribute(xMLStreamReader, NAMESPACE_XSI, "type", ""), doGetAttribute(xMLStreamReader, "referenceId", location), location, isDisabled);
+									
+									if(keyDeclaration.getType().equals(KeyDeclaration.TYPE_FOREIGN)) {
+										keyDeclaration.addColumnName(doGetAttribute(xMLStreamReader, "column", ""));
+									}
+								}
+								
+								break;
+							case "index":
+								if(tableDeclaration != null) {
+									keyDeclaration = new KeyDeclaration(doGetAttribute(xMLStreamReader, "indexType", "btree").equals("fulltext") ? KeyDeclaration.TYPE_FULLTEXT : KeyDeclaration.TYPE_INDEX, doGetAttribute(xMLStreamReader, "referenceId", location), location, isDisabled);
+								}
+								
+								break;
+							case "table":
+								tableDeclaration = new TableDeclaration(doGetAttribute(xMLStreamReader, "name", ""), doGetAttribute(xMLStreamReader, "comment", ""), isDisabled);
+								
+								break;
+							default:
+								break;
+						}
+					} else if(event == XMLStreamConstants.END_ELEMENT) {
+						switch(xMLStreamReader.getLocalName()) {
+							case "constraint":
+							case "index":
+								if(tableDeclaration != null && keyDeclaration != null) {
+									tableDeclaration.addKeyDeclaration(keyDeclaration);
+								}
+								
+								keyDeclaration = null;
+								
+								break;
+							case "table":
+								if(tableDeclaration != null) {
+									schema.addTableDeclaration(tableDeclaration);
+								}
+								
+								tableDeclaration = null;
+								
+								break;
+							default:
+								break;
+						}
+					}
+				}
+			} finally {
+				xMLStreamReader.close();
+			}
+		} catch(final XMLStreamException e) {
+			return new Schema(String.format("%s: %s The file was skipped.", doGetLocation(file, e.getLocation()), doGetMessage(e)));
+		} catch(final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		
+		return schema;
+	}
+	
+	private static String doGetAttribute(final XMLStreamReader xMLStreamReader, final String localName, final String defaultValue) {
+		return doGetAttribute(xMLStreamReader, null, localName, defaultValue);
+	}
+	
+	private static String doGetAttribute(final XMLStreamReader xMLStreamReader, final String namespaceURI, final String localName, final String defaultValue) {
+		final String value = xMLStreamReader.getAttributeValue(namespaceURI, localName);
+		
+		return value != null ? value : defaultValue;
+	}
+	
+	private static String doGetLocation(final File file, final Location location) {
+		return location != null ? String.format("%s:%d:%d", file.getPath(), Integer.valueOf(location.getLineNumber()), Integer.valueOf(location.getColumnNumber())) : file.getPath();
+	}
+	
+	private static String doGetMessage(final XMLStreamException e) {
+//		The message of an XMLStreamException is prefixed with its location, which is reported separately:
+		final String message = Objects.toString(e.getMessage(), "");
+		
+		final int index = message.indexOf("Message: ");
+		
+		return index >= 0 ? message.substring(index + 9) : message;
+	}
+	
+	private static XMLInputFactory doCreateXMLInputFactory() {
+		final
+		XMLInputFactory xMLInputFactory = XMLInputFactory.newFactory();
+		xMLInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+		xMLInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+		
+		return xMLInputFactory;
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private static final class KeyDeclaration {
+		public static final String TYPE_FOREIGN = "foreign";
+		public static final String TYPE_FULLTEXT = "fulltext";
+		public static final String TYPE_INDEX = "index";
+		public static final String TYPE_PRIMARY = "primary";
+		public static final String TYPE_UNIQUE = "unique";
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		private final List<String> columnNames;
+		private final String location;
+		private final String referenceId;
+		private final String type;
+		private final boolean isDisabled;
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public KeyDeclaration(final String type, final String referenceId, final String location, final boolean isDisabled) {
+			this.type = type;
+			this.referenceId = referenceId;
+			this.location = location;
+			this.isDisabled = isDisabled;
+			this.columnNames = new ArrayList<>();
+		}
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public List<String> getColumnNames() {
+			return this.columnNames;
+		}
+		
+		public String getLocation() {
+			return this.location;
+		}
+		
+		public String getReferenceId() {
+			return this.referenceId;
+		}
+		
+		public String getType() {
+			return this.type;
+		}
+		
+		public boolean isDisabled() {
+			return this.isDisabled;
+		}
+		
+		public void addColumnName(final String columnName) {
+			this.columnNames.add(columnName);
+		}
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private static final class Schema {
+		private final List<String> warnings;
+		private final List<TableDeclaration> tableDeclarations;
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public Schema() {
+			this.warnings = new ArrayList<>();
+			this.tableDeclarations = new ArrayList<>();
+		}
+		
+		public Schema(final String warning) {
+			this();
+			
+			this.warnings.add(warning);
+		}
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public List<TableDeclaration> getTableDeclarations() {
+			return this.tableDeclarations;
+		}
+		
+				public List<String> getWarnings() {
+			return this.warnings;
+		}
+		
+		public void addTableDeclaration(final TableDeclaration tableDeclaration) {
+			this.tableDeclarations.add(tableDeclaration);
+		}
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private static final class TableDeclaration {
+		private final List<String> columnsDisabled;
+		private final Map<String, Column> columns;
+		private final Map<String, KeyDeclaration> keyDeclarations;
+		private String comment;
+		private final String name;
+		private final boolean isDisabled;
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public TableDeclaration(final String name, final String comment, final boolean isDisabled) {
+			this.name = name;
+			this.comment = comment;
+			this.isDisabled = isDisabled;
+			this.columnsDisabled = new ArrayList<>();
+			this.columns = new LinkedHashMap<>();
+			this.keyDeclarations = new LinkedHashMap<>();
+		}
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public String getName() {
+			return this.name;
+		}
+		
+		public Table toTable(final List<String> warnings) {
+			final Table table = new Table(this.name, this.comment);
+			
+			for(final Column column : this.columns.values()) {
+				table.addColumn(column);
+			}
+			
+			for(final KeyDeclaration keyDeclaration : this.keyDeclarations.values()) {
+				final List<Column> columns = new ArrayList<>();
+				
+				for(final String columnName : keyDeclaration.getColumnNames()) {
+					final Column column = this.columns.get(columnName);
+					
+					if(column != null) {
+						columns.add(column);
+					} else {
+						warnings.add(String.format("%s: The %s key \"%s\" of table \"%s\" refers to the unknown column \"%s\".", keyDeclaration.getLocation(), keyDeclaration.getType(), keyDeclaration.getReferenceId(), this.name, columnName));
+					}
+				}
+				
+				if(columns.isEmpty()) {
+					continue;
+				}
+				
+				switch(keyDeclaration.getType()) {
+					case KeyDeclaration.TYPE_FOREIGN:
+						columns.get(0).setForeignKey(true);
+						
+						break;
+					case KeyDeclaration.TYPE_INDEX:
+//						An index serves lookups by its leftmost column, which is the only one the model can express:
+						columns.get(0).setIndex(true);
+						
+						break;
+					case KeyDeclaration.TYPE_PRIMARY:
+						if(columns.size() > 1) {
+							warnings.add(String.format("%s: Table \"%s\" has a composite primary key, which generated repositories cannot load by.", keyDeclaration.getLocation(), this.name));
+						}
+						
+						for(final Column column : columns) {
+							column.setNullable(false);
+							column.setPrimaryKey(true);
+						}
+						
+						break;
+					case KeyDeclaration.TYPE_UNIQUE:
+						if(columns.size() > 1) {
+							columns.get(0).setIndex(true);
+							
+							warnings.add(String.format("%s: The composite unique key \"%s\" of table \"%s\" is imported as an index on column \"%s\".", keyDeclaration.getLocation(), keyDeclaration.getReferenceId(), this.name, columns.get(0).getName()));
+						} else {
+							columns.get(0).setUniqueKey(true);
+						}
+						
+						break;
+					default:
+						break;
+				}
+			}
+			
+			if(table.getColumnsPrimaryKey().isEmpty()) {
+				warnings.add(String.format("Table \"%s\" has no primary key, which generated repositories need to load and save by.", this.name));
+			}
+			
+			return table;
+		}
+		
+		public boolean isDisabled() {
+			return this.isDisabled;
+		}
+		
+		public void addColumn(final Column column) {
+			if(column != null) {
+				this.columns.put(column.getName(), column);
+			}
+		}
+		
+		public void addColumnDisabled(final String columnName) {
+			this.columnsDisabled.add(columnName);
+		}
+		
+		public void addKeyDeclaration(final KeyDeclaration keyDeclaration) {
+			this.keyDeclarations.put(keyDeclaration.getReferenceId(), keyDeclaration);
+		}
+		
+		public void merge(final TableDeclaration tableDeclaration) {
+			if(!tableDeclaration.comment.isEmpty()) {
+				this.comment = tableDeclaration.comment;
+			}
+			
+			for(final String columnName : tableDeclaration.columnsDisabled) {
+				this.columns.remove(columnName);
+			}
+			
+//			A column or key declared again by a later file replaces the earlier declaration in place, and a disabled key removes it:
+			this.columns.putAll(tableDeclaration.columns);
+			
+			for(final KeyDeclaration keyDeclaration : tableDeclaration.keyDeclarations.values()) {
+				if(keyDeclaration.isDisabled()) {
+					this.keyDeclarations.remove(keyDeclaration.getReferenceId());
+				} else {
+					this.keyDeclarations.put(keyDeclaration.getReferenceId(), keyDeclaration);
+				}
+			}
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,170 @@
+/**
+ * Copyright 2019 - 2021 J&#246;rgen Lundgren
+ * 
+ * This file is part of org.macroing.esg4j.
+ * 
+ * org.macroing.esg4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * org.macroing.esg4j is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with org.macroing.esg4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.macroing.esg4j.magento.database;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+final class MySQLDataTypes {
+	private static final Set<DataType> DATA_TYPES_INTEGER = new HashSet<>(Arrays.asList(DataType.BIGINT, DataType.INT, DataType.SMALLINT, DataType.TINYINT));
+	private static final int TEXT_LENGTH_LONG = 16777217;
+	private static final int TEXT_LENGTH_MEDIUM = 16777216;
+	private static final int TEXT_LENGTH_REGULAR = 65536;
+	private static final int VARBINARY_LENGTH_MAXIMUM = 65535;
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private MySQLDataTypes() {
+		
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public static boolean setDataType(final Column column, final String typeName, final List<String> parameters, final List<String> warnings) {
+		final int length = parameters.size() > 0 ? doParseInt(parameters.get(0)) : -1;
+		
+		switch(typeName) {
+			case "BIGINT":
+				return doSetDataType(column, DataType.BIGINT, Math.max(length, 0));
+			case "BINARY":
+			case "VARBINARY":
+				return doSetDataType(column, DataType.VARBINARY, length >= 0 ? length : 1);
+			case "BIT":
+				warnings.add(String.format("Column \"%s\" of type BIT is imported as an integer.", column.getName()));
+				
+				return doSetDataType(column, length > 8 ? DataType.BIGINT : DataType.TINYINT, 0);
+			case "BLOB":
+				return doSetDataType(column, DataType.VARBINARY, length >= 0 ? Math.min(length, VARBINARY_LENGTH_MAXIMUM) : VARBINARY_LENGTH_MAXIMUM);
+			case "BOOL":
+			case "BOOLEAN":
+				return doSetDataType(column, DataType.TINYINT, 1);
+			case "CHAR":
+			case "NCHAR":
+			case "NVARCHAR":
+			case "VARCHAR":
+				return doSetDataType(column, DataType.TEXT, length >= 0 ? length : 1);
+			case "DATE":
+				return doSetDataType(column, DataType.DATE, 0);
+			case "DATETIME":
+				return doSetDataType(column, DataType.DATETIME, 0);
+			case "DEC":
+			case "DECIMAL":
+			case "FIXED":
+				return doSetDataType(column, DataType.DECIMAL, Math.max(length, 0));
+			case "DOUBLE":
+			case "REAL":
+				warnings.add(String.format("Column \"%s\" of type %s is imported as FLOAT and loses precision.", column.getName(), typeName));
+				
+				return doSetDataType(column, DataType.FLOAT, 0);
+			case "ENUM":
+			case "SET":
+				warnings.add(String.format("Column \"%s\" of type %s is imported as TEXT.", column.getName(), typeName));
+				
+				return doSetDataType(column, DataType.TEXT, doGetLength(parameters, typeName.equals("SET")));
+			case "FLOAT":
+				return doSetDataType(column, DataType.FLOAT, 0);
+			case "INT":
+			case "INTEGER":
+			case "MEDIUMINT":
+				return doSetDataType(column, DataType.INT, length >= 0 ? length : 11);
+			case "JSON":
+				warnings.add(String.format("Column \"%s\" of type JSON is imported as TEXT.", column.getName()));
+				
+				return doSetDataType(column, DataType.TEXT, TEXT_LENGTH_LONG);
+			case "LONGBLOB":
+			case "MEDIUMBLOB":
+				warnings.add(String.format("Column \"%s\" of type %s is imported as VARBINARY(%d) and may truncate values.", column.getName(), typeName, Integer.valueOf(VARBINARY_LENGTH_MAXIMUM)));
+				
+				return doSetDataType(column, DataType.VARBINARY, VARBINARY_LENGTH_MAXIMUM);
+			case "LONGTEXT":
+				return doSetDataType(column, DataType.TEXT, TEXT_LENGTH_LONG);
+			case "MEDIUMTEXT":
+				return doSetDataType(column, DataType.TEXT, TEXT_LENGTH_MEDIUM);
+			case "NUMERIC":
+				return doSetDataType(column, DataType.NUMERIC, Math.max(length, 0));
+			case "SMALLINT":
+				return doSetDataType(column, DataType.SMALLINT, Math.max(length, 0));
+			case "TEXT":
+				return doSetDataType(column, DataType.TEXT, length >= 0 ? length : TEXT_LENGTH_REGULAR);
+			case "TIME":
+				warnings.add(String.format("Column \"%s\" of type TIME is imported as TEXT.", column.getName()));
+				
+				return doSetDataType(column, DataType.TEXT, 10);
+			case "TIMESTAMP":
+				return doSetDataType(column, DataType.TIMESTAMP, 0);
+			case "TINYBLOB":
+				return doSetDataType(column, DataType.VARBINARY, 255);
+			case "TINYINT":
+				return doSetDataType(column, DataType.TINYINT, Math.max(length, 0));
+			case "TINYTEXT":
+				return doSetDataType(column, DataType.TEXT, 255);
+			case "YEAR":
+				warnings.add(String.format("Column \"%s\" of type YEAR is imported as SMALLINT.", column.getName()));
+				
+				return doSetDataType(column, DataType.SMALLINT, 0);
+			default:
+				warnings.add(String.format("Column \"%s\" of type %s is not supported and was skipped.", column.getName(), typeName));
+				
+				return false;
+		}
+	}
+	
+	public static void setDefaultValue(final Column column, final String defaultValue, final List<String> warnings) {
+		if(defaultValue != null && DATA_TYPES_INTEGER.contains(column.getDataType())) {
+			try {
+				column.setDefaultValue(Integer.valueOf(defaultValue));
+			} catch(final NumberFormatException e) {
+				column.setDefault(false);
+				
+				warnings.add(String.format("Default value \"%s\" of column \"%s\" is not an integer and was dropped.", defaultValue, column.getName()));
+			}
+		} else {
+			column.setDefaultValue(defaultValue);
+		}
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private static boolean doSetDataType(final Column column, final DataType dataType, final int length) {
+		column.setDataType(dataType);
+		column.setLength(length);
+		
+		return true;
+	}
+	
+	private static int doGetLength(final List<String> values, final boolean isSet) {
+		int length = 0;
+		
+		for(final String value : values) {
+			length = isSet ? length + value.length() + (length > 0 ? 1 : 0) : Math.max(length, value.length());
+		}
+		
+		return Math.max(length, 1);
+	}
+	
+	private static int doParseInt(final String string) {
+		try {
+			return Integer.parseInt(string);
+		} catch(final NumberFormatException e) {
+			return -1;
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,420 @@
+/**
+ * Copyright 2019 - 2021 J&#246;rgen Lundgren
+ * 
+ * This file is part of org.macroing.esg4j.
+ * 
+ * org.macroing.esg4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * org.macroing.esg4j is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with org.macroing.esg4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.macroing.esg4j.magento.database;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import org.macroing.esg4j.sql.SQLReader;
+import org.macroing.esg4j.sql.SQLSyntaxException;
+import org.macroing.esg4j.sql.SQLToken;
+
+public final class MySQLDumpReader {
+	private static final Set<String> KEYWORDS_CONSTRAINT = new HashSet<>(Arrays.asList("CHECK", "CONSTRAINT", "FOREIGN", "FULLTEXT", "INDEX", "KEY", "PRIMARY", "SPATIAL", "UNIQUE"));
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private final List<String> warnings;
+	private final SQLReader sQLReader;
+	private final String source;
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private MySQLDumpReader(final SQLReader sQLReader, final String source) {
+		this.sQLReader = sQLReader;
+		this.source = source;
+		this.warnings = new ArrayList<>();
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private Column doReadColumn(final String name) {
+		final Column column = new Column();
+		
+		column.setAutoIncrement(false);
+		column.setComment("");
+		column.setName(name);
+		column.setNullable(true);
+		column.setPrimaryKey(false);
+		column.setUnsigned(false);
+		
+		final String typeName = this.sQLReader.nextName().toUpperCase(Locale.ENGLISH);
+		
+		if(typeName.equals("DOUBLE")) {
+			this.sQLReader.nextIf("PRECISION");
+		}
+		
+		final List<String> parameters = new ArrayList<>();
+		
+		if(this.sQLReader.nextIf("(")) {
+			do {
+				parameters.add(this.sQLReader.next());
+			} while(this.sQLReader.nextIf(","));
+			
+			this.sQLReader.expect(")");
+		}
+		
+		final List<String> warnings = new ArrayList<>();
+		
+		final boolean isSupported = MySQLDataTypes.setDataType(column, typeName, parameters, warnings);
+		
+		for(final String warning : warnings) {
+			doAddWarning(warning);
+		}
+		
+		String defaultValue = null;
+		
+		while(!this.sQLReader.isNext(",") && !this.sQLReader.isNext(")")) {
+			if(this.sQLReader.nextIf("AUTO_INCREMENT")) {
+				column.setAutoIncrement(true);
+			} else if(this.sQLReader.nextIf("COMMENT")) {
+				column.setComment(this.sQLReader.nextString());
+			} else if(this.sQLReader.nextIf("DEFAULT")) {
+				defaultValue = doReadDefaultValue(column);
+			} else if(this.sQLReader.nextIf("KEY")) {
+				column.setPrimaryKey(true);
+			} else if(this.sQLReader.nextIf("NOT")) {
+				this.sQLReader.expect("NULL");
+				
+				column.setNullable(false);
+			} else if(this.sQLReader.nextIf("NULL")) {
+				column.setNullable(true);
+			} else if(this.sQLReader.nextIf("PRIMARY")) {
+				this.sQLReader.expect("KEY");
+				
+				column.setPrimaryKey(true);
+			} else if(this.sQLReader.nextIf("REFERENCES")) {
+				column.setForeignKey(true);
+			} else if(this.sQLReader.nextIf("UNIQUE")) {
+				this.sQLReader.nextIf("KEY");
+				
+				column.setUniqueKey(true);
+			} else if(this.sQLReader.nextIf("UNSIGNED")) {
+				column.setUnsigned(true);
+			} else if(this.sQLReader.isNext("(")) {
+				this.sQLReader.skipGroup();
+			} else {
+				this.sQLReader.next();
+			}
+		}
+		
+		if(!isSupported) {
+			return null;
+		}
+		
+		if(column.hasPrimaryKey()) {
+			column.setNullable(false);
+		}
+		
+		warnings.clear();
+		
+		MySQLDataTypes.setDefaultValue(column, defaultValue, warnings);
+		
+		for(final String warning : warnings) {
+			doAddWarning(warning);
+		}
+		
+		return column;
+	}
+	
+	private Database doReadDatabase() {
+		final Database database = new Database();
+		
+		final Map<String, Table> tables = new HashMap<>();
+		
+		boolean hasName = false;
+		
+		while(this.sQLReader.peek() != SQLToken.END_DOCUMENT) {
+			try {
+				if(this.sQLReader.nextIf("CREATE")) {
+					this.sQLReader.nextIf("TEMPORARY");
+					
+					if(this.sQLReader.nextIf("TABLE")) {
+						final Table table = doReadTable();
+						
+						if(table != null) {
+							final Table tableOld = tables.put(table.getName(), table);
+							
+							if(tableOld != null) {
+								doAddWarning(String.format("Table \"%s\" is created more than once. The last definition is used.", table.getName()));
+								
+								database.removeTable(tableOld);
+							}
+							
+							database.addTable(table);
+						}
+					} else if((this.sQLReader.nextIf("DATABASE") || this.sQLReader.nextIf("SCHEMA")) && !hasName) {
+						if(this.sQLReader.nextIf("IF")) {
+							this.sQLReader.expect("NOT");
+							this.sQLReader.expect("EXISTS");
+						}
+						
+						database.setName(this.sQLReader.nextName());
+						
+						hasName = true;
+					}
+				} else if(this.sQLReader.nextIf("USE") && !hasName) {
+					database.setName(this.sQLReader.nextName());
+					
+					hasName = true;
+				}
+				
+				this.sQLReader.skipStatement();
+			} catch(final SQLSyntaxException e) {
+				this.warnings.add(String.format("%s:%d:%d: %s The statement was skipped.", this.source, Integer.valueOf(e.getLine()), Integer.valueOf(e.getColumn()), e.getDescription()));
+				
+				this.sQLReader.skipStatement();
+			}
+		}
+		
+		return database;
+	}
+	
+	private List<String> doReadKeyColumnNames() {
+		while(!this.sQLReader.isNext("(")) {
+			this.sQLReader.next();
+		}
+		
+		final List<String> columnNames = new ArrayList<>();
+		
+		this.sQLReader.expect("(");
+		
+		do {
+			if(this.sQLReader.isNext("(")) {
+				this.sQLReader.skipGroup();
+			} else {
+				columnNames.add(this.sQLReader.nextName());
+				
+				if(this.sQLReader.isNext("(")) {
+					this.sQLReader.skipGroup();
+				}
+			}
+			
+			if(!this.sQLReader.nextIf("ASC")) {
+				this.sQLReader.nextIf("DESC");
+			}
+		} while(this.sQLReader.nextIf(","));
+		
+		this.sQLReader.expect(")");
+		
+		return columnNames;
+	}
+	
+	private List<Column> doReadKeyColumns(final Table table, final String keyName) {
+		final List<Column> columns = new ArrayList<>();
+		
+		for(final String columnName : doReadKeyColumnNames()) {
+			final Optional<Column> optionalColumn = table.getColumn(columnName);
+			
+			if(optionalColumn.isPresent()) {
+				columns.add(optionalColumn.get());
+			} else {
+				doAddWarning(String.format("The %s of table \"%s\" refers to the unknown column \"%s\".", keyName, table.getName(), columnName));
+			}
+		}
+		
+		return columns;
+	}
+	
+	private String doReadDefaultValue(final Column column) {
+		column.setDefault(true);
+		
+		if(this.sQLReader.isNext("(")) {
+			this.sQLReader.skipGroup();
+			
+			column.setDefault(false);
+			
+			return null;
+		}
+		
+		final SQLToken token = this.sQLReader.peek();
+		
+		if(this.sQLReader.nextIf("NULL")) {
+			return null;
+		} else if(token == SQLToken.STRING || token == SQLToken.NUMBER) {
+			return this.sQLReader.next();
+		} else if(this.sQLReader.nextIf("-")) {
+			return "-" + this.sQLReader.next();
+		} else if(this.sQLReader.nextIf("+")) {
+			return this.sQLReader.next();
+		}
+		
+//		A function such as CURRENT_TIMESTAMP or a literal such as b'0' has no counterpart in the model, so the column gets no default:
+		this.sQLReader.next();
+		
+		if(this.sQLReader.peek() == SQLToken.STRING) {
+			this.sQLReader.next();
+		} else if(this.sQLReader.isNext("(")) {
+			this.sQLReader.skipGroup();
+		}
+		
+		column.setDefault(false);
+		
+		return null;
+	}
+	
+	private String doReadQualifiedName() {
+		String name = this.sQLReader.nextName();
+		
+		while(this.sQLReader.nextIf(".")) {
+			name = this.sQLReader.nextName();
+		}
+		
+		return name;
+	}
+	
+	private Table doReadTable() {
+		if(this.sQLReader.nextIf("IF")) {
+			this.sQLReader.expect("NOT");
+			this.sQLReader.expect("EXISTS");
+		}
+		
+		final Table table = new Table(doReadQualifiedName());
+		
+		if(!this.sQLReader.nextIf("(")) {
+			doAddWarning(String.format("Table \"%s\" is not created from a column list and was skipped.", table.getName()));
+			
+			return null;
+		}
+		
+		do {
+			if(this.sQLReader.peek() == SQLToken.IDENTIFIER && KEYWORDS_CONSTRAINT.contains(this.sQLReader.peekValue().toUpperCase(Locale.ENGLISH))) {
+				doReadTableConstraint(table);
+			} else {
+				final Column column = doReadColumn(this.sQLReader.nextName());
+				
+				if(column != null) {
+					table.addColumn(column);
+				}
+			}
+		} while(this.sQLReader.nextIf(","));
+		
+		this.sQLReader.expect(")");
+		
+		while(this.sQLReader.peek() != SQLToken.END_DOCUMENT && !this.sQLReader.isNext(";")) {
+			if(this.sQLReader.nextIf("COMMENT")) {
+				this.sQLReader.nextIf("=");
+				
+				table.setComment(this.sQLReader.nextString());
+			} else {
+				this.sQLReader.next();
+			}
+		}
+		
+		if(table.getColumnsPrimaryKey().isEmpty()) {
+			doAddWarning(String.format("Table \"%s\" has no primary key, which generated repositories need to load and save by.", table.getName()));
+		}
+		
+		return table;
+	}
+	
+	private void doAddWarning(final String warning) {
+		this.warnings.add(String.format("%s:%d:%d: %s", this.source, Integer.valueOf(this.sQLReader.getLine()), Integer.valueOf(this.sQLReader.getColumn()), warning));
+	}
+	
+	private void doReadTableConstraint(final Table table) {
+		if(this.sQLReader.nextIf("CONSTRAINT") && this.sQLReader.peek() != SQLToken.SYMBOL && !this.sQLReader.isNext("CHECK") && !this.sQLReader.isNext("FOREIGN") && !this.sQLReader.isNext("PRIMARY") && !this.sQLReader.isNext("UNIQUE")) {
+			this.sQLReader.nextName();
+		}
+		
+		if(this.sQLReader.nextIf("PRIMARY")) {
+			this.sQLReader.expect("KEY");
+			
+			final List<Column> columns = doReadKeyColumns(table, "primary key");
+			
+			if(columns.size() > 1) {
+				doAddWarning(String.format("Table \"%s\" has a composite primary key, which generated repositories cannot load by.", table.getName()));
+			}
+			
+			for(final Column column : columns) {
+				column.setNullable(false);
+				column.setPrimaryKey(true);
+			}
+		} else if(this.sQLReader.nextIf("UNIQUE")) {
+			final List<Column> columns = doReadKeyColumns(table, "unique key");
+			
+			if(columns.size() == 1) {
+				columns.get(0).setUniqueKey(true);
+			} else if(columns.size() > 1) {
+				columns.get(0).setIndex(true);
+				
+				doAddWarning(String.format("The composite unique key of table \"%s\" is imported as an index on column \"%s\".", table.getName(), columns.get(0).getName()));
+			}
+		} else if(this.sQLReader.nextIf("KEY") || this.sQLReader.nextIf("INDEX")) {
+			final List<Column> columns = doReadKeyColumns(table, "index");
+			
+//			An index serves lookups by its leftmost column, which is the only one the model can express:
+			if(columns.size() > 0) {
+				columns.get(0).setIndex(true);
+			}
+		} else if(this.sQLReader.nextIf("FOREIGN")) {
+			this.sQLReader.expect("KEY");
+			
+			for(final Column column : doReadKeyColumns(table, "foreign key")) {
+				column.setForeignKey(true);
+			}
+		} else if(this.sQLReader.nextIf("FULLTEXT") || this.sQLReader.nextIf("SPATIAL")) {
+			doReadKeyColumnNames();
+		}
+		
+		while(!this.sQLReader.isNext(",") && !this.sQLReader.isNext(")")) {
+			if(this.sQLReader.isNext("(")) {
+				this.sQLReader.skipGroup();
+			} else {
+				this.sQLReader.next();
+			}
+		}
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public static Database read(final File file, final List<String> warnings) {
+		try(final Reader reader = new BufferedReader(new InputStreamReader(Files.newInputStream(Objects.requireNonNull(file, "file == null").toPath()), StandardCharsets.UTF_8))) {
+			return read(reader, file.getPath(), warnings);
+		} catch(final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	public static Database read(final Reader reader, final String source, final List<String> warnings) {
+		final MySQLDumpReader mySQLDumpReader = new MySQLDumpReader(new SQLReader(Objects.requireNonNull(reader, "reader == null")), Objects.requireNonNull(source, "source == null"));
+		
+		final Database database = mySQLDumpReader.doReadDatabase();
+		
+		Objects.requireNonNull(warnings, "warnings == null").addAll(mySQLDumpReader.warnings);
+		
+		return database;
+	}
+}
\ No newline at end of file
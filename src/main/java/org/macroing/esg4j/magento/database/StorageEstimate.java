@@ -0,0 +1,175 @@
+/**
+ * Copyright 2019 - 2021 J&#246;rgen Lundgren
+ * 
+ * This file is part of org.macroing.esg4j.
+ * 
+ * org.macroing.esg4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * org.macroing.esg4j is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with org.macroing.esg4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.macroing.esg4j.magento.database;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.macroing.cel4j.util.Document;
+
+public final class StorageEstimate {
+	private final List<Entry> entries;
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	StorageEstimate(final List<Entry> entries) {
+		this.entries = Collections.unmodifiableList(new ArrayList<>(Objects.requireNonNull(entries, "entries == null")));
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public Document toDocument() {
+		final
+		Document document = new Document();
+		document.linef("%-40s %14s %10s %10s %16s %16s %16s %16s", "Table", "Rows", "Row B", "Row max B", "Clustered B", "Secondary B", "Off-page B", "Total B");
+		
+		for(final Entry entry : this.entries) {
+			document.linef("%-40s %14d %10d %10d %16d %16d %16d %16d", entry.getTableName(), Long.valueOf(entry.getRowCount()), Integer.valueOf(entry.getRecordSize()), Integer.valueOf(entry.getRecordSizeMaximum()), Long.valueOf(entry.getClusteredIndexSize()), Long.valueOf(entry.getSecondaryIndexSize()), Long.valueOf(entry.getOffPageSize()), Long.valueOf(entry.getTotalSize()));
+		}
+		
+		document.linef("Total: %d byte(s) (%.1f MiB) in %d table(s).", Long.valueOf(getTotalSize()), Double.valueOf(getTotalSize() / (1024.0D * 1024.0D)), Integer.valueOf(this.entries.size()));
+		
+		final List<String> warnings = getWarnings();
+		
+		if(warnings.size() > 0) {
+			document.linef("%d warning(s):", Integer.valueOf(warnings.size()));
+			document.indent();
+			
+			for(final String warning : warnings) {
+				document.line(warning);
+			}
+			
+			document.outdent();
+		}
+		
+		return document;
+	}
+	
+	public List<Entry> getEntries() {
+		return this.entries;
+	}
+	
+	public List<String> getWarnings() {
+		final List<String> warnings = new ArrayList<>();
+		
+		for(final Entry entry : this.entries) {
+			warnings.addAll(entry.getWarnings());
+		}
+		
+		return warnings;
+	}
+	
+	@Override
+	public String toString() {
+		return toDocument().toString();
+	}
+	
+	public long getTotalSize() {
+		long totalSize = 0L;
+		
+		for(final Entry entry : this.entries) {
+			totalSize += entry.getTotalSize();
+		}
+		
+		return totalSize;
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public static final class Entry {
+		private final List<String> warnings;
+		private final Map<String, Long> secondaryIndexSizes;
+		private final String tableName;
+		private final int recordSize;
+		private final int recordSizeMaximum;
+		private final long clusteredIndexSize;
+		private final long offPageSize;
+		private final long rowCount;
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		Entry(final String tableName, final long rowCount, final int recordSize, final int recordSizeMaximum, final long clusteredIndexSize, final long offPageSize, final Map<String, Long> secondaryIndexSizes, final List<String> warnings) {
+			this.tableName = Objects.requireNonNull(tableName, "tableName == null");
+			this.rowCount = rowCount;
+			this.recordSize = recordSize;
+			this.recordSizeMaximum = recordSizeMaximum;
+			this.clusteredIndexSize = clusteredIndexSize;
+			this.offPageSize = offPageSize;
+			this.secondaryIndexSizes = Collections.unmodifiableMap(new LinkedHashMap<>(Objects.requireNonNull(secondaryIndexSizes, "secondaryIndexSizes == null")));
+			this.warnings = Collections.unmodifiableList(new ArrayList<>(Objects.requireNonNull(warnings, "warnings == null")));
+		}
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public List<String> getWarnings() {
+			return this.warnings;
+		}
+		
+		public Map<String, Long> getSecondaryIndexSizes() {
+			return this.secondaryIndexSizes;
+		}
+		
+		public String getTableName() {
+			return this.tableName;
+		}
+		
+		@Override
+		public String toString() {
+			return String.format("new StorageEstimate.Entry(\"%s\", %d, %d, %d, %d, %d, %s, %s)", this.tableName, Long.valueOf(this.rowCount), Integer.valueOf(this.recordSize), Integer.valueOf(this.recordSizeMaximum), Long.valueOf(this.clusteredIndexSize), Long.valueOf(this.offPageSize), this.secondaryIndexSizes, this.warnings);
+		}
+		
+		public int getRecordSize() {
+			return this.recordSize;
+		}
+		
+		public int getRecordSizeMaximum() {
+			return this.recordSizeMaximum;
+		}
+		
+		public long getClusteredIndexSize() {
+			return this.clusteredIndexSize;
+		}
+		
+		public long getOffPageSize() {
+			return this.offPageSize;
+		}
+		
+		public long getRowCount() {
+			return this.rowCount;
+		}
+		
+		public long getSecondaryIndexSize() {
+			long secondaryIndexSize = 0L;
+			
+			for(final Long size : this.secondaryIndexSizes.values()) {
+				secondaryIndexSize += size.longValue();
+			}
+			
+			return secondaryIndexSize;
+		}
+		
+		public long getTotalSize() {
+			return this.clusteredIndexSize + getSecondaryIndexSize() + this.offPageSize;
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,336 @@
+/**
+ * Copyright 2019 - 2021 J&#246;rgen Lundgren
+ * 
+ * This file is part of org.macroing.esg4j.
+ * 
+ * org.macroing.esg4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * org.macroing.esg4j is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with org.macroing.esg4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.macroing.esg4j.magento.database;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+public final class StorageEstimator {
+	private static final double PAGE_DIRECTORY_SIZE = 2.0D / 6.0D;
+	private static final double PAGE_FILL_CLUSTERED = 15.0D / 16.0D;
+	private static final double PAGE_FILL_SECONDARY = 0.69D;
+	private static final int KEY_SIZE_MAXIMUM = 3072;
+	private static final int NODE_POINTER_SIZE = 4;
+	private static final int OFF_PAGE_POINTER_SIZE = 20;
+	private static final int OFF_PAGE_VALUE_SIZE_MINIMUM = 40;
+	private static final int PAGE_SIZE = 16384;
+	private static final int PAGE_SIZE_USABLE = PAGE_SIZE - 38 - 56 - 26 - 8;
+	private static final int PAGE_SIZE_USABLE_OFF_PAGE = PAGE_SIZE - 38 - 12 - 8;
+	private static final int RECORD_HEADER_SIZE = 5;
+	private static final int RECORD_SIZE_MAXIMUM_INLINE = 8126;
+	private static final int ROW_ID_SIZE = 6;
+	private static final int ROW_SIZE_MAXIMUM = 65535;
+	private static final int TEXT_LENGTH_BOUNDED = 255;
+	private static final int TEXT_LENGTH_DEFAULT = 65535;
+	private static final int TEXT_SIZE_AVERAGE_DEFAULT = 256;
+	private static final int TRANSACTION_FIELDS_SIZE = 6 + 7;
+	private static final int VARBINARY_LENGTH_DEFAULT = 255;
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private final Map<String, Long> rowCounts;
+	private double variableLengthFill;
+	private int textSizeAverage;
+	private long rowCount;
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public StorageEstimator() {
+		this(1000000L);
+	}
+	
+	public StorageEstimator(final long rowCount) {
+		this(rowCount, 0.5D);
+	}
+	
+	public StorageEstimator(final long rowCount, final double variableLengthFill) {
+		this(rowCount, variableLengthFill, TEXT_SIZE_AVERAGE_DEFAULT);
+	}
+	
+	public StorageEstimator(final long rowCount, final double variableLengthFill, final int textSizeAverage) {
+		this.rowCounts = new LinkedHashMap<>();
+		
+		setRowCount(rowCount);
+		setTextSizeAverage(textSizeAverage);
+		setVariableLengthFill(variableLengthFill);
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public Map<String, Long> getRowCounts() {
+		return new LinkedHashMap<>(this.rowCounts);
+	}
+	
+	public StorageEstimate estimate(final Database database) {
+		final List<StorageEstimate.Entry> entries = new ArrayList<>();
+		
+		for(final Table table : Objects.requireNonNull(database, "database == null").getTables()) {
+			entries.add(doEstimateTable(table, getRowCount(table.getName())));
+		}
+		
+		return new StorageEstimate(entries);
+	}
+	
+	@Override
+	public String toString() {
+		return String.format("new StorageEstimator(%d, %s, %d)", Long.valueOf(this.rowCount), Double.toString(this.variableLengthFill), Integer.valueOf(this.textSizeAverage));
+	}
+	
+	public double getVariableLengthFill() {
+		return this.variableLengthFill;
+	}
+	
+	public int getTextSizeAverage() {
+		return this.textSizeAverage;
+	}
+	
+	public long getRowCount() {
+		return this.rowCount;
+	}
+	
+	public long getRowCount(final String tableName) {
+		return this.rowCounts.getOrDefault(Objects.requireNonNull(tableName, "tableName == null"), Long.valueOf(this.rowCount)).longValue();
+	}
+	
+	public void setRowCount(final long rowCount) {
+		if(rowCount < 0L) {
+			throw new IllegalArgumentException(String.format("rowCount < 0: rowCount = %d", Long.valueOf(rowCount)));
+		}
+		
+		this.rowCount = rowCount;
+	}
+	
+	public void setRowCount(final String tableName, final long rowCount) {
+		Objects.requireNonNull(tableName, "tableName == null");
+		
+		if(rowCount < 0L) {
+			throw new IllegalArgumentException(String.format("rowCount < 0: rowCount = %d", Long.valueOf(rowCount)));
+		}
+		
+		this.rowCounts.put(tableName, Long.valueOf(rowCount));
+	}
+	
+	public void setTextSizeAverage(final int textSizeAverage) {
+		if(textSizeAverage < 0) {
+			throw new IllegalArgumentException(String.format("textSizeAverage < 0: textSizeAverage = %d", Integer.valueOf(textSizeAverage)));
+		}
+		
+		this.textSizeAverage = textSizeAverage;
+	}
+	
+	public void setVariableLengthFill(final double variableLengthFill) {
+		if(!(variableLengthFill >= 0.0D && variableLengthFill <= 1.0D)) {
+			throw new IllegalArgumentException(String.format("variableLengthFill < 0.0D || variableLengthFill > 1.0D: variableLengthFill = %s", Double.toString(variableLengthFill)));
+		}
+		
+		this.variableLengthFill = variableLengthFill;
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private Record doEstimateRecord(final Table table, final boolean isMaximum) {
+		final List<Integer> valueSizesOffPage = new ArrayList<>();
+		
+		int nullableCount = 0;
+		int recordSize = RECORD_HEADER_SIZE + TRANSACTION_FIELDS_SIZE + (table.getColumnsPrimaryKey().isEmpty() ? ROW_ID_SIZE : 0);
+		
+		for(final Column column : table.getColumns()) {
+			if(column.isNullable()) {
+				nullableCount++;
+			}
+			
+			if(doIsVariableLength(column)) {
+				final int valueSize = doGetValueSize(column, isMaximum);
+				
+				recordSize += doGetLengthHeaderSize(column) + valueSize;
+				
+				if(valueSize > OFF_PAGE_VALUE_SIZE_MINIMUM) {
+					valueSizesOffPage.add(Integer.valueOf(valueSize));
+				}
+			} else {
+				recordSize += DatabaseLinter.getSize(column);
+			}
+		}
+		
+		recordSize += (nullableCount + 7) / 8;
+		
+//		InnoDB (ROW_FORMAT=DYNAMIC) moves the longest variable-length values off the page until the record fits, leaving a 20 byte pointer behind:
+		Collections.sort(valueSizesOffPage, Collections.reverseOrder());
+		
+		int offPageCount = 0;
+		
+		long offPageSize = 0L;
+		
+		for(final Integer valueSize : valueSizesOffPage) {
+			if(recordSize <= RECORD_SIZE_MAXIMUM_INLINE) {
+				break;
+			}
+			
+			recordSize -= valueSize.intValue() - OFF_PAGE_POINTER_SIZE;
+			
+			offPageSize += (valueSize.intValue() + PAGE_SIZE_USABLE_OFF_PAGE - 1L) / PAGE_SIZE_USABLE_OFF_PAGE * PAGE_SIZE;
+			offPageCount++;
+		}
+		
+		return new Record(recordSize, offPageCount, offPageSize);
+	}
+	
+	private StorageEstimate.Entry doEstimateTable(final Table table, final long rowCount) {
+		final List<String> warnings = new ArrayList<>();
+		
+		final Map<String, Long> secondaryIndexSizes = new LinkedHashMap<>();
+		
+		final String tableName = table.getName();
+		
+		final Record record = doEstimateRecord(table, false);
+		final Record recordMaximum = doEstimateRecord(table, true);
+		
+		final int primaryKeySize = doGetPrimaryKeySize(table);
+		
+		final long clusteredIndexSize = doGetIndexSize(rowCount, record.getSize(), RECORD_HEADER_SIZE + primaryKeySize + NODE_POINTER_SIZE, PAGE_FILL_CLUSTERED);
+		
+		for(final Column column : table.getColumns()) {
+			if(!column.hasPrimaryKey() && (column.hasIndex() || column.hasUniqueKey() || column.hasForeignKey())) {
+				final int keySizeMaximum = doIsVariableLength(column) ? doGetValueSize(column, true) : DatabaseLinter.getSize(column);
+				
+				if(keySizeMaximum > KEY_SIZE_MAXIMUM) {
+					warnings.add(String.format("Table \"%s\" indexes column \"%s\" with a maximum key size of %d bytes, which exceeds the InnoDB limit of %d bytes for an index key.", tableName, column.getName(), Integer.valueOf(keySizeMaximum), Integer.valueOf(KEY_SIZE_MAXIMUM)));
+				}
+				
+				final int keySize = Math.min(doIsVariableLength(column) ? doGetLengthHeaderSize(column) + doGetValueSize(column, false) : DatabaseLinter.getSize(column), KEY_SIZE_MAXIMUM);
+				
+				final int recordSize = RECORD_HEADER_SIZE + (column.isNullable() ? 1 : 0) + keySize + primaryKeySize;
+				
+				secondaryIndexSizes.put(column.getName(), Long.valueOf(doGetIndexSize(rowCount, recordSize, recordSize + NODE_POINTER_SIZE, PAGE_FILL_SECONDARY)));
+			}
+		}
+		
+		final int rowSize = DatabaseLinter.getRowSize(table);
+		
+		if(rowSize > ROW_SIZE_MAXIMUM) {
+			warnings.add(String.format("Table \"%s\" has a maximum row size of %d bytes, which exceeds the MySQL limit of %d bytes, so it cannot be created.", tableName, Integer.valueOf(rowSize), Integer.valueOf(ROW_SIZE_MAXIMUM)));
+		}
+		
+		if(recordMaximum.getSize() > RECORD_SIZE_MAXIMUM_INLINE) {
+			warnings.add(String.format("Table \"%s\" has a maximum record size of %d bytes after moving %d column(s) off the page, which exceeds the InnoDB page-inline limit of %d bytes, so inserting a full row fails.", tableName, Integer.valueOf(recordMaximum.getSize()), Integer.valueOf(recordMaximum.getOffPageCount()), Integer.valueOf(RECORD_SIZE_MAXIMUM_INLINE)));
+		} else if(record.getOffPageCount() > 0) {
+			warnings.add(String.format("Table \"%s\" exceeds the InnoDB page-inline limit of %d bytes at the expected fill, so %d column(s) per row are stored off the page, costing %d extra byte(s) and an extra page read each.", tableName, Integer.valueOf(RECORD_SIZE_MAXIMUM_INLINE), Integer.valueOf(record.getOffPageCount()), Long.valueOf(record.getOffPageSize())));
+		} else if(recordMaximum.getOffPageCount() > 0) {
+			warnings.add(String.format("Table \"%s\" exceeds the InnoDB page-inline limit of %d bytes at maximum length, so up to %d column(s) per row are stored off the page.", tableName, Integer.valueOf(RECORD_SIZE_MAXIMUM_INLINE), Integer.valueOf(recordMaximum.getOffPageCount())));
+		}
+		
+		return new StorageEstimate.Entry(tableName, rowCount, record.getSize(), recordMaximum.getSize(), clusteredIndexSize, rowCount * record.getOffPageSize(), secondaryIndexSizes, warnings);
+	}
+	
+	private int doGetValueSize(final Column column, final boolean isMaximum) {
+		final int length = column.getLength();
+		
+		if(column.getDataType() == DataType.TEXT && length > 0 && length <= TEXT_LENGTH_BOUNDED) {
+//			A VARCHAR in utf8mb4 takes up to four bytes per character, but mostly one when filled with Latin text:
+			return isMaximum ? length * 4 : (int)(Math.ceil(length * this.variableLengthFill));
+		}
+		
+		final int lengthMaximum = length > 0 ? length : column.getDataType() == DataType.TEXT ? TEXT_LENGTH_DEFAULT : VARBINARY_LENGTH_DEFAULT;
+		
+		if(isMaximum) {
+			return lengthMaximum;
+		}
+		
+//		The maximum of a TEXT is usually that of its MySQL type, such as 16 MB for a MEDIUMTEXT, and says little about the values stored, so they are given an average size of their own:
+		if(column.getDataType() == DataType.TEXT) {
+			return Math.min(this.textSizeAverage, lengthMaximum);
+		}
+		
+		return (int)(Math.ceil(lengthMaximum * this.variableLengthFill));
+	}
+	
+	private int doGetLengthHeaderSize(final Column column) {
+		return doGetValueSize(column, true) > 255 ? 2 : 1;
+	}
+	
+	private int doGetPrimaryKeySize(final Table table) {
+		final List<Column> columnsPrimaryKey = table.getColumnsPrimaryKey();
+		
+		if(columnsPrimaryKey.isEmpty()) {
+			return ROW_ID_SIZE;
+		}
+		
+		int primaryKeySize = 0;
+		
+		for(final Column column : columnsPrimaryKey) {
+			primaryKeySize += doIsVariableLength(column) ? doGetLengthHeaderSize(column) + doGetValueSize(column, false) : DatabaseLinter.getSize(column);
+		}
+		
+		return primaryKeySize;
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private static boolean doIsVariableLength(final Column column) {
+		return column.getDataType() == DataType.TEXT || column.getDataType() == DataType.VARBINARY;
+	}
+	
+	private static long doGetIndexSize(final long rowCount, final int recordSize, final int nodePointerSize, final double pageFill) {
+		final double pageCapacity = PAGE_SIZE_USABLE * pageFill;
+		
+		long pageCount = Math.max((long)(Math.ceil(rowCount * (recordSize + PAGE_DIRECTORY_SIZE) / pageCapacity)), 1L);
+		long pageCountTotal = pageCount;
+		
+		while(pageCount > 1L) {
+			pageCount = Math.max((long)(Math.ceil(pageCount * (nodePointerSize + PAGE_DIRECTORY_SIZE) / pageCapacity)), 1L);
+			pageCountTotal += pageCount;
+		}
+		
+		return pageCountTotal * PAGE_SIZE;
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private static final class Record {
+		private final int offPageCount;
+		private final int size;
+		private final long offPageSize;
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public Record(final int size, final int offPageCount, final long offPageSize) {
+			this.size = size;
+			this.offPageCount = offPageCount;
+			this.offPageSize = offPageSize;
+		}
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public int getOffPageCount() {
+			return this.offPageCount;
+		}
+		
+		public int getSize() {
+			return this.size;
+		}
+		
+		public long getOffPageSize() {
+			return this.offPageSize;
+		}
+	}
+}
\ No newline at end of file
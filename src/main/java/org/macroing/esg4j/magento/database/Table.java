@@ -19,13 +19,32 @@
 package org.macroing.esg4j.magento.database;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+import org.macroing.esg4j.util.Derived;
 
 public final class Table {
 	private final List<Column> columns;
+	@Derived
+	private final List<Column> columnsForeignKey;
+	@Derived
+	private final List<Column> columnsPrimaryKey;
+	@Derived
+	private final List<Column> columnsUniqueKey;
+	@Derived
+	private final Map<String, Column> columnsByName;
 	private String comment;
 	private String name;
+	@Derived
+	private final boolean isSnapshot;
+	@Derived
+	private final int hashCode;
 	
 	////////////////////////////////////////////////////////////////////////////////////////////////////
 	
@@ -39,26 +58,71 @@ public final class Table {
 	
 	public Table(final String name, final String comment) {
 		this.columns = new ArrayList<>();
+		this.columnsForeignKey = null;
+		this.columnsPrimaryKey = null;
+		this.columnsUniqueKey = null;
+		this.columnsByName = null;
 		this.name = Objects.requireNonNull(name, "name == null");
 		this.comment = Objects.requireNonNull(comment, "comment == null");
+		this.isSnapshot = false;
+		this.hashCode = 0;
+	}
+	
+	private Table(final Table table) {
+		final List<Column> columns = new ArrayList<>(table.columns.size());
+		
+		final Map<String, Column> columnsByName = new LinkedHashMap<>();
+		
+		for(final Column column : table.columns) {
+			final Column columnSnapshot = column.snapshot();
+			
+			columns.add(columnSnapshot);
+			columnsByName.putIfAbsent(columnSnapshot.getName(), columnSnapshot);
+		}
+		
+		this.columns = Collections.unmodifiableList(columns);
+		this.columnsForeignKey = Collections.unmodifiableList(doFilter(columns, column -> column.hasForeignKey()));
+		this.columnsPrimaryKey = Collections.unmodifiableList(doFilter(columns, column -> column.hasPrimaryKey()));
+		this.columnsUniqueKey = Collections.unmodifiableList(doFilter(columns, column -> column.hasUniqueKey()));
+		this.columnsByName = Collections.unmodifiableMap(columnsByName);
+		this.name = table.name;
+		this.comment = table.comment;
+		this.isSnapshot = true;
+		this.hashCode = Objects.hash(this.columns, this.comment, this.name);
 	}
 	
 	////////////////////////////////////////////////////////////////////////////////////////////////////
 	
 	public List<Column> getColumns() {
-		return new ArrayList<>(this.columns);
+		return this.isSnapshot ? this.columns : new ArrayList<>(this.columns);
 	}
 	
 	public List<Column> getColumnsForeignKey() {
-		return this.columns.stream().filter(column -> column.hasForeignKey()).collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+		return this.isSnapshot ? this.columnsForeignKey : doFilter(this.columns, column -> column.hasForeignKey());
 	}
 	
 	public List<Column> getColumnsPrimaryKey() {
-		return this.columns.stream().filter(column -> column.hasPrimaryKey()).collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+		return this.isSnapshot ? this.columnsPrimaryKey : doFilter(this.columns, column -> column.hasPrimaryKey());
 	}
 	
 	public List<Column> getColumnsUniqueKey() {
-		return this.columns.stream().filter(column -> column.hasUniqueKey()).collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+		return this.isSnapshot ? this.columnsUniqueKey : doFilter(this.columns, column -> column.hasUniqueKey());
+	}
+	
+	public Optional<Column> getColumn(final String name) {
+		Objects.requireNonNull(name, "name == null");
+		
+		if(this.isSnapshot) {
+			return Optional.ofNullable(this.columnsByName.get(name));
+		}
+		
+		for(final Column column : this.columns) {
+			if(column.getName().equals(name)) {
+				return Optional.of(column);
+			}
+		}
+		
+		return Optional.empty();
 	}
 	
 	public String getComment() {
@@ -74,12 +138,18 @@ public final class Table {
 		return String.format("new Table(\"%s\")", this.name);
 	}
 	
+	public Table snapshot() {
+		return this.isSnapshot ? this : new Table(this);
+	}
+	
 	@Override
 	public boolean equals(final Object object) {
 		if(object == this) {
 			return true;
 		} else if(!(object instanceof Table)) {
 			return false;
+		} else if(this.isSnapshot && Table.class.cast(object).isSnapshot && this.hashCode != Table.class.cast(object).hashCode) {
+			return false;
 		} else if(!Objects.equals(this.columns, Table.class.cast(object).columns)) {
 			return false;
 		} else if(!Objects.equals(this.comment, Table.class.cast(object).comment)) {
@@ -91,24 +161,62 @@ public final class Table {
 		}
 	}
 	
+	public boolean isSnapshot() {
+		return this.isSnapshot;
+	}
+	
 	@Override
 	public int hashCode() {
+		if(this.isSnapshot) {
+			return this.hashCode;
+		}
+		
 		return Objects.hash(this.columns, this.comment, this.name);
 	}
 	
 	public void addColumn(final Column column) {
+		doCheckNotSnapshot();
+		
 		this.columns.add(Objects.requireNonNull(column, "column == null"));
 	}
 	
 	public void removeColumn(final Column column) {
+		doCheckNotSnapshot();
+		
 		this.columns.remove(Objects.requireNonNull(column, "column == null"));
 	}
 	
 	public void setComment(final String comment) {
+		doCheckNotSnapshot();
+		
 		this.comment = Objects.requireNonNull(comment, "comment == null");
 	}
 	
 	public void setName(final String name) {
+		doCheckNotSnapshot();
+		
 		this.name = Objects.requireNonNull(name, "name == null");
 	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private void doCheckNotSnapshot() {
+		if(this.isSnapshot) {
+			throw new UnsupportedOperationException(String.format("Table \"%s\" is a snapshot and cannot be modified.", this.name));
+		}
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private static List<Column> doFilter(final List<Column> columns, final Predicate<Column> predicate) {
+		final List<Column> columnsFiltered = new ArrayList<>();
+		
+		for(final Column column : columns) {
+			if(predicate.test(column)) {
+				columnsFiltered.add(column);
+			}
+		}
+		
+		return columnsFiltered;
+	}
 }
\ No newline at end of file
@@ -0,0 +1,191 @@
+/**
+ * Copyright 2019 - 2021 J&#246;rgen Lundgren
+ * 
+ * This file is part of org.macroing.esg4j.
+ * 
+ * org.macroing.esg4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * org.macroing.esg4j is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with org.macroing.esg4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.macroing.esg4j.magento.definition;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import org.macroing.esg4j.json.JSONException;
+import org.macroing.esg4j.json.JSONReader;
+import org.macroing.esg4j.json.JSONToken;
+import org.macroing.esg4j.util.Names;
+
+public final class ModuleBatch {
+	private final List<ModuleDefinition> moduleDefinitions;
+	private final List<ModuleDefinitionException> moduleDefinitionExceptions;
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private ModuleBatch(final List<ModuleDefinition> moduleDefinitions, final List<ModuleDefinitionException> moduleDefinitionExceptions) {
+		this.moduleDefinitions = moduleDefinitions;
+		this.moduleDefinitionExceptions = moduleDefinitionExceptions;
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public List<ModuleDefinition> getModuleDefinitions() {
+		return new ArrayList<>(this.moduleDefinitions);
+	}
+	
+	public List<ModuleDefinitionException> getModuleDefinitionExceptions() {
+		return new ArrayList<>(this.moduleDefinitionExceptions);
+	}
+	
+	@Override
+	public String toString() {
+		return String.format("ModuleBatch: %d module(s), %d rejected", Integer.valueOf(this.moduleDefinitions.size()), Integer.valueOf(this.moduleDefinitionExceptions.size()));
+	}
+	
+	public boolean isSuccessful() {
+		return this.moduleDefinitionExceptions.isEmpty();
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public static ModuleBatch read(final File file) {
+		try(final Reader reader = new BufferedReader(new InputStreamReader(Files.newInputStream(Objects.requireNonNull(file, "file == null").toPath()), StandardCharsets.UTF_8))) {
+			return read(reader, file.getPath(), file.getAbsoluteFile().getParentFile());
+		} catch(final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	public static ModuleBatch read(final Reader reader, final String source, final File directory) {
+		Objects.requireNonNull(reader, "reader == null");
+		Objects.requireNonNull(source, "source == null");
+		Objects.requireNonNull(directory, "directory == null");
+		
+		final JSONReader jSONReader = new JSONReader(reader);
+		
+		final List<String> sources = new ArrayList<>();
+		final List<Supplier<ModuleDefinition>> suppliers = new ArrayList<>();
+		
+		try {
+			if(jSONReader.peek() != JSONToken.BEGIN_ARRAY) {
+				throw new ModuleDefinitionException(Arrays.asList(String.format("%s:%d:%d: Expected module batch to be an array but was %s.", source, Integer.valueOf(jSONReader.getLine()), Integer.valueOf(jSONReader.getColumn()), jSONReader.peek())));
+			}
+			
+			jSONReader.beginArray();
+			
+			while(jSONReader.hasNext()) {
+				final JSONToken jSONToken = jSONReader.peek();
+				
+				final String location = String.format("%s:%d:%d", source, Integer.valueOf(jSONReader.getLine()), Integer.valueOf(jSONReader.getColumn()));
+				
+				if(jSONToken == JSONToken.STRING) {
+					final File file = doResolve(directory, jSONReader.nextString());
+					
+					sources.add(file.getPath());
+					suppliers.add(() -> ModuleDefinitionReader.read(file));
+				} else if(jSONToken == JSONToken.BEGIN_OBJECT) {
+					sources.add(location);
+					
+					try {
+						final ModuleDefinition moduleDefinition = ModuleDefinitionReader.read(jSONReader, source);
+						
+						suppliers.add(() -> moduleDefinition);
+					} catch(final ModuleDefinitionException e) {
+						suppliers.add(() -> {
+							throw e;
+						});
+					}
+				} else {
+					final ModuleDefinitionException moduleDefinitionException = new ModuleDefinitionException(Arrays.asList(String.format("%s: Expected module to be an object or a path but was %s.", location, jSONToken)));
+					
+					jSONReader.skipValue();
+					
+					sources.add(location);
+					suppliers.add(() -> {
+						throw moduleDefinitionException;
+					});
+				}
+			}
+			
+			jSONReader.endArray();
+			jSONReader.peek();
+		} catch(final JSONException e) {
+			throw new ModuleDefinitionException(Arrays.asList(String.format("%s:%d:%d: %s", source, Integer.valueOf(e.getLine()), Integer.valueOf(e.getColumn()), e.getDescription())));
+		}
+		
+		final Object[] results = new Object[suppliers.size()];
+		
+		IntStream.range(0, results.length).parallel().forEach(i -> results[i] = doGet(suppliers.get(i), sources.get(i)));
+		
+		final List<ModuleDefinition> moduleDefinitions = new ArrayList<>();
+		final List<ModuleDefinitionException> moduleDefinitionExceptions = new ArrayList<>();
+		
+		final Map<String, String> sourcesByDirectory = new HashMap<>();
+		
+		for(int i = 0; i < results.length; i++) {
+			if(results[i] instanceof ModuleDefinitionException) {
+				moduleDefinitionExceptions.add(ModuleDefinitionException.class.cast(results[i]));
+			} else {
+				final ModuleDefinition moduleDefinition = ModuleDefinition.class.cast(results[i]);
+				
+				final String module = moduleDefinition.getVendorName() + "/" + moduleDefinition.getModuleName();
+				
+				final String directoryModule = Names.formatCamelCase(moduleDefinition.getVendorName()) + "/" + Names.formatCamelCase(moduleDefinition.getModuleName());
+				
+//				Modules are told apart by the directory they are generated into, ignoring case so they cannot collide on a case-insensitive file system either:
+				final String sourceOther = sourcesByDirectory.putIfAbsent(directoryModule.toLowerCase(Locale.ENGLISH), sources.get(i));
+				
+				if(sourceOther != null) {
+					moduleDefinitionExceptions.add(new ModuleDefinitionException(Arrays.asList(String.format("%s: Module %s is generated into %s, which is already used by the module defined by %s.", sources.get(i), module, directoryModule, sourceOther))));
+				} else {
+					moduleDefinitions.add(moduleDefinition);
+				}
+			}
+		}
+		
+		return new ModuleBatch(moduleDefinitions, moduleDefinitionExceptions);
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private static File doResolve(final File directory, final String path) {
+		final File file = new File(path);
+		
+		return file.isAbsolute() ? file : new File(directory, path);
+	}
+	
+	private static Object doGet(final Supplier<ModuleDefinition> supplier, final String source) {
+		try {
+			return ModuleValidator.requireValid(supplier.get(), source);
+		} catch(final ModuleDefinitionException e) {
+			return e;
+		} catch(final UncheckedIOException e) {
+			return new ModuleDefinitionException(Arrays.asList(String.format("%s: Unable to read module definition (%s).", source, e.getCause().getClass().getSimpleName())));
+		}
+	}
+}
\ No newline at end of file
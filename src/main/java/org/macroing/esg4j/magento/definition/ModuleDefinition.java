@@ -0,0 +1,285 @@
+/**
+ * Copyright 2019 - 2021 J&#246;rgen Lundgren
+ * 
+ * This file is part of org.macroing.esg4j.
+ * 
+ * org.macroing.esg4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * org.macroing.esg4j is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with org.macroing.esg4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.macroing.esg4j.magento.definition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.macroing.esg4j.magento.database.Database;
+import org.macroing.esg4j.magento.file.Composer.Author;
+import org.macroing.esg4j.magento.file.Composer.Dependency;
+import org.macroing.esg4j.magento.file.Composer.License;
+
+public final class ModuleDefinition {
+	private Database database;
+	private final List<Author> authors;
+	private final List<Controller> controllers;
+	private final List<Dependency> dependencies;
+	private final List<License> licenses;
+	private final List<String> blockNames;
+	private final List<String> cronJobNames;
+	private final List<String> helperNames;
+	private String moduleDescription;
+	private String moduleName;
+	private String moduleVersion;
+	private String vendorName;
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public ModuleDefinition() {
+		this("", "Module", "1.0.0", "Vendor");
+	}
+	
+	public ModuleDefinition(final String moduleDescription, final String moduleName, final String moduleVersion, final String vendorName) {
+		this.database = new Database();
+		this.authors = new ArrayList<>();
+		this.controllers = new ArrayList<>();
+		this.dependencies = new ArrayList<>();
+		this.licenses = new ArrayList<>();
+		this.blockNames = new ArrayList<>();
+		this.cronJobNames = new ArrayList<>();
+		this.helperNames = new ArrayList<>();
+		this.moduleDescription = Objects.requireNonNull(moduleDescription, "moduleDescription == null");
+		this.moduleName = Objects.requireNonNull(moduleName, "moduleName == null");
+		this.moduleVersion = Objects.requireNonNull(moduleVersion, "moduleVersion == null");
+		this.vendorName = Objects.requireNonNull(vendorName, "vendorName == null");
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public Database getDatabase() {
+		return this.database;
+	}
+	
+	public List<Author> getAuthors() {
+		return new ArrayList<>(this.authors);
+	}
+	
+	public List<Controller> getControllers() {
+		return new ArrayList<>(this.controllers);
+	}
+	
+	public List<Dependency> getDependencies() {
+		return new ArrayList<>(this.dependencies);
+	}
+	
+	public List<License> getLicenses() {
+		return new ArrayList<>(this.licenses);
+	}
+	
+	public List<String> getBlockNames() {
+		return new ArrayList<>(this.blockNames);
+	}
+	
+	public List<String> getCronJobNames() {
+		return new ArrayList<>(this.cronJobNames);
+	}
+	
+	public List<String> getHelperNames() {
+		return new ArrayList<>(this.helperNames);
+	}
+	
+	public String getModuleDescription() {
+		return this.moduleDescription;
+	}
+	
+	public String getModuleName() {
+		return this.moduleName;
+	}
+	
+	public String getModuleVersion() {
+		return this.moduleVersion;
+	}
+	
+	public String getVendorName() {
+		return this.vendorName;
+	}
+	
+	@Override
+	public String toString() {
+		return String.format("new ModuleDefinition(\"%s\", \"%s\", \"%s\", \"%s\")", this.moduleDescription, this.moduleName, this.moduleVersion, this.vendorName);
+	}
+	
+	@Override
+	public boolean equals(final Object object) {
+		if(object == this) {
+			return true;
+		} else if(!(object instanceof ModuleDefinition)) {
+			return false;
+		} else if(!Objects.equals(this.database, ModuleDefinition.class.cast(object).database)) {
+			return false;
+		} else if(!Objects.equals(this.authors, ModuleDefinition.class.cast(object).authors)) {
+			return false;
+		} else if(!Objects.equals(this.controllers, ModuleDefinition.class.cast(object).controllers)) {
+			return false;
+		} else if(!Objects.equals(this.dependencies, ModuleDefinition.class.cast(object).dependencies)) {
+			return false;
+		} else if(!Objects.equals(this.licenses, ModuleDefinition.class.cast(object).licenses)) {
+			return false;
+		} else if(!Objects.equals(this.blockNames, ModuleDefinition.class.cast(object).blockNames)) {
+			return false;
+		} else if(!Objects.equals(this.cronJobNames, ModuleDefinition.class.cast(object).cronJobNames)) {
+			return false;
+		} else if(!Objects.equals(this.helperNames, ModuleDefinition.class.cast(object).helperNames)) {
+			return false;
+		} else if(!Objects.equals(this.moduleDescription, ModuleDefinition.class.cast(object).moduleDescription)) {
+			return false;
+		} else if(!Objects.equals(this.moduleName, ModuleDefinition.class.cast(object).moduleName)) {
+			return false;
+		} else if(!Objects.equals(this.moduleVersion, ModuleDefinition.class.cast(object).moduleVersion)) {
+			return false;
+		} else if(!Objects.equals(this.vendorName, ModuleDefinition.class.cast(object).vendorName)) {
+			return false;
+		} else {
+			return true;
+		}
+	}
+	
+	@Override
+	public int hashCode() {
+		return Objects.hash(this.database, this.authors, this.controllers, this.dependencies, this.licenses, this.blockNames, this.cronJobNames, this.helperNames, this.moduleDescription, this.moduleName, this.moduleVersion, this.vendorName);
+	}
+	
+	public void addAuthor(final Author author) {
+		this.authors.add(Objects.requireNonNull(author, "author == null"));
+	}
+	
+	public void addBlockName(final String blockName) {
+		this.blockNames.add(Objects.requireNonNull(blockName, "blockName == null"));
+	}
+	
+	public void addController(final Controller controller) {
+		this.controllers.add(Objects.requireNonNull(controller, "controller == null"));
+	}
+	
+	public void addCronJobName(final String cronJobName) {
+		this.cronJobNames.add(Objects.requireNonNull(cronJobName, "cronJobName == null"));
+	}
+	
+	public void addDependency(final Dependency dependency) {
+		this.dependencies.add(Objects.requireNonNull(dependency, "dependency == null"));
+	}
+	
+	public void addHelperName(final String helperName) {
+		this.helperNames.add(Objects.requireNonNull(helperName, "helperName == null"));
+	}
+	
+	public void addLicense(final License license) {
+		this.licenses.add(Objects.requireNonNull(license, "license == null"));
+	}
+	
+	public void setDatabase(final Database database) {
+		this.database = Objects.requireNonNull(database, "database == null");
+	}
+	
+	public void setModuleDescription(final String moduleDescription) {
+		this.moduleDescription = Objects.requireNonNull(moduleDescription, "moduleDescription == null");
+	}
+	
+	public void setModuleName(final String moduleName) {
+		this.moduleName = Objects.requireNonNull(moduleName, "moduleName == null");
+	}
+	
+	public void setModuleVersion(final String moduleVersion) {
+		this.moduleVersion = Objects.requireNonNull(moduleVersion, "moduleVersion == null");
+	}
+	
+	public void setVendorName(final String vendorName) {
+		this.vendorName = Objects.requireNonNull(vendorName, "vendorName == null");
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public static final class Controller {
+		private final Area area;
+		private final String action;
+		private final String name;
+		private final String type;
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public Controller(final Area area, final String action, final String name, final String type) {
+			this.area = Objects.requireNonNull(area, "area == null");
+			this.action = Objects.requireNonNull(action, "action == null");
+			this.name = Objects.requireNonNull(name, "name == null");
+			this.type = Objects.requireNonNull(type, "type == null");
+		}
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public Area getArea() {
+			return this.area;
+		}
+		
+		public String getAction() {
+			return this.action;
+		}
+		
+		public String getName() {
+			return this.name;
+		}
+		
+		public String getType() {
+			return this.type;
+		}
+		
+		@Override
+		public String toString() {
+			return String.format("new Controller(Area.%s, \"%s\", \"%s\", \"%s\")", this.area, this.action, this.name, this.type);
+		}
+		
+		@Override
+		public boolean equals(final Object object) {
+			if(object == this) {
+				return true;
+			} else if(!(object instanceof Controller)) {
+				return false;
+			} else if(!Objects.equals(this.area, Controller.class.cast(object).area)) {
+				return false;
+			} else if(!Objects.equals(this.action, Controller.class.cast(object).action)) {
+				return false;
+			} else if(!Objects.equals(this.name, Controller.class.cast(object).name)) {
+				return false;
+			} else if(!Objects.equals(this.type, Controller.class.cast(object).type)) {
+				return false;
+			} else {
+				return true;
+			}
+		}
+		
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.area, this.action, this.name, this.type);
+		}
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public static enum Area {
+		ADMINHTML,
+		FRONTEND;
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		private Area() {
+			
+		}
+	}
+}
\ No newline at end of file
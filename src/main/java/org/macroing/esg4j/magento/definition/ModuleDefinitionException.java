@@ -0,0 +1,45 @@
+/**
+ * Copyright 2019 - 2021 J&#246;rgen Lundgren
+ * 
+ * This file is part of org.macroing.esg4j.
+ * 
+ * org.macroing.esg4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * org.macroing.esg4j is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with org.macroing.esg4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.macroing.esg4j.magento.definition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+public final class ModuleDefinitionException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private final List<String> errors;
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public ModuleDefinitionException(final List<String> errors) {
+		super(String.join(System.lineSeparator(), Objects.requireNonNull(errors, "errors == null")));
+		
+		this.errors = new ArrayList<>(errors);
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public List<String> getErrors() {
+		return new ArrayList<>(this.errors);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,805 @@
+/**
+ * Copyright 2019 - 2021 J&#246;rgen Lundgren
+ * 
+ * This file is part of org.macroing.esg4j.
+ * 
+ * org.macroing.esg4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * org.macroing.esg4j is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with org.macroing.esg4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.macroing.esg4j.magento.definition;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.macroing.esg4j.json.JSONException;
+import org.macroing.esg4j.json.JSONReader;
+import org.macroing.esg4j.json.JSONToken;
+import org.macroing.esg4j.magento.database.Column;
+import org.macroing.esg4j.magento.database.DataType;
+import org.macroing.esg4j.magento.database.Database;
+import org.macroing.esg4j.magento.database.Table;
+import org.macroing.esg4j.magento.file.Composer.Author;
+import org.macroing.esg4j.magento.file.Composer.Dependency;
+import org.macroing.esg4j.magento.file.Composer.License;
+import org.macroing.esg4j.magento.file.controller.Controller.Type;
+
+public final class ModuleDefinitionReader {
+	private static final Pattern PATTERN_CLASS_NAME = Pattern.compile("[A-Za-z][A-Za-z0-9]*");
+	private static final Pattern PATTERN_IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+	private static final Set<DataType> DATA_TYPES_INTEGER = EnumSet.of(DataType.BIGINT, DataType.INT, DataType.SMALLINT, DataType.TINYINT);
+	private static final Set<DataType> DATA_TYPES_NUMERIC = EnumSet.of(DataType.BIGINT, DataType.DECIMAL, DataType.FLOAT, DataType.INT, DataType.NUMERIC, DataType.SMALLINT, DataType.TINYINT);
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private final JSONReader jSONReader;
+	private final List<String> errors;
+	private final String source;
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private ModuleDefinitionReader(final JSONReader jSONReader, final String source) {
+		this.jSONReader = jSONReader;
+		this.errors = new ArrayList<>();
+		this.source = source;
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private Column doReadColumn(final Set<String> columnNames) {
+		final int line = this.jSONReader.getLine();
+		final int column = this.jSONReader.getColumn();
+		
+		final Column columnNew = new Column();
+		
+		columnNew.setAutoIncrement(false);
+		columnNew.setPrimaryKey(false);
+		columnNew.setUnsigned(false);
+		
+		boolean hasLength = false;
+		boolean hasType = false;
+		
+		int defaultColumn = 0;
+		int defaultLine = 0;
+		
+		String defaultValue = null;
+		String name = null;
+		
+		DataType dataType = null;
+		
+		this.jSONReader.beginObject();
+		
+		while(this.jSONReader.hasNext()) {
+			final String property = this.jSONReader.nextName();
+			
+			switch(property) {
+				case "autoIncrement":
+					columnNew.setAutoIncrement(doReadBoolean(property, false));
+					
+					break;
+				case "comment":
+					columnNew.setComment(doReadString(property, ""));
+					
+					break;
+				case "default":
+					defaultLine = this.jSONReader.getLine();
+					defaultColumn = this.jSONReader.getColumn();
+					
+					columnNew.setDefault(true);
+					
+					if(this.jSONReader.peek() == JSONToken.NULL) {
+						this.jSONReader.nextNull();
+					} else {
+						defaultValue = doReadString(property, null);
+					}
+					
+					break;
+				case "foreignKey":
+					columnNew.setForeignKey(doReadBoolean(property, false));
+					
+					break;
+				case "index":
+					columnNew.setIndex(doReadBoolean(property, false));
+					
+					break;
+				case "length":
+					final int length = doReadInt(property, 0);
+					
+					if(length < 0) {
+						doAddError(String.format("Column length must be non-negative but was %d.", Integer.valueOf(length)));
+					}
+					
+					columnNew.setLength(Math.max(length, 0));
+					
+					hasLength = true;
+					
+					break;
+				case "name":
+					name = doReadIdentifier(property);
+					
+					break;
+				case "nullable":
+					columnNew.setNullable(doReadBoolean(property, false));
+					
+					break;
+				case "primaryKey":
+					columnNew.setPrimaryKey(doReadBoolean(property, false));
+					
+					break;
+				case "type":
+					dataType = doReadDataType(property);
+					
+					hasType = true;
+					
+					break;
+				case "uniqueKey":
+					columnNew.setUniqueKey(doReadBoolean(property, false));
+					
+					break;
+				case "unsigned":
+					columnNew.setUnsigned(doReadBoolean(property, false));
+					
+					break;
+				default:
+					doSkipUnknown(property, "column");
+					
+					break;
+			}
+		}
+		
+		this.jSONReader.endObject();
+		
+		if(name == null) {
+			doAddError(line, column, "Column is missing the \"name\" property.");
+		} else if(!columnNames.add(name)) {
+			doAddError(line, column, String.format("Duplicate column \"%s\".", name));
+		} else {
+			columnNew.setName(name);
+		}
+		
+		if(dataType == null) {
+			if(!hasType) {
+				doAddError(line, column, String.format("Column \"%s\" is missing the \"type\" property.", name));
+			}
+			
+			return columnNew;
+		}
+		
+		columnNew.setDataType(dataType);
+		
+		if(!hasLength) {
+			columnNew.setLength(dataType == DataType.INT ? 11 : dataType == DataType.TEXT ? 255 : 0);
+		}
+		
+		if(columnNew.hasAutoIncrement() && !DATA_TYPES_INTEGER.contains(dataType)) {
+			doAddError(line, column, String.format("Column \"%s\" of type %s cannot be auto-incremented.", name, dataType));
+		}
+		
+		if(columnNew.isUnsigned() && !DATA_TYPES_NUMERIC.contains(dataType)) {
+			doAddError(line, column, String.format("Column \"%s\" of type %s cannot be unsigned.", name, dataType));
+		}
+		
+		if(defaultValue != null && DATA_TYPES_INTEGER.contains(dataType)) {
+			try {
+				columnNew.setDefaultValue(Integer.valueOf(defaultValue));
+			} catch(final NumberFormatException e) {
+				doAddError(defaultLine, defaultColumn, String.format("Default value \"%s\" of column \"%s\" is not an integer.", defaultValue, name));
+			}
+		} else {
+			columnNew.setDefaultValue(defaultValue);
+		}
+		
+		return columnNew;
+	}
+	
+	private Database doReadDatabase() {
+		final Database database = new Database();
+		
+		if(!doBeginObject("database")) {
+			return database;
+		}
+		
+		while(this.jSONReader.hasNext()) {
+			final String property = this.jSONReader.nextName();
+			
+			switch(property) {
+				case "name":
+					database.setName(doReadString(property, database.getName()));
+					
+					break;
+				case "tables":
+					if(doBeginArray(property)) {
+						final Set<String> tableNames = new HashSet<>();
+						
+						while(this.jSONReader.hasNext()) {
+							if(doIsObject("table")) {
+								database.addTable(doReadTable(tableNames));
+							}
+						}
+						
+						this.jSONReader.endArray();
+					}
+					
+					break;
+				default:
+					doSkipUnknown(property, "database");
+					
+					break;
+			}
+		}
+		
+		this.jSONReader.endObject();
+		
+		return database;
+	}
+	
+	private DataType doReadDataType(final String property) {
+		final int line = this.jSONReader.getLine();
+		final int column = this.jSONReader.getColumn();
+		
+		final String string = doReadString(property, null);
+		
+		if(string == null) {
+			return null;
+		}
+		
+		try {
+			return DataType.valueOf(string.toUpperCase(Locale.ENGLISH));
+		} catch(final IllegalArgumentException e) {
+			doAddError(line, column, String.format("Unknown column type \"%s\".", string));
+			
+			return null;
+		}
+	}
+	
+	private ModuleDefinition doReadModuleDefinition() {
+		final int line = this.jSONReader.getLine();
+		final int column = this.jSONReader.getColumn();
+		
+		final ModuleDefinition moduleDefinition = new ModuleDefinition();
+		
+		if(!doBeginObject("module definition")) {
+			return moduleDefinition;
+		}
+		
+		boolean hasModuleName = false;
+		boolean hasVendorName = false;
+		
+		while(this.jSONReader.hasNext()) {
+			final String property = this.jSONReader.nextName();
+			
+			switch(property) {
+				case "blocks":
+					doReadNames(property).forEach(moduleDefinition::addBlockName);
+					
+					break;
+				case "composer":
+					doReadComposer(moduleDefinition);
+					
+					break;
+				case "controllers":
+					if(doBeginArray(property)) {
+						final Set<String> controllerKeys = new HashSet<>();
+						
+						while(this.jSONReader.hasNext()) {
+							if(doIsObject("controller")) {
+								final ModuleDefinition.Controller controller = doReadController(controllerKeys);
+								
+								if(controller != null) {
+									moduleDefinition.addController(controller);
+								}
+							}
+						}
+						
+						this.jSONReader.endArray();
+					}
+					
+					break;
+				case "cronJobs":
+					doReadNames(property).forEach(moduleDefinition::addCronJobName);
+					
+					break;
+				case "database":
+					moduleDefinition.setDatabase(doReadDatabase());
+					
+					break;
+				case "description":
+					moduleDefinition.setModuleDescription(doReadString(property, moduleDefinition.getModuleDescription()));
+					
+					break;
+				case "helpers":
+					doReadNames(property).forEach(moduleDefinition::addHelperName);
+					
+					break;
+				case "module":
+					moduleDefinition.setModuleName(doReadClassName(property, moduleDefinition.getModuleName()));
+					
+					hasModuleName = true;
+					
+					break;
+				case "vendor":
+					moduleDefinition.setVendorName(doReadClassName(property, moduleDefinition.getVendorName()));
+					
+					hasVendorName = true;
+					
+					break;
+				case "version":
+					moduleDefinition.setModuleVersion(doReadString(property, moduleDefinition.getModuleVersion()));
+					
+					break;
+				default:
+					doSkipUnknown(property, "module definition");
+					
+					break;
+			}
+		}
+		
+		this.jSONReader.endObject();
+		
+		if(!hasModuleName) {
+			doAddError(line, column, "Module definition is missing the \"module\" property.");
+		}
+		
+		if(!hasVendorName) {
+			doAddError(line, column, "Module definition is missing the \"vendor\" property.");
+		}
+		
+		return moduleDefinition;
+	}
+	
+	private ModuleDefinition.Controller doReadController(final Set<String> controllerKeys) {
+		final int line = this.jSONReader.getLine();
+		final int column = this.jSONReader.getColumn();
+		
+		ModuleDefinition.Area area = ModuleDefinition.Area.FRONTEND;
+		
+		String action = null;
+		String name = null;
+		String type = Type.PAGE.name();
+		
+		this.jSONReader.beginObject();
+		
+		while(this.jSONReader.hasNext()) {
+			final String property = this.jSONReader.nextName();
+			
+			switch(property) {
+				case "action":
+					action = doReadClassName(property, null);
+					
+					break;
+				case "area":
+					final String areaString = doReadString(property, null);
+					
+					if(areaString != null) {
+						try {
+							area = ModuleDefinition.Area.valueOf(areaString.toUpperCase(Locale.ENGLISH));
+						} catch(final IllegalArgumentException e) {
+							doAddError(String.format("Unknown controller area \"%s\".", areaString));
+						}
+					}
+					
+					break;
+				case "name":
+					name = doReadClassName(property, null);
+					
+					break;
+				case "type":
+					final String typeString = doReadString(property, null);
+					
+					if(typeString != null) {
+						try {
+							type = Type.valueOf(typeString.toUpperCase(Locale.ENGLISH)).name();
+						} catch(final IllegalArgumentException e) {
+							doAddError(String.format("Unknown controller type \"%s\".", typeString));
+						}
+					}
+					
+					break;
+				default:
+					doSkipUnknown(property, "controller");
+					
+					break;
+			}
+		}
+		
+		this.jSONReader.endObject();
+		
+		if(action == null || name == null) {
+			doAddError(line, column, "Controller requires both the \"name\" and \"action\" properties.");
+			
+			return null;
+		}
+		
+		if(!controllerKeys.add(area + "/" + name + "/" + action)) {
+			doAddError(line, column, String.format("Duplicate controller \"%s/%s\" in area %s.", name, action, area));
+			
+			return null;
+		}
+		
+		return new ModuleDefinition.Controller(area, action, name, type);
+	}
+	
+	private List<String> doReadNames(final String property) {
+		final List<String> names = new ArrayList<>();
+		
+		if(doBeginArray(property)) {
+			final Set<String> namesUnique = new HashSet<>();
+			
+			while(this.jSONReader.hasNext()) {
+				final int line = this.jSONReader.getLine();
+				final int column = this.jSONReader.getColumn();
+				
+				final String name = doReadClassName(property, null);
+				
+				if(name != null && !namesUnique.add(name)) {
+					doAddError(line, column, String.format("Duplicate name \"%s\" in \"%s\".", name, property));
+				} else if(name != null) {
+					names.add(name);
+				}
+			}
+			
+			this.jSONReader.endArray();
+		}
+		
+		return names;
+	}
+	
+	private String doReadClassName(final String property, final String defaultValue) {
+		return doReadMatching(property, defaultValue, PATTERN_CLASS_NAME);
+	}
+	
+	private String doReadIdentifier(final String property) {
+		return doReadMatching(property, null, PATTERN_IDENTIFIER);
+	}
+	
+	private String doReadMatching(final String property, final String defaultValue, final Pattern pattern) {
+		final int line = this.jSONReader.getLine();
+		final int column = this.jSONReader.getColumn();
+		
+		final String string = doReadString(property, null);
+		
+		if(string == null) {
+			return defaultValue;
+		}
+		
+		if(!pattern.matcher(string).matches()) {
+			doAddError(line, column, String.format("Property \"%s\" has the invalid name \"%s\".", property, string));
+			
+			return defaultValue;
+		}
+		
+		return string;
+	}
+	
+	private String doReadString(final String property, final String defaultValue) {
+		final JSONToken token = this.jSONReader.peek();
+		
+		if(token == JSONToken.STRING || token == JSONToken.NUMBER) {
+			return this.jSONReader.nextString();
+		}
+		
+		doAddError(String.format("Property \"%s\" must be a string but was %s.", property, token));
+		
+		this.jSONReader.skipValue();
+		
+		return defaultValue;
+	}
+	
+	private Table doReadTable(final Set<String> tableNames) {
+		final int line = this.jSONReader.getLine();
+		final int column = this.jSONReader.getColumn();
+		
+		final Table table = new Table();
+		
+		final Set<String> columnNames = new HashSet<>();
+		
+		String name = null;
+		
+		this.jSONReader.beginObject();
+		
+		while(this.jSONReader.hasNext()) {
+			final String property = this.jSONReader.nextName();
+			
+			switch(property) {
+				case "columns":
+					if(doBeginArray(property)) {
+						while(this.jSONReader.hasNext()) {
+							if(doIsObject("column")) {
+								table.addColumn(doReadColumn(columnNames));
+							}
+						}
+						
+						this.jSONReader.endArray();
+					}
+					
+					break;
+				case "comment":
+					table.setComment(doReadString(property, ""));
+					
+					break;
+				case "name":
+					name = doReadIdentifier(property);
+					
+					break;
+				default:
+					doSkipUnknown(property, "table");
+					
+					break;
+			}
+		}
+		
+		this.jSONReader.endObject();
+		
+		if(name == null) {
+			doAddError(line, column, "Table is missing the \"name\" property.");
+		} else if(!tableNames.add(name)) {
+			doAddError(line, column, String.format("Duplicate table \"%s\".", name));
+		} else {
+			table.setName(name);
+		}
+		
+		if(table.getColumnsPrimaryKey().isEmpty()) {
+			doAddError(line, column, String.format("Table \"%s\" has no primary key column.", name));
+		}
+		
+		return table;
+	}
+	
+	private boolean doBeginArray(final String property) {
+		if(this.jSONReader.peek() == JSONToken.BEGIN_ARRAY) {
+			this.jSONReader.beginArray();
+			
+			return true;
+		}
+		
+		doAddError(String.format("Property \"%s\" must be an array but was %s.", property, this.jSONReader.peek()));
+		
+		this.jSONReader.skipValue();
+		
+		return false;
+	}
+	
+	private boolean doBeginObject(final String description) {
+		if(doIsObject(description)) {
+			this.jSONReader.beginObject();
+			
+			return true;
+		}
+		
+		return false;
+	}
+	
+	private boolean doIsObject(final String description) {
+		if(this.jSONReader.peek() == JSONToken.BEGIN_OBJECT) {
+			return true;
+		}
+		
+		doAddError(String.format("Expected %s to be an object but was %s.", description, this.jSONReader.peek()));
+		
+		this.jSONReader.skipValue();
+		
+		return false;
+	}
+	
+	private boolean doReadBoolean(final String property, final boolean defaultValue) {
+		if(this.jSONReader.peek() == JSONToken.BOOLEAN) {
+			return this.jSONReader.nextBoolean();
+		}
+		
+		doAddError(String.format("Property \"%s\" must be a boolean but was %s.", property, this.jSONReader.peek()));
+		
+		this.jSONReader.skipValue();
+		
+		return defaultValue;
+	}
+	
+	private int doReadInt(final String property, final int defaultValue) {
+		if(this.jSONReader.peek() == JSONToken.NUMBER) {
+			try {
+				return this.jSONReader.nextInt();
+			} catch(final JSONException e) {
+				doAddError(e.getDescription());
+				
+				this.jSONReader.skipValue();
+				
+				return defaultValue;
+			}
+		}
+		
+		doAddError(String.format("Property \"%s\" must be a number but was %s.", property, this.jSONReader.peek()));
+		
+		this.jSONReader.skipValue();
+		
+		return defaultValue;
+	}
+	
+	private void doAddError(final String message) {
+		doAddError(this.jSONReader.getLine(), this.jSONReader.getColumn(), message);
+	}
+	
+	private void doAddError(final int line, final int column, final String message) {
+		this.errors.add(String.format("%s:%d:%d: %s", this.source, Integer.valueOf(line), Integer.valueOf(column), message));
+	}
+	
+	private void doReadComposer(final ModuleDefinition moduleDefinition) {
+		if(!doBeginObject("composer")) {
+			return;
+		}
+		
+		while(this.jSONReader.hasNext()) {
+			final String property = this.jSONReader.nextName();
+			
+			switch(property) {
+				case "authors":
+					if(doBeginArray(property)) {
+						while(this.jSONReader.hasNext()) {
+							if(doBeginObject("author")) {
+								final Author author = new Author();
+								
+								while(this.jSONReader.hasNext()) {
+									final String propertyAuthor = this.jSONReader.nextName();
+									
+									switch(propertyAuthor) {
+										case "email":
+											author.setEMailAddress(doReadString(propertyAuthor, author.getEMailAddress()));
+											
+											break;
+										case "name":
+											author.setName(doReadString(propertyAuthor, author.getName()));
+											
+											break;
+										default:
+											doSkipUnknown(propertyAuthor, "author");
+											
+											break;
+									}
+								}
+								
+								this.jSONReader.endObject();
+								
+								moduleDefinition.addAuthor(author);
+							}
+						}
+						
+						this.jSONReader.endArray();
+					}
+					
+					break;
+				case "dependencies":
+					if(doBeginArray(property)) {
+						while(this.jSONReader.hasNext()) {
+							if(doBeginObject("dependency")) {
+								final Dependency dependency = new Dependency();
+								
+								while(this.jSONReader.hasNext()) {
+									final String propertyDependency = this.jSONReader.nextName();
+									
+									switch(propertyDependency) {
+										case "name":
+											dependency.setName(doReadString(propertyDependency, dependency.getName()));
+											
+											break;
+										case "vendor":
+											dependency.setVendor(doReadString(propertyDependency, dependency.getVendor()));
+											
+											break;
+										case "version":
+											dependency.setVersion(doReadString(propertyDependency, dependency.getVersion()));
+											
+											break;
+										default:
+											doSkipUnknown(propertyDependency, "dependency");
+											
+											break;
+									}
+								}
+								
+								this.jSONReader.endObject();
+								
+								moduleDefinition.addDependency(dependency);
+							}
+						}
+						
+						this.jSONReader.endArray();
+					}
+					
+					break;
+				case "licenses":
+					if(doBeginArray(property)) {
+						while(this.jSONReader.hasNext()) {
+							final String name = doReadString(property, null);
+							
+							if(name != null) {
+								moduleDefinition.addLicense(new License(name));
+							}
+						}
+						
+						this.jSONReader.endArray();
+					}
+					
+					break;
+				default:
+					doSkipUnknown(property, "composer");
+					
+					break;
+			}
+		}
+		
+		this.jSONReader.endObject();
+	}
+	
+	private void doSkipUnknown(final String property, final String description) {
+		doAddError(String.format("Unknown property \"%s\" in %s.", property, description));
+		
+		this.jSONReader.skipValue();
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public static ModuleDefinition read(final File file) {
+		try(final Reader reader = new BufferedReader(new InputStreamReader(Files.newInputStream(Objects.requireNonNull(file, "file == null").toPath()), StandardCharsets.UTF_8))) {
+			return read(reader, file.getPath());
+		} catch(final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	public static ModuleDefinition read(final Reader reader, final String source) {
+		final ModuleDefinitionReader moduleDefinitionReader = new ModuleDefinitionReader(new JSONReader(Objects.requireNonNull(reader, "reader == null")), Objects.requireNonNull(source, "source == null"));
+		
+		try {
+			final ModuleDefinition moduleDefinition = moduleDefinitionReader.doReadModuleDefinition();
+			
+			if(moduleDefinitionReader.jSONReader.peek() != JSONToken.END_DOCUMENT) {
+				moduleDefinitionReader.doAddError("Expected the end of the document.");
+			}
+			
+			if(moduleDefinitionReader.errors.size() > 0) {
+				throw new ModuleDefinitionException(moduleDefinitionReader.errors);
+			}
+			
+			return moduleDefinition;
+		} catch(final JSONException e) {
+			moduleDefinitionReader.doAddError(e.getLine(), e.getColumn(), e.getDescription());
+			
+			throw new ModuleDefinitionException(moduleDefinitionReader.errors);
+		}
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	static ModuleDefinition read(final JSONReader jSONReader, final String source) {
+		final ModuleDefinitionReader moduleDefinitionReader = new ModuleDefinitionReader(jSONReader, source);
+		
+		final ModuleDefinition moduleDefinition = moduleDefinitionReader.doReadModuleDefinition();
+		
+		if(moduleDefinitionReader.errors.size() > 0) {
+			throw new ModuleDefinitionException(moduleDefinitionReader.errors);
+		}
+		
+		return moduleDefinition;
+	}
+}
\ No newline at end of file
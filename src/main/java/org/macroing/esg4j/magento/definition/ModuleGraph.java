@@ -0,0 +1,304 @@
+/**
+ * Copyright 2019 - 2021 J&#246;rgen Lundgren
+ * 
+ * This file is part of org.macroing.esg4j.
+ * 
+ * org.macroing.esg4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * org.macroing.esg4j is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with org.macroing.esg4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.macroing.esg4j.magento.definition;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import org.macroing.esg4j.generator.Artifact;
+import org.macroing.esg4j.magento.database.Database;
+import org.macroing.esg4j.magento.database.Table;
+import org.macroing.esg4j.magento.file.Composer;
+import org.macroing.esg4j.magento.file.Registration;
+import org.macroing.esg4j.magento.file.api.ModelInterface;
+import org.macroing.esg4j.magento.file.api.ModelRepositoryInterface;
+import org.macroing.esg4j.magento.file.block.Block;
+import org.macroing.esg4j.magento.file.cron.CronJob;
+import org.macroing.esg4j.magento.file.helper.Helper;
+import org.macroing.esg4j.magento.file.model.ModelRepository;
+import org.macroing.esg4j.magento.file.model.config.source.CustomerGroupSourceModel;
+import org.macroing.esg4j.magento.file.model.config.source.ProductSourceModel;
+import org.macroing.esg4j.magento.file.model.config.source.StoreViewSourceModel;
+import org.macroing.esg4j.magento.file.model.resourcemodel.model.Collection;
+import org.macroing.esg4j.magento.file.setup.InstallSchema;
+
+public final class ModuleGraph {
+	private Artifact artifactInstallSchema;
+	private Database database;
+	private List<Artifact> artifactsModule;
+	private Map<String, List<Artifact>> artifactsByTable;
+	private ModuleDefinition moduleDefinition;
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public ModuleGraph(final ModuleDefinition moduleDefinition) {
+		this.moduleDefinition = ModuleValidator.requireValid(Objects.requireNonNull(moduleDefinition, "moduleDefinition == null"), doGetSource(moduleDefinition));
+		this.database = moduleDefinition.getDatabase().snapshot();
+		this.artifactsByTable = new LinkedHashMap<>();
+		this.artifactsModule = doCreateArtifactsModule(moduleDefinition);
+		this.artifactInstallSchema = new InstallSchema(this.database, moduleDefinition.getModuleName(), moduleDefinition.getVendorName());
+		
+		for(final Table table : this.database.getTables()) {
+			this.artifactsByTable.put(table.getName(), doCreateArtifactsTable(moduleDefinition, table));
+		}
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public Change update(final ModuleDefinition moduleDefinition) {
+		Objects.requireNonNull(moduleDefinition, "moduleDefinition == null");
+		
+		ModuleValidator.requireValid(moduleDefinition, doGetSource(moduleDefinition));
+		
+		if(!moduleDefinition.getModuleName().equals(this.moduleDefinition.getModuleName()) || !moduleDefinition.getVendorName().equals(this.moduleDefinition.getVendorName())) {
+			final List<Artifact> artifactsOld = getArtifacts();
+			
+			doUpdateAll(moduleDefinition);
+			
+			final List<Artifact> artifactsNew = getArtifacts();
+			
+			return new Change(artifactsNew, doGetFilesRemoved(artifactsOld, artifactsNew));
+		}
+		
+		final Database database = moduleDefinition.getDatabase().snapshot();
+		
+		final List<Artifact> artifactsChanged = new ArrayList<>();
+		final List<Artifact> artifactsRemoved = new ArrayList<>();
+		
+		final Map<String, List<Artifact>> artifactsByTable = new LinkedHashMap<>();
+		
+		for(final Table table : database.getTables()) {
+			final List<Artifact> artifactsTableOld = this.artifactsByTable.get(table.getName());
+			
+			final Optional<Table> optionalTableOld = this.database.getTable(table.getName());
+			
+			if(artifactsTableOld != null && optionalTableOld.isPresent() && optionalTableOld.get().equals(table)) {
+				artifactsByTable.put(table.getName(), artifactsTableOld);
+			} else {
+				final List<Artifact> artifactsTableNew = doCreateArtifactsTable(moduleDefinition, table);
+				
+				artifactsByTable.put(table.getName(), artifactsTableNew);
+				artifactsChanged.addAll(artifactsTableNew);
+			}
+		}
+		
+		for(final Map.Entry<String, List<Artifact>> entry : this.artifactsByTable.entrySet()) {
+			if(!artifactsByTable.containsKey(entry.getKey())) {
+				artifactsRemoved.addAll(entry.getValue());
+			}
+		}
+		
+		if(!database.equals(this.database)) {
+			this.artifactInstallSchema = new InstallSchema(database, moduleDefinition.getModuleName(), moduleDefinition.getVendorName());
+			
+			artifactsChanged.add(this.artifactInstallSchema);
+		}
+		
+		final List<Artifact> artifactsModule = doCreateArtifactsModule(moduleDefinition);
+		
+		final Map<File, Artifact> artifactsModuleOld = new HashMap<>();
+		
+		for(final Artifact artifact : this.artifactsModule) {
+			artifactsModuleOld.put(artifact.getRelativeFile(), artifact);
+		}
+		
+		for(final Artifact artifact : artifactsModule) {
+			if(!artifact.equals(artifactsModuleOld.remove(artifact.getRelativeFile()))) {
+				artifactsChanged.add(artifact);
+			}
+		}
+		
+		artifactsRemoved.addAll(artifactsModuleOld.values());
+		
+		this.artifactsByTable = artifactsByTable;
+		this.artifactsModule = artifactsModule;
+		this.database = database;
+		this.moduleDefinition = moduleDefinition;
+		
+		return new Change(artifactsChanged, doGetFilesRemoved(artifactsRemoved, artifactsChanged));
+	}
+	
+	public List<Artifact> getArtifacts() {
+		final List<Artifact> artifacts = new ArrayList<>();
+		
+		for(final List<Artifact> artifactsTable : this.artifactsByTable.values()) {
+			artifacts.addAll(artifactsTable);
+		}
+		
+		artifacts.addAll(this.artifactsModule);
+		artifacts.add(this.artifactInstallSchema);
+		
+		return artifacts;
+	}
+	
+	public List<Artifact> getArtifactsDependingOn(final String tableName) {
+		final List<Artifact> artifacts = new ArrayList<>(this.artifactsByTable.getOrDefault(Objects.requireNonNull(tableName, "tableName == null"), Collections.emptyList()));
+		
+		if(artifacts.size() > 0) {
+			artifacts.add(this.artifactInstallSchema);
+		}
+		
+		return artifacts;
+	}
+	
+	public ModuleDefinition getModuleDefinition() {
+		return this.moduleDefinition;
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private void doUpdateAll(final ModuleDefinition moduleDefinition) {
+		final ModuleGraph moduleGraph = new ModuleGraph(moduleDefinition);
+		
+		this.artifactInstallSchema = moduleGraph.artifactInstallSchema;
+		this.artifactsByTable = moduleGraph.artifactsByTable;
+		this.artifactsModule = moduleGraph.artifactsModule;
+		this.database = moduleGraph.database;
+		this.moduleDefinition = moduleGraph.moduleDefinition;
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private static List<Artifact> doCreateArtifactsModule(final ModuleDefinition moduleDefinition) {
+		final String moduleName = moduleDefinition.getModuleName();
+		final String moduleVersion = moduleDefinition.getModuleVersion();
+		final String vendorName = moduleDefinition.getVendorName();
+		
+		final Composer composer = new Composer(moduleDefinition.getModuleDescription(), moduleName, moduleVersion, vendorName);
+		
+		moduleDefinition.getAuthors().forEach(composer::addAuthor);
+		moduleDefinition.getDependencies().forEach(composer::addDependency);
+		moduleDefinition.getLicenses().forEach(composer::addLicense);
+		
+		final List<Artifact> artifacts = new ArrayList<>();
+		
+		for(final String blockName : moduleDefinition.getBlockNames()) {
+			artifacts.add(new Block(blockName, moduleName, vendorName));
+		}
+		
+		artifacts.add(composer);
+		
+		for(final ModuleDefinition.Controller controller : moduleDefinition.getControllers()) {
+			if(controller.getArea() == ModuleDefinition.Area.ADMINHTML) {
+				artifacts.add(new org.macroing.esg4j.magento.file.controller.adminhtml.Controller(controller.getAction(), controller.getName(), moduleName, vendorName, org.macroing.esg4j.magento.file.controller.adminhtml.Controller.Type.valueOf(controller.getType())));
+			} else {
+				artifacts.add(new org.macroing.esg4j.magento.file.controller.Controller(controller.getAction(), controller.getName(), moduleName, vendorName, org.macroing.esg4j.magento.file.controller.Controller.Type.valueOf(controller.getType())));
+			}
+		}
+		
+		for(final String cronJobName : moduleDefinition.getCronJobNames()) {
+			artifacts.add(new CronJob(cronJobName, moduleName, vendorName));
+		}
+		
+		artifacts.add(new org.macroing.esg4j.magento.file.etc.adminhtml.Routes(moduleName, vendorName));
+		artifacts.add(new org.macroing.esg4j.magento.file.etc.frontend.Routes(moduleName, vendorName));
+		artifacts.add(new org.macroing.esg4j.magento.file.etc.Module(moduleName, moduleVersion, vendorName));
+		
+		for(final String helperName : moduleDefinition.getHelperNames()) {
+			artifacts.add(new Helper(helperName, moduleName, vendorName));
+		}
+		
+		artifacts.add(new CustomerGroupSourceModel(moduleName, vendorName));
+		artifacts.add(new ProductSourceModel(moduleName, vendorName));
+		artifacts.add(new StoreViewSourceModel(moduleName, vendorName));
+		artifacts.add(new Registration(moduleName, vendorName));
+		
+		return artifacts;
+	}
+	
+	private static List<Artifact> doCreateArtifactsTable(final ModuleDefinition moduleDefinition, final Table table) {
+		final String moduleName = moduleDefinition.getModuleName();
+		final String vendorName = moduleDefinition.getVendorName();
+		
+		final List<Artifact> artifacts = new ArrayList<>(6);
+		
+		artifacts.add(new ModelInterface(moduleName, vendorName, table));
+		artifacts.add(new ModelRepositoryInterface(moduleName, vendorName, table));
+		artifacts.add(new org.macroing.esg4j.magento.file.model.Model(moduleName, vendorName, table));
+		artifacts.add(new ModelRepository(moduleName, vendorName, table));
+		artifacts.add(new org.macroing.esg4j.magento.file.model.resourcemodel.Model(moduleName, vendorName, table));
+		artifacts.add(new Collection(moduleName, vendorName, table));
+		
+		return artifacts;
+	}
+	
+	private static List<File> doGetFilesRemoved(final List<Artifact> artifactsRemoved, final List<Artifact> artifactsChanged) {
+		final Set<File> files = new HashSet<>();
+		
+		for(final Artifact artifact : artifactsChanged) {
+			files.add(artifact.getRelativeFile());
+		}
+		
+		final List<File> filesRemoved = new ArrayList<>();
+		
+		for(final Artifact artifact : artifactsRemoved) {
+			if(files.add(artifact.getRelativeFile())) {
+				filesRemoved.add(artifact.getRelativeFile());
+			}
+		}
+		
+		return filesRemoved;
+	}
+	
+	private static String doGetSource(final ModuleDefinition moduleDefinition) {
+		return moduleDefinition.getVendorName() + "/" + moduleDefinition.getModuleName();
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public static final class Change {
+		private final List<Artifact> artifacts;
+		private final List<File> filesRemoved;
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public Change(final List<Artifact> artifacts, final List<File> filesRemoved) {
+			this.artifacts = new ArrayList<>(Objects.requireNonNull(artifacts, "artifacts == null"));
+			this.filesRemoved = new ArrayList<>(Objects.requireNonNull(filesRemoved, "filesRemoved == null"));
+		}
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public List<Artifact> getArtifacts() {
+			return new ArrayList<>(this.artifacts);
+		}
+		
+		public List<File> getFilesRemoved() {
+			return new ArrayList<>(this.filesRemoved);
+		}
+		
+		@Override
+		public String toString() {
+			return String.format("new Change(%s, %s)", this.artifacts, this.filesRemoved);
+		}
+		
+		public boolean isEmpty() {
+			return this.artifacts.isEmpty() && this.filesRemoved.isEmpty();
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,366 @@
+/**
+ * Copyright 2019 - 2021 J&#246;rgen Lundgren
+ * 
+ * This file is part of org.macroing.esg4j.
+ * 
+ * org.macroing.esg4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * org.macroing.esg4j is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with org.macroing.esg4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.macroing.esg4j.magento.definition;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.macroing.esg4j.generator.Generator;
+import org.macroing.esg4j.generator.GeneratorReport;
+import org.macroing.esg4j.json.JSONException;
+import org.macroing.esg4j.json.JSONReader;
+import org.macroing.esg4j.json.JSONStrings;
+import org.macroing.esg4j.json.JSONToken;
+
+public final class ModuleServer {
+	private static final String COMMAND_GENERATE = "generate";
+	private static final String COMMAND_PING = "ping";
+	private static final String COMMAND_SHUTDOWN = "shutdown";
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private final File directory;
+	private final Generator generator;
+	private final Map<String, ModuleGraph> moduleGraphs;
+	private int requestCount;
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public ModuleServer(final File directory) {
+		this(directory, new Generator());
+	}
+	
+	public ModuleServer(final File directory, final Generator generator) {
+		this.directory = Objects.requireNonNull(directory, "directory == null");
+		this.generator = Objects.requireNonNull(generator, "generator == null");
+		this.moduleGraphs = new HashMap<>();
+		this.requestCount = 0;
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public File getDirectory() {
+		return this.directory;
+	}
+	
+	public Generator getGenerator() {
+		return this.generator;
+	}
+	
+	public String handle(final String request) {
+		return doHandle(doRead(Objects.requireNonNull(request, "request == null")));
+	}
+	
+	public int getRequestCount() {
+		return this.requestCount;
+	}
+	
+	public void serve(final Reader reader, final Writer writer) {
+		Objects.requireNonNull(reader, "reader == null");
+		Objects.requireNonNull(writer, "writer == null");
+		
+		try {
+			final BufferedReader bufferedReader = reader instanceof BufferedReader ? BufferedReader.class.cast(reader) : new BufferedReader(reader);
+			
+			for(String line = bufferedReader.readLine(); line != null; line = bufferedReader.readLine()) {
+				if(line.trim().isEmpty()) {
+					continue;
+				}
+				
+				final Request request = doRead(line);
+				
+				writer.write(doHandle(request));
+				writer.write('\n');
+				writer.flush();
+				
+				if(request.getCommand().equals(COMMAND_SHUTDOWN) && request.getErrors().isEmpty()) {
+					return;
+				}
+			}
+		} catch(final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private Request doRead(final String line) {
+		final String source = String.format("request #%d", Integer.valueOf(++this.requestCount));
+		
+		final JSONReader jSONReader = new JSONReader(new StringReader(line));
+		
+		final
+		Request request = new Request(source);
+		
+		try {
+			if(jSONReader.peek() != JSONToken.BEGIN_OBJECT) {
+				request.addError(String.format("%s:%d:%d: Expected request to be an object but was %s.", source, Integer.valueOf(jSONReader.getLine()), Integer.valueOf(jSONReader.getColumn()), jSONReader.peek()));
+				
+				return request;
+			}
+			
+			jSONReader.beginObject();
+			
+			while(jSONReader.hasNext()) {
+				final String name = jSONReader.nextName();
+				
+				switch(name) {
+					case "command":
+						request.setCommand(jSONReader.nextString());
+						
+						break;
+					case "directory":
+						request.setDirectory(new File(jSONReader.nextString()));
+						
+						break;
+					case "file":
+						request.setFile(new File(jSONReader.nextString()));
+						
+						break;
+					case "id":
+						request.setId(jSONReader.peek() == JSONToken.NUMBER ? jSONReader.nextString() : JSONStrings.quote(jSONReader.nextString()));
+						
+						break;
+					case "module":
+						try {
+							request.setModuleDefinition(ModuleDefinitionReader.read(jSONReader, source));
+						} catch(final ModuleDefinitionException e) {
+							request.addErrors(e.getErrors());
+						}
+						
+						break;
+					default:
+						jSONReader.skipValue();
+						
+						break;
+				}
+			}
+			
+			jSONReader.endObject();
+			
+			if(jSONReader.peek() != JSONToken.END_DOCUMENT) {
+				request.addError(String.format("%s:%d:%d: Expected a single object per line.", source, Integer.valueOf(jSONReader.getLine()), Integer.valueOf(jSONReader.getColumn())));
+			}
+		} catch(final JSONException e) {
+			request.addError(String.format("%s:%d:%d: %s", source, Integer.valueOf(e.getLine()), Integer.valueOf(e.getColumn()), e.getDescription()));
+		}
+		
+		return request;
+	}
+	
+	private String doGenerate(final Request request) {
+		final File directory = request.getDirectory() != null ? request.getDirectory() : this.directory;
+		
+		try {
+			final ModuleDefinition moduleDefinition = request.getModuleDefinition() != null ? request.getModuleDefinition() : request.getFile() != null ? ModuleDefinitionReader.read(request.getFile()) : null;
+			
+			if(moduleDefinition == null) {
+				return doRespond(request, Arrays.asList(String.format("%s: Expected \"module\" or \"file\" for command \"%s\".", request.getSource(), COMMAND_GENERATE)));
+			}
+			
+			final String module = moduleDefinition.getVendorName() + "/" + moduleDefinition.getModuleName();
+			
+			final String key = directory.getAbsolutePath() + File.pathSeparator + module;
+			
+			final ModuleGraph moduleGraph = this.moduleGraphs.get(key);
+			
+			this.generator.clear();
+			
+//			A module seen before is updated in place, so only the artifacts depending on what changed are regenerated and only the files it no longer has are deleted:
+			if(moduleGraph == null) {
+				final ModuleGraph moduleGraphNew = new ModuleGraph(moduleDefinition);
+				
+				this.moduleGraphs.put(key, moduleGraphNew);
+				
+				this.generator.addArtifacts(moduleGraphNew.getArtifacts(), directory);
+				this.generator.setDeletingObsoleteFiles(true);
+			} else {
+				final ModuleGraph.Change change = moduleGraph.update(moduleDefinition);
+				
+				for(final File fileRemoved : change.getFilesRemoved()) {
+					this.generator.addObsoleteFile(fileRemoved, directory);
+				}
+				
+				this.generator.addArtifacts(change.getArtifacts(), directory);
+				this.generator.setDeletingObsoleteFiles(false);
+			}
+			
+			final GeneratorReport generatorReport = this.generator.generate();
+			
+			this.generator.clear();
+			
+			if(!generatorReport.isSuccessful()) {
+				this.moduleGraphs.remove(key);
+			}
+			
+			return doRespond(request, module, generatorReport);
+		} catch(final ModuleDefinitionException e) {
+			return doRespond(request, e.getErrors());
+		} catch(final UncheckedIOException e) {
+			return doRespond(request, Arrays.asList(String.format("%s: %s", request.getSource(), e.getCause())));
+		}
+	}
+	
+	private String doHandle(final Request request) {
+		if(request.getErrors().size() > 0) {
+			return doRespond(request, request.getErrors());
+		}
+		
+		switch(request.getCommand()) {
+			case COMMAND_GENERATE:
+				return doGenerate(request);
+			case COMMAND_PING:
+			case COMMAND_SHUTDOWN:
+				return doRespond(request, new ArrayList<>());
+			default:
+				return doRespond(request, Arrays.asList(String.format("%s: Unknown command \"%s\".", request.getSource(), request.getCommand())));
+		}
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private static String doRespond(final Request request, final List<String> errors) {
+		final StringBuilder stringBuilder = new StringBuilder();
+		
+		stringBuilder.append("{");
+		stringBuilder.append("\"id\":").append(request.getId()).append(",");
+		stringBuilder.append("\"command\":").append(JSONStrings.quote(request.getCommand())).append(",");
+		stringBuilder.append("\"successful\":").append(errors.isEmpty()).append(",");
+		stringBuilder.append("\"errors\":").append(JSONStrings.quote(errors));
+		stringBuilder.append("}");
+		
+		return stringBuilder.toString();
+	}
+	
+	private static String doRespond(final Request request, final String module, final GeneratorReport generatorReport) {
+		final List<String> failures = new ArrayList<>();
+		
+		for(final GeneratorReport.Failure failure : generatorReport.getFailures()) {
+			failures.add(String.format("%s: %s", new File(failure.getDirectory(), failure.getArtifact().getRelativeFile().getPath()).getPath(), failure.getThrowable()));
+		}
+		
+		final StringBuilder stringBuilder = new StringBuilder();
+		
+		stringBuilder.append("{");
+		stringBuilder.append("\"id\":").append(request.getId()).append(",");
+		stringBuilder.append("\"command\":").append(JSONStrings.quote(request.getCommand())).append(",");
+		stringBuilder.append("\"successful\":").append(generatorReport.isSuccessful()).append(",");
+		stringBuilder.append("\"errors\":").append(JSONStrings.quote(failures)).append(",");
+		stringBuilder.append("\"module\":").append(JSONStrings.quote(module)).append(",");
+		stringBuilder.append("\"artifacts\":").append(generatorReport.getArtifactCount()).append(",");
+		stringBuilder.append("\"written\":").append(generatorReport.getWrittenCount()).append(",");
+		stringBuilder.append("\"skipped\":").append(generatorReport.getSkippedCount()).append(",");
+		stringBuilder.append("\"deleted\":").append(generatorReport.getDeletedCount()).append(",");
+		stringBuilder.append("\"elapsedTimeNanos\":").append(generatorReport.getElapsedTime()).append(",");
+		stringBuilder.append("\"metrics\":").append(generatorReport.getMetrics().toJSON());
+		stringBuilder.append("}");
+		
+		return stringBuilder.toString();
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private static final class Request {
+		private final List<String> errors;
+		private File directory;
+		private File file;
+		private ModuleDefinition moduleDefinition;
+		private String command;
+		private String id;
+		private final String source;
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public Request(final String source) {
+			this.source = source;
+			this.errors = new ArrayList<>();
+			this.command = COMMAND_GENERATE;
+			this.id = "null";
+		}
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public File getDirectory() {
+			return this.directory;
+		}
+		
+		public File getFile() {
+			return this.file;
+		}
+		
+		public List<String> getErrors() {
+			return this.errors;
+		}
+		
+		public ModuleDefinition getModuleDefinition() {
+			return this.moduleDefinition;
+		}
+		
+		public String getCommand() {
+			return this.command;
+		}
+		
+		public String getId() {
+			return this.id;
+		}
+		
+		public String getSource() {
+			return this.source;
+		}
+		
+		public void addError(final String error) {
+			this.errors.add(error);
+		}
+		
+		public void addErrors(final List<String> errors) {
+			this.errors.addAll(errors);
+		}
+		
+		public void setCommand(final String command) {
+			this.command = command;
+		}
+		
+		public void setDirectory(final File directory) {
+			this.directory = directory;
+		}
+		
+		public void setFile(final File file) {
+			this.file = file;
+		}
+		
+		public void setId(final String id) {
+			this.id = id;
+		}
+		
+		public void setModuleDefinition(final ModuleDefinition moduleDefinition) {
+			this.moduleDefinition = moduleDefinition;
+		}
+	}
+}
\ No newline at end of file
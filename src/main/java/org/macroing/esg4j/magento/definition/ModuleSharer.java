@@ -0,0 +1,195 @@
+/**
+ * Copyright 2019 - 2021 J&#246;rgen Lundgren
+ * 
+ * This file is part of org.macroing.esg4j.
+ * 
+ * org.macroing.esg4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * org.macroing.esg4j is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with org.macroing.esg4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.macroing.esg4j.magento.definition;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.macroing.esg4j.generator.Artifact;
+import org.macroing.esg4j.generator.Metrics;
+import org.macroing.esg4j.generator.OutputWriter;
+import org.macroing.esg4j.magento.file.Composer;
+import org.macroing.esg4j.magento.file.Composer.Dependency;
+import org.macroing.esg4j.magento.file.Registration;
+import org.macroing.esg4j.magento.file.etc.Module;
+import org.macroing.esg4j.magento.file.model.config.source.CustomerGroupSourceModel;
+import org.macroing.esg4j.magento.file.model.config.source.ProductSourceModel;
+import org.macroing.esg4j.magento.file.model.config.source.StoreViewSourceModel;
+import org.macroing.esg4j.util.Names;
+
+public final class ModuleSharer {
+	private static final List<Class<? extends Artifact>> TYPES_MODULE = Arrays.asList(Composer.class, Module.class, Registration.class);
+	private static final List<Class<? extends Artifact>> TYPES_SHAREABLE = Arrays.asList(CustomerGroupSourceModel.class, ProductSourceModel.class, StoreViewSourceModel.class);
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private final List<Artifact> artifacts;
+	private final Map<String, String> hashes;
+	private final ModuleDefinition moduleDefinition;
+	private final Set<String> typesShared;
+	private int sharedCount;
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public ModuleSharer(final ModuleDefinition moduleDefinition) {
+		this.moduleDefinition = Objects.requireNonNull(moduleDefinition, "moduleDefinition == null");
+		this.artifacts = new ArrayList<>();
+		this.hashes = new LinkedHashMap<>();
+		this.typesShared = new LinkedHashSet<>();
+		this.sharedCount = 0;
+		
+		for(final Artifact artifact : new ModuleGraph(moduleDefinition).getArtifacts()) {
+			if(TYPES_MODULE.contains(artifact.getClass())) {
+				this.artifacts.add(artifact);
+			} else if(TYPES_SHAREABLE.contains(artifact.getClass())) {
+				this.artifacts.add(artifact);
+				this.hashes.put(Metrics.toType(artifact), doHash(artifact, moduleDefinition.getModuleName(), moduleDefinition.getVendorName()));
+			}
+		}
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public List<Artifact> getArtifacts() {
+		final List<Artifact> artifacts = new ArrayList<>();
+		
+		for(final Artifact artifact : this.artifacts) {
+			if(TYPES_MODULE.contains(artifact.getClass()) || this.typesShared.contains(Metrics.toType(artifact))) {
+				artifacts.add(artifact);
+			}
+		}
+		
+		return artifacts;
+	}
+	
+	public List<Artifact> share(final ModuleDefinition moduleDefinition, final List<? extends Artifact> artifacts) {
+		Objects.requireNonNull(moduleDefinition, "moduleDefinition == null");
+		Objects.requireNonNull(artifacts, "artifacts == null");
+		
+		final String moduleName = moduleDefinition.getModuleName();
+		final String vendorName = moduleDefinition.getVendorName();
+		
+		if(moduleName.equals(this.moduleDefinition.getModuleName()) && vendorName.equals(this.moduleDefinition.getVendorName())) {
+			throw new IllegalArgumentException(String.format("Module %s/%s is the shared module and cannot share with itself.", vendorName, moduleName));
+		}
+		
+		final List<Artifact> artifactsKept = new ArrayList<>(artifacts.size());
+		final List<String> typesRemoved = new ArrayList<>();
+		
+		for(final Artifact artifact : artifacts) {
+			final String type = Metrics.toType(artifact);
+			final String hash = this.hashes.get(type);
+			
+			if(hash != null && hash.equals(doHash(artifact, moduleName, vendorName))) {
+				typesRemoved.add(type);
+			} else {
+				artifactsKept.add(artifact);
+			}
+		}
+		
+		if(typesRemoved.isEmpty()) {
+			return artifactsKept;
+		}
+		
+		final Composer composer = doCreateComposer(moduleDefinition);
+		final Module module = doCreateModule(moduleDefinition);
+		
+		final List<Artifact> artifactsShared = new ArrayList<>(artifactsKept.size());
+		
+		for(final Artifact artifact : artifactsKept) {
+			if(artifact.getRelativeFile().equals(composer.getRelativeFile())) {
+				artifactsShared.add(composer);
+			} else if(artifact.getRelativeFile().equals(module.getRelativeFile())) {
+				artifactsShared.add(module);
+			} else {
+				artifactsShared.add(artifact);
+			}
+		}
+		
+		this.typesShared.addAll(typesRemoved);
+		this.sharedCount += typesRemoved.size();
+		
+		return artifactsShared;
+	}
+	
+	public ModuleDefinition getModuleDefinition() {
+		return this.moduleDefinition;
+	}
+	
+	@Override
+	public String toString() {
+		return String.format("new ModuleSharer(%s)", this.moduleDefinition);
+	}
+	
+	public int getSharedCount() {
+		return this.sharedCount;
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private Composer doCreateComposer(final ModuleDefinition moduleDefinition) {
+		final Composer composer = new Composer(moduleDefinition.getModuleDescription(), moduleDefinition.getModuleName(), moduleDefinition.getModuleVersion(), moduleDefinition.getVendorName());
+		
+		moduleDefinition.getAuthors().forEach(composer::addAuthor);
+		moduleDefinition.getDependencies().forEach(composer::addDependency);
+		moduleDefinition.getLicenses().forEach(composer::addLicense);
+		
+		composer.addDependency(new Dependency(this.moduleDefinition.getModuleName(), this.moduleDefinition.getVendorName(), "^" + this.moduleDefinition.getModuleVersion()));
+		
+		return composer;
+	}
+	
+	private Module doCreateModule(final ModuleDefinition moduleDefinition) {
+		final
+		Module module = new Module(moduleDefinition.getModuleName(), moduleDefinition.getModuleVersion(), moduleDefinition.getVendorName());
+		module.addSequence(Names.formatCamelCase(this.moduleDefinition.getVendorName()) + "_" + Names.formatCamelCase(this.moduleDefinition.getModuleName()));
+		
+		return module;
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private static String doHash(final Artifact artifact, final String moduleName, final String vendorName) {
+//		Two artifacts are structurally identical if they only differ in the vendor and module names, so the names are replaced before hashing.
+		final String path = ModuleStamper.toTemplate(artifact.getRelativeFile().getPath().replace(File.separatorChar, '/'), moduleName, vendorName);
+		final String content = ModuleStamper.toTemplate(artifact.render(), moduleName, vendorName);
+		
+		try {
+			final
+			MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+			messageDigest.update(path.getBytes(StandardCharsets.UTF_8));
+			messageDigest.update((byte)(0));
+			messageDigest.update(content.getBytes(StandardCharsets.UTF_8));
+			
+			return OutputWriter.toHexadecimal(messageDigest.digest());
+		} catch(final NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,148 @@
+/**
+ * Copyright 2019 - 2021 J&#246;rgen Lundgren
+ * 
+ * This file is part of org.macroing.esg4j.
+ * 
+ * org.macroing.esg4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * org.macroing.esg4j is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with org.macroing.esg4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.macroing.esg4j.magento.definition;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.UnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.macroing.esg4j.generator.Artifact;
+import org.macroing.esg4j.generator.Stamp;
+import org.macroing.esg4j.util.Names;
+
+public final class ModuleStamper {
+	private static final List<UnaryOperator<String>> FORMATS = Arrays.asList(Names::formatCamelCase, Names::formatCamelCaseModified, Names::formatDashSeparatedLowerCase, Names::formatDashSeparatedUpperCase, Names::formatUnderscoreSeparatedLowerCase, Names::formatUnderscoreSeparatedUpperCase, Names::formatUnseparatedLowerCase, Names::formatUnseparatedUpperCase);
+	private static final String MARKER = "zqx";
+	private static final String MODULE_NAME = "ZqxModule";
+	private static final String VENDOR_NAME = "ZqxVendor";
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private final ModuleDefinition moduleDefinition;
+	private final Stamp stamp;
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public ModuleStamper(final ModuleDefinition moduleDefinition) {
+		this.moduleDefinition = toTemplate(moduleDefinition);
+		this.stamp = new Stamp(new ModuleGraph(this.moduleDefinition).getArtifacts(), new ArrayList<>(doCreateReplacements(MODULE_NAME, VENDOR_NAME).keySet()));
+		
+		if(this.stamp.contains(MARKER)) {
+			throw new IllegalStateException(String.format("The module template contains a vendor or module name that is not a known case variant: %s", this.moduleDefinition));
+		}
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public List<Artifact> stamp(final ModuleDefinition moduleDefinition) {
+		if(!toTemplate(moduleDefinition).equals(this.moduleDefinition)) {
+			throw new IllegalArgumentException(String.format("The module definition does not match the template: %s", moduleDefinition));
+		}
+		
+		return stamp(moduleDefinition.getModuleName(), moduleDefinition.getVendorName());
+	}
+	
+	public List<Artifact> stamp(final String moduleName, final String vendorName) {
+		return this.stamp.stamp(doCreateReplacements(Objects.requireNonNull(moduleName, "moduleName == null"), Objects.requireNonNull(vendorName, "vendorName == null")));
+	}
+	
+	public ModuleDefinition getModuleDefinition() {
+		return this.moduleDefinition;
+	}
+	
+	@Override
+	public String toString() {
+		return String.format("new ModuleStamper(%s)", this.moduleDefinition);
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public static ModuleDefinition toTemplate(final ModuleDefinition moduleDefinition) {
+		Objects.requireNonNull(moduleDefinition, "moduleDefinition == null");
+		
+		final
+		ModuleDefinition moduleDefinitionTemplate = new ModuleDefinition(moduleDefinition.getModuleDescription(), MODULE_NAME, moduleDefinition.getModuleVersion(), VENDOR_NAME);
+		moduleDefinitionTemplate.setDatabase(moduleDefinition.getDatabase());
+		moduleDefinition.getAuthors().forEach(moduleDefinitionTemplate::addAuthor);
+		moduleDefinition.getBlockNames().forEach(moduleDefinitionTemplate::addBlockName);
+		moduleDefinition.getControllers().forEach(moduleDefinitionTemplate::addController);
+		moduleDefinition.getCronJobNames().forEach(moduleDefinitionTemplate::addCronJobName);
+		moduleDefinition.getDependencies().forEach(moduleDefinitionTemplate::addDependency);
+		moduleDefinition.getHelperNames().forEach(moduleDefinitionTemplate::addHelperName);
+		moduleDefinition.getLicenses().forEach(moduleDefinitionTemplate::addLicense);
+		
+		return moduleDefinitionTemplate;
+	}
+	
+	static String toTemplate(final String string, final String moduleName, final String vendorName) {
+		final Map<String, String> replacements = new HashMap<>();
+		
+		for(final Map.Entry<String, String> entry : doCreateReplacements(moduleName, vendorName).entrySet()) {
+			if(!entry.getValue().isEmpty()) {
+				replacements.putIfAbsent(entry.getValue(), entry.getKey());
+			}
+		}
+		
+		final List<String> names = new ArrayList<>(replacements.keySet());
+		
+		if(names.isEmpty()) {
+			return string;
+		}
+		
+		names.sort((a, b) -> Integer.compare(b.length(), a.length()));
+		
+		final StringBuilder stringBuilder = new StringBuilder();
+		
+		for(final String name : names) {
+			stringBuilder.append(stringBuilder.length() > 0 ? "|" : "").append(Pattern.quote(name));
+		}
+		
+		final Matcher matcher = Pattern.compile(stringBuilder.toString()).matcher(string);
+		
+		final StringBuffer stringBuffer = new StringBuffer(string.length());
+		
+		while(matcher.find()) {
+			matcher.appendReplacement(stringBuffer, Matcher.quoteReplacement(replacements.get(matcher.group())));
+		}
+		
+		matcher.appendTail(stringBuffer);
+		
+		return stringBuffer.toString();
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private static Map<String, String> doCreateReplacements(final String moduleName, final String vendorName) {
+		final Map<String, String> replacements = new LinkedHashMap<>();
+		
+		for(final UnaryOperator<String> format : FORMATS) {
+			replacements.put(format.apply(MODULE_NAME), format.apply(moduleName));
+			replacements.put(format.apply(VENDOR_NAME), format.apply(vendorName));
+		}
+		
+		return replacements;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,202 @@
+/**
+ * Copyright 2019 - 2021 J&#246;rgen Lundgren
+ * 
+ * This file is part of org.macroing.esg4j.
+ * 
+ * org.macroing.esg4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * org.macroing.esg4j is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with org.macroing.esg4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.macroing.esg4j.magento.definition;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.macroing.esg4j.magento.database.Column;
+import org.macroing.esg4j.magento.database.DataType;
+import org.macroing.esg4j.magento.database.Database;
+import org.macroing.esg4j.magento.database.Table;
+import org.macroing.esg4j.util.Names;
+
+public final class ModuleValidator {
+	private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+	private static final Set<DataType> DATA_TYPES_INTEGER = EnumSet.of(DataType.BIGINT, DataType.INT, DataType.SMALLINT, DataType.TINYINT);
+	private static final Set<DataType> DATA_TYPES_NUMERIC = EnumSet.of(DataType.BIGINT, DataType.DECIMAL, DataType.FLOAT, DataType.INT, DataType.NUMERIC, DataType.SMALLINT, DataType.TINYINT);
+	private static final Set<DataType> DATA_TYPES_UNSIZED = EnumSet.of(DataType.DATE, DataType.DATETIME, DataType.FLOAT, DataType.TIMESTAMP);
+	private static final int MAXIMUM_NAME_LENGTH = 64;
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private ModuleValidator() {
+		
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public static List<String> validate(final Database database) {
+		Objects.requireNonNull(database, "database == null");
+		
+		final List<String> errors = new ArrayList<>();
+		
+		final List<Table> tables = database.snapshot().getTables();
+		
+		final Map<String, String> tableNamesByClassName = new HashMap<>();
+		
+		for(final Table table : tables) {
+			final String tableName = table.getName();
+			final String tableNameOther = tableNamesByClassName.putIfAbsent(Names.formatCamelCase(tableName), tableName);
+			
+			if(tableNameOther == null) {
+				continue;
+			} else if(tableNameOther.equals(tableName)) {
+				errors.add(String.format("Duplicate table \"%s\".", tableName));
+			} else {
+				errors.add(String.format("Table \"%s\" and table \"%s\" both map to class name %s.", tableNameOther, tableName, Names.formatCamelCase(tableName)));
+			}
+		}
+		
+		final List<List<String>> errorsByTable = tables.parallelStream().map(table -> doValidateTable(table)).collect(Collectors.toList());
+		
+		for(final List<String> errorsTable : errorsByTable) {
+			errors.addAll(errorsTable);
+		}
+		
+		return errors;
+	}
+	
+	public static List<String> validate(final ModuleDefinition moduleDefinition) {
+		Objects.requireNonNull(moduleDefinition, "moduleDefinition == null");
+		
+		final List<String> errors = new ArrayList<>();
+		
+		doValidateName(errors, "Module", moduleDefinition.getModuleName());
+		doValidateName(errors, "Vendor", moduleDefinition.getVendorName());
+		
+		errors.addAll(validate(moduleDefinition.getDatabase()));
+		
+		return errors;
+	}
+	
+	public static ModuleDefinition requireValid(final ModuleDefinition moduleDefinition, final String source) {
+		Objects.requireNonNull(source, "source == null");
+		
+		final List<String> errors = validate(moduleDefinition);
+		
+		if(!errors.isEmpty()) {
+			final List<String> errorsWithSource = new ArrayList<>(errors.size());
+			
+			for(final String error : errors) {
+				errorsWithSource.add(String.format("%s: %s", source, error));
+			}
+			
+			throw new ModuleDefinitionException(errorsWithSource);
+		}
+		
+		return moduleDefinition;
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private static List<String> doValidateTable(final Table table) {
+		final List<String> errors = new ArrayList<>();
+		
+		final String tableName = table.getName();
+		
+		doValidateName(errors, String.format("Table \"%s\"", tableName), tableName);
+		
+		final List<Column> columns = table.getColumns();
+		final List<Column> columnsPrimaryKey = table.getColumnsPrimaryKey();
+		
+		if(columnsPrimaryKey.size() != 1) {
+			errors.add(String.format("Table \"%s\" has %d primary key columns but must have exactly one.", tableName, Integer.valueOf(columnsPrimaryKey.size())));
+		}
+		
+		final Map<String, String> columnNamesByConstantName = new HashMap<>();
+		
+		int autoIncrementCount = 0;
+		
+		for(final Column column : columns) {
+			final String columnName = column.getName();
+			final String columnNameOther = columnNamesByConstantName.putIfAbsent(Names.formatUnderscoreSeparatedUpperCase(columnName), columnName);
+			
+			if(columnNameOther == null) {
+				doValidateName(errors, String.format("Column \"%s\" in table \"%s\"", columnName, tableName), columnName);
+				doValidateColumn(errors, column, tableName);
+			} else if(columnNameOther.equals(columnName)) {
+				errors.add(String.format("Duplicate column \"%s\" in table \"%s\".", columnName, tableName));
+			} else {
+				errors.add(String.format("Column \"%s\" and column \"%s\" in table \"%s\" both map to constant name %s.", columnNameOther, columnName, tableName, Names.formatUnderscoreSeparatedUpperCase(columnName)));
+			}
+			
+			if(column.hasAutoIncrement()) {
+				autoIncrementCount++;
+			}
+		}
+		
+		if(autoIncrementCount > 1) {
+			errors.add(String.format("Table \"%s\" has %d auto-incremented columns but can have at most one.", tableName, Integer.valueOf(autoIncrementCount)));
+		}
+		
+		return errors;
+	}
+	
+	private static void doValidateColumn(final List<String> errors, final Column column, final String tableName) {
+		final DataType dataType = column.getDataType();
+		
+		final String columnName = column.getName();
+		
+		final int length = column.getLength();
+		
+		if(length < 0) {
+			errors.add(String.format("Column \"%s\" in table \"%s\" has a negative length %d.", columnName, tableName, Integer.valueOf(length)));
+		} else if(DATA_TYPES_UNSIZED.contains(dataType) && length != 0) {
+			errors.add(String.format("Column \"%s\" in table \"%s\" of type %s cannot have a length but has %d.", columnName, tableName, dataType, Integer.valueOf(length)));
+		} else if(DATA_TYPES_INTEGER.contains(dataType) && length > 255) {
+			errors.add(String.format("Column \"%s\" in table \"%s\" of type %s has a display width %d greater than 255.", columnName, tableName, dataType, Integer.valueOf(length)));
+		} else if((dataType == DataType.DECIMAL || dataType == DataType.NUMERIC) && length > 65) {
+			errors.add(String.format("Column \"%s\" in table \"%s\" of type %s has a precision %d greater than 65.", columnName, tableName, dataType, Integer.valueOf(length)));
+		} else if(dataType == DataType.VARBINARY && length > 65535) {
+			errors.add(String.format("Column \"%s\" in table \"%s\" of type %s has a length %d greater than 65535.", columnName, tableName, dataType, Integer.valueOf(length)));
+		}
+		
+		if(column.hasAutoIncrement() && !DATA_TYPES_INTEGER.contains(dataType)) {
+			errors.add(String.format("Column \"%s\" in table \"%s\" of type %s cannot be auto-incremented.", columnName, tableName, dataType));
+		}
+		
+		if(column.isUnsigned() && !DATA_TYPES_NUMERIC.contains(dataType)) {
+			errors.add(String.format("Column \"%s\" in table \"%s\" of type %s cannot be unsigned.", columnName, tableName, dataType));
+		}
+		
+		if(column.getDefaultValue() != null && DATA_TYPES_INTEGER.contains(dataType) && !(column.getDefaultValue() instanceof Integer)) {
+			errors.add(String.format("Default value \"%s\" of column \"%s\" in table \"%s\" is not an integer.", column.getDefaultValue(), columnName, tableName));
+		}
+	}
+	
+	private static void doValidateName(final List<String> errors, final String subject, final String name) {
+		if(name.isEmpty()) {
+			errors.add(String.format("%s has an empty name.", subject));
+		} else if(name.length() > MAXIMUM_NAME_LENGTH) {
+			errors.add(String.format("%s has a name longer than %d characters.", subject, Integer.valueOf(MAXIMUM_NAME_LENGTH)));
+		} else if(!IDENTIFIER.matcher(Names.formatCamelCase(name)).matches()) {
+			errors.add(String.format("%s has name \"%s\" that is not a valid identifier after conversion to %s.", subject, name, Names.formatCamelCase(name)));
+		} else if(!IDENTIFIER.matcher(Names.formatUnderscoreSeparatedUpperCase(name)).matches()) {
+			errors.add(String.format("%s has name \"%s\" that is not a valid identifier after conversion to %s.", subject, name, Names.formatUnderscoreSeparatedUpperCase(name)));
+		}
+	}
+}
\ No newline at end of file
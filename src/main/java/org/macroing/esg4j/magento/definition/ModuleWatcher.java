@@ -0,0 +1,154 @@
+/**
+ * Copyright 2019 - 2021 J&#246;rgen Lundgren
+ * 
+ * This file is part of org.macroing.esg4j.
+ * 
+ * org.macroing.esg4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * org.macroing.esg4j is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with org.macroing.esg4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.macroing.esg4j.magento.definition;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.macroing.esg4j.generator.Artifact;
+import org.macroing.esg4j.generator.Generator;
+import org.macroing.esg4j.generator.GeneratorReport;
+
+public final class ModuleWatcher {
+	private static final long DEBOUNCE_MILLIS = 50L;
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private final File directory;
+	private final File file;
+	private final Generator generator;
+	private ModuleGraph moduleGraph;
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public ModuleWatcher(final File file, final File directory) {
+		this(file, directory, new Generator());
+	}
+	
+	public ModuleWatcher(final File file, final File directory, final Generator generator) {
+		this.file = Objects.requireNonNull(file, "file == null").getAbsoluteFile();
+		this.directory = Objects.requireNonNull(directory, "directory == null");
+		this.generator = Objects.requireNonNull(generator, "generator == null");
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public File getDirectory() {
+		return this.directory;
+	}
+	
+	public File getFile() {
+		return this.file;
+	}
+	
+	public ModuleGraph getModuleGraph() {
+		return this.moduleGraph;
+	}
+	
+	public GeneratorReport generate() {
+		final ModuleDefinition moduleDefinition = ModuleDefinitionReader.read(this.file);
+		
+		if(this.moduleGraph == null) {
+			this.moduleGraph = new ModuleGraph(moduleDefinition);
+			
+			return doGenerate(this.moduleGraph.getArtifacts(), Collections.emptyList(), true);
+		}
+		
+		final ModuleGraph.Change change = this.moduleGraph.update(moduleDefinition);
+		
+		return doGenerate(change.getArtifacts(), change.getFilesRemoved(), false);
+	}
+	
+	public void watch() throws InterruptedException {
+		final Path path = this.file.toPath();
+		final Path pathDirectory = path.getParent();
+		final Path pathFileName = path.getFileName();
+		
+		try(final WatchService watchService = FileSystems.getDefault().newWatchService()) {
+			pathDirectory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+			
+			doGenerateAndPrint();
+			
+			while(true) {
+				WatchKey watchKey = watchService.take();
+				
+				boolean isChanged = false;
+				
+				while(watchKey != null) {
+					for(final WatchEvent<?> watchEvent : watchKey.pollEvents()) {
+						if(pathFileName.equals(watchEvent.context()) || watchEvent.kind() == StandardWatchEventKinds.OVERFLOW) {
+							isChanged = true;
+						}
+					}
+					
+					if(!watchKey.reset()) {
+						return;
+					}
+					
+					watchKey = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+				}
+				
+				if(isChanged) {
+					doGenerateAndPrint();
+				}
+			}
+		} catch(final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private GeneratorReport doGenerate(final List<Artifact> artifacts, final List<File> filesRemoved, final boolean isDeletingObsoleteFiles) {
+		this.generator.clear();
+		this.generator.addArtifacts(artifacts, this.directory);
+		this.generator.setDeletingObsoleteFiles(isDeletingObsoleteFiles);
+		
+		for(final File fileRemoved : filesRemoved) {
+			this.generator.addObsoleteFile(fileRemoved, this.directory);
+		}
+		
+		return this.generator.generate();
+	}
+	
+	private void doGenerateAndPrint() {
+		try {
+			final GeneratorReport generatorReport = generate();
+			
+			if(generatorReport.isSuccessful()) {
+				System.out.println(generatorReport);
+			} else {
+				System.err.println(generatorReport);
+			}
+		} catch(final ModuleDefinitionException | UncheckedIOException e) {
+			System.err.println(e.getMessage());
+		}
+	}
+}
\ No newline at end of file
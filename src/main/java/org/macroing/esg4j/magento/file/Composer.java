@@ -19,18 +19,16 @@
 package org.macroing.esg4j.magento.file;
 
 import java.io.File;
-import java.io.IOException;
-import java.io.UncheckedIOException;
-import java.nio.file.Files;
-import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
 import org.macroing.cel4j.util.Document;
-import org.macroing.cel4j.util.Strings;
+import org.macroing.esg4j.generator.Artifact;
+import org.macroing.esg4j.generator.OutputWriter;
+import org.macroing.esg4j.util.Names;
 
-public final class Composer {
+public final class Composer implements Artifact {
 	private final List<Author> authors;
 	private final List<Dependency> dependencies;
 	private final List<License> licenses;
@@ -64,12 +62,12 @@ public final class Composer {
 		
 		final String moduleDescription = getModuleDescription();
 		final String moduleName = getModuleName();
-		final String moduleNameCamelCase = Strings.formatCamelCase(moduleName);
-		final String moduleNameUnseparatedLowerCase = Strings.formatUnseparatedLowerCase(moduleName);
+		final String moduleNameCamelCase = Names.formatCamelCase(moduleName);
+		final String moduleNameUnseparatedLowerCase = Names.formatUnseparatedLowerCase(moduleName);
 		final String moduleVersion = getModuleVersion();
 		final String vendorName = getVendorName();
-		final String vendorNameCamelCase = Strings.formatCamelCase(vendorName);
-		final String vendorNameUnseparatedLowerCase = Strings.formatUnseparatedLowerCase(vendorName);
+		final String vendorNameCamelCase = Names.formatCamelCase(vendorName);
+		final String vendorNameUnseparatedLowerCase = Names.formatUnseparatedLowerCase(vendorName);
 		
 		final
 		Document document = new Document();
@@ -131,9 +129,9 @@ public final class Composer {
 				final Dependency dependency = dependencies.get(i);
 				
 				final String dependencyName = dependency.getName();
-				final String dependencyNameDashSeparatedLowerCase = Strings.formatDashSeparatedLowerCase(dependencyName);
+				final String dependencyNameDashSeparatedLowerCase = Names.formatDashSeparatedLowerCase(dependencyName);
 				final String dependencyVendor = dependency.getVendor();
-				final String dependencyVendorDashSeparatedLowerCase = Strings.formatDashSeparatedLowerCase(dependencyVendor);
+				final String dependencyVendorDashSeparatedLowerCase = Names.formatDashSeparatedLowerCase(dependencyVendor);
 				final String dependencyVersion = dependency.getVersion();
 				
 				if(!dependencyNameDashSeparatedLowerCase.isEmpty() && !dependencyVendorDashSeparatedLowerCase.isEmpty()) {
@@ -169,8 +167,14 @@ public final class Composer {
 		return document;
 	}
 	
+	@Override
+	public Document write() {
+		return toDocument();
+	}
+	
+	@Override
 	public File getRelativeFile() {
-		return new File(String.format("%s/%s/composer.json", Strings.formatCamelCase(getVendorName()), Strings.formatCamelCase(getModuleName())));
+		return new File(String.format("%s/%s/composer.json", Names.formatCamelCase(getVendorName()), Names.formatCamelCase(getModuleName())));
 	}
 	
 	public List<Author> getAuthors() {
@@ -248,8 +252,9 @@ public final class Composer {
 		this.licenses.add(Objects.requireNonNull(license, "license == null"));
 	}
 	
+	@Override
 	public void generateTo(final File directory) {
-		doWriteToFile(new File(Objects.requireNonNull(directory, "directory == null"), getRelativeFile().getPath()), toDocument().toString());
+		OutputWriter.write(new File(Objects.requireNonNull(directory, "directory == null"), getRelativeFile().getPath()), write());
 	}
 	
 	public void removeAuthor(final Author author) {
@@ -474,16 +479,4 @@ public final class Composer {
 			this.name = Objects.requireNonNull(name, "name == null");
 		}
 	}
-	
-	////////////////////////////////////////////////////////////////////////////////////////////////////
-	
-	private static void doWriteToFile(final File file, final String string) {
-		file.getParentFile().mkdirs();
-		
-		try {
-			Files.write(file.toPath(), string.getBytes("UTF-8"), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
-		} catch(final IOException e) {
-			throw new UncheckedIOException(e);
-		}
-	}
 }
\ No newline at end of file
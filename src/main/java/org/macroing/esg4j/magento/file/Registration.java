@@ -19,17 +19,15 @@
 package org.macroing.esg4j.magento.file;
 
 import java.io.File;
-import java.io.IOException;
-import java.io.UncheckedIOException;
-import java.nio.file.Files;
-import java.nio.file.StandardOpenOption;
 import java.util.Objects;
 
 import org.macroing.cel4j.php.model.PDocument;
 import org.macroing.cel4j.util.Document;
-import org.macroing.cel4j.util.Strings;
+import org.macroing.esg4j.generator.Artifact;
+import org.macroing.esg4j.generator.OutputWriter;
+import org.macroing.esg4j.util.Names;
 
-public final class Registration {
+public final class Registration implements Artifact {
 	private String moduleName;
 	private String vendorName;
 	
@@ -46,15 +44,21 @@ public final class Registration {
 	
 	////////////////////////////////////////////////////////////////////////////////////////////////////
 	
+	@Override
+	public Document write() {
+		return toDocument().write(new Document(), true);
+	}
+	
+	@Override
 	public File getRelativeFile() {
-		return new File(String.format("%s/%s/registration.php", Strings.formatCamelCase(getVendorName()), Strings.formatCamelCase(getModuleName())));
+		return new File(String.format("%s/%s/registration.php", Names.formatCamelCase(getVendorName()), Names.formatCamelCase(getModuleName())));
 	}
 	
 	public PDocument toDocument() {
 		final String moduleName = getModuleName();
-		final String moduleNameCamelCase = Strings.formatCamelCase(moduleName);
+		final String moduleNameCamelCase = Names.formatCamelCase(moduleName);
 		final String vendorName = getVendorName();
-		final String vendorNameCamelCase = Strings.formatCamelCase(vendorName);
+		final String vendorNameCamelCase = Names.formatCamelCase(vendorName);
 		
 		final
 		PDocument pDocument = new PDocument();
@@ -97,8 +101,9 @@ public final class Registration {
 		return Objects.hash(this.moduleName, this.vendorName);
 	}
 	
+	@Override
 	public void generateTo(final File directory) {
-		doWriteToFile(new File(Objects.requireNonNull(directory, "directory == null"), getRelativeFile().getPath()), toDocument().write(new Document(), true).toString());
+		OutputWriter.write(new File(Objects.requireNonNull(directory, "directory == null"), getRelativeFile().getPath()), write());
 	}
 	
 	public void setModuleName(final String moduleName) {
@@ -108,16 +113,4 @@ public final class Registration {
 	public void setVendorName(final String vendorName) {
 		this.vendorName = Objects.requireNonNull(vendorName, "vendorName == null");
 	}
-	
-	////////////////////////////////////////////////////////////////////////////////////////////////////
-	
-	private static void doWriteToFile(final File file, final String string) {
-		file.getParentFile().mkdirs();
-		
-		try {
-			Files.write(file.toPath(), string.getBytes("UTF-8"), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
-		} catch(final IOException e) {
-			throw new UncheckedIOException(e);
-		}
-	}
 }
\ No newline at end of file
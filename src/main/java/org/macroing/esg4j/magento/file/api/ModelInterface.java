@@ -19,10 +19,6 @@
 package org.macroing.esg4j.magento.file.api;
 
 import java.io.File;
-import java.io.IOException;
-import java.io.UncheckedIOException;
-import java.nio.file.Files;
-import java.nio.file.StandardOpenOption;
 import java.util.List;
 import java.util.Objects;
 
@@ -31,11 +27,13 @@ import org.macroing.cel4j.php.model.PInterface;
 import org.macroing.cel4j.php.model.PMethod;
 import org.macroing.cel4j.php.model.PType;
 import org.macroing.cel4j.util.Document;
-import org.macroing.cel4j.util.Strings;
+import org.macroing.esg4j.generator.Artifact;
+import org.macroing.esg4j.generator.OutputWriter;
 import org.macroing.esg4j.magento.database.Column;
 import org.macroing.esg4j.magento.database.Table;
+import org.macroing.esg4j.util.Names;
 
-public final class ModelInterface {
+public final class ModelInterface implements Artifact {
 	private String moduleName;
 	private String vendorName;
 	private Table table;
@@ -54,8 +52,14 @@ public final class ModelInterface {
 	
 	////////////////////////////////////////////////////////////////////////////////////////////////////
 	
+	@Override
+	public Document write() {
+		return toDocument().write(new Document(), true);
+	}
+	
+	@Override
 	public File getRelativeFile() {
-		return new File(String.format("%s/%s/Api/%sInterface.php", Strings.formatCamelCase(getVendorName()), Strings.formatCamelCase(getModuleName()), Strings.formatCamelCase(getTable().getName())));
+		return new File(String.format("%s/%s/Api/%sInterface.php", Names.formatCamelCase(getVendorName()), Names.formatCamelCase(getModuleName()), Names.formatCamelCase(getTable().getName())));
 	}
 	
 	public PDocument toDocument() {
@@ -64,11 +68,11 @@ public final class ModelInterface {
 		final List<Column> columns = table.getColumns();
 		
 		final String modelName = table.getName();
-		final String modelNameCamelCase = Strings.formatCamelCase(modelName);
+		final String modelNameCamelCase = Names.formatCamelCase(modelName);
 		final String moduleName = getModuleName();
-		final String moduleNameCamelCase = Strings.formatCamelCase(moduleName);
+		final String moduleNameCamelCase = Names.formatCamelCase(moduleName);
 		final String vendorName = getVendorName();
-		final String vendorNameCamelCase = Strings.formatCamelCase(vendorName);
+		final String vendorNameCamelCase = Names.formatCamelCase(vendorName);
 		
 		final
 		PInterface pInterface = new PInterface();
@@ -78,7 +82,7 @@ public final class ModelInterface {
 			final Column column = columns.get(i);
 			
 			final String columnName = column.getName();
-			final String columnNameCamelCase = Strings.formatCamelCase(columnName);
+			final String columnNameCamelCase = Names.formatCamelCase(columnName);
 			final String columnDataType = column.getDataType().toPHP();
 			
 			final PType type = !columnDataType.isEmpty() && !columnNameCamelCase.equals("Id") ? PType.valueOf(columnDataType) : null;
@@ -105,6 +109,11 @@ public final class ModelInterface {
 		return this.vendorName;
 	}
 	
+	@Override
+	public String getTableName() {
+		return this.table.getName();
+	}
+	
 	@Override
 	public String toString() {
 		return String.format("new ModelInterface(\"%s\", \"%s\", %s)", this.moduleName, this.vendorName, this.table);
@@ -136,8 +145,9 @@ public final class ModelInterface {
 		return Objects.hash(this.moduleName, this.vendorName, this.table);
 	}
 	
+	@Override
 	public void generateTo(final File directory) {
-		doWriteToFile(new File(Objects.requireNonNull(directory, "directory == null"), getRelativeFile().getPath()), toDocument().write(new Document(), true).toString());
+		OutputWriter.write(new File(Objects.requireNonNull(directory, "directory == null"), getRelativeFile().getPath()), write());
 	}
 	
 	public void setModuleName(final String moduleName) {
@@ -151,16 +161,4 @@ public final class ModelInterface {
 	public void setVendorName(final String vendorName) {
 		this.vendorName = Objects.requireNonNull(vendorName, "vendorName == null");
 	}
-	
-	////////////////////////////////////////////////////////////////////////////////////////////////////
-	
-	private static void doWriteToFile(final File file, final String string) {
-		file.getParentFile().mkdirs();
-		
-		try {
-			Files.write(file.toPath(), string.getBytes("UTF-8"), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
-		} catch(final IOException e) {
-			throw new UncheckedIOException(e);
-		}
-	}
 }
\ No newline at end of file
@@ -19,10 +19,6 @@
 package org.macroing.esg4j.magento.file.api;
 
 import java.io.File;
-import java.io.IOException;
-import java.io.UncheckedIOException;
-import java.nio.file.Files;
-import java.nio.file.StandardOpenOption;
 import java.util.List;
 import java.util.Objects;
 
@@ -33,11 +29,13 @@ import org.macroing.cel4j.php.model.PParameterArgument;
 import org.macroing.cel4j.php.model.PReturnType;
 import org.macroing.cel4j.php.model.PType;
 import org.macroing.cel4j.util.Document;
-import org.macroing.cel4j.util.Strings;
+import org.macroing.esg4j.generator.Artifact;
+import org.macroing.esg4j.generator.OutputWriter;
 import org.macroing.esg4j.magento.database.Column;
 import org.macroing.esg4j.magento.database.Table;
+import org.macroing.esg4j.util.Names;
 
-public final class ModelRepositoryInterface {
+public final class ModelRepositoryInterface implements Artifact {
 	private String moduleName;
 	private String vendorName;
 	private Table table;
@@ -56,8 +54,14 @@ public final class ModelRepositoryInterface {
 	
 	////////////////////////////////////////////////////////////////////////////////////////////////////
 	
+	@Override
+	public Document write() {
+		return toDocument().write(new Document(), true);
+	}
+	
+	@Override
 	public File getRelativeFile() {
-		return new File(String.format("%s/%s/Api/%sRepositoryInterface.php", Strings.formatCamelCase(getVendorName()), Strings.formatCamelCase(getModuleName()), Strings.formatCamelCase(getTable().getName())));
+		return new File(String.format("%s/%s/Api/%sRepositoryInterface.php", Names.formatCamelCase(getVendorName()), Names.formatCamelCase(getModuleName()), Names.formatCamelCase(getTable().getName())));
 	}
 	
 	public PDocument toDocument() {
@@ -66,12 +70,12 @@ public final class ModelRepositoryInterface {
 		final List<Column> columns = table.getColumns();
 		
 		final String modelName = table.getName();
-		final String modelNameCamelCase = Strings.formatCamelCase(modelName);
-		final String modelNameCamelCaseModified = Strings.formatCamelCaseModified(modelName);
+		final String modelNameCamelCase = Names.formatCamelCase(modelName);
+		final String modelNameCamelCaseModified = Names.formatCamelCaseModified(modelName);
 		final String moduleName = getModuleName();
-		final String moduleNameCamelCase = Strings.formatCamelCase(moduleName);
+		final String moduleNameCamelCase = Names.formatCamelCase(moduleName);
 		final String vendorName = getVendorName();
-		final String vendorNameCamelCase = Strings.formatCamelCase(vendorName);
+		final String vendorNameCamelCase = Names.formatCamelCase(vendorName);
 		
 		final
 		PInterface pInterface = new PInterface();
@@ -81,8 +85,8 @@ public final class ModelRepositoryInterface {
 		
 		for(final Column column : columns) {
 			final String columnName = column.getName();
-			final String columnNameCamelCase = Strings.formatCamelCase(columnName);
-			final String columnNameCamelCaseModified = Strings.formatCamelCaseModified(columnName);
+			final String columnNameCamelCase = Names.formatCamelCase(columnName);
+			final String columnNameCamelCaseModified = Names.formatCamelCaseModified(columnName);
 			final String columnDataType = column.getDataType().toPHP();
 			
 			final boolean hasDataType = !columnDataType.isEmpty();
@@ -118,6 +122,11 @@ public final class ModelRepositoryInterface {
 		return this.vendorName;
 	}
 	
+	@Override
+	public String getTableName() {
+		return this.table.getName();
+	}
+	
 	@Override
 	public String toString() {
 		return String.format("new ModelRepositoryInterface(\"%s\", \"%s\", %s)", this.moduleName, this.vendorName, this.table);
@@ -149,8 +158,9 @@ public final class ModelRepositoryInterface {
 		return Objects.hash(this.moduleName, this.vendorName, this.table);
 	}
 	
+	@Override
 	public void generateTo(final File directory) {
-		doWriteToFile(new File(Objects.requireNonNull(directory, "directory == null"), getRelativeFile().getPath()), toDocument().write(new Document(), true).toString());
+		OutputWriter.write(new File(Objects.requireNonNull(directory, "directory == null"), getRelativeFile().getPath()), write());
 	}
 	
 	public void setModuleName(final String moduleName) {
@@ -164,16 +174,4 @@ public final class ModelRepositoryInterface {
 	public void setVendorName(final String vendorName) {
 		this.vendorName = Objects.requireNonNull(vendorName, "vendorName == null");
 	}
-	
-	////////////////////////////////////////////////////////////////////////////////////////////////////
-	
-	private static void doWriteToFile(final File file, final String string) {
-		file.getParentFile().mkdirs();
-		
-		try {
-			Files.write(file.toPath(), string.getBytes("UTF-8"), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
-		} catch(final IOException e) {
-			throw new UncheckedIOException(e);
-		}
-	}
 }
\ No newline at end of file
@@ -19,10 +19,6 @@
 package org.macroing.esg4j.magento.file.block;
 
 import java.io.File;
-import java.io.IOException;
-import java.io.UncheckedIOException;
-import java.nio.file.Files;
-import java.nio.file.StandardOpenOption;
 import java.util.Objects;
 
 import org.macroing.cel4j.php.model.PClass;
@@ -32,9 +28,11 @@ import org.macroing.cel4j.php.model.PParameterArgument;
 import org.macroing.cel4j.php.model.PType;
 import org.macroing.cel4j.php.model.PValue;
 import org.macroing.cel4j.util.Document;
-import org.macroing.cel4j.util.Strings;
+import org.macroing.esg4j.generator.Artifact;
+import org.macroing.esg4j.generator.OutputWriter;
+import org.macroing.esg4j.util.Names;
 
-public final class Block {
+public final class Block implements Artifact {
 	private String blockName;
 	private String moduleName;
 	private String vendorName;
@@ -53,17 +51,23 @@ public final class Block {
 	
 	////////////////////////////////////////////////////////////////////////////////////////////////////
 	
+	@Override
+	public Document write() {
+		return toDocument().write(new Document(), true);
+	}
+	
+	@Override
 	public File getRelativeFile() {
-		return new File(String.format("%s/%s/Block/%s.php", Strings.formatCamelCase(getVendorName()), Strings.formatCamelCase(getModuleName()), Strings.formatCamelCase(getBlockName())));
+		return new File(String.format("%s/%s/Block/%s.php", Names.formatCamelCase(getVendorName()), Names.formatCamelCase(getModuleName()), Names.formatCamelCase(getBlockName())));
 	}
 	
 	public PDocument toDocument() {
 		final String blockName = getBlockName();
-		final String blockNameCamelCase = Strings.formatCamelCase(blockName);
+		final String blockNameCamelCase = Names.formatCamelCase(blockName);
 		final String moduleName = getModuleName();
-		final String moduleNameCamelCase = Strings.formatCamelCase(moduleName);
+		final String moduleNameCamelCase = Names.formatCamelCase(moduleName);
 		final String vendorName = getVendorName();
-		final String vendorNameCamelCase = Strings.formatCamelCase(vendorName);
+		final String vendorNameCamelCase = Names.formatCamelCase(vendorName);
 		
 		final
 		PConstructor pConstructor = new PConstructor();
@@ -127,8 +131,9 @@ public final class Block {
 		return Objects.hash(this.blockName, this.moduleName, this.vendorName);
 	}
 	
+	@Override
 	public void generateTo(final File directory) {
-		doWriteToFile(new File(Objects.requireNonNull(directory, "directory == null"), getRelativeFile().getPath()), toDocument().write(new Document(), true).toString());
+		OutputWriter.write(new File(Objects.requireNonNull(directory, "directory == null"), getRelativeFile().getPath()), write());
 	}
 	
 	public void setBlockName(final String blockName) {
@@ -142,16 +147,4 @@ public final class Block {
 	public void setVendorName(final String vendorName) {
 		this.vendorName = Objects.requireNonNull(vendorName, "vendorName == null");
 	}
-	
-	////////////////////////////////////////////////////////////////////////////////////////////////////
-	
-	private static void doWriteToFile(final File file, final String string) {
-		file.getParentFile().mkdirs();
-		
-		try {
-			Files.write(file.toPath(), string.getBytes("UTF-8"), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
-		} catch(final IOException e) {
-			throw new UncheckedIOException(e);
-		}
-	}
 }
\ No newline at end of file
@@ -19,10 +19,6 @@
 package org.macroing.esg4j.magento.file.controller.adminhtml;
 
 import java.io.File;
-import java.io.IOException;
-import java.io.UncheckedIOException;
-import java.nio.file.Files;
-import java.nio.file.StandardOpenOption;
 import java.util.Objects;
 
 import org.macroing.cel4j.php.model.PClass;
@@ -33,9 +29,11 @@ import org.macroing.cel4j.php.model.PMethod;
 import org.macroing.cel4j.php.model.PParameterArgument;
 import org.macroing.cel4j.php.model.PType;
 import org.macroing.cel4j.util.Document;
-import org.macroing.cel4j.util.Strings;
+import org.macroing.esg4j.generator.Artifact;
+import org.macroing.esg4j.generator.OutputWriter;
+import org.macroing.esg4j.util.Names;
 
-public final class Controller {
+public final class Controller implements Artifact {
 	private String controllerAction;
 	private String controllerName;
 	private String moduleName;
@@ -58,8 +56,14 @@ public final class Controller {
 	
 	////////////////////////////////////////////////////////////////////////////////////////////////////
 	
+	@Override
+	public Document write() {
+		return toDocument().write(new Document(), true);
+	}
+	
+	@Override
 	public File getRelativeFile() {
-		return new File(String.format("%s/%s/Controller%s/%s/%s.php", Strings.formatCamelCase(getVendorName()), Strings.formatCamelCase(getModuleName()), "/Adminhtml", Strings.formatCamelCase(getControllerName()), Strings.formatCamelCase(getControllerAction())));
+		return new File(String.format("%s/%s/Controller%s/%s/%s.php", Names.formatCamelCase(getVendorName()), Names.formatCamelCase(getModuleName()), "/Adminhtml", Names.formatCamelCase(getControllerName()), Names.formatCamelCase(getControllerAction())));
 	}
 	
 	public PDocument toDocument() {
@@ -130,8 +134,9 @@ public final class Controller {
 		return Objects.hash(this.controllerAction, this.controllerName, this.moduleName, this.vendorName, this.type);
 	}
 	
+	@Override
 	public void generateTo(final File directory) {
-		doWriteToFile(new File(Objects.requireNonNull(directory, "directory == null"), getRelativeFile().getPath()), toDocument().write(new Document(), true).toString());
+		OutputWriter.write(new File(Objects.requireNonNull(directory, "directory == null"), getRelativeFile().getPath()), write());
 	}
 	
 	public void setControllerAction(final String controllerAction) {
@@ -174,13 +179,13 @@ public final class Controller {
 	
 	private PDocument doToDocumentForward() {
 		final String controllerAction = getControllerAction();
-		final String controllerActionCamelCase = Strings.formatCamelCase(controllerAction);
+		final String controllerActionCamelCase = Names.formatCamelCase(controllerAction);
 		final String controllerName = getControllerName();
-		final String controllerNameCamelCase = Strings.formatCamelCase(controllerName);
+		final String controllerNameCamelCase = Names.formatCamelCase(controllerName);
 		final String moduleName = getModuleName();
-		final String moduleNameCamelCase = Strings.formatCamelCase(moduleName);
+		final String moduleNameCamelCase = Names.formatCamelCase(moduleName);
 		final String vendorName = getVendorName();
-		final String vendorNameCamelCase = Strings.formatCamelCase(vendorName);
+		final String vendorNameCamelCase = Names.formatCamelCase(vendorName);
 		
 		final
 		PField pField = new PField();
@@ -226,13 +231,13 @@ public final class Controller {
 	
 	private PDocument doToDocumentJSON() {
 		final String controllerAction = getControllerAction();
-		final String controllerActionCamelCase = Strings.formatCamelCase(controllerAction);
+		final String controllerActionCamelCase = Names.formatCamelCase(controllerAction);
 		final String controllerName = getControllerName();
-		final String controllerNameCamelCase = Strings.formatCamelCase(controllerName);
+		final String controllerNameCamelCase = Names.formatCamelCase(controllerName);
 		final String moduleName = getModuleName();
-		final String moduleNameCamelCase = Strings.formatCamelCase(moduleName);
+		final String moduleNameCamelCase = Names.formatCamelCase(moduleName);
 		final String vendorName = getVendorName();
-		final String vendorNameCamelCase = Strings.formatCamelCase(vendorName);
+		final String vendorNameCamelCase = Names.formatCamelCase(vendorName);
 		
 		final
 		PField pField = new PField();
@@ -278,13 +283,13 @@ public final class Controller {
 	
 	private PDocument doToDocumentPage() {
 		final String controllerAction = getControllerAction();
-		final String controllerActionCamelCase = Strings.formatCamelCase(controllerAction);
+		final String controllerActionCamelCase = Names.formatCamelCase(controllerAction);
 		final String controllerName = getControllerName();
-		final String controllerNameCamelCase = Strings.formatCamelCase(controllerName);
+		final String controllerNameCamelCase = Names.formatCamelCase(controllerName);
 		final String moduleName = getModuleName();
-		final String moduleNameCamelCase = Strings.formatCamelCase(moduleName);
+		final String moduleNameCamelCase = Names.formatCamelCase(moduleName);
 		final String vendorName = getVendorName();
-		final String vendorNameCamelCase = Strings.formatCamelCase(vendorName);
+		final String vendorNameCamelCase = Names.formatCamelCase(vendorName);
 		
 		final
 		PField pField = new PField();
@@ -327,13 +332,13 @@ public final class Controller {
 	
 	private PDocument doToDocumentRaw() {
 		final String controllerAction = getControllerAction();
-		final String controllerActionCamelCase = Strings.formatCamelCase(controllerAction);
+		final String controllerActionCamelCase = Names.formatCamelCase(controllerAction);
 		final String controllerName = getControllerName();
-		final String controllerNameCamelCase = Strings.formatCamelCase(controllerName);
+		final String controllerNameCamelCase = Names.formatCamelCase(controllerName);
 		final String moduleName = getModuleName();
-		final String moduleNameCamelCase = Strings.formatCamelCase(moduleName);
+		final String moduleNameCamelCase = Names.formatCamelCase(moduleName);
 		final String vendorName = getVendorName();
-		final String vendorNameCamelCase = Strings.formatCamelCase(vendorName);
+		final String vendorNameCamelCase = Names.formatCamelCase(vendorName);
 		
 		final
 		PField pField = new PField();
@@ -380,13 +385,13 @@ public final class Controller {
 	
 	private PDocument doToDocumentRedirect() {
 		final String controllerAction = getControllerAction();
-		final String controllerActionCamelCase = Strings.formatCamelCase(controllerAction);
+		final String controllerActionCamelCase = Names.formatCamelCase(controllerAction);
 		final String controllerName = getControllerName();
-		final String controllerNameCamelCase = Strings.formatCamelCase(controllerName);
+		final String controllerNameCamelCase = Names.formatCamelCase(controllerName);
 		final String moduleName = getModuleName();
-		final String moduleNameCamelCase = Strings.formatCamelCase(moduleName);
+		final String moduleNameCamelCase = Names.formatCamelCase(moduleName);
 		final String vendorName = getVendorName();
-		final String vendorNameCamelCase = Strings.formatCamelCase(vendorName);
+		final String vendorNameCamelCase = Names.formatCamelCase(vendorName);
 		
 		final
 		PField pField = new PField();
@@ -429,16 +434,4 @@ public final class Controller {
 		
 		return pDocument;
 	}
-	
-	////////////////////////////////////////////////////////////////////////////////////////////////////
-	
-	private static void doWriteToFile(final File file, final String string) {
-		file.getParentFile().mkdirs();
-		
-		try {
-			Files.write(file.toPath(), string.getBytes("UTF-8"), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
-		} catch(final IOException e) {
-			throw new UncheckedIOException(e);
-		}
-	}
 }
\ No newline at end of file
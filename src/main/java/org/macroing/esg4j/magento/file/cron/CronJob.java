@@ -19,10 +19,6 @@
 package org.macroing.esg4j.magento.file.cron;
 
 import java.io.File;
-import java.io.IOException;
-import java.io.UncheckedIOException;
-import java.nio.file.Files;
-import java.nio.file.StandardOpenOption;
 import java.util.Objects;
 
 import org.macroing.cel4j.php.model.PClass;
@@ -30,9 +26,11 @@ import org.macroing.cel4j.php.model.PConstructor;
 import org.macroing.cel4j.php.model.PDocument;
 import org.macroing.cel4j.php.model.PMethod;
 import org.macroing.cel4j.util.Document;
-import org.macroing.cel4j.util.Strings;
+import org.macroing.esg4j.generator.Artifact;
+import org.macroing.esg4j.generator.OutputWriter;
+import org.macroing.esg4j.util.Names;
 
-public final class CronJob {
+public final class CronJob implements Artifact {
 	private String cronJobName;
 	private String moduleName;
 	private String vendorName;
@@ -51,17 +49,23 @@ public final class CronJob {
 	
 	////////////////////////////////////////////////////////////////////////////////////////////////////
 	
+	@Override
+	public Document write() {
+		return toDocument().write(new Document(), true);
+	}
+	
+	@Override
 	public File getRelativeFile() {
-		return new File(String.format("%s/%s/Cron/%s.php", Strings.formatCamelCase(getVendorName()), Strings.formatCamelCase(getModuleName()), Strings.formatCamelCase(getCronJobName())));
+		return new File(String.format("%s/%s/Cron/%s.php", Names.formatCamelCase(getVendorName()), Names.formatCamelCase(getModuleName()), Names.formatCamelCase(getCronJobName())));
 	}
 	
 	public PDocument toDocument() {
 		final String cronJobName = getCronJobName();
-		final String cronJobNameCamelCase = Strings.formatCamelCase(cronJobName);
+		final String cronJobNameCamelCase = Names.formatCamelCase(cronJobName);
 		final String moduleName = getModuleName();
-		final String moduleNameCamelCase = Strings.formatCamelCase(moduleName);
+		final String moduleNameCamelCase = Names.formatCamelCase(moduleName);
 		final String vendorName = getVendorName();
-		final String vendorNameCamelCase = Strings.formatCamelCase(vendorName);
+		final String vendorNameCamelCase = Names.formatCamelCase(vendorName);
 		
 		final
 		PConstructor pConstructor = new PConstructor();
@@ -132,8 +136,9 @@ public final class CronJob {
 		return Objects.hash(this.cronJobName, this.moduleName, this.vendorName);
 	}
 	
+	@Override
 	public void generateTo(final File directory) {
-		doWriteToFile(new File(Objects.requireNonNull(directory, "directory == null"), getRelativeFile().getPath()), toDocument().write(new Document(), true).toString());
+		OutputWriter.write(new File(Objects.requireNonNull(directory, "directory == null"), getRelativeFile().getPath()), write());
 	}
 	
 	public void setCronJobName(final String cronJobName) {
@@ -147,16 +152,4 @@ public final class CronJob {
 	public void setVendorName(final String vendorName) {
 		this.vendorName = Objects.requireNonNull(vendorName, "vendorName == null");
 	}
-	
-	////////////////////////////////////////////////////////////////////////////////////////////////////
-	
-	private static void doWriteToFile(final File file, final String string) {
-		file.getParentFile().mkdirs();
-		
-		try {
-			Files.write(file.toPath(), string.getBytes("UTF-8"), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
-		} catch(final IOException e) {
-			throw new UncheckedIOException(e);
-		}
-	}
 }
\ No newline at end of file
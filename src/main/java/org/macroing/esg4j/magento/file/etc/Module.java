@@ -19,16 +19,17 @@
 package org.macroing.esg4j.magento.file.etc;
 
 import java.io.File;
-import java.io.IOException;
-import java.io.UncheckedIOException;
-import java.nio.file.Files;
-import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 
 import org.macroing.cel4j.util.Document;
-import org.macroing.cel4j.util.Strings;
+import org.macroing.esg4j.generator.Artifact;
+import org.macroing.esg4j.generator.OutputWriter;
+import org.macroing.esg4j.util.Names;
 
-public final class Module {
+public final class Module implements Artifact {
+	private final List<String> sequence;
 	private String moduleName;
 	private String moduleVersion;
 	private String vendorName;
@@ -40,6 +41,7 @@ public final class Module {
 	}
 	
 	public Module(final String moduleName, final String moduleVersion, final String vendorName) {
+		this.sequence = new ArrayList<>();
 		this.moduleName = Objects.requireNonNull(moduleName, "moduleName == null");
 		this.moduleVersion = Objects.requireNonNull(moduleVersion, "moduleVersion == null");
 		this.vendorName = Objects.requireNonNull(vendorName, "vendorName == null");
@@ -49,10 +51,11 @@ public final class Module {
 	
 	public Document toDocument() {
 		final String moduleName = getModuleName();
-		final String moduleNameCamelCase = Strings.formatCamelCase(moduleName);
+		final String moduleNameCamelCase = Names.formatCamelCase(moduleName);
 		final String moduleVersion = getModuleVersion();
+		final List<String> sequence = getSequence();
 		final String vendorName = getVendorName();
-		final String vendorNameCamelCase = Strings.formatCamelCase(vendorName);
+		final String vendorNameCamelCase = Names.formatCamelCase(vendorName);
 		
 		final
 		Document document = new Document();
@@ -60,6 +63,21 @@ public final class Module {
 		document.line("<config xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\" xsi:noNamespaceSchemaLocation=\"urn:magento:framework:Module/etc/module.xsd\">");
 		document.indent();
 		document.linef("<module name=\"%s_%s\" setup_version=\"%s\">", vendorNameCamelCase, moduleNameCamelCase, moduleVersion);
+		
+		if(sequence.size() > 0) {
+			document.indent();
+			document.line("<sequence>");
+			document.indent();
+			
+			for(final String moduleNameSequence : sequence) {
+				document.linef("<module name=\"%s\"/>", moduleNameSequence);
+			}
+			
+			document.outdent();
+			document.line("</sequence>");
+			document.outdent();
+		}
+		
 		document.line("</module>");
 		document.outdent();
 		document.line("</config>");
@@ -67,8 +85,18 @@ public final class Module {
 		return document;
 	}
 	
+	@Override
+	public Document write() {
+		return toDocument();
+	}
+	
+	@Override
 	public File getRelativeFile() {
-		return new File(String.format("%s/%s/etc/module.xml", Strings.formatCamelCase(getVendorName()), Strings.formatCamelCase(getModuleName())));
+		return new File(String.format("%s/%s/etc/module.xml", Names.formatCamelCase(getVendorName()), Names.formatCamelCase(getModuleName())));
+	}
+	
+	public List<String> getSequence() {
+		return new ArrayList<>(this.sequence);
 	}
 	
 	public String getModuleName() {
@@ -94,6 +122,8 @@ public final class Module {
 			return true;
 		} else if(!(object instanceof Module)) {
 			return false;
+		} else if(!Objects.equals(this.sequence, Module.class.cast(object).sequence)) {
+			return false;
 		} else if(!Objects.equals(this.moduleName, Module.class.cast(object).moduleName)) {
 			return false;
 		} else if(!Objects.equals(this.moduleVersion, Module.class.cast(object).moduleVersion)) {
@@ -107,11 +137,20 @@ public final class Module {
 	
 	@Override
 	public int hashCode() {
-		return Objects.hash(this.moduleName, this.moduleVersion, this.vendorName);
+		return Objects.hash(this.sequence, this.moduleName, this.moduleVersion, this.vendorName);
 	}
 	
+	public void addSequence(final String moduleName) {
+		this.sequence.add(Objects.requireNonNull(moduleName, "moduleName == null"));
+	}
+	
+	@Override
 	public void generateTo(final File directory) {
-		doWriteToFile(new File(Objects.requireNonNull(directory, "directory == null"), getRelativeFile().getPath()), toDocument().toString());
+		OutputWriter.write(new File(Objects.requireNonNull(directory, "directory == null"), getRelativeFile().getPath()), write());
+	}
+	
+	public void removeSequence(final String moduleName) {
+		this.sequence.remove(Objects.requireNonNull(moduleName, "moduleName == null"));
 	}
 	
 	public void setModuleName(final String moduleName) {
@@ -125,16 +164,4 @@ public final class Module {
 	public void setVendorName(final String vendorName) {
 		this.vendorName = Objects.requireNonNull(vendorName, "vendorName == null");
 	}
-	
-	////////////////////////////////////////////////////////////////////////////////////////////////////
-	
-	private static void doWriteToFile(final File file, final String string) {
-		file.getParentFile().mkdirs();
-		
-		try {
-			Files.write(file.toPath(), string.getBytes("UTF-8"), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
-		} catch(final IOException e) {
-			throw new UncheckedIOException(e);
-		}
-	}
 }
\ No newline at end of file
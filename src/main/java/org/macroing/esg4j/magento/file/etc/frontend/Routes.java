@@ -19,16 +19,14 @@
 package org.macroing.esg4j.magento.file.etc.frontend;
 
 import java.io.File;
-import java.io.IOException;
-import java.io.UncheckedIOException;
-import java.nio.file.Files;
-import java.nio.file.StandardOpenOption;
 import java.util.Objects;
 
 import org.macroing.cel4j.util.Document;
-import org.macroing.cel4j.util.Strings;
+import org.macroing.esg4j.generator.Artifact;
+import org.macroing.esg4j.generator.OutputWriter;
+import org.macroing.esg4j.util.Names;
 
-public class Routes {
+public class Routes implements Artifact {
 	private String moduleName;
 	private String vendorName;
 	
@@ -47,10 +45,10 @@ public class Routes {
 	
 	public Document toDocument() {
 		final String moduleName = getModuleName();
-		final String moduleNameCamelCase = Strings.formatCamelCase(moduleName);
-		final String moduleNameUnseparatedLowerCase = Strings.formatUnseparatedLowerCase(moduleName);
+		final String moduleNameCamelCase = Names.formatCamelCase(moduleName);
+		final String moduleNameUnseparatedLowerCase = Names.formatUnseparatedLowerCase(moduleName);
 		final String vendorName = getVendorName();
-		final String vendorNameCamelCase = Strings.formatCamelCase(vendorName);
+		final String vendorNameCamelCase = Names.formatCamelCase(vendorName);
 		
 		final
 		Document document = new Document();
@@ -72,8 +70,14 @@ public class Routes {
 		return document;
 	}
 	
+	@Override
+	public Document write() {
+		return toDocument();
+	}
+	
+	@Override
 	public File getRelativeFile() {
-		return new File(String.format("%s/%s/etc/frontend/routes.xml", Strings.formatCamelCase(getVendorName()), Strings.formatCamelCase(getModuleName())));
+		return new File(String.format("%s/%s/etc/frontend/routes.xml", Names.formatCamelCase(getVendorName()), Names.formatCamelCase(getModuleName())));
 	}
 	
 	public String getModuleName() {
@@ -109,8 +113,9 @@ public class Routes {
 		return Objects.hash(this.moduleName, this.vendorName);
 	}
 	
+	@Override
 	public void generateTo(final File directory) {
-		doWriteToFile(new File(Objects.requireNonNull(directory, "directory == null"), getRelativeFile().getPath()), toDocument().toString());
+		OutputWriter.write(new File(Objects.requireNonNull(directory, "directory == null"), getRelativeFile().getPath()), write());
 	}
 	
 	public void setModuleName(final String moduleName) {
@@ -120,16 +125,4 @@ public class Routes {
 	public void setVendorName(final String vendorName) {
 		this.vendorName = Objects.requireNonNull(vendorName, "vendorName == null");
 	}
-	
-	////////////////////////////////////////////////////////////////////////////////////////////////////
-	
-	private static void doWriteToFile(final File file, final String string) {
-		file.getParentFile().mkdirs();
-		
-		try {
-			Files.write(file.toPath(), string.getBytes("UTF-8"), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
-		} catch(final IOException e) {
-			throw new UncheckedIOException(e);
-		}
-	}
 }
\ No newline at end of file
@@ -19,10 +19,6 @@
 package org.macroing.esg4j.magento.file.model;
 
 import java.io.File;
-import java.io.IOException;
-import java.io.UncheckedIOException;
-import java.nio.file.Files;
-import java.nio.file.StandardOpenOption;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
@@ -37,11 +33,13 @@ import org.macroing.cel4j.php.model.PReturnType;
 import org.macroing.cel4j.php.model.PType;
 import org.macroing.cel4j.php.model.PValue;
 import org.macroing.cel4j.util.Document;
-import org.macroing.cel4j.util.Strings;
+import org.macroing.esg4j.generator.Artifact;
+import org.macroing.esg4j.generator.OutputWriter;
 import org.macroing.esg4j.magento.database.Column;
 import org.macroing.esg4j.magento.database.Table;
+import org.macroing.esg4j.util.Names;
 
-public final class Model {
+public final class Model implements Artifact {
 	private String moduleName;
 	private String vendorName;
 	private Table table;
@@ -60,8 +58,14 @@ public final class Model {
 	
 	////////////////////////////////////////////////////////////////////////////////////////////////////
 	
+	@Override
+	public Document write() {
+		return toDocument().write(new Document(), true);
+	}
+	
+	@Override
 	public File getRelativeFile() {
-		return new File(String.format("%s/%s/Model/%s.php", Strings.formatCamelCase(getVendorName()), Strings.formatCamelCase(getModuleName()), Strings.formatCamelCase(getTable().getName())));
+		return new File(String.format("%s/%s/Model/%s.php", Names.formatCamelCase(getVendorName()), Names.formatCamelCase(getModuleName()), Names.formatCamelCase(getTable().getName())));
 	}
 	
 	public PDocument toDocument() {
@@ -70,14 +74,14 @@ public final class Model {
 		final List<Column> columns = table.getColumns();
 		
 		final String modelName = table.getName();
-		final String modelNameCamelCase = Strings.formatCamelCase(modelName);
-		final String modelNameUnseparatedLowerCase = Strings.formatUnseparatedLowerCase(modelName);
+		final String modelNameCamelCase = Names.formatCamelCase(modelName);
+		final String modelNameUnseparatedLowerCase = Names.formatUnseparatedLowerCase(modelName);
 		final String moduleName = getModuleName();
-		final String moduleNameCamelCase = Strings.formatCamelCase(moduleName);
-		final String moduleNameUnseparatedLowerCase = Strings.formatUnseparatedLowerCase(moduleName);
+		final String moduleNameCamelCase = Names.formatCamelCase(moduleName);
+		final String moduleNameUnseparatedLowerCase = Names.formatUnseparatedLowerCase(moduleName);
 		final String vendorName = getVendorName();
-		final String vendorNameCamelCase = Strings.formatCamelCase(vendorName);
-		final String vendorNameUnseparatedLowerCase = Strings.formatUnseparatedLowerCase(vendorName);
+		final String vendorNameCamelCase = Names.formatCamelCase(vendorName);
+		final String vendorNameUnseparatedLowerCase = Names.formatUnseparatedLowerCase(vendorName);
 		
 		final
 		PMethod pMethodConstruct = new PMethod();
@@ -102,10 +106,10 @@ public final class Model {
 		
 		for(final Column column : columns) {
 			final String columnName = column.getName();
-			final String columnNameCamelCase = Strings.formatCamelCase(columnName);
-			final String columnNameCamelCaseModified = Strings.formatCamelCaseModified(columnName);
-			final String columnNameUnderscoreSeparatedLowerCase = Strings.formatUnderscoreSeparatedLowerCase(columnName);
-			final String columnNameUnderscoreSeparatedUpperCase = Strings.formatUnderscoreSeparatedUpperCase(columnName);
+			final String columnNameCamelCase = Names.formatCamelCase(columnName);
+			final String columnNameCamelCaseModified = Names.formatCamelCaseModified(columnName);
+			final String columnNameUnderscoreSeparatedLowerCase = Names.formatUnderscoreSeparatedLowerCase(columnName);
+			final String columnNameUnderscoreSeparatedUpperCase = Names.formatUnderscoreSeparatedUpperCase(columnName);
 			final String columnDataType = column.getDataType().toPHP();
 			
 			final PType pType = !columnDataType.isEmpty() && !columnNameCamelCase.equals("Id") ? PType.valueOf(columnDataType) : null;
@@ -125,7 +129,7 @@ public final class Model {
 				if(pType != null) {
 					doConvertToTypes.add(pType.getName());
 					
-					pMethodGet.getBlock().addLine(String.format("return self::doConvertTo%s($this->_getData(self::KEY_%s));", Strings.formatCamelCase(pType.getName()), columnNameUnderscoreSeparatedUpperCase));
+					pMethodGet.getBlock().addLine(String.format("return self::doConvertTo%s($this->_getData(self::KEY_%s));", Names.formatCamelCase(pType.getName()), columnNameUnderscoreSeparatedUpperCase));
 				} else {
 					pMethodGet.getBlock().addLine(String.format("return $this->_getData(self::KEY_%s);", columnNameUnderscoreSeparatedUpperCase));
 				}
@@ -137,7 +141,7 @@ public final class Model {
 		
 		for(final String doConvertToType : doConvertToTypes) {
 			final String type = doConvertToType;
-			final String typeCamelCase = Strings.formatCamelCase(type);
+			final String typeCamelCase = Names.formatCamelCase(type);
 			
 			final
 			PMethod pMethodDoConvertToType = new PMethod();
@@ -179,6 +183,11 @@ public final class Model {
 		return this.vendorName;
 	}
 	
+	@Override
+	public String getTableName() {
+		return this.table.getName();
+	}
+	
 	@Override
 	public String toString() {
 		return String.format("new ModelRepository(\"%s\", \"%s\", %s)", this.moduleName, this.vendorName, this.table);
@@ -210,8 +219,9 @@ public final class Model {
 		return Objects.hash(this.moduleName, this.vendorName, this.table);
 	}
 	
+	@Override
 	public void generateTo(final File directory) {
-		doWriteToFile(new File(Objects.requireNonNull(directory, "directory == null"), getRelativeFile().getPath()), toDocument().write(new Document(), true).toString());
+		OutputWriter.write(new File(Objects.requireNonNull(directory, "directory == null"), getRelativeFile().getPath()), write());
 	}
 	
 	public void setModuleName(final String moduleName) {
@@ -225,16 +235,4 @@ public final class Model {
 	public void setVendorName(final String vendorName) {
 		this.vendorName = Objects.requireNonNull(vendorName, "vendorName == null");
 	}
-	
-	////////////////////////////////////////////////////////////////////////////////////////////////////
-	
-	private static void doWriteToFile(final File file, final String string) {
-		file.getParentFile().mkdirs();
-		
-		try {
-			Files.write(file.toPath(), string.getBytes("UTF-8"), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
-		} catch(final IOException e) {
-			throw new UncheckedIOException(e);
-		}
-	}
 }
\ No newline at end of file
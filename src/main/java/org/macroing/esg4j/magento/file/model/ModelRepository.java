@@ -19,10 +19,6 @@
 package org.macroing.esg4j.magento.file.model;
 
 import java.io.File;
-import java.io.IOException;
-import java.io.UncheckedIOException;
-import java.nio.file.Files;
-import java.nio.file.StandardOpenOption;
 import java.util.List;
 import java.util.Objects;
 
@@ -35,11 +31,13 @@ import org.macroing.cel4j.php.model.PParameterArgument;
 import org.macroing.cel4j.php.model.PReturnType;
 import org.macroing.cel4j.php.model.PType;
 import org.macroing.cel4j.util.Document;
-import org.macroing.cel4j.util.Strings;
+import org.macroing.esg4j.generator.Artifact;
+import org.macroing.esg4j.generator.OutputWriter;
 import org.macroing.esg4j.magento.database.Column;
 import org.macroing.esg4j.magento.database.Table;
+import org.macroing.esg4j.util.Names;
 
-public final class ModelRepository {
+public final class ModelRepository implements Artifact {
 	private String moduleName;
 	private String vendorName;
 	private Table table;
@@ -58,8 +56,14 @@ public final class ModelRepository {
 	
 	////////////////////////////////////////////////////////////////////////////////////////////////////
 	
+	@Override
+	public Document write() {
+		return toDocument().write(new Document(), true);
+	}
+	
+	@Override
 	public File getRelativeFile() {
-		return new File(String.format("%s/%s/Model/%sRepository.php", Strings.formatCamelCase(getVendorName()), Strings.formatCamelCase(getModuleName()), Strings.formatCamelCase(getTable().getName())));
+		return new File(String.format("%s/%s/Model/%sRepository.php", Names.formatCamelCase(getVendorName()), Names.formatCamelCase(getModuleName()), Names.formatCamelCase(getTable().getName())));
 	}
 	
 	public PDocument toDocument() {
@@ -69,12 +73,12 @@ public final class ModelRepository {
 		final List<Column> columnsPrimaryKey = table.getColumnsPrimaryKey();
 		
 		final String modelName = table.getName();
-		final String modelNameCamelCase = Strings.formatCamelCase(modelName);
-		final String modelNameCamelCaseModified = Strings.formatCamelCaseModified(modelName);
+		final String modelNameCamelCase = Names.formatCamelCase(modelName);
+		final String modelNameCamelCaseModified = Names.formatCamelCaseModified(modelName);
 		final String moduleName = getModuleName();
-		final String moduleNameCamelCase = Strings.formatCamelCase(moduleName);
+		final String moduleNameCamelCase = Names.formatCamelCase(moduleName);
 		final String vendorName = getVendorName();
-		final String vendorNameCamelCase = Strings.formatCamelCase(vendorName);
+		final String vendorNameCamelCase = Names.formatCamelCase(vendorName);
 		
 		if(columnsPrimaryKey.size() != 1) {
 			throw new IllegalArgumentException(String.format("Table \"%s\" does not have exactly one column with a primary key.", table.getName()));
@@ -83,8 +87,8 @@ public final class ModelRepository {
 		final Column columnPrimaryKey = columnsPrimaryKey.get(0);
 		
 		final String columnPrimaryKeyName = columnPrimaryKey.getName();
-		final String columnPrimaryKeyNameCamelCase = Strings.formatCamelCase(columnPrimaryKeyName);
-		final String columnPrimaryKeyNameCamelCaseModified = Strings.formatCamelCaseModified(columnPrimaryKeyName);
+		final String columnPrimaryKeyNameCamelCase = Names.formatCamelCase(columnPrimaryKeyName);
+		final String columnPrimaryKeyNameCamelCaseModified = Names.formatCamelCaseModified(columnPrimaryKeyName);
 		
 		final
 		PField pFieldModelFactory = new PField();
@@ -156,8 +160,8 @@ public final class ModelRepository {
 		
 		for(final Column column : columns) {
 			final String columnName = column.getName();
-			final String columnNameCamelCase = Strings.formatCamelCase(columnName);
-			final String columnNameCamelCaseModified = Strings.formatCamelCaseModified(columnName);
+			final String columnNameCamelCase = Names.formatCamelCase(columnName);
+			final String columnNameCamelCaseModified = Names.formatCamelCaseModified(columnName);
 			final String columnDataType = column.getDataType().toPHP();
 			
 			final boolean hasDataType = !columnDataType.isEmpty();
@@ -220,6 +224,11 @@ public final class ModelRepository {
 		return this.vendorName;
 	}
 	
+	@Override
+	public String getTableName() {
+		return this.table.getName();
+	}
+	
 	@Override
 	public String toString() {
 		return String.format("new ModelRepository(\"%s\", \"%s\", %s)", this.moduleName, this.vendorName, this.table);
@@ -251,8 +260,9 @@ public final class ModelRepository {
 		return Objects.hash(this.moduleName, this.vendorName, this.table);
 	}
 	
+	@Override
 	public void generateTo(final File directory) {
-		doWriteToFile(new File(Objects.requireNonNull(directory, "directory == null"), getRelativeFile().getPath()), toDocument().write(new Document(), true).toString());
+		OutputWriter.write(new File(Objects.requireNonNull(directory, "directory == null"), getRelativeFile().getPath()), write());
 	}
 	
 	public void setModuleName(final String moduleName) {
@@ -266,16 +276,4 @@ public final class ModelRepository {
 	public void setVendorName(final String vendorName) {
 		this.vendorName = Objects.requireNonNull(vendorName, "vendorName == null");
 	}
-	
-	////////////////////////////////////////////////////////////////////////////////////////////////////
-	
-	private static void doWriteToFile(final File file, final String string) {
-		file.getParentFile().mkdirs();
-		
-		try {
-			Files.write(file.toPath(), string.getBytes("UTF-8"), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
-		} catch(final IOException e) {
-			throw new UncheckedIOException(e);
-		}
-	}
 }
\ No newline at end of file
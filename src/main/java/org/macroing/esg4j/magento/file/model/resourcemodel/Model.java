@@ -19,10 +19,6 @@
 package org.macroing.esg4j.magento.file.model.resourcemodel;
 
 import java.io.File;
-import java.io.IOException;
-import java.io.UncheckedIOException;
-import java.nio.file.Files;
-import java.nio.file.StandardOpenOption;
 import java.util.List;
 import java.util.Objects;
 
@@ -33,11 +29,13 @@ import org.macroing.cel4j.php.model.PParameterArgument;
 import org.macroing.cel4j.php.model.PReturnType;
 import org.macroing.cel4j.php.model.PType;
 import org.macroing.cel4j.util.Document;
-import org.macroing.cel4j.util.Strings;
+import org.macroing.esg4j.generator.Artifact;
+import org.macroing.esg4j.generator.OutputWriter;
 import org.macroing.esg4j.magento.database.Column;
 import org.macroing.esg4j.magento.database.Table;
+import org.macroing.esg4j.util.Names;
 
-public final class Model {
+public final class Model implements Artifact {
 	private String moduleName;
 	private String vendorName;
 	private Table table;
@@ -56,8 +54,14 @@ public final class Model {
 	
 	////////////////////////////////////////////////////////////////////////////////////////////////////
 	
+	@Override
+	public Document write() {
+		return toDocument().write(new Document(), true);
+	}
+	
+	@Override
 	public File getRelativeFile() {
-		return new File(String.format("%s/%s/Model/ResourceModel/%s.php", Strings.formatCamelCase(getVendorName()), Strings.formatCamelCase(getModuleName()), Strings.formatCamelCase(getTable().getName())));
+		return new File(String.format("%s/%s/Model/ResourceModel/%s.php", Names.formatCamelCase(getVendorName()), Names.formatCamelCase(getModuleName()), Names.formatCamelCase(getTable().getName())));
 	}
 	
 	public PDocument toDocument() {
@@ -67,13 +71,13 @@ public final class Model {
 		final List<Column> columnsPrimaryKey = table.getColumnsPrimaryKey();
 		
 		final String modelName = table.getName();
-		final String modelNameCamelCase = Strings.formatCamelCase(modelName);
+		final String modelNameCamelCase = Names.formatCamelCase(modelName);
 		final String moduleName = getModuleName();
-		final String moduleNameCamelCase = Strings.formatCamelCase(moduleName);
-		final String moduleNameUnseparatedLowerCase = Strings.formatUnseparatedLowerCase(moduleName);
+		final String moduleNameCamelCase = Names.formatCamelCase(moduleName);
+		final String moduleNameUnseparatedLowerCase = Names.formatUnseparatedLowerCase(moduleName);
 		final String vendorName = getVendorName();
-		final String vendorNameCamelCase = Strings.formatCamelCase(vendorName);
-		final String vendorNameUnseparatedLowerCase = Strings.formatUnseparatedLowerCase(vendorName);
+		final String vendorNameCamelCase = Names.formatCamelCase(vendorName);
+		final String vendorNameUnseparatedLowerCase = Names.formatUnseparatedLowerCase(vendorName);
 		
 		if(columnsPrimaryKey.size() != 1) {
 			throw new IllegalArgumentException(String.format("Table \"%s\" does not have exactly one column with a primary key.", table.getName()));
@@ -82,9 +86,9 @@ public final class Model {
 		final Column columnPrimaryKey = columnsPrimaryKey.get(0);
 		
 		final String columnPrimaryKeyName = columnPrimaryKey.getName();
-		final String columnPrimaryKeyNameCamelCase = Strings.formatCamelCase(columnPrimaryKeyName);
-		final String columnPrimaryKeyNameCamelCaseModified = Strings.formatCamelCaseModified(columnPrimaryKeyName);
-		final String columnPrimaryKeyNameUnderscoreSeparatedLowerCase = Strings.formatUnderscoreSeparatedLowerCase(columnPrimaryKeyName);
+		final String columnPrimaryKeyNameCamelCase = Names.formatCamelCase(columnPrimaryKeyName);
+		final String columnPrimaryKeyNameCamelCaseModified = Names.formatCamelCaseModified(columnPrimaryKeyName);
+		final String columnPrimaryKeyNameUnderscoreSeparatedLowerCase = Names.formatUnderscoreSeparatedLowerCase(columnPrimaryKeyName);
 		
 		final
 		PMethod pMethodConstruct = new PMethod();
@@ -119,14 +123,14 @@ public final class Model {
 		pClass.addMethod(pMethodGetIds);
 		
 		for(final Column column : columns) {
-			if(column.equals(columnPrimaryKey)) {
+			if(column == columnPrimaryKey) {
 				continue;
 			}
 			
 			final String columnName = column.getName();
-			final String columnNameCamelCase = Strings.formatCamelCase(columnName);
-			final String columnNameCamelCaseModified = Strings.formatCamelCaseModified(columnName);
-			final String columnNameUnderscoreSeparatedLowerCase = Strings.formatUnderscoreSeparatedLowerCase(columnName);
+			final String columnNameCamelCase = Names.formatCamelCase(columnName);
+			final String columnNameCamelCaseModified = Names.formatCamelCaseModified(columnName);
+			final String columnNameUnderscoreSeparatedLowerCase = Names.formatUnderscoreSeparatedLowerCase(columnName);
 			
 			final String columnDataType = column.getDataType().toPHP();
 			
@@ -179,6 +183,11 @@ public final class Model {
 		return this.vendorName;
 	}
 	
+	@Override
+	public String getTableName() {
+		return this.table.getName();
+	}
+	
 	@Override
 	public String toString() {
 		return String.format("new ModelRepository(\"%s\", \"%s\", %s)", this.moduleName, this.vendorName, this.table);
@@ -210,8 +219,9 @@ public final class Model {
 		return Objects.hash(this.moduleName, this.vendorName, this.table);
 	}
 	
+	@Override
 	public void generateTo(final File directory) {
-		doWriteToFile(new File(Objects.requireNonNull(directory, "directory == null"), getRelativeFile().getPath()), toDocument().write(new Document(), true).toString());
+		OutputWriter.write(new File(Objects.requireNonNull(directory, "directory == null"), getRelativeFile().getPath()), write());
 	}
 	
 	public void setModuleName(final String moduleName) {
@@ -225,16 +235,4 @@ public final class Model {
 	public void setVendorName(final String vendorName) {
 		this.vendorName = Objects.requireNonNull(vendorName, "vendorName == null");
 	}
-	
-	////////////////////////////////////////////////////////////////////////////////////////////////////
-	
-	private static void doWriteToFile(final File file, final String string) {
-		file.getParentFile().mkdirs();
-		
-		try {
-			Files.write(file.toPath(), string.getBytes("UTF-8"), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
-		} catch(final IOException e) {
-			throw new UncheckedIOException(e);
-		}
-	}
 }
\ No newline at end of file
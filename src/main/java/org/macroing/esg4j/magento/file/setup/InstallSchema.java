@@ -21,8 +21,10 @@ package org.macroing.esg4j.magento.file.setup;
 import java.io.File;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
@@ -35,12 +37,21 @@ import org.macroing.cel4j.php.model.PReturnType;
 import org.macroing.cel4j.php.model.PType;
 import org.macroing.cel4j.php.model.PValue;
 import org.macroing.cel4j.util.Document;
-import org.macroing.cel4j.util.Strings;
+import org.macroing.esg4j.generator.Artifact;
+import org.macroing.esg4j.generator.OutputWriter;
 import org.macroing.esg4j.magento.database.Column;
 import org.macroing.esg4j.magento.database.Database;
 import org.macroing.esg4j.magento.database.Table;
+import org.macroing.esg4j.util.Names;
 
-public final class InstallSchema {
+public final class InstallSchema implements Artifact {
+	private static final String LINE_SEPARATOR = System.getProperty("line.separator");
+	private static final String SEPARATOR = "////////////////////////////////////////////////////////////////////////////////////////////////////";
+	private static final String[] SPACES = doCreateSpaces(64);
+	private static final String[] TABS = {"", "\t", "\t\t", "\t\t\t"};
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
 	private Database database;
 	private String moduleName;
 	private String vendorName;
@@ -63,8 +74,14 @@ public final class InstallSchema {
 		return this.database;
 	}
 	
+	@Override
+	public Document write() {
+		return toDocument().write(new Document(), true);
+	}
+	
+	@Override
 	public File getRelativeFile() {
-		return new File(String.format("%s/%s/Setup/InstallSchema.php", Strings.formatCamelCase(getVendorName()), Strings.formatCamelCase(getModuleName())));
+		return new File(String.format("%s/%s/Setup/InstallSchema.php", Names.formatCamelCase(getVendorName()), Names.formatCamelCase(getModuleName())));
 	}
 	
 	public PDocument toDocument() {
@@ -73,11 +90,11 @@ public final class InstallSchema {
 		final List<Table> tables = database.getTables();
 		
 		final String moduleName = getModuleName();
-		final String moduleNameCamelCase = Strings.formatCamelCase(moduleName);
-		final String moduleNameUnseparatedLowerCase = Strings.formatUnseparatedLowerCase(moduleName);
+		final String moduleNameCamelCase = Names.formatCamelCase(moduleName);
+		final String moduleNameUnseparatedLowerCase = Names.formatUnseparatedLowerCase(moduleName);
 		final String vendorName = getVendorName();
-		final String vendorNameCamelCase = Strings.formatCamelCase(vendorName);
-		final String vendorNameUnseparatedLowerCase = Strings.formatUnseparatedLowerCase(vendorName);
+		final String vendorNameCamelCase = Names.formatCamelCase(vendorName);
+		final String vendorNameUnseparatedLowerCase = Names.formatUnseparatedLowerCase(vendorName);
 		
 		final
 		PMethod pMethodInstall = new PMethod();
@@ -93,7 +110,7 @@ public final class InstallSchema {
 			final List<Column> columns = table.getColumns();
 			
 			final String tableName = table.getName();
-			final String tableNameUnderscoreSeparatedUpperCase = Strings.formatUnderscoreSeparatedUpperCase(tableName);
+			final String tableNameUnderscoreSeparatedUpperCase = Names.formatUnderscoreSeparatedUpperCase(tableName);
 			
 			pMethodInstall.getBlock().addLinef  ("	if(!$schemaSetup->tableExists(self::TABLE_%s)) {", tableNameUnderscoreSeparatedUpperCase);
 			pMethodInstall.getBlock().addComment("		Initialize Table:");
@@ -107,18 +124,29 @@ public final class InstallSchema {
 			for(final Column column : columns) {
 				final String columnComment = column.getComment();
 				final String columnName = column.getName();
-				final String columnNameUnderscoreSeparatedUpperCase = Strings.formatUnderscoreSeparatedUpperCase(columnName);
+				final String columnNameUnderscoreSeparatedUpperCase = Names.formatUnderscoreSeparatedUpperCase(columnName);
 				final String columnType = column.getDataType().toMagentoConstant();
 				
 				final int currentColumnNameLength = columnNameUnderscoreSeparatedUpperCase.length();
 				final int currentColumnDataTypeLength = columnType.length();
 				
-				final String spaces0 = doRepeat(" ", maximumColumnNameLength - currentColumnNameLength);
-				final String spaces1 = doRepeat(" ", maximumColumnDataTypeLength - currentColumnDataTypeLength);
+				final String spaces0 = doGetSpaces(maximumColumnNameLength - currentColumnNameLength);
+				final String spaces1 = doGetSpaces(maximumColumnDataTypeLength - currentColumnDataTypeLength);
 				
 				pMethodInstall.getBlock().addLinef("		$table->addColumn(self::TABLE_%s_COLUMN_%s,%s Table::%s,%s null, self::doCreateArray(true, false, true, true), '%s');", tableNameUnderscoreSeparatedUpperCase, columnNameUnderscoreSeparatedUpperCase, spaces0, columnType, spaces1, columnComment);
 			}
 			
+			if(doHasIndex(columns)) {
+				pMethodInstall.getBlock().addLine   ("		");
+				pMethodInstall.getBlock().addComment("		Add Indexes:");
+				
+				for(final Column column : columns) {
+					if(column.hasIndex()) {
+						pMethodInstall.getBlock().addLinef("		$table->addIndex($schemaSetup->getIdxName(self::TABLE_%s, [self::TABLE_%s_COLUMN_%s]), [self::TABLE_%s_COLUMN_%s]);", tableNameUnderscoreSeparatedUpperCase, tableNameUnderscoreSeparatedUpperCase, Names.formatUnderscoreSeparatedUpperCase(column.getName()), tableNameUnderscoreSeparatedUpperCase, Names.formatUnderscoreSeparatedUpperCase(column.getName()));
+					}
+				}
+			}
+			
 			pMethodInstall.getBlock().addLine   ("		");
 			pMethodInstall.getBlock().addComment("		Add Foreign Keys:");
 			pMethodInstall.getBlock().addLine   ("		");
@@ -167,8 +195,8 @@ public final class InstallSchema {
 			final List<Column> columns = table.getColumns();
 			
 			final String tableName = table.getName();
-			final String tableNameUnderscoreSeparatedLowerCase = Strings.formatUnderscoreSeparatedLowerCase(tableName);
-			final String tableNameUnderscoreSeparatedUpperCase = Strings.formatUnderscoreSeparatedUpperCase(tableName);
+			final String tableNameUnderscoreSeparatedLowerCase = Names.formatUnderscoreSeparatedLowerCase(tableName);
+			final String tableNameUnderscoreSeparatedUpperCase = Names.formatUnderscoreSeparatedUpperCase(tableName);
 			
 			final PConst pConstTableX = new PConst(String.format("TABLE_%s", tableNameUnderscoreSeparatedUpperCase), PValue.valueOf(String.format("%s_%s_%s", vendorNameUnseparatedLowerCase, moduleNameUnseparatedLowerCase, tableNameUnderscoreSeparatedLowerCase)));
 			final PConst pConstTableXComment = new PConst(String.format("TABLE_%s_COMMENT", tableNameUnderscoreSeparatedUpperCase), PValue.valueOf(table.getComment()));
@@ -178,8 +206,8 @@ public final class InstallSchema {
 			
 			for(final Column column : columns) {
 				final String columnName = column.getName();
-				final String columnNameUnderscoreSeparatedLowerCase = Strings.formatUnderscoreSeparatedLowerCase(columnName);
-				final String columnNameUnderscoreSeparatedUpperCase = Strings.formatUnderscoreSeparatedUpperCase(columnName);
+				final String columnNameUnderscoreSeparatedLowerCase = Names.formatUnderscoreSeparatedLowerCase(columnName);
+				final String columnNameUnderscoreSeparatedUpperCase = Names.formatUnderscoreSeparatedUpperCase(columnName);
 				
 				final PConst pConstTableXColumnY = new PConst(String.format("TABLE_%s_COLUMN_%s", tableNameUnderscoreSeparatedUpperCase, columnNameUnderscoreSeparatedUpperCase), PValue.valueOf(columnNameUnderscoreSeparatedLowerCase));
 				
@@ -206,6 +234,21 @@ public final class InstallSchema {
 		return this.moduleName;
 	}
 	
+	@Override
+	public String render() {
+		int capacity = 4096;
+		
+		for(final Table table : this.database.getTables()) {
+			capacity += 1024 + 256 * table.getColumns().size();
+		}
+		
+		final StringBuilder stringBuilder = new StringBuilder(capacity);
+		
+		writeTo(stringBuilder);
+		
+		return stringBuilder.toString();
+	}
+	
 	public String getVendorName() {
 		return this.vendorName;
 	}
@@ -232,13 +275,27 @@ public final class InstallSchema {
 		}
 	}
 	
+	@Override
+	public boolean isStreaming() {
+		return true;
+	}
+	
 	@Override
 	public int hashCode() {
 		return Objects.hash(this.database, this.moduleName, this.vendorName);
 	}
 	
+	@Override
 	public void generateTo(final File directory) {
-		doWriteToFile(new File(Objects.requireNonNull(directory, "directory == null"), getRelativeFile().getPath()), toDocument().write(new Document(), true).toString());
+		final File file = new File(Objects.requireNonNull(directory, "directory == null"), getRelativeFile().getPath());
+		
+		OutputWriter.createDirectory(file.getAbsoluteFile().getParentFile());
+		
+		try(final Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+			writeTo(writer);
+		} catch(final IOException e) {
+			throw new UncheckedIOException(e);
+		}
 	}
 	
 	public void setDatabase(final Database database) {
@@ -253,18 +310,195 @@ public final class InstallSchema {
 		this.vendorName = Objects.requireNonNull(vendorName, "vendorName == null");
 	}
 	
+//	Writes the same source code as toDocument() one line at a time, without building the PDocument:
+	@Override
+	public void writeTo(final Appendable appendable) {
+		Objects.requireNonNull(appendable, "appendable == null");
+		
+		try {
+			doWriteTo(appendable);
+		} catch(final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
 	////////////////////////////////////////////////////////////////////////////////////////////////////
 	
-	private static String doRepeat(final String string, final int iterations) {
-		final StringBuilder stringBuilder = new StringBuilder();
+	private void doWriteTo(final Appendable appendable) throws IOException {
+		final List<Table> tables = getDatabase().getTables();
 		
-		for(int i = 0; i < iterations; i++) {
-			stringBuilder.append(string);
+		final String moduleName = getModuleName();
+		final String moduleNameCamelCase = Names.formatCamelCase(moduleName);
+		final String moduleNameUnseparatedLowerCase = Names.formatUnseparatedLowerCase(moduleName);
+		final String vendorName = getVendorName();
+		final String vendorNameCamelCase = Names.formatCamelCase(vendorName);
+		final String vendorNameUnseparatedLowerCase = Names.formatUnseparatedLowerCase(vendorName);
+		
+		final List<String[]> constants = new ArrayList<>();
+		
+		for(final Table table : tables) {
+			final String tableName = table.getName();
+			final String tableNameUnderscoreSeparatedLowerCase = Names.formatUnderscoreSeparatedLowerCase(tableName);
+			final String tableNameUnderscoreSeparatedUpperCase = Names.formatUnderscoreSeparatedUpperCase(tableName);
+			
+			constants.add(new String[] {String.format("TABLE_%s", tableNameUnderscoreSeparatedUpperCase), String.format("%s_%s_%s", vendorNameUnseparatedLowerCase, moduleNameUnseparatedLowerCase, tableNameUnderscoreSeparatedLowerCase)});
+			constants.add(new String[] {String.format("TABLE_%s_COMMENT", tableNameUnderscoreSeparatedUpperCase), table.getComment()});
+			
+			for(final Column column : table.getColumns()) {
+				final String columnName = column.getName();
+				
+				constants.add(new String[] {String.format("TABLE_%s_COLUMN_%s", tableNameUnderscoreSeparatedUpperCase, Names.formatUnderscoreSeparatedUpperCase(columnName)), Names.formatUnderscoreSeparatedLowerCase(columnName)});
+			}
+		}
+		
+//		PClass keeps the first constant added with a given name and sorts them by name. A stable sort followed by skipping repeated names gives the same result:
+		constants.sort((a, b) -> a[0].compareTo(b[0]));
+		
+		int maximumConstantNameLength = 0;
+		
+		for(final String[] constant : constants) {
+			maximumConstantNameLength = Math.max(maximumConstantNameLength, constant[0].length());
+		}
+		
+		appendable.append("<?php");
+		
+		doLine(appendable, 1, String.format("namespace %s;", PDocument.toNamespace(vendorNameCamelCase, moduleNameCamelCase, "Setup")));
+		doLine(appendable, 1, "");
+		doLine(appendable, 1, "use Exception;");
+		doLine(appendable, 1, "");
+		doLine(appendable, 1, "use Magento\\Framework\\DB\\Ddl\\Table;");
+		doLine(appendable, 1, "use Magento\\Framework\\Setup\\InstallSchemaInterface;");
+		doLine(appendable, 1, "use Magento\\Framework\\Setup\\ModuleContextInterface;");
+		doLine(appendable, 1, "use Magento\\Framework\\Setup\\SchemaSetupInterface;");
+		doLine(appendable, 1, "");
+		doLine(appendable, 1, "class InstallSchema implements InstallSchemaInterface {");
+		
+		for(int i = 0; i < constants.size(); i++) {
+			final String[] constant = constants.get(i);
+			
+			if(i == 0 || !constant[0].equals(constants.get(i - 1)[0])) {
+				doLine(appendable, 2, String.format("public const %s%s = '%s';", constant[0], doGetSpaces(maximumConstantNameLength - constant[0].length()), constant[1]));
+			}
+		}
+		
+		if(constants.size() > 0) {
+			doLine(appendable, 2, "");
+			doLine(appendable, 2, SEPARATOR);
+			doLine(appendable, 2, "");
+		}
+		
+		doLine(appendable, 2, "public function install(SchemaSetupInterface $schemaSetup, ModuleContextInterface $moduleContext) {");
+		doLine(appendable, 3, "try {");
+		doLine(appendable, 3, "	$schemaSetup->startSetup();");
+		doLine(appendable, 3, "	");
+		doLine(appendable, 3, "	$connection = $schemaSetup->getConnection();");
+		doLine(appendable, 3, "	");
+		
+		for(final Table table : tables) {
+			final List<Column> columns = table.getColumns();
+			
+			final String tableNameUnderscoreSeparatedUpperCase = Names.formatUnderscoreSeparatedUpperCase(table.getName());
+			
+			final int maximumColumnNameLength = doGetMaximumColumnNameLength(columns);
+			final int maximumColumnDataTypeLength = doGetMaximumColumnDataTypeLength(columns);
+			
+			doLine(appendable, 3, String.format("	if(!$schemaSetup->tableExists(self::TABLE_%s)) {", tableNameUnderscoreSeparatedUpperCase));
+			doComment(appendable, 3, "		Initialize Table:");
+			doLine(appendable, 3, String.format("		$table = $connection->newTable($schemaSetup->getTable(self::TABLE_%s));", tableNameUnderscoreSeparatedUpperCase));
+			doLine(appendable, 3, "		");
+			doComment(appendable, 3, "		Add Columns:");
+			
+			for(final Column column : columns) {
+				final String columnNameUnderscoreSeparatedUpperCase = Names.formatUnderscoreSeparatedUpperCase(column.getName());
+				final String columnType = column.getDataType().toMagentoConstant();
+				
+				final String spaces0 = doGetSpaces(maximumColumnNameLength - columnNameUnderscoreSeparatedUpperCase.length());
+				final String spaces1 = doGetSpaces(maximumColumnDataTypeLength - columnType.length());
+				
+				doLine(appendable, 3, String.format("		$table->addColumn(self::TABLE_%s_COLUMN_%s,%s Table::%s,%s null, self::doCreateArray(true, false, true, true), '%s');", tableNameUnderscoreSeparatedUpperCase, columnNameUnderscoreSeparatedUpperCase, spaces0, columnType, spaces1, column.getComment()));
+			}
+			
+			if(doHasIndex(columns)) {
+				doLine(appendable, 3, "		");
+				doComment(appendable, 3, "		Add Indexes:");
+				
+				for(final Column column : columns) {
+					if(column.hasIndex()) {
+						doLine(appendable, 3, String.format("		$table->addIndex($schemaSetup->getIdxName(self::TABLE_%s, [self::TABLE_%s_COLUMN_%s]), [self::TABLE_%s_COLUMN_%s]);", tableNameUnderscoreSeparatedUpperCase, tableNameUnderscoreSeparatedUpperCase, Names.formatUnderscoreSeparatedUpperCase(column.getName()), tableNameUnderscoreSeparatedUpperCase, Names.formatUnderscoreSeparatedUpperCase(column.getName())));
+					}
+				}
+			}
+			
+			doLine(appendable, 3, "		");
+			doComment(appendable, 3, "		Add Foreign Keys:");
+			doLine(appendable, 3, "		");
+			doComment(appendable, 3, "		Set Comment:");
+			doLine(appendable, 3, String.format("		$table->setComment(self::TABLE_%s_COMMENT);", tableNameUnderscoreSeparatedUpperCase));
+			doLine(appendable, 3, "		");
+			doComment(appendable, 3, "		Create Table:");
+			doLine(appendable, 3, "		$connection->createTable($table);");
+			doLine(appendable, 3, "	}");
+			doLine(appendable, 3, "	");
+		}
+		
+		doLine(appendable, 3, "	$schemaSetup->endSetup();");
+		doLine(appendable, 3, "} catch(Exception $e) {");
+		doLine(appendable, 3, "	");
+		doLine(appendable, 3, "}");
+		doLine(appendable, 2, "}");
+		doLine(appendable, 2, "");
+		doLine(appendable, 2, SEPARATOR);
+		doLine(appendable, 2, "");
+		doLine(appendable, 2, "private static function doCreateArray(bool $isIdentity, bool $isNullable, bool $isPrimary, bool $isUnsigned): array {");
+		doLine(appendable, 3, "$array             = array();");
+		doLine(appendable, 3, "$array['identity'] = $isIdentity;");
+		doLine(appendable, 3, "$array['nullable'] = $isNullable;");
+		doLine(appendable, 3, "$array['primary']  = $isPrimary;");
+		doLine(appendable, 3, "$array['unsigned'] = $isUnsigned;");
+		doLine(appendable, 3, "");
+		doLine(appendable, 3, "return $array;");
+		doLine(appendable, 2, "}");
+		doLine(appendable, 1, "}");
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private static String doGetSpaces(final int length) {
+		if(length < SPACES.length) {
+			return SPACES[length];
+		}
+		
+		final StringBuilder stringBuilder = new StringBuilder(length);
+		
+		for(int i = 0; i < length; i++) {
+			stringBuilder.append(' ');
 		}
 		
 		return stringBuilder.toString();
 	}
 	
+	private static String[] doCreateSpaces(final int length) {
+		final String[] spaces = new String[length];
+		
+		spaces[0] = "";
+		
+		for(int i = 1; i < length; i++) {
+			spaces[i] = spaces[i - 1] + " ";
+		}
+		
+		return spaces;
+	}
+	
+	private static boolean doHasIndex(final List<Column> columns) {
+		for(final Column column : columns) {
+			if(column.hasIndex()) {
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
 	private static int doGetMaximumColumnDataTypeLength(final List<Column> columns) {
 		int maximumColumnDataTypeLength = 0;
 		
@@ -284,7 +518,7 @@ public final class InstallSchema {
 		
 		for(final Column column : columns) {
 			final String columnName = column.getName();
-			final String columnNameUnderscoreSeparatedUpperCase = Strings.formatUnderscoreSeparatedUpperCase(columnName);
+			final String columnNameUnderscoreSeparatedUpperCase = Names.formatUnderscoreSeparatedUpperCase(columnName);
 			
 			if(columnNameUnderscoreSeparatedUpperCase.length() > maximumColumnNameLength) {
 				maximumColumnNameLength = columnNameUnderscoreSeparatedUpperCase.length();
@@ -294,13 +528,11 @@ public final class InstallSchema {
 		return maximumColumnNameLength;
 	}
 	
-	private static void doWriteToFile(final File file, final String string) {
-		file.getParentFile().mkdirs();
-		
-		try {
-			Files.write(file.toPath(), string.getBytes("UTF-8"), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
-		} catch(final IOException e) {
-			throw new UncheckedIOException(e);
-		}
+	private static void doComment(final Appendable appendable, final int indentation, final String text) throws IOException {
+		appendable.append(LINE_SEPARATOR).append("//").append(TABS[indentation]).append(text);
+	}
+	
+	private static void doLine(final Appendable appendable, final int indentation, final String text) throws IOException {
+		appendable.append(LINE_SEPARATOR).append(TABS[indentation]).append(text);
 	}
 }
\ No newline at end of file
@@ -18,31 +18,67 @@
  */
 package org.macroing.esg4j.main;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
 
 import org.macroing.cel4j.php.model.PDocument;
 import org.macroing.esg4j.fortnox.Fortnox;
+import org.macroing.esg4j.fortnox.FortnoxArtifact;
+import org.macroing.esg4j.generator.Artifact;
+import org.macroing.esg4j.generator.DryRunReport;
+import org.macroing.esg4j.generator.Generator;
+import org.macroing.esg4j.generator.GeneratorReport;
+import org.macroing.esg4j.generator.OutputSink;
+import org.macroing.esg4j.generator.OutputWriter;
+import org.macroing.esg4j.generator.RenderCache;
+import org.macroing.esg4j.generator.Shard;
+import org.macroing.esg4j.generator.ShardMerge;
+import org.macroing.esg4j.generator.ZipSink;
 import org.macroing.esg4j.magento.database.Column;
 import org.macroing.esg4j.magento.database.Database;
+import org.macroing.esg4j.magento.database.DatabaseLinter;
+import org.macroing.esg4j.magento.database.DeclarativeSchemaReader;
+import org.macroing.esg4j.magento.database.MySQLDumpReader;
+import org.macroing.esg4j.magento.database.StorageEstimator;
 import org.macroing.esg4j.magento.database.Table;
-import org.macroing.esg4j.magento.file.Composer;
-import org.macroing.esg4j.magento.file.Registration;
+import org.macroing.esg4j.magento.definition.ModuleBatch;
+import org.macroing.esg4j.magento.definition.ModuleDefinition;
+import org.macroing.esg4j.magento.definition.ModuleDefinitionException;
+import org.macroing.esg4j.magento.definition.ModuleDefinitionReader;
+import org.macroing.esg4j.magento.definition.ModuleGraph;
+import org.macroing.esg4j.magento.definition.ModuleServer;
+import org.macroing.esg4j.magento.definition.ModuleSharer;
+import org.macroing.esg4j.magento.definition.ModuleStamper;
+import org.macroing.esg4j.magento.definition.ModuleWatcher;
 import org.macroing.esg4j.magento.file.Composer.Author;
 import org.macroing.esg4j.magento.file.Composer.Dependency;
 import org.macroing.esg4j.magento.file.Composer.License;
-import org.macroing.esg4j.magento.file.api.ModelInterface;
-import org.macroing.esg4j.magento.file.api.ModelRepositoryInterface;
-import org.macroing.esg4j.magento.file.block.Block;
-import org.macroing.esg4j.magento.file.cron.CronJob;
-import org.macroing.esg4j.magento.file.helper.Helper;
-import org.macroing.esg4j.magento.file.model.ModelRepository;
-import org.macroing.esg4j.magento.file.model.config.source.CustomerGroupSourceModel;
-import org.macroing.esg4j.magento.file.model.config.source.ProductSourceModel;
-import org.macroing.esg4j.magento.file.model.config.source.StoreViewSourceModel;
-import org.macroing.esg4j.magento.file.model.resourcemodel.model.Collection;
-import org.macroing.esg4j.magento.file.setup.InstallSchema;
+import org.macroing.esg4j.magento.file.Registration;
 
 public final class Main {
+	private static final File DIRECTORY_MAGENTO = new File("./generated/magento/app/code/");
+	private static final List<String> FLAGS = Arrays.asList("--lint-fix", "--server", "--staged", "--stamp", "--watch");
+	private static final List<String> MODES = Arrays.asList("--dry-run", "--estimate", "--merge", "--server", "--watch", "--zip");
+	private static final List<String> OPTIONS = Arrays.asList("--batch", "--cache", "--cache-size", "--definition", "--dry-run", "--estimate", "--estimate-text-size", "--import-schema", "--import-sql", "--lint", "--merge", "--metrics", "--share", "--shard", "--zip");
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
 	private Main() {
 		
 	}
@@ -50,56 +86,100 @@ public final class Main {
 	////////////////////////////////////////////////////////////////////////////////////////////////////
 	
 	public static void main(final String[] args) {
-		doGenerateFortnox();
-		doGenerateMagento();
-		doGenerateShopify();
+		final Map<String, String> options;
+		
+		try {
+			options = doGetOptions(args);
+		} catch(final IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			System.exit(2);
+			
+			return;
+		}
+		
+		try {
+			doRun(options);
+		} catch(final ModuleDefinitionException e) {
+			for(final String error : e.getErrors()) {
+				System.err.println(error);
+			}
+			
+			System.exit(1);
+		}
 	}
 	
 	////////////////////////////////////////////////////////////////////////////////////////////////////
 	
-	private static void doGenerateFortnox() {
-		doGenerateFortnoxArticle();
-		doGenerateFortnoxCustomer();
-		doGenerateFortnoxDefaultDeliveryTypes();
-		doGenerateFortnoxDefaultTemplates();
-	}
-	
-	private static void doGenerateFortnoxArticle() {
-		final
-		PDocument pDocument = Fortnox.createArticleModel().toDocument(PDocument.toNamespace("org", "macroing", "fortnox", "article"));
-		pDocument.setGeneratingComment(true);
-		pDocument.write(new File("./generated/fortnox/src/org/macroing/fortnox/article/Article.php"), true);
-	}
-	
-	private static void doGenerateFortnoxCustomer() {
-		final
-		PDocument pDocument = Fortnox.createCustomerModel().toDocument(PDocument.toNamespace("org", "macroing", "fortnox", "customer"));
-		pDocument.setGeneratingComment(true);
-		pDocument.write(new File("./generated/fortnox/src/org/macroing/fortnox/customer/Customer.php"), true);
-	}
-	
-	private static void doGenerateFortnoxDefaultDeliveryTypes() {
-		final
-		PDocument pDocument = Fortnox.createDefaultDeliveryTypesModel().toDocument(PDocument.toNamespace("org", "macroing", "fortnox", "customer"));
-		pDocument.setGeneratingComment(true);
-		pDocument.write(new File("./generated/fortnox/src/org/macroing/fortnox/customer/DefaultDeliveryTypes.php"), true);
+	private static Database doImportSQL(final File file) {
+		final List<String> warnings = new ArrayList<>();
+		
+		final Database database = MySQLDumpReader.read(file, warnings);
+		
+		for(final String warning : warnings) {
+			System.err.println(warning);
+		}
+		
+		System.err.printf("Imported %d table(s) from %s.%n", Integer.valueOf(database.getTables().size()), file.getPath());
+		
+		return database;
 	}
 	
-	private static void doGenerateFortnoxDefaultTemplates() {
-		final
-		PDocument pDocument = Fortnox.createDefaultTemplatesModel().toDocument(PDocument.toNamespace("org", "macroing", "fortnox", "customer"));
-		pDocument.setGeneratingComment(true);
-		pDocument.write(new File("./generated/fortnox/src/org/macroing/fortnox/customer/DefaultTemplates.php"), true);
+	private static Database doImportSchema(final File file) {
+		final List<String> warnings = new ArrayList<>();
+		
+		final Database database = DeclarativeSchemaReader.read(file, warnings);
+		
+		for(final String warning : warnings) {
+			System.err.println(warning);
+		}
+		
+		System.err.printf("Imported %d table(s) from %s.%n", Integer.valueOf(database.getTables().size()), file.getPath());
+		
+		return database;
 	}
 	
-	private static void doGenerateMagento() {
-		final File directory = new File("./generated/magento/app/code/");
+	private static Map<String, String> doGetOptions(final String[] args) {
+		final Map<String, String> options = new LinkedHashMap<>();
+		
+		for(int i = 0; i < args.length; i++) {
+			final String name = args[i];
+			
+			final String value;
+			
+			if(FLAGS.contains(name)) {
+				value = "";
+			} else if(!OPTIONS.contains(name)) {
+				throw new IllegalArgumentException(String.format("Unknown option: %s", name));
+			} else if(i + 1 == args.length || args[i + 1].startsWith("--")) {
+				throw new IllegalArgumentException(String.format("Option %s requires a value.", name));
+			} else {
+				value = args[++i];
+			}
+			
+			if(options.put(name, value) != null) {
+				throw new IllegalArgumentException(String.format("Option %s is given more than once.", name));
+			}
+			
+			doCheckValue(name, value);
+		}
+		
+//		Each mode returns before the options of the other modes are read, so combining them would silently ignore all but one:
+		for(int i = 0; i < MODES.size(); i++) {
+			doCheckExcluded(options, MODES.get(i), MODES.subList(i + 1, MODES.size()).toArray(new String[0]));
+		}
 		
-		final String moduleDescription = "This is a description.";
-		final String moduleName = "MyCustomModule";
-		final String moduleVersion = "1.0.0";
-		final String vendorName = "Company";
+		doCheckExcluded(options, "--batch", "--definition", "--estimate", "--import-schema", "--import-sql", "--zip");
+		doCheckExcluded(options, "--import-sql", "--import-schema");
+		doCheckExcluded(options, "--metrics", "--dry-run", "--estimate", "--merge", "--server", "--watch", "--zip");
+		doCheckRequired(options, "--batch", "--shard", "--share", "--stamp");
+		doCheckRequired(options, "--cache", "--cache-size");
+		doCheckRequired(options, "--definition", "--watch");
+		doCheckRequired(options, "--estimate", "--estimate-text-size");
 		
+		return options;
+	}
+	
+	private static ModuleDefinition doCreateMagentoModuleDefinition() {
 		final
 		Table table = new Table("form_item", "Form Item");
 		table.addColumn(Column.newIntColumn(null, "ID", "id", true, false, false, true, false, false, true, 11));
@@ -113,26 +193,209 @@ public final class Main {
 		Database database = new Database();
 		database.addTable(table);
 		
-		doGenerateMagentoApiModelInterface(directory, moduleName, vendorName, table);
-		doGenerateMagentoApiModelRepositoryInterface(directory, moduleName, vendorName, table);
-		doGenerateMagentoBlock(directory, "MyBlock", moduleName, vendorName);
-		doGenerateMagentoComposer(directory, moduleDescription, moduleName, moduleVersion, vendorName);
-		doGenerateMagentoController(directory, "Index", "Index", moduleName, vendorName, org.macroing.esg4j.magento.file.controller.Controller.Type.PAGE);
-		doGenerateMagentoControllerAdminHTML(directory, "Index", "Ajax", moduleName, vendorName, org.macroing.esg4j.magento.file.controller.adminhtml.Controller.Type.JSON);
-		doGenerateMagentoCronJob(directory, "CronJob", moduleName, vendorName);
-		doGenerateMagentoEtcAdminHTMLRoutes(directory, moduleName, vendorName);
-		doGenerateMagentoEtcFrontendRoutes(directory, moduleName, vendorName);
-		doGenerateMagentoEtcModule(directory, moduleName, moduleVersion, vendorName);
-		doGenerateMagentoHelper(directory, "MyHelper", moduleName, vendorName);
-		doGenerateMagentoInstallSchema(directory, database, moduleName, vendorName);
-		doGenerateMagentoModelConfigSourceCustomerGroupSourceModel(directory, moduleName, vendorName);
-		doGenerateMagentoModelConfigSourceProductSourceModel(directory, moduleName, vendorName);
-		doGenerateMagentoModelConfigSourceStoreViewSourceModel(directory, moduleName, vendorName);
-		doGenerateMagentoModelModel(directory, moduleName, vendorName, table);
-		doGenerateMagentoModelModelRepository(directory, moduleName, vendorName, table);
-		doGenerateMagentoModelResourceModelModel(directory, moduleName, vendorName, table);
-		doGenerateMagentoModelResourceModelModelCollection(directory, moduleName, vendorName, table);
-		doGenerateMagentoRegistration(directory, moduleName, vendorName);
+		final
+		ModuleDefinition moduleDefinition = new ModuleDefinition("This is a description.", "MyCustomModule", "1.0.0", "Company");
+		moduleDefinition.setDatabase(database);
+		moduleDefinition.addAuthor(new Author("john.doe@example.com", "John Doe"));
+		moduleDefinition.addBlockName("MyBlock");
+		moduleDefinition.addController(new ModuleDefinition.Controller(ModuleDefinition.Area.FRONTEND, "Index", "Index", "PAGE"));
+		moduleDefinition.addController(new ModuleDefinition.Controller(ModuleDefinition.Area.ADMINHTML, "Index", "Ajax", "JSON"));
+		moduleDefinition.addCronJobName("CronJob");
+		moduleDefinition.addDependency(new Dependency("Php", "", "~7.0.13|~7.1.0|~7.2.0"));
+		moduleDefinition.addDependency(new Dependency("Framework", "Magento", "^100.1||^101.0||^102.0"));
+		moduleDefinition.addHelperName("MyHelper");
+		moduleDefinition.addLicense(new License("proprietary"));
+		
+		return moduleDefinition;
+	}
+	
+	private static ModuleSharer doCreateModuleSharer(final String module) {
+		final String[] names = module.split("/");
+		
+		if(names.length != 2) {
+			throw new IllegalArgumentException(String.format("The shared module must be given as Vendor/Module but was \"%s\".", module));
+		}
+		
+		return new ModuleSharer(new ModuleDefinition("Shared artifacts for generated modules.", names[1], "1.0.0", names[0]));
+	}
+	
+	private static Optional<String> doGetOption(final Map<String, String> options, final String name) {
+		return Optional.ofNullable(options.get(name));
+	}
+	
+	private static StorageEstimator doCreateStorageEstimator(final String rowCounts, final Optional<String> optionalTextSizeAverage) {
+		final StorageEstimator storageEstimator = new StorageEstimator();
+		
+		if(optionalTextSizeAverage.isPresent()) {
+			storageEstimator.setTextSizeAverage(Integer.parseInt(optionalTextSizeAverage.get().trim()));
+		}
+		
+//		The row counts are given as a default, such as 1000000, and overrides per table, such as form_item=50000000,1000000:
+		for(final String rowCount : rowCounts.split(",")) {
+			final int index = rowCount.indexOf('=');
+			
+			if(index >= 0) {
+				storageEstimator.setRowCount(rowCount.substring(0, index).trim(), Long.parseLong(rowCount.substring(index + 1).trim()));
+			} else {
+				storageEstimator.setRowCount(Long.parseLong(rowCount.trim()));
+			}
+		}
+		
+		return storageEstimator;
+	}
+	
+	private static boolean doLint(final ModuleDefinition moduleDefinition, final DatabaseLinter.Severity severity, final boolean isFixing) {
+		final String module = moduleDefinition.getVendorName() + "/" + moduleDefinition.getModuleName();
+		
+		if(isFixing) {
+			for(final DatabaseLinter.Finding finding : DatabaseLinter.fix(moduleDefinition.getDatabase())) {
+				System.err.printf("%s: Fixed %s%n", module, finding);
+			}
+		}
+		
+		boolean isPassing = true;
+		
+		for(final DatabaseLinter.Finding finding : DatabaseLinter.lint(moduleDefinition.getDatabase())) {
+			if(finding.getSeverity().compareTo(severity) >= 0) {
+				System.err.printf("%s: %s%n", module, finding);
+				
+				isPassing = false;
+			}
+		}
+		
+		return isPassing;
+	}
+	
+	private static void doCheckEnum(final String name, final String value, final Enum<?>[] constants) {
+		final List<String> names = new ArrayList<>();
+		
+		for(final Enum<?> constant : constants) {
+			names.add(constant.name().toLowerCase(Locale.ENGLISH));
+		}
+		
+		if(!names.contains(value.toLowerCase(Locale.ENGLISH))) {
+			throw new IllegalArgumentException(String.format("Option %s must be one of %s but was \"%s\".", name, String.join(", ", names), value));
+		}
+	}
+	
+	private static void doCheckExcluded(final Map<String, String> options, final String name, final String... namesExcluded) {
+		for(final String nameExcluded : namesExcluded) {
+			if(options.containsKey(name) && options.containsKey(nameExcluded)) {
+				throw new IllegalArgumentException(String.format("Option %s cannot be combined with %s.", name, nameExcluded));
+			}
+		}
+	}
+	
+	private static void doCheckNumber(final String name, final String value, final long minimum, final long maximum) {
+		try {
+			final long number = Long.parseLong(value.trim());
+			
+			if(number >= minimum && number <= maximum) {
+				return;
+			}
+		} catch(final NumberFormatException e) {
+//			The value is reported below, together with values that are out of range:
+		}
+		
+		throw new IllegalArgumentException(String.format("Option %s must be a whole number from %d to %d but was \"%s\".", name, Long.valueOf(minimum), Long.valueOf(maximum), value));
+	}
+	
+	private static void doCheckRequired(final Map<String, String> options, final String nameRequired, final String... names) {
+		for(final String name : names) {
+			if(options.containsKey(name) && !options.containsKey(nameRequired)) {
+				throw new IllegalArgumentException(String.format("Option %s requires %s.", name, nameRequired));
+			}
+		}
+	}
+	
+	private static void doCheckValue(final String name, final String value) {
+		switch(name) {
+			case "--cache-size":
+				doCheckNumber(name, value, 0L, Long.MAX_VALUE / (1024L * 1024L));
+				
+				break;
+			case "--dry-run":
+				doCheckEnum(name, value, Generator.DryRunFormat.values());
+				
+				break;
+			case "--estimate":
+				for(final String rowCount : value.split(",", -1)) {
+					doCheckNumber(name, rowCount.substring(rowCount.indexOf('=') + 1), 0L, Long.MAX_VALUE);
+				}
+				
+				break;
+			case "--estimate-text-size":
+				doCheckNumber(name, value, 0L, Integer.MAX_VALUE);
+				
+				break;
+			case "--lint":
+				doCheckEnum(name, value, DatabaseLinter.Severity.values());
+				
+				break;
+			case "--merge":
+				doCheckNumber(name, value, 1L, Integer.MAX_VALUE);
+				
+				break;
+			case "--shard":
+				try {
+					Shard.parse(value);
+				} catch(final IllegalArgumentException e) {
+					throw new IllegalArgumentException(String.format("Option %s: %s", name, e.getMessage()), e);
+				}
+				
+				break;
+			case "--share":
+				if(value.split("/", -1).length != 2) {
+					throw new IllegalArgumentException(String.format("Option %s must be given as Vendor/Module but was \"%s\".", name, value));
+				}
+				
+				break;
+			default:
+				break;
+		}
+	}
+	
+	private static void doDryRun(final Generator generator, final Generator.DryRunFormat dryRunFormat) {
+		final Writer writer = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+		
+		final DryRunReport dryRunReport = generator.dryRun(writer, dryRunFormat);
+		
+		try {
+			writer.flush();
+		} catch(final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		
+		System.err.println(dryRunReport);
+	}
+	
+	private static void doGenerateFortnox(final Generator generator) {
+		final File directory = new File("./generated/fortnox/src/");
+		
+		doGenerateFortnoxArticle(generator, directory);
+		doGenerateFortnoxCustomer(generator, directory);
+		doGenerateFortnoxDefaultDeliveryTypes(generator, directory);
+		doGenerateFortnoxDefaultTemplates(generator, directory);
+	}
+	
+	private static void doGenerateFortnoxArticle(final Generator generator, final File directory) {
+		generator.addArtifact(new FortnoxArtifact(Fortnox.createArticleModel(), PDocument.toNamespace("org", "macroing", "fortnox", "article")), directory);
+	}
+	
+	private static void doGenerateFortnoxCustomer(final Generator generator, final File directory) {
+		generator.addArtifact(new FortnoxArtifact(Fortnox.createCustomerModel(), PDocument.toNamespace("org", "macroing", "fortnox", "customer")), directory);
+	}
+	
+	private static void doGenerateFortnoxDefaultDeliveryTypes(final Generator generator, final File directory) {
+		generator.addArtifact(new FortnoxArtifact(Fortnox.createDefaultDeliveryTypesModel(), PDocument.toNamespace("org", "macroing", "fortnox", "customer")), directory);
+	}
+	
+	private static void doGenerateFortnoxDefaultTemplates(final Generator generator, final File directory) {
+		generator.addArtifact(new FortnoxArtifact(Fortnox.createDefaultTemplatesModel(), PDocument.toNamespace("org", "macroing", "fortnox", "customer")), directory);
+	}
+	
+	private static void doGenerateMagento(final Generator generator, final ModuleDefinition moduleDefinition) {
+		generator.addArtifacts(new ModuleGraph(moduleDefinition).getArtifacts(), DIRECTORY_MAGENTO);
 		
 		/*
 		 * Add support for generation:
@@ -169,93 +432,250 @@ public final class Main {
 		 */
 	}
 	
-	private static void doGenerateMagentoApiModelInterface(final File directory, final String moduleName, final String vendorName, final Table table) {
-		new ModelInterface(moduleName, vendorName, table).generateTo(directory);
-	}
-	
-	private static void doGenerateMagentoApiModelRepositoryInterface(final File directory, final String moduleName, final String vendorName, final Table table) {
-		new ModelRepositoryInterface(moduleName, vendorName, table).generateTo(directory);
-	}
-	
-	private static void doGenerateMagentoBlock(final File directory, final String blockName, final String moduleName, final String vendorName) {
-		new Block(blockName, moduleName, vendorName).generateTo(directory);
-	}
-	
-	private static void doGenerateMagentoComposer(final File directory, final String moduleDescription, final String moduleName, final String moduleVersion, final String vendorName) {
-		final
-		Composer composer = new Composer(moduleDescription, moduleName, moduleVersion, vendorName);
-		composer.addAuthor(new Author("john.doe@example.com", "John Doe"));
-		composer.addDependency(new Dependency("Php", "", "~7.0.13|~7.1.0|~7.2.0"));
-		composer.addDependency(new Dependency("Framework", "Magento", "^100.1||^101.0||^102.0"));
-		composer.addLicense(new License("proprietary"));
-		composer.generateTo(directory);
-	}
-	
-	private static void doGenerateMagentoController(final File directory, final String controllerAction, final String controllerName, final String moduleName, final String vendorName, final org.macroing.esg4j.magento.file.controller.Controller.Type type) {
-		new org.macroing.esg4j.magento.file.controller.Controller(controllerAction, controllerName, moduleName, vendorName, type).generateTo(directory);
-	}
-	
-	private static void doGenerateMagentoControllerAdminHTML(final File directory, final String controllerAction, final String controllerName, final String moduleName, final String vendorName, final org.macroing.esg4j.magento.file.controller.adminhtml.Controller.Type type) {
-		new org.macroing.esg4j.magento.file.controller.adminhtml.Controller(controllerAction, controllerName, moduleName, vendorName, type).generateTo(directory);
+	private static void doGenerateMagento(final Generator generator, final ModuleDefinition moduleDefinition, final List<Artifact> artifacts, final ModuleSharer moduleSharer) {
+		generator.addArtifacts(moduleSharer != null ? moduleSharer.share(moduleDefinition, artifacts) : artifacts, DIRECTORY_MAGENTO);
 	}
 	
-	private static void doGenerateMagentoCronJob(final File directory, final String cronJobName, final String moduleName, final String vendorName) {
-		new CronJob(cronJobName, moduleName, vendorName).generateTo(directory);
-	}
-	
-	private static void doGenerateMagentoEtcAdminHTMLRoutes(final File directory, final String moduleName, final String vendorName) {
-		new org.macroing.esg4j.magento.file.etc.adminhtml.Routes(moduleName, vendorName).generateTo(directory);
-	}
-	
-	private static void doGenerateMagentoEtcFrontendRoutes(final File directory, final String moduleName, final String vendorName) {
-		new org.macroing.esg4j.magento.file.etc.frontend.Routes(moduleName, vendorName).generateTo(directory);
-	}
-	
-	private static void doGenerateMagentoEtcModule(final File directory, final String moduleName, final String moduleVersion, final String vendorName) {
-		new org.macroing.esg4j.magento.file.etc.Module(moduleName, moduleVersion, vendorName).generateTo(directory);
-	}
-	
-	private static void doGenerateMagentoHelper(final File directory, final String helperName, final String moduleName, final String vendorName) {
-		new Helper(helperName, moduleName, vendorName).generateTo(directory);
-	}
-	
-	private static void doGenerateMagentoInstallSchema(final File directory, final Database database, final String moduleName, final String vendorName) {
-		new InstallSchema(database, moduleName, vendorName).generateTo(directory);
-	}
-	
-	private static void doGenerateMagentoModelConfigSourceCustomerGroupSourceModel(final File directory, final String moduleName, final String vendorName) {
-		new CustomerGroupSourceModel(moduleName, vendorName).generateTo(directory);
-	}
-	
-	private static void doGenerateMagentoModelConfigSourceProductSourceModel(final File directory, final String moduleName, final String vendorName) {
-		new ProductSourceModel(moduleName, vendorName).generateTo(directory);
-	}
-	
-	private static void doGenerateMagentoModelConfigSourceStoreViewSourceModel(final File directory, final String moduleName, final String vendorName) {
-		new StoreViewSourceModel(moduleName, vendorName).generateTo(directory);
+	private static void doGenerateMagentoBatch(final Generator generator, final File file, final boolean isStamping, final ModuleSharer moduleSharer, final Shard shard, final Predicate<ModuleDefinition> predicate) {
+		final ModuleBatch moduleBatch = ModuleBatch.read(file);
+		
+		for(final ModuleDefinitionException moduleDefinitionException : moduleBatch.getModuleDefinitionExceptions()) {
+			System.err.println(moduleDefinitionException.getMessage());
+		}
+		
+		final List<ModuleDefinition> moduleDefinitionsAccepted = new ArrayList<>();
+		final List<ModuleDefinition> moduleDefinitionsInShard = new ArrayList<>();
+		
+		for(final ModuleDefinition moduleDefinition : moduleBatch.getModuleDefinitions()) {
+			if(shard == null || shard.contains(moduleDefinition.getVendorName() + "/" + moduleDefinition.getModuleName())) {
+				moduleDefinitionsInShard.add(moduleDefinition);
+			}
+		}
+		
+		for(final ModuleDefinition moduleDefinition : moduleDefinitionsInShard) {
+			if(predicate.test(moduleDefinition)) {
+				moduleDefinitionsAccepted.add(moduleDefinition);
+			}
+		}
+		
+//		Each shard keeps a manifest of its own, so shards sharing a directory never delete each other's files. The manifests are combined by --merge:
+		if(shard != null) {
+			generator.setManifestFileName(shard.getManifestFileName());
+		}
+		
+		generator.setStagingDepth(2);
+		
+		if(!isStamping) {
+			for(final ModuleDefinition moduleDefinition : moduleDefinitionsAccepted) {
+				doGenerateMagento(generator, moduleDefinition, new ModuleGraph(moduleDefinition).getArtifacts(), moduleSharer);
+			}
+		} else {
+			final Map<ModuleDefinition, List<ModuleDefinition>> moduleDefinitionsByTemplate = new LinkedHashMap<>();
+			
+			for(final ModuleDefinition moduleDefinition : moduleDefinitionsAccepted) {
+				moduleDefinitionsByTemplate.computeIfAbsent(ModuleStamper.toTemplate(moduleDefinition), key -> new ArrayList<>()).add(moduleDefinition);
+			}
+			
+			for(final List<ModuleDefinition> moduleDefinitions : moduleDefinitionsByTemplate.values()) {
+				if(moduleDefinitions.size() == 1) {
+					doGenerateMagento(generator, moduleDefinitions.get(0), new ModuleGraph(moduleDefinitions.get(0)).getArtifacts(), moduleSharer);
+				} else {
+					final ModuleStamper moduleStamper = new ModuleStamper(moduleDefinitions.get(0));
+					
+					for(final ModuleDefinition moduleDefinition : moduleDefinitions) {
+						doGenerateMagento(generator, moduleDefinition, moduleStamper.stamp(moduleDefinition), moduleSharer);
+					}
+				}
+			}
+		}
+		
+		System.out.println(moduleBatch);
+		
+		if(moduleDefinitionsAccepted.size() < moduleDefinitionsInShard.size()) {
+			System.err.printf("%d module(s) failed the lint gate.%n", Integer.valueOf(moduleDefinitionsInShard.size() - moduleDefinitionsAccepted.size()));
+		}
+		
+		if(shard != null) {
+			System.out.printf("Shard %d/%d: %d of %d module(s).%n", Integer.valueOf(shard.getIndex()), Integer.valueOf(shard.getCount()), Integer.valueOf(moduleDefinitionsInShard.size()), Integer.valueOf(moduleBatch.getModuleDefinitions().size()));
+		}
+		
+		if(moduleSharer != null) {
+//			The shared module is generated by the first shard only:
+			if(shard == null || shard.getIndex() == 0) {
+				generator.addArtifacts(moduleSharer.getArtifacts(), DIRECTORY_MAGENTO);
+			}
+			
+			System.out.printf("Shared %d artifact(s) through %s/%s.%n", Integer.valueOf(moduleSharer.getSharedCount()), moduleSharer.getModuleDefinition().getVendorName(), moduleSharer.getModuleDefinition().getModuleName());
+		}
 	}
 	
-	private static void doGenerateMagentoModelModel(final File directory, final String moduleName, final String vendorName, final Table table) {
-		new org.macroing.esg4j.magento.file.model.Model(moduleName, vendorName, table).generateTo(directory);
+	private static void doGenerateShopify(final Generator generator) {
+//		TODO: Implement!
 	}
 	
-	private static void doGenerateMagentoModelModelRepository(final File directory, final String moduleName, final String vendorName, final Table table) {
-		new ModelRepository(moduleName, vendorName, table).generateTo(directory);
+	private static void doMergeMagento(final int shardCount) {
+		final ShardMerge shardMerge = ShardMerge.merge(DIRECTORY_MAGENTO, shardCount);
+		
+		if(shardMerge.isSuccessful()) {
+			System.out.println(shardMerge);
+		} else {
+			System.err.println(shardMerge);
+		}
 	}
 	
-	private static void doGenerateMagentoModelResourceModelModel(final File directory, final String moduleName, final String vendorName, final Table table) {
-		new org.macroing.esg4j.magento.file.model.resourcemodel.Model(moduleName, vendorName, table).generateTo(directory);
+	private static void doPackageMagento(final ModuleDefinition moduleDefinition, final File file) {
+		final List<Artifact> artifacts = new ModuleGraph(moduleDefinition).getArtifacts();
+		
+//		The archive is rooted at the module directory, which is the directory registration.php is generated into:
+		String prefix = "";
+		
+		for(final Artifact artifact : artifacts) {
+			if(artifact instanceof Registration) {
+				prefix = artifact.getRelativeFile().getParent().replace(File.separatorChar, '/') + "/";
+			}
+		}
+		
+		final
+		Generator generator = new Generator();
+		generator.addArtifacts(artifacts, DIRECTORY_MAGENTO);
+		
+		final GeneratorReport generatorReport;
+		
+		try(final OutputSink outputSink = new ZipSink(file).withPrefixRemoved(prefix)) {
+			generatorReport = generator.generate(outputSink);
+		}
+		
+		if(generatorReport.isSuccessful()) {
+			System.out.println(generatorReport);
+		} else {
+			System.err.println(generatorReport);
+		}
 	}
 	
-	private static void doGenerateMagentoModelResourceModelModelCollection(final File directory, final String moduleName, final String vendorName, final Table table) {
-		new Collection(moduleName, vendorName, table).generateTo(directory);
+	private static void doRun(final Map<String, String> options) {
+		final Generator generator = new Generator();
+		
+		final Optional<String> optionalBatch = doGetOption(options, "--batch");
+		final Optional<String> optionalCache = doGetOption(options, "--cache");
+		final Optional<String> optionalCacheSize = doGetOption(options, "--cache-size");
+		final Optional<String> optionalDefinition = doGetOption(options, "--definition");
+		final Optional<String> optionalDryRun = doGetOption(options, "--dry-run");
+		final Optional<String> optionalEstimate = doGetOption(options, "--estimate");
+		final Optional<String> optionalEstimateTextSize = doGetOption(options, "--estimate-text-size");
+		final Optional<String> optionalImportSQL = doGetOption(options, "--import-sql");
+		final Optional<String> optionalImportSchema = doGetOption(options, "--import-schema");
+		final Optional<String> optionalLint = doGetOption(options, "--lint");
+		final Optional<String> optionalMerge = doGetOption(options, "--merge");
+		final Optional<String> optionalMetrics = doGetOption(options, "--metrics");
+		final Optional<String> optionalShare = doGetOption(options, "--share");
+		final Optional<String> optionalShard = doGetOption(options, "--shard");
+		final Optional<String> optionalZip = doGetOption(options, "--zip");
+		
+		if(optionalDefinition.isPresent() && options.containsKey("--watch")) {
+			doWatchMagento(new File(optionalDefinition.get()));
+			
+			return;
+		}
+		
+		if(options.containsKey("--staged")) {
+			generator.setStagingDepth(2);
+		}
+		
+		if(optionalCache.isPresent()) {
+			generator.setRenderCache(new RenderCache(new File(optionalCache.get()), Long.parseLong(optionalCacheSize.orElse("256").trim()) * 1024L * 1024L));
+		}
+		
+		if(optionalMerge.isPresent()) {
+			doMergeMagento(Integer.parseInt(optionalMerge.get().trim()));
+			
+			return;
+		}
+		
+		if(options.containsKey("--server")) {
+			doServeMagento(generator);
+			
+			return;
+		}
+		
+		final boolean isLintFixing = options.containsKey("--lint-fix");
+		
+		final Predicate<ModuleDefinition> predicate = optionalLint.isPresent() || isLintFixing ? moduleDefinition -> doLint(moduleDefinition, DatabaseLinter.Severity.valueOf(optionalLint.orElse("error").toUpperCase(Locale.ENGLISH)), isLintFixing) : moduleDefinition -> true;
+		
+		if(optionalBatch.isPresent()) {
+			doGenerateMagentoBatch(generator, new File(optionalBatch.get()), options.containsKey("--stamp"), optionalShare.isPresent() ? doCreateModuleSharer(optionalShare.get()) : null, optionalShard.isPresent() ? Shard.parse(optionalShard.get()) : null, predicate);
+		} else {
+			final ModuleDefinition moduleDefinition = optionalDefinition.isPresent() ? ModuleDefinitionReader.read(new File(optionalDefinition.get())) : doCreateMagentoModuleDefinition();
+			
+			if(optionalImportSQL.isPresent()) {
+				moduleDefinition.setDatabase(doImportSQL(new File(optionalImportSQL.get())));
+			}
+			
+			if(optionalImportSchema.isPresent()) {
+				moduleDefinition.setDatabase(doImportSchema(new File(optionalImportSchema.get())));
+			}
+			
+			if(!predicate.test(moduleDefinition)) {
+				return;
+			}
+			
+			if(optionalEstimate.isPresent()) {
+				System.out.println(doCreateStorageEstimator(optionalEstimate.get(), optionalEstimateTextSize).estimate(moduleDefinition.getDatabase()));
+				
+				return;
+			}
+			
+			if(optionalZip.isPresent()) {
+				doPackageMagento(moduleDefinition, new File(optionalZip.get()));
+				
+				return;
+			}
+			
+			doGenerateFortnox(generator);
+			doGenerateMagento(generator, moduleDefinition);
+			doGenerateShopify(generator);
+		}
+		
+		if(optionalDryRun.isPresent()) {
+			doDryRun(generator, Generator.DryRunFormat.valueOf(optionalDryRun.get().toUpperCase(Locale.ENGLISH)));
+			
+			return;
+		}
+		
+		final GeneratorReport generatorReport = generator.generate();
+		
+		if(generatorReport.isSuccessful()) {
+			System.out.println(generatorReport);
+		} else {
+			System.err.println(generatorReport);
+		}
+		
+		System.out.println(generatorReport.getMetrics());
+		
+		if(generator.getRenderCache().isPresent()) {
+			final RenderCache renderCache = generator.getRenderCache().get();
+			
+			renderCache.evict();
+			
+			System.out.printf("Render cache: %d hit(s), %d miss(es), %d evicted.%n", Long.valueOf(renderCache.getHitCount()), Long.valueOf(renderCache.getMissCount()), Long.valueOf(renderCache.getEvictedCount()));
+		}
+		
+		if(optionalMetrics.isPresent()) {
+			OutputWriter.write(new File(optionalMetrics.get()), generatorReport.getMetrics().toJSON());
+		}
 	}
 	
-	private static void doGenerateMagentoRegistration(final File directory, final String moduleName, final String vendorName) {
-		new Registration(moduleName, vendorName).generateTo(directory);
+	private static void doServeMagento(final Generator generator) {
+		final Reader reader = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+		final Writer writer = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+		
+		new ModuleServer(DIRECTORY_MAGENTO, generator).serve(reader, writer);
 	}
 	
-	private static void doGenerateShopify() {
-//		TODO: Implement!
+	private static void doWatchMagento(final File file) {
+		try {
+			new ModuleWatcher(file, DIRECTORY_MAGENTO).watch();
+		} catch(final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
 	}
 }
\ No newline at end of file
@@ -0,0 +1,432 @@
+/**
+ * Copyright 2019 - 2021 J&#246;rgen Lundgren
+ * 
+ * This file is part of org.macroing.esg4j.
+ * 
+ * org.macroing.esg4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * org.macroing.esg4j is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with org.macroing.esg4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.macroing.esg4j.sql;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Objects;
+
+public final class SQLReader implements Closeable {
+	private SQLToken token;
+	private final Reader reader;
+	private String tokenValue;
+	private final StringBuilder stringBuilder;
+	private final char[] buffer;
+	private int bufferLength;
+	private int bufferPosition;
+	private int column;
+	private int line;
+	private int tokenColumn;
+	private int tokenLine;
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public SQLReader(final Reader reader) {
+		this.reader = Objects.requireNonNull(reader, "reader == null");
+		this.stringBuilder = new StringBuilder();
+		this.buffer = new char[8192];
+		this.column = 1;
+		this.line = 1;
+		this.tokenColumn = 1;
+		this.tokenLine = 1;
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public SQLSyntaxException newException(final String description) {
+		return new SQLSyntaxException(description, this.tokenLine, this.tokenColumn);
+	}
+	
+	public SQLToken peek() {
+		if(this.token != null) {
+			return this.token;
+		}
+		
+		final int character = doPeekCharNonWhitespace();
+		
+		switch(character) {
+			case -1:
+				return doSetToken(SQLToken.END_DOCUMENT, null);
+			case '`':
+				doReadChar();
+				
+				return doSetToken(SQLToken.QUOTED_IDENTIFIER, doReadQuoted('`', false));
+			case '\'':
+			case '"':
+				doReadChar();
+				
+				return doSetToken(SQLToken.STRING, doReadQuoted((char)(character), true));
+			default:
+				if(character >= '0' && character <= '9') {
+					return doSetToken(SQLToken.NUMBER, doReadWord());
+				}
+				
+				if(doIsWordChar(character)) {
+					return doSetToken(SQLToken.IDENTIFIER, doReadWord());
+				}
+				
+				doReadChar();
+				
+				return doSetToken(SQLToken.SYMBOL, String.valueOf((char)(character)));
+		}
+	}
+	
+	public String next() {
+		if(peek() == SQLToken.END_DOCUMENT) {
+			throw newException("Unexpected end of document.");
+		}
+		
+		return doConsume();
+	}
+	
+	public String nextName() {
+		final SQLToken token = peek();
+		
+		if(token != SQLToken.IDENTIFIER && token != SQLToken.QUOTED_IDENTIFIER) {
+			throw newException(String.format("Expected a name but was %s.", doDescribe()));
+		}
+		
+		return doConsume();
+	}
+	
+	public String nextString() {
+		if(peek() != SQLToken.STRING) {
+			throw newException(String.format("Expected a string but was %s.", doDescribe()));
+		}
+		
+		return doConsume();
+	}
+	
+	public String peekValue() {
+		peek();
+		
+		return this.tokenValue;
+	}
+	
+	public boolean isNext(final String keyword) {
+		final SQLToken token = peek();
+		
+		return (token == SQLToken.IDENTIFIER || token == SQLToken.SYMBOL) && this.tokenValue.equalsIgnoreCase(Objects.requireNonNull(keyword, "keyword == null"));
+	}
+	
+	public boolean nextIf(final String keyword) {
+		if(isNext(keyword)) {
+			doConsume();
+			
+			return true;
+		}
+		
+		return false;
+	}
+	
+	public int getColumn() {
+		return this.tokenColumn;
+	}
+	
+	public int getLine() {
+		return this.tokenLine;
+	}
+	
+	public int nextInt() {
+		if(peek() != SQLToken.NUMBER) {
+			throw newException(String.format("Expected a number but was %s.", doDescribe()));
+		}
+		
+		try {
+			final int value = Integer.parseInt(this.tokenValue);
+			
+			doConsume();
+			
+			return value;
+		} catch(final NumberFormatException e) {
+			throw newException(String.format("Expected an int but was %s.", this.tokenValue));
+		}
+	}
+	
+	@Override
+	public void close() {
+		try {
+			this.reader.close();
+		} catch(final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	public void expect(final String keyword) {
+		if(!nextIf(keyword)) {
+			throw newException(String.format("Expected '%s' but was %s.", keyword, doDescribe()));
+		}
+	}
+	
+	public void skipGroup() {
+		expect("(");
+		
+		for(int depth = 1; depth > 0; ) {
+			if(peek() == SQLToken.END_DOCUMENT) {
+				throw newException("Unexpected end of document.");
+			}
+			
+			if(isNext("(")) {
+				depth++;
+			} else if(isNext(")")) {
+				depth--;
+			}
+			
+			doConsume();
+		}
+	}
+	
+	public void skipStatement() {
+		if(this.token != null) {
+			final boolean isEnd = this.token == SQLToken.END_DOCUMENT || isNext(";");
+			
+			doConsume();
+			
+			if(isEnd) {
+				return;
+			}
+		}
+		
+//		The rest of the statement is scanned without creating tokens, so a multi-megabyte INSERT costs no more memory than the buffer:
+		for(int character = doReadChar(); character != -1; character = doReadChar()) {
+			switch(character) {
+				case ';':
+					return;
+				case '\'':
+				case '"':
+					doSkipQuoted((char)(character), true);
+					
+					break;
+				case '`':
+					doSkipQuoted('`', false);
+					
+					break;
+				case '#':
+					doSkipLine();
+					
+					break;
+				case '-':
+					if(doPeekChar(0) == '-' && doIsWhitespaceOrEnd(doPeekChar(1))) {
+						doSkipLine();
+					}
+					
+					break;
+				case '/':
+					if(doPeekChar(0) == '*') {
+						doReadChar();
+						doSkipBlockComment();
+					}
+					
+					break;
+				default:
+					break;
+			}
+		}
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private SQLToken doSetToken(final SQLToken token, final String tokenValue) {
+		this.token = token;
+		this.tokenValue = tokenValue;
+		
+		return token;
+	}
+	
+	private String doConsume() {
+		final String tokenValue = this.tokenValue;
+		
+		this.token = null;
+		this.tokenValue = null;
+		
+		return tokenValue;
+	}
+	
+	private String doDescribe() {
+		return this.token == SQLToken.END_DOCUMENT ? "the end of the document" : String.format("%s '%s'", this.token, this.tokenValue);
+	}
+	
+	private String doReadQuoted(final char quote, final boolean isEscaping) {
+		this.stringBuilder.setLength(0);
+		
+		while(true) {
+			final int character = doReadChar();
+			
+			if(character == -1) {
+				throw newException("Unterminated string.");
+			} else if(character == quote && doPeekChar(0) == quote) {
+				this.stringBuilder.append((char)(doReadChar()));
+			} else if(character == quote) {
+				return this.stringBuilder.toString();
+			} else if(character == '\\' && isEscaping) {
+				final int characterEscaped = doReadChar();
+				
+				switch(characterEscaped) {
+					case -1:
+						throw newException("Unterminated string.");
+					case '0':
+						this.stringBuilder.append('\0');
+						
+						break;
+					case 'b':
+						this.stringBuilder.append('\b');
+						
+						break;
+					case 'n':
+						this.stringBuilder.append('\n');
+						
+						break;
+					case 'r':
+						this.stringBuilder.append('\r');
+						
+						break;
+					case 't':
+						this.stringBuilder.append('\t');
+						
+						break;
+					case 'Z':
+						this.stringBuilder.append('\u001A');
+						
+						break;
+					default:
+						this.stringBuilder.append((char)(characterEscaped));
+						
+						break;
+				}
+			} else {
+				this.stringBuilder.append((char)(character));
+			}
+		}
+	}
+	
+	private String doReadWord() {
+		this.stringBuilder.setLength(0);
+		
+		while(doIsWordChar(doPeekChar(0)) || doPeekChar(0) == '.' && this.stringBuilder.length() > 0 && Character.isDigit(this.stringBuilder.charAt(0))) {
+			this.stringBuilder.append((char)(doReadChar()));
+		}
+		
+		return this.stringBuilder.toString();
+	}
+	
+	private boolean doFill() {
+		try {
+			final int remaining = this.bufferLength - this.bufferPosition;
+			
+			System.arraycopy(this.buffer, this.bufferPosition, this.buffer, 0, remaining);
+			
+			final int length = this.reader.read(this.buffer, remaining, this.buffer.length - remaining);
+			
+			this.bufferLength = remaining + Math.max(length, 0);
+			this.bufferPosition = 0;
+			
+			return length > 0;
+		} catch(final IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	private int doPeekChar(final int offset) {
+		while(this.bufferPosition + offset >= this.bufferLength) {
+			if(!doFill()) {
+				return -1;
+			}
+		}
+		
+		return this.buffer[this.bufferPosition + offset];
+	}
+	
+	private int doPeekCharNonWhitespace() {
+		for(int character = doPeekChar(0); ; character = doPeekChar(0)) {
+			if(character == ' ' || character == '\t' || character == '\r' || character == '\n') {
+				doReadChar();
+			} else if(character == '#' || character == '-' && doPeekChar(1) == '-' && doIsWhitespaceOrEnd(doPeekChar(2))) {
+				doSkipLine();
+			} else if(character == '/' && doPeekChar(1) == '*') {
+				doReadChar();
+				doReadChar();
+				doSkipBlockComment();
+			} else {
+				this.tokenLine = this.line;
+				this.tokenColumn = this.column;
+				
+				return character;
+			}
+		}
+	}
+	
+	private int doReadChar() {
+		final int character = doPeekChar(0);
+		
+		if(character != -1) {
+			this.bufferPosition++;
+			
+			if(character == '\n') {
+				this.line++;
+				this.column = 1;
+			} else {
+				this.column++;
+			}
+		}
+		
+		return character;
+	}
+	
+	private void doSkipBlockComment() {
+		for(int character = doReadChar(); character != -1; character = doReadChar()) {
+			if(character == '*' && doPeekChar(0) == '/') {
+				doReadChar();
+				
+				return;
+			}
+		}
+	}
+	
+	private void doSkipLine() {
+		int character = doReadChar();
+		
+		while(character != -1 && character != '\n') {
+			character = doReadChar();
+		}
+	}
+	
+	private void doSkipQuoted(final char quote, final boolean isEscaping) {
+		for(int character = doReadChar(); character != -1; character = doReadChar()) {
+			if(character == '\\' && isEscaping) {
+				doReadChar();
+			} else if(character == quote && doPeekChar(0) == quote) {
+				doReadChar();
+			} else if(character == quote) {
+				return;
+			}
+		}
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private static boolean doIsWhitespaceOrEnd(final int character) {
+		return character == -1 || character == ' ' || character == '\t' || character == '\r' || character == '\n';
+	}
+	
+	private static boolean doIsWordChar(final int character) {
+		return character >= 'a' && character <= 'z' || character >= 'A' && character <= 'Z' || character >= '0' && character <= '9' || character == '_' || character == '$' || character >= 0x80;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,191 @@
+/**
+ * Copyright 2019 - 2021 J&#246;rgen Lundgren
+ * 
+ * This file is part of org.macroing.esg4j.
+ * 
+ * org.macroing.esg4j is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * org.macroing.esg4j is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with org.macroing.esg4j. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.macroing.esg4j.util;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.macroing.cel4j.util.Strings;
+
+public final class Names {
+	private static final AtomicReference<Map<String, Name>> NAMES_NEW = new AtomicReference<>(new ConcurrentHashMap<>());
+	private static final AtomicReference<Map<String, Name>> NAMES_OLD = new AtomicReference<>(new ConcurrentHashMap<>());
+	private static final int GENERATION_SIZE_MAXIMUM = 1 << 16;
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	private Names() {
+		
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public static Name valueOf(final String string) {
+		final Map<String, Name> namesNew = NAMES_NEW.get();
+		
+		final Name name = namesNew.get(Objects.requireNonNull(string, "string == null"));
+		
+		if(name != null) {
+			return name;
+		}
+		
+//		A name that is still in use is moved from the old generation to the new one, so that only names that have not been used for a whole generation are evicted:
+		final Name nameOld = NAMES_OLD.get().remove(string);
+		
+		final Name nameNew = namesNew.computeIfAbsent(string, key -> nameOld != null ? nameOld : new Name(key));
+		
+		if(namesNew.size() >= GENERATION_SIZE_MAXIMUM && NAMES_NEW.compareAndSet(namesNew, new ConcurrentHashMap<>())) {
+			NAMES_OLD.set(namesNew);
+		}
+		
+		return nameNew;
+	}
+	
+	public static String formatCamelCase(final String string) {
+		return valueOf(string).getCamelCase();
+	}
+	
+	public static String formatCamelCaseModified(final String string) {
+		return valueOf(string).getCamelCaseModified();
+	}
+	
+	public static String formatDashSeparatedLowerCase(final String string) {
+		return valueOf(string).getDashSeparatedLowerCase();
+	}
+	
+	public static String formatDashSeparatedUpperCase(final String string) {
+		return valueOf(string).getDashSeparatedUpperCase();
+	}
+	
+	public static String formatUnderscoreSeparatedLowerCase(final String string) {
+		return valueOf(string).getUnderscoreSeparatedLowerCase();
+	}
+	
+	public static String formatUnderscoreSeparatedUpperCase(final String string) {
+		return valueOf(string).getUnderscoreSeparatedUpperCase();
+	}
+	
+	public static String formatUnseparatedLowerCase(final String string) {
+		return valueOf(string).getUnseparatedLowerCase();
+	}
+	
+	public static String formatUnseparatedUpperCase(final String string) {
+		return valueOf(string).getUnseparatedUpperCase();
+	}
+	
+	public static int size() {
+		return NAMES_NEW.get().size() + NAMES_OLD.get().size();
+	}
+	
+	public static void clear() {
+		NAMES_NEW.get().clear();
+		NAMES_OLD.get().clear();
+	}
+	
+	////////////////////////////////////////////////////////////////////////////////////////////////////
+	
+	public static final class Name {
+		private final String camelCase;
+		private final String camelCaseModified;
+		private final String dashSeparatedLowerCase;
+		private final String dashSeparatedUpperCase;
+		private final String string;
+		private final String underscoreSeparatedLowerCase;
+		private final String underscoreSeparatedUpperCase;
+		private final String unseparatedLowerCase;
+		private final String unseparatedUpperCase;
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		Name(final String string) {
+			this.string = Objects.requireNonNull(string, "string == null");
+			this.camelCase = Strings.formatCamelCase(string);
+			this.camelCaseModified = Strings.formatCamelCaseModified(string);
+			this.dashSeparatedLowerCase = Strings.formatDashSeparatedLowerCase(string);
+			this.dashSeparatedUpperCase = Strings.formatDashSeparatedUpperCase(string);
+			this.underscoreSeparatedLowerCase = Strings.formatUnderscoreSeparatedLowerCase(string);
+			this.underscoreSeparatedUpperCase = Strings.formatUnderscoreSeparatedUpperCase(string);
+			this.unseparatedLowerCase = Strings.formatUnseparatedLowerCase(string);
+			this.unseparatedUpperCase = Strings.formatUnseparatedUpperCase(string);
+		}
+		
+		////////////////////////////////////////////////////////////////////////////////////////////////////
+		
+		public String getCamelCase() {
+			return this.camelCase;
+		}
+		
+		public String getCamelCaseModified() {
+			return this.camelCaseModified;
+		}
+		
+		public String getDashSeparatedLowerCase() {
+			return this.dashSeparatedLowerCase;
+		}
+		
+		public String getDashSeparatedUpperCase() {
+			return this.dashSeparatedUpperCase;
+		}
+		
+		public String getString() {
+			return this.string;
+		}
+		
+		public String getUnderscoreSeparatedLowerCase() {
+			return this.underscoreSeparatedLowerCase;
+		}
+		
+		public String getUnderscoreSeparatedUpperCase() {
+			return this.underscoreSeparatedUpperCase;
+		}
+		
+		public String getUnseparatedLowerCase() {
+			return this.unseparatedLowerCase;
+		}
+		
+		public String getUnseparatedUpperCase() {
+			return this.unseparatedUpperCase;
+		}
+		
+		@Override
+		public String toString() {
+			return String.format("Names.valueOf(\"%s\")", this.string);
+		}
+		
+		@Override
+		public boolean equals(final Object object) {
+			if(object == this) {
+				return true;
+			} else if(!(object instanceof Name)) {
+				return false;
+			} else if(!Objects.equals(this.string, Name.class.cast(object).string)) {
+				return false;
+			} else {
+				return true;
+			}
+		}
+		
+		@Override
+		public int hashCode() {
+			return this.string.hashCode();
+		}
+	}
+}
\ No newline at end of file